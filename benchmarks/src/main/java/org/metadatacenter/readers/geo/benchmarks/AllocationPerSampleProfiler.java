@@ -0,0 +1,74 @@
+package org.metadatacenter.readers.geo.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Reports the bytes allocated per sample counted by {@link SampleCounter} in each iteration. Allocation is measured
+ * across all live threads, so it includes a small amount of harness allocation and misses allocation by threads that
+ * end during the iteration, such as the worker threads of a parallel extraction. Enable it with
+ * <tt>-prof org.metadatacenter.readers.geo.benchmarks.AllocationPerSampleProfiler</tt>.
+ */
+public class AllocationPerSampleProfiler implements InternalProfiler
+{
+  private final com.sun.management.ThreadMXBean threadMXBean;
+
+  private long allocatedBytesBefore;
+  private long extractedSamplesBefore;
+
+  public AllocationPerSampleProfiler()
+  {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean))
+      throw new UnsupportedOperationException("thread allocation counters are not available in this JVM");
+
+    this.threadMXBean = (com.sun.management.ThreadMXBean)threadMXBean;
+  }
+
+  @Override public String getDescription()
+  {
+    return "Bytes allocated per extracted sample";
+  }
+
+  @Override public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams)
+  {
+    this.extractedSamplesBefore = SampleCounter.extractedSamples.get();
+    this.allocatedBytesBefore = getAllocatedBytes();
+  }
+
+  @Override public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+    IterationParams iterationParams, IterationResult result)
+  {
+    long allocatedBytes = getAllocatedBytes() - this.allocatedBytesBefore;
+    long extractedSamples = SampleCounter.extractedSamples.get() - this.extractedSamplesBefore;
+
+    if (extractedSamples == 0)
+      return Collections.emptyList();
+    else
+      return Collections.singletonList(
+        new ScalarResult("alloc.per.sample", (double)allocatedBytes / extractedSamples, "B/sample",
+          AggregationPolicy.AVG));
+  }
+
+  private long getAllocatedBytes()
+  {
+    long allocatedBytes = 0;
+
+    for (long threadAllocatedBytes : this.threadMXBean.getThreadAllocatedBytes(this.threadMXBean.getAllThreadIds())) {
+      if (threadAllocatedBytes > 0)
+        allocatedBytes += threadAllocatedBytes;
+    }
+    return allocatedBytes;
+  }
+}
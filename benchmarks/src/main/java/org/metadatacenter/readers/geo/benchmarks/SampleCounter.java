@@ -0,0 +1,38 @@
+package org.metadatacenter.readers.geo.benchmarks;
+
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the series and samples extracted by a benchmark. JMH reports the counts as series/sec and samples/sec
+ * alongside the benchmark's own throughput, and {@link AllocationPerSampleProfiler} uses the sample count to report
+ * allocation per sample.
+ */
+@State(Scope.Thread) @AuxCounters(AuxCounters.Type.OPERATIONS) public class SampleCounter
+{
+  static final AtomicLong extractedSamples = new AtomicLong();
+
+  public long series;
+  public long samples;
+
+  @Setup(Level.Iteration) public void reset()
+  {
+    this.series = 0;
+    this.samples = 0;
+  }
+
+  public void count(GEOSubmissionMetadata geoSubmissionMetadata)
+  {
+    int numberOfSamples = geoSubmissionMetadata.getSamples().size();
+
+    this.series++;
+    this.samples += numberOfSamples;
+    extractedSamples.addAndGet(numberOfSamples);
+  }
+}
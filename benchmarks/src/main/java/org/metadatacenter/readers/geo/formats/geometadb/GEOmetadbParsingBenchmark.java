@@ -0,0 +1,48 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.metadata.Contributor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks of the parsers for the multi-valued string columns of the GEOmetadb tables. Run them with
+ * <tt>-prof gc</tt> to see allocation per call.
+ */
+@State(Scope.Thread) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.MICROSECONDS) @Fork(1)
+@Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2) public class GEOmetadbParsingBenchmark
+{
+  public Optional<String> rawCharacteristics = Optional
+    .of("tissue: liver; strain: C57BL/6; age: 12 weeks; time: 10:30; treatment: none; genotype: wild type");
+
+  public String contributors = "Jane,,Doe;\tJohn,A,Smith;\tWei,,Wang;\tMaria,L,Garcia";
+
+  public String types = "Expression profiling by array, Genome binding/occupancy profiling by array, Other";
+
+  @Benchmark public Map<String, List<String>> extractCharacteristics()
+  {
+    return GEOmetadbReader.extractCharacteristics(rawCharacteristics);
+  }
+
+  @Benchmark public List<Contributor> extractContributors()
+  {
+    return GEOmetadbReader.extractContributors(contributors);
+  }
+
+  @Benchmark public Set<String> extractTypes()
+  {
+    return GEOmetadbReader.extractTypes(types);
+  }
+}
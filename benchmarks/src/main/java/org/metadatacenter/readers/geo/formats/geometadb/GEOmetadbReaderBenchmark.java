@@ -0,0 +1,99 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.benchmarks.SampleCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end extraction of every series in a database generated by {@link GEOmetadbGenerator}.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Fork(1)
+@Warmup(iterations = 3, time = 5) @Measurement(iterations = 5, time = 5) public class GEOmetadbReaderBenchmark
+{
+  @Param({ "1000", "10000" }) public int numberOfSeries;
+
+  @Param({ "12" }) public double medianSamplesPerSeries;
+
+  @Param({ "200" }) public int numberOfPlatforms;
+
+  @Param({ "1.1" }) public double platformSkew;
+
+  @Param({ "1000" }) public int seriesChunkSize;
+
+  private File databaseFile;
+
+  @Setup(Level.Trial) public void createDatabase() throws IOException, GEOReaderException
+  {
+    GEOmetadbGenerator geometadbGenerator = new GEOmetadbGenerator(numberOfSeries, numberOfPlatforms);
+
+    geometadbGenerator.setSamplesPerSeriesDistribution(medianSamplesPerSeries,
+      GEOmetadbGenerator.DEFAULT_SAMPLES_PER_SERIES_SIGMA, GEOmetadbGenerator.DEFAULT_MAX_SAMPLES_PER_SERIES);
+    geometadbGenerator.setPlatformSkew(platformSkew);
+
+    this.databaseFile = File.createTempFile("GEOmetadb-benchmark", ".sqlite");
+    this.databaseFile.deleteOnExit();
+    geometadbGenerator.generate(this.databaseFile.getAbsolutePath());
+  }
+
+  @Benchmark public void extractAll(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOmetadbReader geometadbReader = new GEOmetadbReader(this.databaseFile.getAbsolutePath());
+
+    geometadbReader.setSeriesChunkSize(seriesChunkSize);
+    geometadbReader.extractAllGEOSubmissionsMetadata(sampleCounter::count);
+  }
+
+  @Benchmark public void extractAllDirectly(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOmetadbReader geometadbReader = new GEOmetadbReader(this.databaseFile.getAbsolutePath());
+
+    geometadbReader.setSeriesChunkSize(seriesChunkSize);
+    geometadbReader.setDirectScan(true);
+    geometadbReader.extractAllGEOSubmissionsMetadata(sampleCounter::count);
+  }
+
+  @Benchmark public void extractAllProjected(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOmetadbReader geometadbReader = new GEOmetadbReader(this.databaseFile.getAbsolutePath());
+
+    geometadbReader.setSeriesChunkSize(seriesChunkSize);
+    geometadbReader.setProjection(new GEOmetadbProjection(
+      EnumSet.of(GEOmetadbProjection.SampleField.ORGANISM, GEOmetadbProjection.SampleField.CHARACTERISTICS),
+      EnumSet.noneOf(GEOmetadbProjection.SeriesField.class), false));
+    geometadbReader.extractAllGEOSubmissionsMetadata(sampleCounter::count);
+  }
+
+  @Benchmark public void extractAllInParallel(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOmetadbReader geometadbReader = new GEOmetadbReader(this.databaseFile.getAbsolutePath());
+
+    geometadbReader.setSeriesChunkSize(seriesChunkSize);
+    geometadbReader.extractGEOSubmissionsMetadataInParallel(0, numberOfSeries,
+      Runtime.getRuntime().availableProcessors(), false, sampleCounter::count);
+  }
+
+  @Benchmark public void extractAllInPipeline(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOmetadbReader geometadbReader = new GEOmetadbReader(this.databaseFile.getAbsolutePath());
+
+    geometadbReader.setSeriesChunkSize(seriesChunkSize);
+    geometadbReader.extractGEOSubmissionsMetadataInPipeline(0, numberOfSeries,
+      Math.max(1, Runtime.getRuntime().availableProcessors() - 2), 16, sampleCounter::count);
+  }
+}
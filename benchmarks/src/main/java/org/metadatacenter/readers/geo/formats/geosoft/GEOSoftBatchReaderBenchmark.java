@@ -0,0 +1,61 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.benchmarks.SampleCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a batch made of several copies of the example GEO SOFT spreadsheets in <tt>examples/geosoft</tt>, to show
+ * how the time to read a batch falls with the number of threads.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS) @Fork(1)
+@Warmup(iterations = 3, time = 5) @Measurement(iterations = 5, time = 5) public class GEOSoftBatchReaderBenchmark
+{
+  private static final String DEFAULT_EXAMPLES_DIRECTORY = "../examples/geosoft";
+
+  @Param({ "1", "2", "4", "8" }) public int numberOfThreads;
+
+  @Param({ "10" }) public int copies;
+
+  private final List<String> spreadsheetFileNames = new ArrayList<>();
+
+  @Setup(Level.Trial) public void findSpreadsheets()
+  {
+    File examplesDirectory = new File(
+      System.getProperty(GEOSoftReaderBenchmark.EXAMPLES_DIRECTORY_PROPERTY, DEFAULT_EXAMPLES_DIRECTORY));
+    File[] spreadsheetFiles = examplesDirectory.listFiles((directory, name) -> name.endsWith(".xls"));
+
+    if (spreadsheetFiles == null || spreadsheetFiles.length == 0)
+      throw new IllegalStateException("no spreadsheets in " + examplesDirectory + "; set "
+        + GEOSoftReaderBenchmark.EXAMPLES_DIRECTORY_PROPERTY + " to the examples directory");
+
+    for (int copy = 0; copy < copies; copy++) {
+      for (File spreadsheetFile : spreadsheetFiles)
+        this.spreadsheetFileNames.add(spreadsheetFile.getAbsolutePath());
+    }
+  }
+
+  @Benchmark public void extractGEOSubmissionsMetadata(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOSoftBatchReader geoSoftBatchReader = new GEOSoftBatchReader(numberOfThreads);
+
+    for (GEOSoftBatchResult result : geoSoftBatchReader.extractGEOSubmissionsMetadata(this.spreadsheetFileNames))
+      result.getGEOSubmissionMetadata().ifPresent(sampleCounter::count);
+  }
+}
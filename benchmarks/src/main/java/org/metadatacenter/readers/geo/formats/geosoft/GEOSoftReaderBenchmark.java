@@ -0,0 +1,63 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.benchmarks.SampleCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the example GEO SOFT spreadsheets in <tt>examples/geosoft</tt>. The directory can be changed with the
+ * <tt>geosoft.examples.dir</tt> system property; by default it is looked up relative to the benchmarks directory.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Fork(1)
+@Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2) public class GEOSoftReaderBenchmark
+{
+  public static final String EXAMPLES_DIRECTORY_PROPERTY = "geosoft.examples.dir";
+
+  private static final String DEFAULT_EXAMPLES_DIRECTORY = "../examples/geosoft";
+
+  @Param({ "GA_affy.xls", "GA_single_ch.xls", "GA_illumina_expression.xls", "GA_NG_genex.xls",
+    "GA_RT-PCR.xls" }) public String spreadsheetName;
+
+  private String spreadsheetFileName;
+
+  @Setup(Level.Trial) public void findSpreadsheet()
+  {
+    File spreadsheetFile = new File(System.getProperty(EXAMPLES_DIRECTORY_PROPERTY, DEFAULT_EXAMPLES_DIRECTORY),
+      spreadsheetName);
+
+    if (!spreadsheetFile.isFile())
+      throw new IllegalStateException(
+        "no spreadsheet " + spreadsheetFile + "; set " + EXAMPLES_DIRECTORY_PROPERTY + " to the examples directory");
+
+    this.spreadsheetFileName = spreadsheetFile.getAbsolutePath();
+  }
+
+  @Benchmark public void extractGEOSubmissionMetadata(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOSoftReader geoSoftReader = new GEOSoftReader(this.spreadsheetFileName);
+
+    sampleCounter.count(geoSoftReader.extractGEOSubmissionMetadata());
+  }
+
+  @Benchmark public void extractGEOSubmissionMetadataStreaming(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    GEOSoftReader geoSoftReader = new GEOSoftReader(this.spreadsheetFileName);
+
+    geoSoftReader.setStreaming(true);
+    sampleCounter.count(geoSoftReader.extractGEOSubmissionMetadata());
+  }
+}
@@ -0,0 +1,61 @@
+package org.metadatacenter.readers.geo.formats.snapshot;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.benchmarks.SampleCounter;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbGenerator;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloading every submission from a snapshot of a database generated by {@link GEOmetadbGenerator}.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Fork(1)
+@Warmup(iterations = 3, time = 5) @Measurement(iterations = 5, time = 5) public class GEOSnapshotReaderBenchmark
+{
+  @Param({ "1000", "10000" }) public int numberOfSeries;
+
+  @Param({ "12" }) public double medianSamplesPerSeries;
+
+  @Param({ "200" }) public int numberOfPlatforms;
+
+  private File snapshotFile;
+
+  @Setup(Level.Trial) public void createSnapshot() throws IOException, GEOReaderException
+  {
+    GEOmetadbGenerator geometadbGenerator = new GEOmetadbGenerator(numberOfSeries, numberOfPlatforms);
+    File databaseFile = File.createTempFile("GEOmetadb-benchmark", ".sqlite");
+
+    databaseFile.deleteOnExit();
+    geometadbGenerator.setSamplesPerSeriesDistribution(medianSamplesPerSeries,
+      GEOmetadbGenerator.DEFAULT_SAMPLES_PER_SERIES_SIGMA, GEOmetadbGenerator.DEFAULT_MAX_SAMPLES_PER_SERIES);
+    geometadbGenerator.generate(databaseFile.getAbsolutePath());
+
+    this.snapshotFile = File.createTempFile("GEOmetadb-benchmark", ".snapshot");
+    this.snapshotFile.deleteOnExit();
+    try (GEOSnapshotWriter snapshotWriter = new GEOSnapshotWriter(this.snapshotFile.getAbsolutePath())) {
+      new GEOmetadbReader(databaseFile.getAbsolutePath()).extractAllGEOSubmissionsMetadata(snapshotWriter);
+    }
+  }
+
+  @Benchmark public void readAll(SampleCounter sampleCounter) throws GEOReaderException
+  {
+    try (GEOSnapshotReader snapshotReader = new GEOSnapshotReader(this.snapshotFile.getAbsolutePath())) {
+      snapshotReader.extractAllGEOSubmissionsMetadata(sampleCounter::count);
+    }
+  }
+}
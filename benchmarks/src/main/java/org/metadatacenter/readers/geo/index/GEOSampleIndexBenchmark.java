@@ -0,0 +1,80 @@
+package org.metadatacenter.readers.geo.index;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbGenerator;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.metadatacenter.readers.geo.index.GEOSampleQuery.and;
+import static org.metadatacenter.readers.geo.index.GEOSampleQuery.characteristic;
+import static org.metadatacenter.readers.geo.index.GEOSampleQuery.not;
+import static org.metadatacenter.readers.geo.index.GEOSampleQuery.or;
+import static org.metadatacenter.readers.geo.index.GEOSampleQuery.organism;
+import static org.metadatacenter.readers.geo.index.GEOSampleQuery.platform;
+
+/**
+ * Boolean queries over an index of a database generated by {@link GEOmetadbGenerator}.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS) @Fork(1)
+@Warmup(iterations = 3, time = 5) @Measurement(iterations = 5, time = 5) public class GEOSampleIndexBenchmark
+{
+  @Param({ "10000", "50000" }) public int numberOfSeries;
+
+  @Param({ "200" }) public int numberOfPlatforms;
+
+  private GEOSampleIndex index;
+  private GEOSampleQuery conjunction;
+  private GEOSampleQuery disjunction;
+  private GEOSampleQuery exclusion;
+
+  @Setup(Level.Trial) public void createIndex() throws IOException, GEOReaderException
+  {
+    GEOmetadbGenerator geometadbGenerator = new GEOmetadbGenerator(numberOfSeries, numberOfPlatforms);
+    File databaseFile = File.createTempFile("GEOmetadb-benchmark", ".sqlite");
+
+    databaseFile.deleteOnExit();
+    geometadbGenerator.generate(databaseFile.getAbsolutePath());
+
+    this.index = new GEOSampleIndex();
+    new GEOmetadbReader(databaseFile.getAbsolutePath()).extractAllGEOSubmissionsMetadata(this.index);
+    this.index.optimize();
+
+    String organism = this.index.getOrganisms().iterator().next();
+    String gpl = this.index.getPlatforms().iterator().next();
+    String characteristicName = this.index.getCharacteristicNames().iterator().next();
+
+    this.conjunction = and(organism(organism), platform(gpl), characteristic(characteristicName));
+    this.disjunction = or(organism(organism), platform(gpl));
+    this.exclusion = and(characteristic(characteristicName), not(organism(organism)));
+  }
+
+  @Benchmark public int conjunction()
+  {
+    return this.index.count(this.conjunction);
+  }
+
+  @Benchmark public int disjunction()
+  {
+    return this.index.count(this.disjunction);
+  }
+
+  @Benchmark public int exclusion()
+  {
+    return this.index.count(this.exclusion);
+  }
+}
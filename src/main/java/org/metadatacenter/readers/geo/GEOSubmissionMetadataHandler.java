@@ -0,0 +1,12 @@
+package org.metadatacenter.readers.geo;
+
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+
+/**
+ * Receives {@link GEOSubmissionMetadata} instances one at a time as a reader assembles them, so that callers can
+ * process large numbers of submissions without holding all of them in memory.
+ */
+public interface GEOSubmissionMetadataHandler
+{
+  void handle(GEOSubmissionMetadata geoSubmissionMetadata) throws GEOReaderException;
+}
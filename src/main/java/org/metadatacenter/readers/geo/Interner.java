@@ -0,0 +1,39 @@
+package org.metadatacenter.readers.geo;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Maps equal values to a single canonical instance. Canonical instances are only weakly referenced, so an interner
+ * does not keep values alive once nothing else refers to them.
+ *
+ * @param <T> The type of value to intern, which must have value-based {@link Object#equals(Object)} and
+ *            {@link Object#hashCode()} methods
+ */
+public class Interner<T>
+{
+  private final Map<T, WeakReference<T>> canonicalValues = new WeakHashMap<>();
+
+  /**
+   * @param value The value to intern
+   * @return The canonical instance equal to the value; this is the value itself if no equal value was interned
+   */
+  public synchronized T intern(T value)
+  {
+    WeakReference<T> canonicalValueReference = this.canonicalValues.get(value);
+    T canonicalValue = canonicalValueReference != null ? canonicalValueReference.get() : null;
+
+    if (canonicalValue != null)
+      return canonicalValue;
+    else {
+      this.canonicalValues.put(value, new WeakReference<>(value));
+      return value;
+    }
+  }
+
+  public synchronized int size()
+  {
+    return this.canonicalValues.size();
+  }
+}
@@ -0,0 +1,71 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.Collections;
+import java.util.SortedSet;
+
+/**
+ * The series that were added, changed or removed in a GEOmetadb database since a {@link GEOmetadbWatermark}, as
+ * found by an incremental extraction.
+ * <p>
+ * A series is changed if its GSE row, one of its GSM rows or the GPL row of one of its samples was updated on or after
+ * the watermark date. Removed series are only known if the watermark holds the series IDs of the previous extraction.
+ */
+public class GEOmetadbChangeReport
+{
+  private final SortedSet<String> addedSeriesIDs;
+  private final SortedSet<String> changedSeriesIDs;
+  private final SortedSet<String> removedSeriesIDs;
+  private final boolean removedSeriesKnown;
+  private final GEOmetadbWatermark nextWatermark;
+
+  public GEOmetadbChangeReport(SortedSet<String> addedSeriesIDs, SortedSet<String> changedSeriesIDs,
+    SortedSet<String> removedSeriesIDs, boolean removedSeriesKnown, GEOmetadbWatermark nextWatermark)
+  {
+    this.addedSeriesIDs = Collections.unmodifiableSortedSet(addedSeriesIDs);
+    this.changedSeriesIDs = Collections.unmodifiableSortedSet(changedSeriesIDs);
+    this.removedSeriesIDs = Collections.unmodifiableSortedSet(removedSeriesIDs);
+    this.removedSeriesKnown = removedSeriesKnown;
+    this.nextWatermark = nextWatermark;
+  }
+
+  public SortedSet<String> getAddedSeriesIDs()
+  {
+    return addedSeriesIDs;
+  }
+
+  public SortedSet<String> getChangedSeriesIDs()
+  {
+    return changedSeriesIDs;
+  }
+
+  /**
+   * @return The removed series, which is empty if {@link #isRemovedSeriesKnown()} is false
+   */
+  public SortedSet<String> getRemovedSeriesIDs()
+  {
+    return removedSeriesIDs;
+  }
+
+  public boolean isRemovedSeriesKnown()
+  {
+    return removedSeriesKnown;
+  }
+
+  /**
+   * @return The watermark to pass to the next incremental extraction
+   */
+  public GEOmetadbWatermark getNextWatermark()
+  {
+    return nextWatermark;
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbChangeReport{" +
+      "added=" + addedSeriesIDs.size() +
+      ", changed=" + changedSeriesIDs.size() +
+      ", removed=" + (removedSeriesKnown ? Integer.toString(removedSeriesIDs.size()) : "unknown") +
+      ", nextWatermark=" + nextWatermark +
+      '}';
+  }
+}
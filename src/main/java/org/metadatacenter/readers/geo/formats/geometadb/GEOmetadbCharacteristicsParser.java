@@ -0,0 +1,86 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the characteristics columns of the GEOmetadb GSM table, which have the form
+ * <tt>name1: value1; name2: value2; ...</tt>.
+ * <p>
+ * The string is scanned once without regular expressions or intermediate arrays. A name ends at the first colon in
+ * its entry, so values may themselves contain colons (e.g., <tt>time: 10:30</tt>). Names and values are trimmed, and
+ * entries with no colon, an empty name or an empty value are skipped. If a name is repeated its distinct values are
+ * kept in the order in which they appear, so <tt>tissue: liver, kidney; tissue: kidney</tt> gives the two values
+ * <tt>liver, kidney</tt> and <tt>kidney</tt>.
+ */
+public class GEOmetadbCharacteristicsParser
+{
+  public static final char ENTRY_SEPARATOR = ';';
+  public static final char NAME_VALUE_SEPARATOR = ':';
+
+  private GEOmetadbCharacteristicsParser()
+  {
+  }
+
+  /**
+   * @param rawCharacteristics The characteristics string, which may be null
+   * @param characteristics    The map to add (characteristic name -> [characteristic value]) entries to; it is not
+   *                           cleared first, so callers can reuse a map or collect several strings into one map
+   */
+  public static void parse(String rawCharacteristics, Map<String, List<String>> characteristics)
+  {
+    if (rawCharacteristics == null)
+      return;
+
+    int length = rawCharacteristics.length();
+    int entryStart = 0;
+
+    while (entryStart < length) {
+      int nameValueSeparator = -1;
+      int entryEnd = entryStart;
+
+      for (; entryEnd < length; entryEnd++) {
+        char c = rawCharacteristics.charAt(entryEnd);
+        if (c == ENTRY_SEPARATOR)
+          break;
+        else if (c == NAME_VALUE_SEPARATOR && nameValueSeparator == -1)
+          nameValueSeparator = entryEnd;
+      }
+
+      if (nameValueSeparator != -1) {
+        String name = trimmedSubstring(rawCharacteristics, entryStart, nameValueSeparator);
+        String value = trimmedSubstring(rawCharacteristics, nameValueSeparator + 1, entryEnd);
+
+        if (!name.isEmpty() && !value.isEmpty())
+          addValue(name, value, characteristics);
+      }
+      entryStart = entryEnd + 1;
+    }
+  }
+
+  private static void addValue(String name, String value, Map<String, List<String>> characteristics)
+  {
+    List<String> values = characteristics.get(name);
+
+    if (values == null) {
+      values = new ArrayList<>(1); // Most names have one value
+      characteristics.put(name, values);
+    }
+    if (!values.contains(value))
+      values.add(value);
+  }
+
+  /**
+   * Equivalent to <tt>s.substring(start, end).trim()</tt> but creates at most one string.
+   */
+  private static String trimmedSubstring(String s, int start, int end)
+  {
+    while (start < end && s.charAt(start) <= ' ')
+      start++;
+    while (end > start && s.charAt(end - 1) <= ' ')
+      end--;
+
+    return s.substring(start, end);
+  }
+}
@@ -0,0 +1,255 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * The progress of a resumable extraction started with
+ * {@link GEOmetadbReader#extractResumableGEOSubmissionsMetadata(int, int, String, Optional,
+ * org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler)}.
+ * <p>
+ * A checkpoint records the requested range of series, the index and GSE of the next series to extract, the number of
+ * quarantined series and the GPLs in the platform cache. It is stored as a properties file. The GPLs, which change
+ * far less often than the rest of the checkpoint, are stored one per line in a file next to it whose name has the
+ * suffix {@link #CACHED_PLATFORM_IDS_FILE_SUFFIX}, so that they are only rewritten when they change.
+ */
+public class GEOmetadbCheckpoint
+{
+  /**
+   * The suffix of the name of the file holding a checkpoint's cached GPLs
+   */
+  public static final String CACHED_PLATFORM_IDS_FILE_SUFFIX = ".platforms";
+
+  private static final String START_SERIES_INDEX_PROPERTY = "startSeriesIndex";
+  private static final String NUMBER_OF_SERIES_PROPERTY = "numberOfSeries";
+  private static final String NEXT_SERIES_INDEX_PROPERTY = "nextSeriesIndex";
+  private static final String LAST_SERIES_ID_PROPERTY = "lastSeriesID";
+  private static final String NUMBER_OF_QUARANTINED_SERIES_PROPERTY = "numberOfQuarantinedSeries";
+  private static final String CACHED_PLATFORM_IDS_PROPERTY = "cachedPlatformIDs";
+  private static final String COMPLETE_PROPERTY = "complete";
+
+  private final int startSeriesIndex;
+  private final int numberOfSeries;
+  private final int nextSeriesIndex;
+  private final String lastSeriesID;
+  private final int numberOfQuarantinedSeries;
+  private final List<String> cachedPlatformIDs;
+  private final boolean complete;
+
+  /**
+   * @param startSeriesIndex          Index of the first series of the extraction
+   * @param numberOfSeries            The number of series requested
+   * @param nextSeriesIndex           Index of the next series to extract
+   * @param lastSeriesID              The GSE of the last series extracted, or an empty string if none was
+   * @param numberOfQuarantinedSeries The number of series quarantined so far
+   * @param cachedPlatformIDs         The GPLs in the platform cache, from least to most recently used
+   * @param complete                  True if the whole range has been extracted
+   */
+  public GEOmetadbCheckpoint(int startSeriesIndex, int numberOfSeries, int nextSeriesIndex, String lastSeriesID,
+    int numberOfQuarantinedSeries, List<String> cachedPlatformIDs, boolean complete)
+  {
+    this.startSeriesIndex = startSeriesIndex;
+    this.numberOfSeries = numberOfSeries;
+    this.nextSeriesIndex = nextSeriesIndex;
+    this.lastSeriesID = lastSeriesID;
+    this.numberOfQuarantinedSeries = numberOfQuarantinedSeries;
+    this.cachedPlatformIDs = Collections.unmodifiableList(new ArrayList<>(cachedPlatformIDs));
+    this.complete = complete;
+  }
+
+  public int getStartSeriesIndex()
+  {
+    return startSeriesIndex;
+  }
+
+  public int getNumberOfSeries()
+  {
+    return numberOfSeries;
+  }
+
+  public int getNextSeriesIndex()
+  {
+    return nextSeriesIndex;
+  }
+
+  public String getLastSeriesID()
+  {
+    return lastSeriesID;
+  }
+
+  public int getNumberOfQuarantinedSeries()
+  {
+    return numberOfQuarantinedSeries;
+  }
+
+  public List<String> getCachedPlatformIDs()
+  {
+    return cachedPlatformIDs;
+  }
+
+  public boolean isComplete()
+  {
+    return complete;
+  }
+
+  /**
+   * @return The number of series in the requested range that remain to be extracted
+   */
+  public int getRemainingNumberOfSeries()
+  {
+    return this.complete ? 0 : this.numberOfSeries - (this.nextSeriesIndex - this.startSeriesIndex);
+  }
+
+  /**
+   * @param fileName A checkpoint file
+   * @return The checkpoint in the file, or nothing if the file does not exist
+   */
+  public static Optional<GEOmetadbCheckpoint> read(String fileName) throws GEOReaderException
+  {
+    Path path = Paths.get(fileName);
+
+    if (!Files.exists(path))
+      return Optional.empty();
+
+    Properties properties = new Properties();
+
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new GEOReaderException("error reading checkpoint file " + fileName + ": " + e.getMessage(), e);
+    }
+
+    List<String> cachedPlatformIDs = readCachedPlatformIDs(fileName, properties);
+
+    return Optional.of(new GEOmetadbCheckpoint(getIntProperty(properties, START_SERIES_INDEX_PROPERTY, fileName),
+      getIntProperty(properties, NUMBER_OF_SERIES_PROPERTY, fileName),
+      getIntProperty(properties, NEXT_SERIES_INDEX_PROPERTY, fileName),
+      properties.getProperty(LAST_SERIES_ID_PROPERTY, ""),
+      getIntProperty(properties, NUMBER_OF_QUARANTINED_SERIES_PROPERTY, fileName),
+      cachedPlatformIDs,
+      Boolean.parseBoolean(properties.getProperty(COMPLETE_PROPERTY, "false"))));
+  }
+
+  /**
+   * Write the checkpoint and its cached GPLs. The files are replaced atomically where the file system allows it, so an
+   * interrupted write leaves the previous checkpoint in place.
+   */
+  public void write(String fileName) throws GEOReaderException
+  {
+    Path path = Paths.get(fileName + CACHED_PLATFORM_IDS_FILE_SUFFIX).toAbsolutePath();
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try {
+      Files.write(temporaryPath, this.cachedPlatformIDs, StandardCharsets.UTF_8);
+      replace(temporaryPath, path);
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing checkpoint file " + path + ": " + e.getMessage(), e);
+    }
+    writeProgress(fileName);
+  }
+
+  /**
+   * Write the checkpoint but not its cached GPLs, for when they are the ones that were last written to the file
+   */
+  public void writeProgress(String fileName) throws GEOReaderException
+  {
+    Properties properties = new Properties();
+    Path path = Paths.get(fileName).toAbsolutePath();
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+    properties.setProperty(START_SERIES_INDEX_PROPERTY, Integer.toString(this.startSeriesIndex));
+    properties.setProperty(NUMBER_OF_SERIES_PROPERTY, Integer.toString(this.numberOfSeries));
+    properties.setProperty(NEXT_SERIES_INDEX_PROPERTY, Integer.toString(this.nextSeriesIndex));
+    properties.setProperty(LAST_SERIES_ID_PROPERTY, this.lastSeriesID);
+    properties.setProperty(NUMBER_OF_QUARANTINED_SERIES_PROPERTY, Integer.toString(this.numberOfQuarantinedSeries));
+    properties.setProperty(COMPLETE_PROPERTY, Boolean.toString(this.complete));
+
+    try {
+      try (Writer writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+        properties.store(writer, "GEOmetadb extraction checkpoint");
+      }
+      replace(temporaryPath, path);
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing checkpoint file " + fileName + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return The GPLs in the checkpoint's GPL file or, for a checkpoint written before they were kept in their own
+   * file, in its properties
+   */
+  private static List<String> readCachedPlatformIDs(String fileName, Properties properties)
+    throws GEOReaderException
+  {
+    Path path = Paths.get(fileName + CACHED_PLATFORM_IDS_FILE_SUFFIX);
+
+    if (Files.exists(path)) {
+      try {
+        List<String> cachedPlatformIDs = new ArrayList<>();
+
+        for (String gpl : Files.readAllLines(path, StandardCharsets.UTF_8))
+          if (!gpl.isEmpty())
+            cachedPlatformIDs.add(gpl);
+
+        return cachedPlatformIDs;
+      } catch (IOException e) {
+        throw new GEOReaderException("error reading checkpoint file " + path + ": " + e.getMessage(), e);
+      }
+    }
+
+    String cachedPlatformIDs = properties.getProperty(CACHED_PLATFORM_IDS_PROPERTY, "");
+
+    return cachedPlatformIDs.isEmpty() ? Collections.emptyList() : Arrays.asList(cachedPlatformIDs.split(","));
+  }
+
+  private static void replace(Path temporaryPath, Path path) throws IOException
+  {
+    try {
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static int getIntProperty(Properties properties, String propertyName, String fileName)
+    throws GEOReaderException
+  {
+    String value = properties.getProperty(propertyName);
+
+    if (value == null)
+      throw new GEOReaderException("no " + propertyName + " in checkpoint file " + fileName);
+
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new GEOReaderException("invalid " + propertyName + " " + value + " in checkpoint file " + fileName);
+    }
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbCheckpoint{" +
+      "startSeriesIndex=" + startSeriesIndex +
+      ", numberOfSeries=" + numberOfSeries +
+      ", nextSeriesIndex=" + nextSeriesIndex +
+      ", lastSeriesID='" + lastSeriesID + '\'' +
+      ", numberOfQuarantinedSeries=" + numberOfQuarantinedSeries +
+      ", numberOfCachedPlatforms=" + cachedPlatformIDs.size() +
+      ", complete=" + complete +
+      '}';
+  }
+}
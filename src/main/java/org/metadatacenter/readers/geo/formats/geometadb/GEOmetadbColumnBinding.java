@@ -0,0 +1,114 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The columns that a query selects from a GEOmetadb table, bound to their ordinals in the query's result set.
+ * <p>
+ * A row is read into an array indexed by the position of each column in the table's column list in
+ * {@link GEOmetadbNames}, so its values are found by fixed position rather than by name. The query selects
+ * {@link #getSelectList()}, which lists the columns in the order of their ordinals, so no column has to be looked up
+ * by name in the result set.
+ */
+final class GEOmetadbColumnBinding
+{
+  private final String[] tableColumnNames;
+  private final int[] columns; // Positions in tableColumnNames of the selected columns; column i has ordinal i + 1
+  private final boolean[] selectedColumns; // Indexed by position in tableColumnNames
+  private final String selectList;
+
+  /**
+   * @param tableColumnNames All columns of the table
+   * @param columns          The positions in tableColumnNames of the selected columns, in select-list order
+   */
+  GEOmetadbColumnBinding(String[] tableColumnNames, int[] columns)
+  {
+    this.tableColumnNames = tableColumnNames;
+    this.columns = columns.clone();
+    this.selectedColumns = new boolean[tableColumnNames.length];
+
+    StringBuilder selectList = new StringBuilder();
+
+    for (int column : this.columns) {
+      if (selectList.length() != 0)
+        selectList.append(", ");
+      selectList.append(tableColumnNames[column]);
+      this.selectedColumns[column] = true;
+    }
+    this.selectList = selectList.toString();
+  }
+
+  /**
+   * @return A binding of every column of the table
+   */
+  static GEOmetadbColumnBinding all(String[] tableColumnNames)
+  {
+    int[] columns = new int[tableColumnNames.length];
+
+    for (int column = 0; column < columns.length; column++)
+      columns[column] = column;
+
+    return new GEOmetadbColumnBinding(tableColumnNames, columns);
+  }
+
+  /**
+   * @return The selected column names separated by commas, for the select list of a query
+   */
+  String getSelectList()
+  {
+    return this.selectList;
+  }
+
+  /**
+   * @return The positions in the table's column list of the selected columns
+   */
+  int[] getColumns()
+  {
+    return this.columns;
+  }
+
+  /**
+   * @param column A position in the table's column list
+   */
+  boolean selects(int column)
+  {
+    return this.selectedColumns[column];
+  }
+
+  /**
+   * @param rs A result set of a query that selects {@link #getSelectList()}, positioned at a row
+   * @return The row's values indexed by position in the table's column list, with null for empty values and for
+   * columns that are not selected
+   */
+  String[] read(ResultSet rs) throws SQLException
+  {
+    String[] row = new String[this.tableColumnNames.length];
+
+    for (int i = 0; i < this.columns.length; i++) {
+      String value = rs.getString(i + 1);
+      if (value != null && !value.isEmpty())
+        row[this.columns[i]] = value.trim();
+    }
+    return row;
+  }
+
+  /**
+   * @param scanner       A scanner positioned at a row of the table
+   * @param columnIndexes The position in the record of each column in the table's column list
+   * @return The row's values as for {@link #read(ResultSet)}
+   */
+  String[] read(GEOmetadbTableScanner scanner, int[] columnIndexes) throws GEOReaderException
+  {
+    String[] row = new String[this.tableColumnNames.length];
+
+    for (int column : this.columns) {
+      String value = scanner.getString(columnIndexes[column]);
+      if (value != null && !value.isEmpty())
+        row[column] = value.trim();
+    }
+    return row;
+  }
+}
@@ -0,0 +1,67 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+/**
+ * A problem found in a GEOmetadb row by a lenient {@link GEOmetadbReader}, which either skips the record or fills in
+ * the missing part and continues.
+ */
+public class GEOmetadbDiagnostic
+{
+  public enum Reason
+  {
+    MISSING_REQUIRED_VALUE, MISSING_ROW, DUPLICATE_ROW
+  }
+
+  private final String tableName;
+  private final String key;
+  private final String columnName;
+  private final Reason reason;
+  private final boolean skipped;
+
+  /**
+   * @param tableName  The table containing the row
+   * @param key        The GSE, GSM or GPL of the row, or a row number if the key itself is missing
+   * @param columnName The column with the problem, or an empty string if the problem concerns the whole row
+   * @param reason     The problem
+   * @param skipped    True if the record was skipped, false if it was kept with empty values filled in
+   */
+  public GEOmetadbDiagnostic(String tableName, String key, String columnName, Reason reason, boolean skipped)
+  {
+    this.tableName = tableName;
+    this.key = key;
+    this.columnName = columnName;
+    this.reason = reason;
+    this.skipped = skipped;
+  }
+
+  public String getTableName()
+  {
+    return tableName;
+  }
+
+  public String getKey()
+  {
+    return key;
+  }
+
+  public String getColumnName()
+  {
+    return columnName;
+  }
+
+  public Reason getReason()
+  {
+    return reason;
+  }
+
+  public boolean isSkipped()
+  {
+    return skipped;
+  }
+
+  @Override public String toString()
+  {
+    return tableName + " " + key + (columnName.isEmpty() ? "" : " " + columnName) + ": " + reason + (skipped ?
+      " (skipped)" :
+      " (filled)");
+  }
+}
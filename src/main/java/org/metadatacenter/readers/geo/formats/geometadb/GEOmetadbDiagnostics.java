@@ -0,0 +1,102 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe report of the {@link GEOmetadbDiagnostic}s found by a lenient {@link GEOmetadbReader}.
+ * <p>
+ * Only the first diagnostics, up to a maximum number, are retained; every diagnostic is counted by table and reason,
+ * so the report stays small however many rows are malformed.
+ */
+public class GEOmetadbDiagnostics
+{
+  public static final int DEFAULT_MAXIMUM_NUMBER_OF_DIAGNOSTICS = 1000;
+
+  private final int maximumNumberOfDiagnostics;
+  private final List<GEOmetadbDiagnostic> diagnostics = new ArrayList<>();
+  private final Map<String, Long> counts = new LinkedHashMap<>(); // "table reason" -> count
+
+  private long numberOfDiagnostics = 0;
+  private long numberOfSkippedRecords = 0;
+
+  public GEOmetadbDiagnostics(int maximumNumberOfDiagnostics)
+  {
+    if (maximumNumberOfDiagnostics < 0)
+      throw new IllegalArgumentException(
+        "maximum number of diagnostics must not be negative; got " + maximumNumberOfDiagnostics);
+
+    this.maximumNumberOfDiagnostics = maximumNumberOfDiagnostics;
+  }
+
+  public synchronized void add(GEOmetadbDiagnostic diagnostic)
+  {
+    if (this.diagnostics.size() < this.maximumNumberOfDiagnostics)
+      this.diagnostics.add(diagnostic);
+
+    this.counts.merge(diagnostic.getTableName() + " " + diagnostic.getReason(), 1L, Long::sum);
+    this.numberOfDiagnostics++;
+    if (diagnostic.isSkipped())
+      this.numberOfSkippedRecords++;
+  }
+
+  /**
+   * @return The retained diagnostics, in the order they were found
+   */
+  public synchronized List<GEOmetadbDiagnostic> getDiagnostics()
+  {
+    return Collections.unmodifiableList(new ArrayList<>(this.diagnostics));
+  }
+
+  /**
+   * @return The number of diagnostics for each table and reason, keyed by table name and reason separated by a space
+   */
+  public synchronized Map<String, Long> getCounts()
+  {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(this.counts));
+  }
+
+  public int getMaximumNumberOfDiagnostics()
+  {
+    return this.maximumNumberOfDiagnostics;
+  }
+
+  /**
+   * @return The number of diagnostics found, including those that were not retained
+   */
+  public synchronized long getNumberOfDiagnostics()
+  {
+    return this.numberOfDiagnostics;
+  }
+
+  public synchronized long getNumberOfSkippedRecords()
+  {
+    return this.numberOfSkippedRecords;
+  }
+
+  public synchronized boolean isEmpty()
+  {
+    return this.numberOfDiagnostics == 0;
+  }
+
+  public synchronized void clear()
+  {
+    this.diagnostics.clear();
+    this.counts.clear();
+    this.numberOfDiagnostics = 0;
+    this.numberOfSkippedRecords = 0;
+  }
+
+  @Override public synchronized String toString()
+  {
+    return "GEOmetadbDiagnostics{" +
+      "diagnostics=" + numberOfDiagnostics +
+      ", retained=" + diagnostics.size() +
+      ", skippedRecords=" + numberOfSkippedRecords +
+      ", counts=" + counts +
+      '}';
+  }
+}
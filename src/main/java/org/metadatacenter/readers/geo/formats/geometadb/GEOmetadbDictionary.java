@@ -0,0 +1,109 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe dictionary that encodes values of low-cardinality GEOmetadb columns, such as organism, molecule, label,
+ * type, status, technology and distribution, as small integer codes.
+ * <p>
+ * Codes are assigned in the order in which values are first seen, starting at 0, and never change. Each value has one
+ * canonical instance, so values read through the same dictionary can be compared by code or by reference. A single
+ * dictionary is used for all encoded columns, so, for example, a sample organism and a platform organism with the same
+ * value have the same code.
+ * <p>
+ * A dictionary is owned by a {@link GEOmetadbReader} and can be passed to several readers so that their codes agree.
+ */
+public class GEOmetadbDictionary
+{
+  /**
+   * The code of a missing value
+   */
+  public static final int NO_CODE = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Map<String, Integer> codes = new ConcurrentHashMap<>(); // value -> code
+  // Code -> canonical value, grown by doubling under the lock. A value is stored before size is increased past its
+  // code and a grown array is a copy of the full one, so a reader that reads size and then values sees every value
+  // with a code less than size.
+  private volatile String[] values = new String[INITIAL_CAPACITY];
+  private volatile int size = 0;
+
+  /**
+   * @param value A value, which may be null
+   * @return The value's code, which is assigned if the value has not been seen before, or {@link #NO_CODE} for null
+   */
+  public int encode(String value)
+  {
+    if (value == null)
+      return NO_CODE;
+
+    Integer code = this.codes.get(value);
+
+    return code != null ? code : addValue(value);
+  }
+
+  /**
+   * @param value A value, which may be null
+   * @return The value's code, or {@link #NO_CODE} if the value is null or has not been encoded
+   */
+  public int getCode(String value)
+  {
+    if (value == null)
+      return NO_CODE;
+
+    Integer code = this.codes.get(value);
+
+    return code != null ? code : NO_CODE;
+  }
+
+  /**
+   * @param code A code returned by this dictionary, or {@link #NO_CODE}
+   * @return The canonical value with the code, or null for {@link #NO_CODE}
+   */
+  public String decode(int code)
+  {
+    if (code == NO_CODE)
+      return null;
+    else if (code < 0 || code >= this.size)
+      throw new IllegalArgumentException("unknown dictionary code " + code);
+    else
+      return this.values[code];
+  }
+
+  /**
+   * @param value A value, which may be null
+   * @return The canonical instance of the value, which is added to the dictionary if it has not been seen before
+   */
+  public String canonicalize(String value)
+  {
+    return decode(encode(value));
+  }
+
+  public int size()
+  {
+    return this.size;
+  }
+
+  private synchronized int addValue(String value)
+  {
+    Integer code = this.codes.get(value);
+
+    if (code == null) {
+      code = this.size;
+      if (code == this.values.length)
+        this.values = Arrays.copyOf(this.values, 2 * code);
+      this.values[code] = value;
+      this.size = code + 1;
+      this.codes.put(value, code);
+    }
+    return code;
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbDictionary{" + "size=" + size + '}';
+  }
+}
@@ -0,0 +1,49 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+/**
+ * Generates a synthetic GEOmetadb database using the {@link GEOmetadbGenerator} class.
+ */
+public class GEOmetadbGenerate
+{
+  public static void main(String[] args)
+  {
+    if (args.length < 3 || args.length > 5)
+      Usage();
+
+    try {
+      String geometadbFilename = args[0];
+      int numberOfSeries = Integer.parseInt(args[1]);
+      int numberOfPlatforms = Integer.parseInt(args[2]);
+      double medianSamplesPerSeries = args.length > 3 ?
+        Double.parseDouble(args[3]) :
+        GEOmetadbGenerator.DEFAULT_MEDIAN_SAMPLES_PER_SERIES;
+      double platformSkew = args.length > 4 ? Double.parseDouble(args[4]) : GEOmetadbGenerator.DEFAULT_PLATFORM_SKEW;
+
+      GEOmetadbGenerator geometadbGenerator = new GEOmetadbGenerator(numberOfSeries, numberOfPlatforms);
+      geometadbGenerator.setSamplesPerSeriesDistribution(medianSamplesPerSeries,
+        GEOmetadbGenerator.DEFAULT_SAMPLES_PER_SERIES_SIGMA, GEOmetadbGenerator.DEFAULT_MAX_SAMPLES_PER_SERIES);
+      geometadbGenerator.setPlatformSkew(platformSkew);
+
+      long numberOfSamples = geometadbGenerator.generate(geometadbFilename);
+
+      System.out.println("Generated " + numberOfSeries + " series, " + numberOfSamples + " samples and "
+        + numberOfPlatforms + " platforms in " + geometadbFilename);
+
+    } catch (GEOReaderException e) {
+      System.err.println(GEOmetadbGenerate.class.getName() + ": Error generating: " + e.getMessage());
+      System.exit(-1);
+    } catch (IllegalArgumentException e) {
+      System.err.println(GEOmetadbGenerate.class.getName() + ": Error processing arguments: " + e.getMessage());
+      System.exit(-1);
+    }
+  }
+
+  private static void Usage()
+  {
+    System.err.println("Usage: " + GEOmetadbGenerate.class.getName()
+      + " <GEOmetadb Filename> <numberOfSeries> <numberOfPlatforms> [<medianSamplesPerSeries> [<platformSkew>]]");
+    System.exit(-1);
+  }
+}
@@ -0,0 +1,495 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.sqlite.JDBC;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates a synthetic GEOmetadb database with the GSE, GSM and GPL tables and columns named in
+ * {@link GEOmetadbNames}, for testing {@link GEOmetadbReader} at scale without the real database.
+ * <p>
+ * The number of samples in a series follows a log-normal distribution with a configurable median and spread, and
+ * samples choose platforms from a Zipf distribution with a configurable exponent, so that a few platforms are used by
+ * most samples, as in GEO. Characteristic, contributor and contact strings use the formats found in GEOmetadb.
+ * Generation is seeded, so generators with the same settings produce the same database.
+ */
+public class GEOmetadbGenerator
+{
+  public static final double DEFAULT_MEDIAN_SAMPLES_PER_SERIES = 12;
+  public static final double DEFAULT_SAMPLES_PER_SERIES_SIGMA = 1.0;
+  public static final int DEFAULT_MAX_SAMPLES_PER_SERIES = 2000;
+  public static final double DEFAULT_PLATFORM_SKEW = 1.1;
+  public static final double DEFAULT_TWO_CHANNEL_SAMPLE_FRACTION = 0.1;
+  public static final long DEFAULT_SEED = 42;
+
+  private static final int ROWS_PER_TRANSACTION = 10000;
+
+  private static final String[] ORGANISMS = { "Homo sapiens", "Mus musculus", "Rattus norvegicus",
+    "Arabidopsis thaliana", "Saccharomyces cerevisiae", "Drosophila melanogaster", "Danio rerio",
+    "Caenorhabditis elegans", "Sus scrofa", "Bos taurus" };
+  private static final String[] MOLECULES = { "total RNA", "polyA RNA", "genomic DNA", "cytoplasmic RNA",
+    "nuclear RNA", "protein" };
+  private static final String[] LABELS = { "biotin", "Cy3", "Cy5", "Alexa Fluor 647", "none" };
+  private static final String[] SERIES_TYPES = { "Expression profiling by array",
+    "Expression profiling by high throughput sequencing", "Genome binding/occupancy profiling by array",
+    "Genome binding/occupancy profiling by high throughput sequencing", "Methylation profiling by array",
+    "Non-coding RNA profiling by array", "SNP genotyping by SNP array" };
+  private static final String[] SAMPLE_TYPES = { "RNA", "genomic", "SRA", "protein" };
+  private static final String[] TECHNOLOGIES = { "in situ oligonucleotide", "spotted DNA/cDNA",
+    "spotted oligonucleotide", "high-throughput sequencing", "oligonucleotide beads", "RT-PCR" };
+  private static final String[] DISTRIBUTIONS = { "commercial", "custom-commercial", "non-commercial", "virtual" };
+  private static final String[] MANUFACTURERS = { "Affymetrix", "Agilent Technologies", "Illumina Inc.",
+    "NimbleGen", "Applied Biosystems" };
+  private static final String[] TISSUES = { "liver", "brain", "kidney", "heart", "lung", "spleen", "skeletal muscle",
+    "whole blood", "bone marrow", "adipose tissue", "breast tumor", "colon" };
+  private static final String[] CELL_TYPES = { "T cell", "B cell", "macrophage", "fibroblast", "hepatocyte",
+    "neuron", "embryonic stem cell", "epithelial cell" };
+  private static final String[] STRAINS = { "C57BL/6", "BALB/c", "129S1/SvImJ", "Sprague-Dawley", "Wistar", "FVB/N" };
+  private static final String[] GENOTYPES = { "wild type", "knockout", "heterozygous", "transgenic" };
+  private static final String[] TREATMENTS = { "none", "vehicle control", "LPS 100 ng/ml", "dexamethasone 1 uM",
+    "IFN-gamma", "hypoxia", "heat shock" };
+  private static final String[] FIRST_NAMES = { "Maria", "John", "Wei", "Anna", "Hiroshi", "Fatima", "Carlos",
+    "Olga", "David", "Priya", "Lars", "Chen", "Sarah", "Ahmed", "Elena", "James" };
+  private static final String[] LAST_NAMES = { "Smith", "Garcia", "Wang", "Muller", "Tanaka", "Kim", "Rossi",
+    "Ivanova", "Nguyen", "Patel", "Johansson", "Li", "Brown", "Haddad", "Kowalski", "Martin" };
+  private static final String[] INSTITUTES = { "Stanford University", "University of Oxford", "Karolinska Institutet",
+    "National Cancer Institute", "Max Planck Institute", "University of Tokyo", "Institut Pasteur" };
+  private static final String[] COUNTRIES = { "USA", "United Kingdom", "Sweden", "Germany", "Japan", "France",
+    "China", "India" };
+
+  private static final LocalDate FIRST_SUBMISSION_DATE = LocalDate.of(2001, 1, 1);
+  private static final int SUBMISSION_DATE_RANGE_DAYS = 15 * 365;
+  private static final DateTimeFormatter STATUS_DATE_FORMATTER = DateTimeFormatter
+    .ofPattern("MMM dd yyyy", Locale.US);
+
+  private static final List<String> SERIES_COLUMNS = GEOmetadbNames.SeriesTableColumnNames;
+  private static final List<String> SAMPLE_COLUMNS = GEOmetadbNames.SampleTableColumnNames;
+  private static final List<String> PLATFORM_COLUMNS = GEOmetadbNames.PlatformTableColumnNames;
+
+  private final int numberOfSeries;
+  private final int numberOfPlatforms;
+
+  private double medianSamplesPerSeries = DEFAULT_MEDIAN_SAMPLES_PER_SERIES;
+  private double samplesPerSeriesSigma = DEFAULT_SAMPLES_PER_SERIES_SIGMA;
+  private int maxSamplesPerSeries = DEFAULT_MAX_SAMPLES_PER_SERIES;
+  private double platformSkew = DEFAULT_PLATFORM_SKEW;
+  private double twoChannelSampleFraction = DEFAULT_TWO_CHANNEL_SAMPLE_FRACTION;
+  private boolean createIndexes = true;
+  private long seed = DEFAULT_SEED;
+
+  public GEOmetadbGenerator(int numberOfSeries, int numberOfPlatforms)
+  {
+    if (numberOfSeries < 0)
+      throw new IllegalArgumentException("number of series must not be negative; got " + numberOfSeries);
+    if (numberOfPlatforms < 1)
+      throw new IllegalArgumentException("number of platforms must be positive; got " + numberOfPlatforms);
+
+    this.numberOfSeries = numberOfSeries;
+    this.numberOfPlatforms = numberOfPlatforms;
+  }
+
+  /**
+   * @param medianSamplesPerSeries The median number of samples in a series
+   * @param samplesPerSeriesSigma  The standard deviation of the logarithm of the number of samples in a series; 0
+   *                               gives every series the median number of samples
+   * @param maxSamplesPerSeries    The largest number of samples in a series
+   */
+  public void setSamplesPerSeriesDistribution(double medianSamplesPerSeries, double samplesPerSeriesSigma,
+    int maxSamplesPerSeries)
+  {
+    if (medianSamplesPerSeries < 1)
+      throw new IllegalArgumentException("median samples per series must be at least 1; got " + medianSamplesPerSeries);
+    if (samplesPerSeriesSigma < 0)
+      throw new IllegalArgumentException("samples per series sigma must not be negative; got " + samplesPerSeriesSigma);
+    if (maxSamplesPerSeries < 1)
+      throw new IllegalArgumentException("maximum samples per series must be positive; got " + maxSamplesPerSeries);
+
+    this.medianSamplesPerSeries = medianSamplesPerSeries;
+    this.samplesPerSeriesSigma = samplesPerSeriesSigma;
+    this.maxSamplesPerSeries = maxSamplesPerSeries;
+  }
+
+  /**
+   * @param platformSkew The exponent of the Zipf distribution from which samples choose platforms; 0 chooses
+   *                     platforms uniformly and larger values concentrate samples on fewer platforms
+   */
+  public void setPlatformSkew(double platformSkew)
+  {
+    if (platformSkew < 0)
+      throw new IllegalArgumentException("platform skew must not be negative; got " + platformSkew);
+
+    this.platformSkew = platformSkew;
+  }
+
+  public void setTwoChannelSampleFraction(double twoChannelSampleFraction)
+  {
+    if (twoChannelSampleFraction < 0 || twoChannelSampleFraction > 1)
+      throw new IllegalArgumentException("two-channel sample fraction must be between 0 and 1; got "
+        + twoChannelSampleFraction);
+
+    this.twoChannelSampleFraction = twoChannelSampleFraction;
+  }
+
+  /**
+   * @param createIndexes If true, indexes are created on the GSE, GPL and series ID columns used by the reader
+   */
+  public void setCreateIndexes(boolean createIndexes)
+  {
+    this.createIndexes = createIndexes;
+  }
+
+  public void setSeed(long seed)
+  {
+    this.seed = seed;
+  }
+
+  /**
+   * @param sqliteDatabaseFilename The database file to create; any existing GSE, GSM and GPL tables in it are replaced
+   * @return The number of samples generated
+   */
+  public long generate(String sqliteDatabaseFilename) throws GEOReaderException
+  {
+    try (Connection connection = DriverManager.getConnection(JDBC.PREFIX + sqliteDatabaseFilename)) {
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate("PRAGMA journal_mode = OFF");
+        statement.executeUpdate("PRAGMA synchronous = OFF");
+      }
+      connection.setAutoCommit(false);
+
+      createTables(connection);
+      Random random = new Random(this.seed);
+      generatePlatforms(connection, random);
+      long numberOfSamples = generateSeriesAndSamples(connection, random);
+      connection.commit();
+
+      if (this.createIndexes) {
+        createIndexes(connection);
+        connection.commit(); // Without a journal, the rollback on close would corrupt the file
+      }
+
+      return numberOfSamples;
+    } catch (SQLException e) {
+      throw new GEOReaderException("database error generating " + sqliteDatabaseFilename + ": " + e.getMessage(), e);
+    }
+  }
+
+  private void createTables(Connection connection) throws SQLException
+  {
+    try (Statement statement = connection.createStatement()) {
+      for (String tableName : Arrays.asList(GEOmetadbNames.SERIES_TABLE_NAME, GEOmetadbNames.SAMPLE_TABLE_NAME,
+        GEOmetadbNames.PLATFORM_TABLE_NAME))
+        statement.executeUpdate("DROP TABLE IF EXISTS " + tableName);
+
+      statement.executeUpdate(createTable(GEOmetadbNames.SERIES_TABLE_NAME, SERIES_COLUMNS));
+      statement.executeUpdate(createTable(GEOmetadbNames.SAMPLE_TABLE_NAME, SAMPLE_COLUMNS));
+      statement.executeUpdate(createTable(GEOmetadbNames.PLATFORM_TABLE_NAME, PLATFORM_COLUMNS));
+    }
+  }
+
+  private void createIndexes(Connection connection) throws SQLException
+  {
+    try (Statement statement = connection.createStatement()) {
+      statement
+        .executeUpdate(createIndex(GEOmetadbNames.SERIES_TABLE_NAME, GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME));
+      statement.executeUpdate(
+        createIndex(GEOmetadbNames.SAMPLE_TABLE_NAME, GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME));
+      statement
+        .executeUpdate(createIndex(GEOmetadbNames.PLATFORM_TABLE_NAME, GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME));
+    }
+  }
+
+  private void generatePlatforms(Connection connection, Random random) throws SQLException
+  {
+    try (PreparedStatement statement = connection.prepareStatement(insert(GEOmetadbNames.PLATFORM_TABLE_NAME,
+      PLATFORM_COLUMNS))) {
+      for (int platform = 1; platform <= this.numberOfPlatforms; platform++) {
+        String[] row = new String[PLATFORM_COLUMNS.size()];
+        LocalDate submissionDate = randomSubmissionDate(random);
+        String manufacturer = pick(MANUFACTURERS, random);
+
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_TITLE_COLUMN_NAME,
+          manufacturer + " " + pick(ORGANISMS, random) + " Array " + platform);
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME, "GPL" + platform);
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_STATUS_COLUMN_NAME, status(submissionDate));
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_SUBMISSION_DATE_COLUMN_NAME,
+          submissionDate.toString());
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_LAST_UPDATE_DATE_COLUMN_NAME,
+          randomLastUpdateDate(submissionDate, random).toString());
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_TECHNOLOGY_COLUMN_NAME, pick(TECHNOLOGIES, random));
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_DISTRIBUTION_COLUMN_NAME,
+          pick(DISTRIBUTIONS, random));
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_ORGANISM_COLUMN_NAME, pick(ORGANISMS, random));
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_MANUFACTURER_COLUMN_NAME, manufacturer);
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_DESCRIPTION_COLUMN_NAME,
+          "Probes designed against " + (5000 + random.nextInt(50000)) + " transcripts.");
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_CONTACT_COLUMN_NAME, contact(random));
+        put(row, PLATFORM_COLUMNS, GEOmetadbNames.PLATFORM_TABLE_DATA_ROW_COUNT_COLUMN_NAME,
+          Integer.toString(1000 + random.nextInt(100000)));
+
+        addRow(connection, statement, row, platform);
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private long generateSeriesAndSamples(Connection connection, Random random) throws SQLException
+  {
+    double[] platformCumulativeProbabilities = zipfCumulativeProbabilities(this.numberOfPlatforms, this.platformSkew);
+    long numberOfSamples = 0;
+    int gseNumber = 0;
+    int gsmNumber = 0;
+
+    try (PreparedStatement seriesStatement = connection.prepareStatement(insert(GEOmetadbNames.SERIES_TABLE_NAME,
+      SERIES_COLUMNS)); PreparedStatement sampleStatement = connection.prepareStatement(insert(
+      GEOmetadbNames.SAMPLE_TABLE_NAME, SAMPLE_COLUMNS))) {
+      for (int series = 1; series <= this.numberOfSeries; series++) {
+        String gse = "GSE" + (gseNumber += 1 + random.nextInt(3)); // GEO accessions have gaps
+        LocalDate submissionDate = randomSubmissionDate(random);
+        LocalDate lastUpdateDate = randomLastUpdateDate(submissionDate, random);
+        String seriesType = pick(SERIES_TYPES, random);
+        String[] row = new String[SERIES_COLUMNS.size()];
+
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_TITLE_COLUMN_NAME,
+          "Effect of " + pick(TREATMENTS, random) + " on " + pick(TISSUES, random) + " in " + pick(ORGANISMS, random));
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME, gse);
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_STATUS_COLUMN_NAME, status(submissionDate));
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_SUBMISSION_DATE_COLUMN_NAME, submissionDate.toString());
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_LAST_UPDATE_DATE_COLUMN_NAME, lastUpdateDate.toString());
+        if (random.nextDouble() < 0.6)
+          put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_PUBMED_ID_COLUMN_NAME,
+            Integer.toString(10000000 + random.nextInt(20000000)));
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_SUMMARY_COLUMN_NAME,
+          "We profiled " + pick(TISSUES, random) + " samples to identify changes associated with "
+            + pick(TREATMENTS, random) + ". Keywords: " + seriesType.toLowerCase(Locale.US));
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_TYPE_COLUMN_NAME, seriesType);
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_CONTRIBUTOR_COLUMN_NAME, contributors(random));
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_CONTACT_COLUMN_NAME, contact(random));
+        if (random.nextBoolean())
+          put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_OVERALL_DESIGN_COLUMN_NAME,
+            "Refer to individual Series. " + (1 + random.nextInt(6)) + " biological replicates per condition.");
+        put(row, SERIES_COLUMNS, GEOmetadbNames.SERIES_TABLE_SUPPLEMENTARY_FILE_COLUMN_NAME,
+          "ftp://ftp.ncbi.nlm.nih.gov/geo/series/" + gse + "/suppl/" + gse + "_RAW.tar");
+        addRow(connection, seriesStatement, row, series);
+
+        int samplesInSeries = randomSamplesPerSeries(random);
+        for (int sample = 0; sample < samplesInSeries; sample++) {
+          String gpl = "GPL" + (1 + zipf(platformCumulativeProbabilities, random));
+          addRow(connection, sampleStatement,
+            sampleRow("GSM" + ++gsmNumber, gse, gpl, submissionDate, lastUpdateDate, random), ++numberOfSamples);
+        }
+      }
+      seriesStatement.executeBatch();
+      sampleStatement.executeBatch();
+    }
+    return numberOfSamples;
+  }
+
+  private String[] sampleRow(String gsm, String gse, String gpl, LocalDate submissionDate, LocalDate lastUpdateDate,
+    Random random)
+  {
+    String[] row = new String[SAMPLE_COLUMNS.size()];
+    boolean twoChannels = random.nextDouble() < this.twoChannelSampleFraction;
+    String organism = pick(ORGANISMS, random);
+    String tissue = pick(TISSUES, random);
+
+    row[GEOmetadbSample.TITLE] = tissue + " " + pick(TREATMENTS, random) + " rep" + (1 + random.nextInt(4));
+    row[GEOmetadbSample.GSM] = gsm;
+    row[GEOmetadbSample.SERIES_ID] = gse;
+    row[GEOmetadbSample.GPL] = gpl;
+    row[GEOmetadbSample.STATUS] = status(submissionDate);
+    put(row, SAMPLE_COLUMNS, GEOmetadbNames.SAMPLE_TABLE_SUBMISSION_DATE_COLUMN_NAME, submissionDate.toString());
+    put(row, SAMPLE_COLUMNS, GEOmetadbNames.SAMPLE_TABLE_LAST_UPDATE_DATE_COLUMN_NAME, lastUpdateDate.toString());
+    row[GEOmetadbSample.TYPE] = pick(SAMPLE_TYPES, random);
+    row[GEOmetadbSample.CHANNEL_COUNT] = twoChannels ? "2" : "1";
+    row[GEOmetadbSample.SOURCE_NAME_CH1] = tissue;
+    row[GEOmetadbSample.CHARACTERISTIC_CH1] = characteristics(tissue, organism, random);
+    row[GEOmetadbSample.MOLECULE_CH1] = pick(MOLECULES, random);
+    row[GEOmetadbSample.ORGANISM_CH1] = organism;
+    row[GEOmetadbSample.LABEL_CH1] = twoChannels ? "Cy3" : pick(LABELS, random);
+    row[GEOmetadbSample.EXTRACT_PROTOCOL_CH1] = "RNA was extracted with TRIzol according to the manufacturer's "
+      + "instructions.";
+    if (random.nextBoolean())
+      row[GEOmetadbSample.TREATMENT_PROTOCOL_CH1] = "Cells were treated with " + pick(TREATMENTS, random) + " for "
+        + (1 + random.nextInt(48)) + " h.";
+    if (twoChannels) {
+      String referenceTissue = pick(TISSUES, random);
+      row[GEOmetadbSample.SOURCE_NAME_CH2] = "reference " + referenceTissue;
+      row[GEOmetadbSample.CHARACTERISTIC_CH2] = characteristics(referenceTissue, organism, random);
+      row[GEOmetadbSample.MOLECULE_CH2] = row[GEOmetadbSample.MOLECULE_CH1];
+      row[GEOmetadbSample.ORGANISM_CH2] = organism;
+      row[GEOmetadbSample.LABEL_CH2] = "Cy5";
+    }
+    if (random.nextDouble() < 0.7)
+      row[GEOmetadbSample.DESCRIPTION] = "Biological replicate " + (1 + random.nextInt(4)) + " of " + tissue + ".";
+    put(row, SAMPLE_COLUMNS, GEOmetadbNames.SAMPLE_TABLE_DATA_PROCESSING_COLUMN_NAME,
+      "Data were normalized with RMA and log2 transformed.");
+    put(row, SAMPLE_COLUMNS, GEOmetadbNames.SAMPLE_TABLE_DATA_ROW_COUNT_COLUMN_NAME,
+      Integer.toString(1000 + random.nextInt(50000)));
+
+    return row;
+  }
+
+  /**
+   * @return A string in the GEOmetadb form <tt>name1: value1;\tname2: value2</tt>; some values contain colons
+   */
+  private String characteristics(String tissue, String organism, Random random)
+  {
+    StringBuilder sb = new StringBuilder("tissue: ").append(tissue);
+
+    if (organism.equals("Mus musculus") || organism.equals("Rattus norvegicus"))
+      sb.append(";\tstrain: ").append(pick(STRAINS, random));
+    if (random.nextBoolean())
+      sb.append(";\tcell type: ").append(pick(CELL_TYPES, random));
+    if (random.nextBoolean())
+      sb.append(";\tgenotype/variation: ").append(pick(GENOTYPES, random));
+    if (random.nextBoolean())
+      sb.append(";\tage: ").append(1 + random.nextInt(80)).append(random.nextBoolean() ? " weeks" : " years");
+    if (random.nextBoolean())
+      sb.append(";\tSex: ").append(random.nextBoolean() ? "male" : "female");
+    if (random.nextDouble() < 0.3)
+      sb.append(";\ttreatment: ").append(pick(TREATMENTS, random));
+    if (random.nextDouble() < 0.2)
+      sb.append(";\ttime: ").append(random.nextInt(24)).append(':').append(random.nextInt(6)).append('0');
+    if (random.nextDouble() < 0.1)
+      sb.append(";\tmixing ratio: ").append(1 + random.nextInt(3)).append(":1");
+
+    return sb.toString();
+  }
+
+  /**
+   * @return A string in the GEOmetadb form <tt>First,Middle,Last;\tFirst,,Last</tt>
+   */
+  private String contributors(Random random)
+  {
+    StringBuilder sb = new StringBuilder();
+    int numberOfContributors = 1 + random.nextInt(8);
+
+    for (int contributor = 0; contributor < numberOfContributors; contributor++) {
+      if (contributor > 0)
+        sb.append(";\t");
+      sb.append(pick(FIRST_NAMES, random)).append(',');
+      if (random.nextDouble() < 0.3)
+        sb.append((char)('A' + random.nextInt(26)));
+      sb.append(',').append(pick(LAST_NAMES, random));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return A string in the GEOmetadb form <tt>Name: First,,Last;\tEmail: ...;\t...</tt>
+   */
+  private String contact(Random random)
+  {
+    String firstName = pick(FIRST_NAMES, random);
+    String lastName = pick(LAST_NAMES, random);
+
+    return GEOmetadbNames.NAME_CONTACT_ATTRIBUTE + ": " + firstName + ",," + lastName + ";\t"
+      + GEOmetadbNames.EMAIL_CONTACT_ATTRIBUTE + ": " + firstName.toLowerCase(Locale.US) + "."
+      + lastName.toLowerCase(Locale.US) + "@example.org;\t" + GEOmetadbNames.INSTITUTE_CONTACT_ATTRIBUTE + ": "
+      + pick(INSTITUTES, random) + ";\t" + GEOmetadbNames.COUNTRY_CONTACT_ATTRIBUTE + ": " + pick(COUNTRIES, random);
+  }
+
+  private int randomSamplesPerSeries(Random random)
+  {
+    double samples = this.medianSamplesPerSeries * Math.exp(this.samplesPerSeriesSigma * random.nextGaussian());
+
+    return (int)Math.max(1, Math.min(this.maxSamplesPerSeries, Math.round(samples)));
+  }
+
+  private LocalDate randomSubmissionDate(Random random)
+  {
+    return FIRST_SUBMISSION_DATE.plusDays(random.nextInt(SUBMISSION_DATE_RANGE_DAYS));
+  }
+
+  private LocalDate randomLastUpdateDate(LocalDate submissionDate, Random random)
+  {
+    return submissionDate.plusDays(random.nextInt(5 * 365));
+  }
+
+  private String status(LocalDate submissionDate)
+  {
+    return "Public on " + submissionDate.plusDays(30).format(STATUS_DATE_FORMATTER);
+  }
+
+  /**
+   * Rows are committed every {@link #ROWS_PER_TRANSACTION} rows to bound the size of batches and transactions.
+   */
+  private void addRow(Connection connection, PreparedStatement statement, String[] row, long rowNumber)
+    throws SQLException
+  {
+    for (int column = 0; column < row.length; column++)
+      statement.setString(column + 1, row[column]);
+    statement.addBatch();
+
+    if (rowNumber % ROWS_PER_TRANSACTION == 0) {
+      statement.executeBatch();
+      connection.commit();
+    }
+  }
+
+  private static void put(String[] row, List<String> columnNames, String columnName, String value)
+  {
+    row[columnNames.indexOf(columnName)] = value;
+  }
+
+  private static String pick(String[] values, Random random)
+  {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static double[] zipfCumulativeProbabilities(int n, double exponent)
+  {
+    double[] cumulativeProbabilities = new double[n];
+    double total = 0;
+
+    for (int rank = 1; rank <= n; rank++) {
+      total += 1 / Math.pow(rank, exponent);
+      cumulativeProbabilities[rank - 1] = total;
+    }
+    for (int i = 0; i < n; i++)
+      cumulativeProbabilities[i] /= total;
+
+    return cumulativeProbabilities;
+  }
+
+  /**
+   * @return A zero-based rank drawn from the distribution
+   */
+  private static int zipf(double[] cumulativeProbabilities, Random random)
+  {
+    int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+
+    return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+  }
+
+  private static String createTable(String tableName, List<String> columnNames)
+  {
+    return "CREATE TABLE " + tableName + " (" + String.join(" TEXT, ", columnNames) + " TEXT)";
+  }
+
+  private static String createIndex(String tableName, String columnName)
+  {
+    return "CREATE INDEX " + tableName + "_" + columnName + "_idx ON " + tableName + " (" + columnName + ")";
+  }
+
+  private static String insert(String tableName, List<String> columnNames)
+  {
+    StringBuilder parameters = new StringBuilder();
+
+    for (int i = 0; i < columnNames.size(); i++)
+      parameters.append(i == 0 ? "?" : ", ?");
+
+    return "INSERT INTO " + tableName + " (" + String.join(", ", columnNames) + ") VALUES (" + parameters + ")";
+  }
+}
@@ -144,5 +144,6 @@ public class GEOmetadbNames
 
   public final static List<String> ContactFieldNames = Arrays.asList(CONTACT_FIELD_NAMES);
 
-  public static final int MAX_SERIES_PER_SLICE = 1000;
+  public static final int DEFAULT_SERIES_CHUNK_SIZE = 1000;
+  public static final int DEFAULT_PLATFORM_CACHE_SIZE = 25000;
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of a pipelined {@link GEOmetadbReader} extraction: the read stage, which reads the series and sample
+ * rows and groups them by series; the parse stage, which converts the rows to series and samples; and the assemble
+ * stage, which adds the platforms and passes each submission to the handler.
+ *
+ * @see GEOmetadbReader#extractGEOSubmissionsMetadataInPipeline(int, int, int, int, GEOSubmissionMetadataHandler)
+ */
+public class GEOmetadbPipelineReport
+{
+  private final GEOmetadbStageMetrics readStage;
+  private final GEOmetadbStageMetrics parseStage;
+  private final GEOmetadbStageMetrics assembleStage;
+  private final long elapsedNanos;
+
+  public GEOmetadbPipelineReport(GEOmetadbStageMetrics readStage, GEOmetadbStageMetrics parseStage,
+    GEOmetadbStageMetrics assembleStage, long elapsedNanos)
+  {
+    this.readStage = readStage;
+    this.parseStage = parseStage;
+    this.assembleStage = assembleStage;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public GEOmetadbStageMetrics getReadStage()
+  {
+    return readStage;
+  }
+
+  public GEOmetadbStageMetrics getParseStage()
+  {
+    return parseStage;
+  }
+
+  public GEOmetadbStageMetrics getAssembleStage()
+  {
+    return assembleStage;
+  }
+
+  public List<GEOmetadbStageMetrics> getStages()
+  {
+    return Collections.unmodifiableList(Arrays.asList(readStage, parseStage, assembleStage));
+  }
+
+  /**
+   * @return The stage with the lowest throughput, which limits the throughput of the pipeline
+   */
+  public GEOmetadbStageMetrics getBottleneck()
+  {
+    return Collections.min(getStages(), Comparator.comparingDouble(GEOmetadbStageMetrics::getSeriesPerSecond));
+  }
+
+  public long getElapsedNanos()
+  {
+    return elapsedNanos;
+  }
+
+  /**
+   * @return The number of series per second that the pipeline passed to the handler
+   */
+  public double getSeriesPerSecond()
+  {
+    return elapsedNanos == 0 ?
+      0.0 :
+      assembleStage.getNumberOfSeries() * (double)TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbPipelineReport{" + "readStage=" + readStage + ", parseStage=" + parseStage + ", assembleStage="
+      + assembleStage + ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + ", seriesPerSecond="
+      + Math.round(getSeriesPerSecond()) + '}';
+  }
+}
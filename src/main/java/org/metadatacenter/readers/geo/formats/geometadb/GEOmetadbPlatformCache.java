@@ -0,0 +1,143 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.Interner;
+import org.metadatacenter.readers.geo.metadata.Platform;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bounded, thread-safe cache of {@link Platform} instances keyed by GPL. When the cache is full the least recently
+ * used platform is evicted.
+ * <p>
+ * Platforms added to the cache are interned, so equal platforms share one instance for as long as any extracted
+ * submission refers to it, even after the platform has been evicted and read again.
+ * <p>
+ * A cache is owned by a {@link GEOmetadbReader} and shared by all of its extraction calls and threads. It can also be
+ * passed to several readers of the same database. Hit, miss and eviction counts are kept so that callers can see how
+ * much work the cache saves.
+ */
+public class GEOmetadbPlatformCache
+{
+  private final int maximumSize;
+  private final Map<String, Platform> platforms; // gpl -> Platform, in least recently used order
+  private final Interner<Platform> platformInterner = new Interner<>();
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private long modificationCount = 0;
+
+  public GEOmetadbPlatformCache(int maximumSize)
+  {
+    if (maximumSize < 1)
+      throw new IllegalArgumentException("platform cache size must be positive; got " + maximumSize);
+
+    this.maximumSize = maximumSize;
+    this.platforms = new LinkedHashMap<String, Platform>(16, 0.75f, true)
+    {
+      @Override protected boolean removeEldestEntry(Map.Entry<String, Platform> eldest)
+      {
+        if (size() > GEOmetadbPlatformCache.this.maximumSize) {
+          evictionCount++;
+          modificationCount++;
+          return true;
+        } else
+          return false;
+      }
+    };
+  }
+
+  public synchronized Optional<Platform> get(String gpl)
+  {
+    Platform platform = this.platforms.get(gpl);
+
+    if (platform != null) {
+      hitCount++;
+      return Optional.of(platform);
+    } else {
+      missCount++;
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return The interned instance of the platform, which callers should use in place of the supplied instance
+   */
+  public synchronized Platform put(String gpl, Platform platform)
+  {
+    Platform canonicalPlatform = this.platformInterner.intern(platform);
+
+    if (this.platforms.put(gpl, canonicalPlatform) == null)
+      this.modificationCount++;
+
+    return canonicalPlatform;
+  }
+
+  public synchronized boolean isFull()
+  {
+    return this.platforms.size() >= this.maximumSize;
+  }
+
+  public synchronized void clear()
+  {
+    this.platforms.clear();
+    this.modificationCount++;
+  }
+
+  /**
+   * @return The GPLs of the cached platforms, from least to most recently used
+   */
+  public synchronized List<String> getGPLs()
+  {
+    return new ArrayList<>(this.platforms.keySet());
+  }
+
+  public int getMaximumSize()
+  {
+    return this.maximumSize;
+  }
+
+  public synchronized int size()
+  {
+    return this.platforms.size();
+  }
+
+  public synchronized long getHitCount()
+  {
+    return this.hitCount;
+  }
+
+  public synchronized long getMissCount()
+  {
+    return this.missCount;
+  }
+
+  public synchronized long getEvictionCount()
+  {
+    return this.evictionCount;
+  }
+
+  /**
+   * @return A count that changes whenever a GPL is added to or removed from the cache, but not when platforms are only
+   * used, so callers can tell whether the set of GPLs returned by {@link #getGPLs()} has changed
+   */
+  public synchronized long getModificationCount()
+  {
+    return this.modificationCount;
+  }
+
+  @Override public synchronized String toString()
+  {
+    return "GEOmetadbPlatformCache{" +
+      "size=" + platforms.size() +
+      ", maximumSize=" + maximumSize +
+      ", hits=" + hitCount +
+      ", misses=" + missCount +
+      ", evictions=" + evictionCount +
+      '}';
+  }
+}
@@ -0,0 +1,177 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fields of samples, series and platforms that a {@link GEOmetadbReader} extracts. The reader's queries select
+ * only the columns that hold these fields and the key columns, so narrow extractions read and convert much less of
+ * each row.
+ * <p>
+ * Fields that are not in the projection are left empty in the extracted metadata: string values are empty, optional
+ * values are absent, and lists and maps are empty. Samples always have their GSM, GSE and GPL and series their GSE.
+ * Without platforms, the platform table is not read and submissions have no platforms.
+ *
+ * @see GEOmetadbReader#setProjection(GEOmetadbProjection)
+ */
+public class GEOmetadbProjection
+{
+  public enum SampleField
+  {
+    TITLE(GEOmetadbNames.SAMPLE_TABLE_TITLE_COLUMN_NAME),
+    DESCRIPTION(GEOmetadbNames.SAMPLE_TABLE_DESCRIPTION_COLUMN_NAME),
+    STATUS(GEOmetadbNames.SAMPLE_TABLE_STATUS_COLUMN_NAME),
+    TYPE(GEOmetadbNames.SAMPLE_TABLE_TYPE_COLUMN_NAME),
+    CHANNEL_COUNT(GEOmetadbNames.SAMPLE_TABLE_CHANNEL_COUNT_COLUMN_NAME),
+    SOURCE_NAME(GEOmetadbNames.SAMPLE_TABLE_SOURCE_NAME_CH1_COLUMN_NAME,
+      GEOmetadbNames.SAMPLE_TABLE_SOURCE_NAME_CH2_COLUMN_NAME),
+    ORGANISM(GEOmetadbNames.SAMPLE_TABLE_ORGANISM_CH1_COLUMN_NAME,
+      GEOmetadbNames.SAMPLE_TABLE_ORGANISM_CH2_COLUMN_NAME),
+    CHARACTERISTICS(GEOmetadbNames.SAMPLE_TABLE_CHARACTERISTIC_CH1_COLUMN_NAME,
+      GEOmetadbNames.SAMPLE_TABLE_CHARACTERISTIC_CH2_COLUMN_NAME),
+    MOLECULE(GEOmetadbNames.SAMPLE_TABLE_MOLECULE_CH1_COLUMN_NAME,
+      GEOmetadbNames.SAMPLE_TABLE_MOLECULE_CH2_COLUMN_NAME),
+    LABEL(GEOmetadbNames.SAMPLE_TABLE_LABEL_CH1_COLUMN_NAME, GEOmetadbNames.SAMPLE_TABLE_LABEL_CH2_COLUMN_NAME),
+    TREATMENT_PROTOCOL(GEOmetadbNames.SAMPLE_TABLE_TREATMENT_PROTOCOL_CH1_COLUMN_NAME,
+      GEOmetadbNames.SAMPLE_TABLE_TREATMENT_PROTOCOL_CH2_COLUMN_NAME),
+    EXTRACT_PROTOCOL(GEOmetadbNames.SAMPLE_TABLE_EXTRACT_PROTOCOL_CH1_COLUMN_NAME,
+      GEOmetadbNames.SAMPLE_TABLE_EXTRACT_PROTOCOL_CH2_COLUMN_NAME);
+
+    private final List<String> columnNames;
+
+    SampleField(String... columnNames)
+    {
+      this.columnNames = Arrays.asList(columnNames);
+    }
+  }
+
+  public enum SeriesField
+  {
+    TITLE(GEOmetadbNames.SERIES_TABLE_TITLE_COLUMN_NAME),
+    SUMMARY(GEOmetadbNames.SERIES_TABLE_SUMMARY_COLUMN_NAME),
+    OVERALL_DESIGN(GEOmetadbNames.SERIES_TABLE_OVERALL_DESIGN_COLUMN_NAME),
+    CONTRIBUTORS(GEOmetadbNames.SERIES_TABLE_CONTRIBUTOR_COLUMN_NAME),
+    PUBMED_IDS(GEOmetadbNames.SERIES_TABLE_PUBMED_ID_COLUMN_NAME),
+    SUBMISSION_DATE(GEOmetadbNames.SERIES_TABLE_SUBMISSION_DATE_COLUMN_NAME),
+    LAST_UPDATE_DATE(GEOmetadbNames.SERIES_TABLE_LAST_UPDATE_DATE_COLUMN_NAME);
+
+    private final String columnName;
+
+    SeriesField(String columnName)
+    {
+      this.columnName = columnName;
+    }
+  }
+
+  /**
+   * Every field, and every column of the sample and series tables, which are all checked for required values
+   */
+  public static final GEOmetadbProjection ALL = new GEOmetadbProjection(EnumSet.allOf(SampleField.class),
+    EnumSet.allOf(SeriesField.class), true, GEOmetadbColumnBinding.all(GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES),
+    GEOmetadbColumnBinding.all(GEOmetadbNames.SERIES_TABLE_COLUMN_NAMES));
+
+  private static final List<String> SAMPLE_KEY_COLUMN_NAMES = Arrays.asList(
+    GEOmetadbNames.SAMPLE_TABLE_GSM_COLUMN_NAME, GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME,
+    GEOmetadbNames.SAMPLE_TABLE_GPL_COLUMN_NAME);
+
+  private final Set<SampleField> sampleFields;
+  private final Set<SeriesField> seriesFields;
+  private final boolean includePlatforms;
+  private final GEOmetadbColumnBinding sampleBinding;
+  private final GEOmetadbColumnBinding seriesBinding;
+
+  /**
+   * @param sampleFields     The sample fields to extract
+   * @param seriesFields     The series fields to extract
+   * @param includePlatforms Whether to extract the platforms of each submission
+   */
+  public GEOmetadbProjection(Set<SampleField> sampleFields, Set<SeriesField> seriesFields, boolean includePlatforms)
+  {
+    this(sampleFields, seriesFields, includePlatforms, sampleBinding(sampleFields), seriesBinding(seriesFields));
+  }
+
+  private GEOmetadbProjection(Set<SampleField> sampleFields, Set<SeriesField> seriesFields, boolean includePlatforms,
+    GEOmetadbColumnBinding sampleBinding, GEOmetadbColumnBinding seriesBinding)
+  {
+    this.sampleFields = Collections.unmodifiableSet(sampleFields.isEmpty() ?
+      EnumSet.noneOf(SampleField.class) :
+      EnumSet.copyOf(sampleFields));
+    this.seriesFields = Collections.unmodifiableSet(seriesFields.isEmpty() ?
+      EnumSet.noneOf(SeriesField.class) :
+      EnumSet.copyOf(seriesFields));
+    this.includePlatforms = includePlatforms;
+    this.sampleBinding = sampleBinding;
+    this.seriesBinding = seriesBinding;
+  }
+
+  public Set<SampleField> getSampleFields()
+  {
+    return this.sampleFields;
+  }
+
+  public Set<SeriesField> getSeriesFields()
+  {
+    return this.seriesFields;
+  }
+
+  public boolean getIncludePlatforms()
+  {
+    return this.includePlatforms;
+  }
+
+  /**
+   * @return The selected columns of the sample table, in table order
+   */
+  GEOmetadbColumnBinding getSampleBinding()
+  {
+    return this.sampleBinding;
+  }
+
+  /**
+   * @return The selected columns of the series table, in table order
+   */
+  GEOmetadbColumnBinding getSeriesBinding()
+  {
+    return this.seriesBinding;
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbProjection{" + "sampleFields=" + sampleFields + ", seriesFields=" + seriesFields
+      + ", includePlatforms=" + includePlatforms + '}';
+  }
+
+  private static GEOmetadbColumnBinding sampleBinding(Set<SampleField> sampleFields)
+  {
+    List<Integer> columns = new ArrayList<>();
+
+    for (int column = 0; column < GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES.length; column++) {
+      String columnName = GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES[column];
+
+      if (SAMPLE_KEY_COLUMN_NAMES.contains(columnName) || sampleFields.stream()
+        .anyMatch(sampleField -> sampleField.columnNames.contains(columnName)))
+        columns.add(column);
+    }
+    return new GEOmetadbColumnBinding(GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES,
+      columns.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  private static GEOmetadbColumnBinding seriesBinding(Set<SeriesField> seriesFields)
+  {
+    List<Integer> columns = new ArrayList<>();
+
+    for (int column = 0; column < GEOmetadbNames.SERIES_TABLE_COLUMN_NAMES.length; column++) {
+      String columnName = GEOmetadbNames.SERIES_TABLE_COLUMN_NAMES[column];
+
+      if (columnName.equals(GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME) || seriesFields.stream()
+        .anyMatch(seriesField -> seriesField.columnName.equals(columnName)))
+        columns.add(column);
+    }
+    return new GEOmetadbColumnBinding(GEOmetadbNames.SERIES_TABLE_COLUMN_NAMES,
+      columns.stream().mapToInt(Integer::intValue).toArray());
+  }
+}
@@ -0,0 +1,68 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A side file that records series that could not be extracted, one per line as the GSE and the error separated by a
+ * tab. Entries are appended and flushed as they are added, so the file survives an interrupted extraction and a
+ * resumed extraction adds to it.
+ */
+public class GEOmetadbQuarantine implements AutoCloseable
+{
+  private final String fileName;
+  private final BufferedWriter writer;
+
+  private int numberOfQuarantinedSeries = 0;
+
+  public GEOmetadbQuarantine(String fileName) throws GEOReaderException
+  {
+    this.fileName = fileName;
+
+    try {
+      this.writer = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new GEOReaderException("error opening quarantine file " + fileName + ": " + e.getMessage(), e);
+    }
+  }
+
+  public void add(String gse, String errorMessage) throws GEOReaderException
+  {
+    String error = errorMessage == null ? "" : errorMessage.replaceAll("[\t\r\n]+", " ");
+
+    try {
+      this.writer.write(gse + "\t" + error);
+      this.writer.newLine();
+      this.writer.flush();
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing quarantine file " + this.fileName + ": " + e.getMessage(), e);
+    }
+    this.numberOfQuarantinedSeries++;
+
+    System.out.println("Quarantined series " + gse + ": " + error);
+  }
+
+  /**
+   * @return The number of series added since this quarantine was opened
+   */
+  public int getNumberOfQuarantinedSeries()
+  {
+    return this.numberOfQuarantinedSeries;
+  }
+
+  @Override public void close() throws GEOReaderException
+  {
+    try {
+      this.writer.close();
+    } catch (IOException e) {
+      throw new GEOReaderException("error closing quarantine file " + this.fileName + ": " + e.getMessage(), e);
+    }
+  }
+}
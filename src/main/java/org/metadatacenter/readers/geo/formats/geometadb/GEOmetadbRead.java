@@ -1,10 +1,8 @@
 package org.metadatacenter.readers.geo.formats.geometadb;
 
 import org.metadatacenter.readers.geo.GEOReaderException;
-import org.metadatacenter.readers.geo.formats.geosoft.GEOSoftRead;
-import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
 
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Basic example of using the {@link GEOmetadbReader} class to read GEO metadata from a GEOmetadb database.
@@ -13,7 +11,7 @@ public class GEOmetadbRead
 {
   public static void main(String[] args)
   {
-    if (args.length != 3)
+    if (args.length < 3 || args.length > 5)
       Usage();
 
     try {
@@ -22,11 +20,14 @@ public class GEOmetadbRead
       int numberOfSeries = Integer.parseInt(args[2]);
 
       GEOmetadbReader geometadbReader = new GEOmetadbReader(geometadbFilename);
-      List<GEOSubmissionMetadata> geoSubmissionMetadataList = geometadbReader
-        .extractGEOSubmissionsMetadata(startIndex, numberOfSeries);
 
-      for (GEOSubmissionMetadata geoSubmissionMetadata : geoSubmissionMetadataList)
-        System.out.println("geoSubmissionMetadata: " + geoSubmissionMetadata.toString());
+      if (args.length > 3)
+        geometadbReader.extractResumableGEOSubmissionsMetadata(startIndex, numberOfSeries, args[3],
+          args.length > 4 ? Optional.of(args[4]) : Optional.empty(),
+          geoSubmissionMetadata -> System.out.println("geoSubmissionMetadata: " + geoSubmissionMetadata.toString()));
+      else
+        geometadbReader.extractGEOSubmissionsMetadata(startIndex, numberOfSeries,
+          geoSubmissionMetadata -> System.out.println("geoSubmissionMetadata: " + geoSubmissionMetadata.toString()));
 
     } catch (GEOReaderException e) {
       System.err.println(GEOmetadbRead.class.getName() + ": Error reading: " + e.getMessage());
@@ -39,8 +40,8 @@ public class GEOmetadbRead
 
   private static void Usage()
   {
-    System.err
-      .println("Usage: " + GEOmetadbRead.class.getName() + " <GEOmetadb Filename> <startIndex> <numberOfSeries>");
+    System.err.println("Usage: " + GEOmetadbRead.class.getName()
+      + " <GEOmetadb Filename> <startIndex> <numberOfSeries> [<checkpointFilename> [<quarantineFilename>]]");
     System.exit(-1);
   }
 }
\ No newline at end of file
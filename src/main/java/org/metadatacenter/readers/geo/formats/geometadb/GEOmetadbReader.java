@@ -1,29 +1,48 @@
 package org.metadatacenter.readers.geo.formats.geometadb;
 
 import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler;
 import org.metadatacenter.readers.geo.metadata.Contributor;
 import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
-import org.metadatacenter.readers.geo.metadata.PerChannelSampleInfo;
 import org.metadatacenter.readers.geo.metadata.Platform;
 import org.metadatacenter.readers.geo.metadata.Sample;
 import org.metadatacenter.readers.geo.metadata.Series;
 import org.sqlite.JDBC;
+import org.sqlite.SQLiteConfig;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * A GEOmetadb database contains a full dump of GEO metadata. Copies of this database, which is in SQLite format,
@@ -37,291 +56,1639 @@ public class GEOmetadbReader
 {
   private final String sqliteDatabaseFilename;
 
-  private static final String SERIES_ID_SELECT = "SELECT gse FROM " + GEOmetadbNames.SERIES_TABLE_NAME;
-  private static final String SERIES_SELECT =
-    "SELECT * FROM " + GEOmetadbNames.SERIES_TABLE_NAME + " WHERE " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME
-      + " = ?";
-  private static final String SAMPLES_SELECT_BASE =
-    "SELECT * FROM " + GEOmetadbNames.SAMPLE_TABLE_NAME + " WHERE series_id IN ";
+  // Positions of the series and platform columns in GEOmetadbNames.SERIES_TABLE_COLUMN_NAMES and
+  // GEOmetadbNames.PLATFORM_TABLE_COLUMN_NAMES, which index the arrays that hold series and platform rows
+  private static final int SERIES_GSE = seriesColumn(GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME);
+  private static final int SERIES_TITLE = seriesColumn(GEOmetadbNames.SERIES_TABLE_TITLE_COLUMN_NAME);
+  private static final int SERIES_SUMMARY = seriesColumn(GEOmetadbNames.SERIES_TABLE_SUMMARY_COLUMN_NAME);
+  private static final int SERIES_OVERALL_DESIGN = seriesColumn(GEOmetadbNames.SERIES_TABLE_OVERALL_DESIGN_COLUMN_NAME);
+  private static final int SERIES_CONTRIBUTOR = seriesColumn(GEOmetadbNames.SERIES_TABLE_CONTRIBUTOR_COLUMN_NAME);
+  private static final int SERIES_WEB_LINK = seriesColumn(GEOmetadbNames.SERIES_TABLE_WEB_LINK_COLUMN_NAME);
+  private static final int SERIES_TYPE = seriesColumn(GEOmetadbNames.SERIES_TABLE_TYPE_COLUMN_NAME);
+  private static final int SERIES_STATUS = seriesColumn(GEOmetadbNames.SERIES_TABLE_STATUS_COLUMN_NAME);
+  private static final int SERIES_SUBMISSION_DATE = seriesColumn(
+    GEOmetadbNames.SERIES_TABLE_SUBMISSION_DATE_COLUMN_NAME);
+  private static final int SERIES_LAST_UPDATE_DATE = seriesColumn(
+    GEOmetadbNames.SERIES_TABLE_LAST_UPDATE_DATE_COLUMN_NAME);
+  private static final int SERIES_CONTACT = seriesColumn(GEOmetadbNames.SERIES_TABLE_CONTACT_COLUMN_NAME);
+  private static final int SERIES_PUBMED_ID = seriesColumn(GEOmetadbNames.SERIES_TABLE_PUBMED_ID_COLUMN_NAME);
+  private static final int SERIES_REPEATS = seriesColumn(GEOmetadbNames.SERIES_TABLE_REPEATS_COLUMN_NAME);
+  private static final int SERIES_REPEATS_SAMPLE_LIST = seriesColumn(
+    GEOmetadbNames.SERIES_TABLE_REPEATS_SAMPLE_LIST_COLUMN_NAME);
+  private static final int SERIES_VARIABLE = seriesColumn(GEOmetadbNames.SERIES_TABLE_VARIABLE_COLUMN_NAME);
+  private static final int SERIES_VARIABLE_DESCRIPTION = seriesColumn(
+    GEOmetadbNames.SERIES_TABLE_VARIABLE_DESCRIPTION_COLUMN_NAME);
+  private static final int SERIES_SUPPLEMENTARY_FILE = seriesColumn(
+    GEOmetadbNames.SERIES_TABLE_SUPPLEMENTARY_FILE_COLUMN_NAME);
+  private static final int PLATFORM_GPL = platformColumn(GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME);
+  private static final int PLATFORM_TITLE = platformColumn(GEOmetadbNames.PLATFORM_TABLE_TITLE_COLUMN_NAME);
+  private static final int PLATFORM_STATUS = platformColumn(GEOmetadbNames.PLATFORM_TABLE_STATUS_COLUMN_NAME);
+  private static final int PLATFORM_SUBMISSION_DATE = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_SUBMISSION_DATE_COLUMN_NAME);
+  private static final int PLATFORM_LAST_UPDATE_DATE = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_LAST_UPDATE_DATE_COLUMN_NAME);
+  private static final int PLATFORM_TECHNOLOGY = platformColumn(GEOmetadbNames.PLATFORM_TABLE_TECHNOLOGY_COLUMN_NAME);
+  private static final int PLATFORM_DISTRIBUTION = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_DISTRIBUTION_COLUMN_NAME);
+  private static final int PLATFORM_ORGANISM = platformColumn(GEOmetadbNames.PLATFORM_TABLE_ORGANISM_COLUMN_NAME);
+  private static final int PLATFORM_MANUFACTURER = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_MANUFACTURER_COLUMN_NAME);
+  private static final int PLATFORM_MANUFACTURE_PROTOCOL = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_MANUFACTURE_PROTOCOL_COLUMN_NAME);
+  private static final int PLATFORM_COATING = platformColumn(GEOmetadbNames.PLATFORM_TABLE_COATING_COLUMN_NAME);
+  private static final int PLATFORM_CATALOG_NUMBER = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_CATALOG_NUMBER_COLUMN_NAME);
+  private static final int PLATFORM_SUPPORT = platformColumn(GEOmetadbNames.PLATFORM_TABLE_SUPPORT_COLUMN_NAME);
+  private static final int PLATFORM_DESCRIPTION = platformColumn(GEOmetadbNames.PLATFORM_TABLE_DESCRIPTION_COLUMN_NAME);
+  private static final int PLATFORM_WEB_LINK = platformColumn(GEOmetadbNames.PLATFORM_TABLE_WEB_LINK_COLUMN_NAME);
+  private static final int PLATFORM_CONTACT = platformColumn(GEOmetadbNames.PLATFORM_TABLE_CONTACT_COLUMN_NAME);
+  private static final int PLATFORM_DATA_ROW_COUNT = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_DATA_ROW_COUNT_COLUMN_NAME);
+  private static final int PLATFORM_SUPPLEMENTARY_FILE = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_SUPPLEMENTARY_FILE_COLUMN_NAME);
+  private static final int PLATFORM_BIOC_PACKAGE = platformColumn(
+    GEOmetadbNames.PLATFORM_TABLE_BIOC_PACKAGE_COLUMN_NAME);
+
+  private static final GEOmetadbColumnBinding PLATFORM_BINDING = GEOmetadbColumnBinding
+    .all(GEOmetadbNames.PLATFORM_TABLE_COLUMN_NAMES);
+
+  private static final String SERIES_IDS_SELECT =
+    "SELECT " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " FROM " + GEOmetadbNames.SERIES_TABLE_NAME + " WHERE "
+      + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " > ? ORDER BY " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME
+      + " LIMIT ?";
+  private static final String PRECEDING_SERIES_ID_SELECT =
+    "SELECT " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " FROM " + GEOmetadbNames.SERIES_TABLE_NAME + " ORDER BY "
+      + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " LIMIT 1 OFFSET ?";
+  private static final String SERIES_CHUNK_SELECT = // Formatted with the selected columns
+    "SELECT %s FROM " + GEOmetadbNames.SERIES_TABLE_NAME + " WHERE " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME
+      + " > ? ORDER BY " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " LIMIT ?";
+  private static final String SAMPLES_CHUNK_SELECT = // Formatted with the selected columns
+    "SELECT %s FROM " + GEOmetadbNames.SAMPLE_TABLE_NAME + " WHERE " + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME
+      + " > ? AND " + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME + " <= ? ORDER BY "
+      + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME;
+  private static final String ALL_SERIES_IDS_SELECT =
+    "SELECT " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " FROM " + GEOmetadbNames.SERIES_TABLE_NAME;
+  private static final String LATEST_UPDATE_DATE_SELECT =
+    "SELECT MAX(d) FROM (SELECT MAX(" + GEOmetadbNames.SERIES_TABLE_LAST_UPDATE_DATE_COLUMN_NAME + ") AS d FROM "
+      + GEOmetadbNames.SERIES_TABLE_NAME + " UNION ALL SELECT MAX("
+      + GEOmetadbNames.SAMPLE_TABLE_LAST_UPDATE_DATE_COLUMN_NAME + ") FROM " + GEOmetadbNames.SAMPLE_TABLE_NAME
+      + " UNION ALL SELECT MAX(" + GEOmetadbNames.PLATFORM_TABLE_LAST_UPDATE_DATE_COLUMN_NAME + ") FROM "
+      + GEOmetadbNames.PLATFORM_TABLE_NAME + ")";
+  private static final String CHANGED_SERIES_IDS_SELECT =
+    "SELECT " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " FROM " + GEOmetadbNames.SERIES_TABLE_NAME + " WHERE "
+      + GEOmetadbNames.SERIES_TABLE_LAST_UPDATE_DATE_COLUMN_NAME + " >= ?"
+      + " UNION SELECT " + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME + " FROM "
+      + GEOmetadbNames.SAMPLE_TABLE_NAME + " WHERE " + GEOmetadbNames.SAMPLE_TABLE_LAST_UPDATE_DATE_COLUMN_NAME
+      + " >= ?"
+      + " UNION SELECT " + GEOmetadbNames.SAMPLE_TABLE_NAME + "." + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME
+      + " FROM " + GEOmetadbNames.SAMPLE_TABLE_NAME + " JOIN " + GEOmetadbNames.PLATFORM_TABLE_NAME + " ON "
+      + GEOmetadbNames.SAMPLE_TABLE_NAME + "." + GEOmetadbNames.SAMPLE_TABLE_GPL_COLUMN_NAME + " = "
+      + GEOmetadbNames.PLATFORM_TABLE_NAME + "." + GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME + " WHERE "
+      + GEOmetadbNames.PLATFORM_TABLE_NAME + "." + GEOmetadbNames.PLATFORM_TABLE_LAST_UPDATE_DATE_COLUMN_NAME
+      + " >= ?";
+  private static final String SUBMITTED_SERIES_IDS_SELECT =
+    "SELECT " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " FROM " + GEOmetadbNames.SERIES_TABLE_NAME + " WHERE "
+      + GEOmetadbNames.SERIES_TABLE_SUBMISSION_DATE_COLUMN_NAME + " >= ?";
+  private static final String PLATFORMS_SELECT =
+    "SELECT " + PLATFORM_BINDING.getSelectList() + " FROM " + GEOmetadbNames.PLATFORM_TABLE_NAME;
   private static final String PLATFORM_SELECT =
-    "SELECT * FROM " + GEOmetadbNames.PLATFORM_TABLE_NAME + " WHERE gpl = ?";
+    "SELECT " + PLATFORM_BINDING.getSelectList() + " FROM " + GEOmetadbNames.PLATFORM_TABLE_NAME + " WHERE "
+      + GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME + " = ?";
+
+  // SQLite limits the number of parameters in a statement to 999 by default
+  private static final int MAX_SERIES_IDS_PER_QUERY = 500;
+  private static final int MAX_PLATFORM_IDS_PER_QUERY = 500;
+
+  // A batch of a pipelined extraction is closed after the series that brings it to this number of samples
+  private static final int SAMPLES_PER_PIPELINE_BATCH = 1000;
+
+  private final GEOmetadbPlatformCache platformCache;
+  private final GEOmetadbDictionary dictionary;
+
+  private int seriesChunkSize = GEOmetadbNames.DEFAULT_SERIES_CHUNK_SIZE;
+  private boolean warmPlatformCache = true;
+  private volatile boolean platformCacheWarmed = false;
+  private boolean lenient = false;
+  private boolean directScan = false;
+  private GEOmetadbProjection projection = GEOmetadbProjection.ALL;
+  private GEOmetadbDiagnostics diagnostics = new GEOmetadbDiagnostics(
+    GEOmetadbDiagnostics.DEFAULT_MAXIMUM_NUMBER_OF_DIAGNOSTICS);
 
   public GEOmetadbReader(String sqliteDatabaseFilename)
   {
-    this.sqliteDatabaseFilename = sqliteDatabaseFilename;
+    this(sqliteDatabaseFilename, new GEOmetadbPlatformCache(GEOmetadbNames.DEFAULT_PLATFORM_CACHE_SIZE));
+  }
+
+  /**
+   * @param sqliteDatabaseFilename The GEOmetadb database file
+   * @param platformCache          A platform cache, which may be shared with other readers of the same database
+   */
+  public GEOmetadbReader(String sqliteDatabaseFilename, GEOmetadbPlatformCache platformCache)
+  {
+    this(sqliteDatabaseFilename, platformCache, new GEOmetadbDictionary());
+  }
+
+  /**
+   * @param sqliteDatabaseFilename The GEOmetadb database file
+   * @param platformCache          A platform cache, which may be shared with other readers of the same database
+   * @param dictionary             A dictionary for low-cardinality column values, which may be shared with other
+   *                               readers so that their codes agree
+   */
+  public GEOmetadbReader(String sqliteDatabaseFilename, GEOmetadbPlatformCache platformCache,
+    GEOmetadbDictionary dictionary)
+  {
+    this.sqliteDatabaseFilename = sqliteDatabaseFilename;
+    this.platformCache = platformCache;
+    this.dictionary = dictionary;
+  }
+
+  public GEOmetadbPlatformCache getPlatformCache()
+  {
+    return this.platformCache;
+  }
+
+  /**
+   * @return The dictionary that encodes organism, molecule, label, type, status, technology and distribution values;
+   * codes of sample values are available from {@link GEOmetadbSample}
+   */
+  public GEOmetadbDictionary getDictionary()
+  {
+    return this.dictionary;
+  }
+
+  public boolean getWarmPlatformCache()
+  {
+    return this.warmPlatformCache;
+  }
+
+  /**
+   * @param warmPlatformCache If true, the first extraction call bulk-loads the platform table into the platform cache;
+   *                          otherwise platforms are read one at a time when a sample first refers to them
+   */
+  public void setWarmPlatformCache(boolean warmPlatformCache)
+  {
+    this.warmPlatformCache = warmPlatformCache;
+  }
+
+  public boolean getDirectScan()
+  {
+    return this.directScan;
+  }
+
+  /**
+   * @param directScan If true, {@link #extractGEOSubmissionsMetadata(int, int, GEOSubmissionMetadataHandler)} and the
+   *                   methods that call it read the database file directly with a {@link GEOmetadbSQLiteFile} instead
+   *                   of through JDBC, which is faster and needs no native SQLite library. The other extraction
+   *                   methods always use JDBC.
+   */
+  public void setDirectScan(boolean directScan)
+  {
+    this.directScan = directScan;
+  }
+
+  public boolean getLenient()
+  {
+    return this.lenient;
+  }
+
+  /**
+   * @param lenient If true, malformed rows do not stop extraction: a sample or series without a key value, a
+   *                duplicate series row and a missing platform are skipped, and other missing required values are
+   *                filled with empty strings. Each problem is recorded in the reader's {@link GEOmetadbDiagnostics}.
+   *                If false, the first malformed row throws a {@link GEOReaderException}.
+   */
+  public void setLenient(boolean lenient)
+  {
+    this.lenient = lenient;
+  }
+
+  /**
+   * @return The problems found by lenient extraction calls on this reader
+   */
+  public GEOmetadbDiagnostics getDiagnostics()
+  {
+    return this.diagnostics;
+  }
+
+  /**
+   * @param diagnostics The report in which lenient extraction calls record problems
+   */
+  public void setDiagnostics(GEOmetadbDiagnostics diagnostics)
+  {
+    this.diagnostics = diagnostics;
+  }
+
+  public GEOmetadbProjection getProjection()
+  {
+    return this.projection;
+  }
+
+  /**
+   * @param projection The fields extracted by later extraction calls; by default, {@link GEOmetadbProjection#ALL}.
+   *                   The queries select only the columns of these fields, and sample fields are decoded from the
+   *                   selected columns when they are first requested.
+   */
+  public void setProjection(GEOmetadbProjection projection)
+  {
+    this.projection = projection;
+  }
+
+  public int getSeriesChunkSize()
+  {
+    return this.seriesChunkSize;
+  }
+
+  /**
+   * @param seriesChunkSize The number of series read from the database by each series and sample query
+   */
+  public void setSeriesChunkSize(int seriesChunkSize)
+  {
+    if (seriesChunkSize < 1)
+      throw new IllegalArgumentException("series chunk size must be positive; got " + seriesChunkSize);
+
+    this.seriesChunkSize = seriesChunkSize;
+  }
+
+  public List<GEOSubmissionMetadata> extractGEOSubmissionsMetadata(int startSeriesIndex, int numberOfSeries)
+    throws GEOReaderException
+  {
+    List<GEOSubmissionMetadata> submissions = new ArrayList<>();
+
+    extractGEOSubmissionsMetadata(startSeriesIndex, numberOfSeries, submissions::add);
+
+    return submissions;
+  }
+
+  /**
+   * Stream the submissions for every series in the database to a handler.
+   *
+   * @param handler Receives each extracted submission
+   * @throws GEOReaderException If an error occurs reading the database or if the handler fails
+   */
+  public void extractAllGEOSubmissionsMetadata(GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    extractGEOSubmissionsMetadata(0, Integer.MAX_VALUE, handler);
+  }
+
+  /**
+   * Stream the submissions for a range of series to a handler. Each submission is passed to the handler as soon as
+   * its series, samples and platforms have been assembled.
+   * <p>
+   * Series are indexed in GSE order. The range is read in chunks of {@link #getSeriesChunkSize()} series: each chunk
+   * runs the same pair of prepared series and sample queries, bound to the GSE range of the chunk, and the two result
+   * sets are merge-joined in memory. Platforms come from the reader's {@link GEOmetadbPlatformCache}. Only one chunk
+   * of series rows and the samples for the current series are held in memory, so any range, including the whole
+   * database, can be extracted in a single call.
+   * <p>
+   * If {@link #setDirectScan(boolean)} is set, the tables are instead scanned directly in the database file; the
+   * submissions are the same.
+   *
+   * @param startSeriesIndex Index of the first series to extract
+   * @param numberOfSeries   The number of series to extract
+   * @param handler          Receives each extracted submission
+   * @throws GEOReaderException If an error occurs reading the database or if the handler fails
+   */
+  public void extractGEOSubmissionsMetadata(int startSeriesIndex, int numberOfSeries,
+    GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    if (this.directScan) {
+      extractGEOSubmissionsMetadataDirectly(startSeriesIndex, numberOfSeries, handler);
+      return;
+    }
+
+    registerJDBCDriver();
+
+    try (SeriesChunkConnection chunkConnection = openSeriesChunkConnection()) {
+      if (this.warmPlatformCache && this.projection.getIncludePlatforms())
+        warmPlatformCache(chunkConnection.connection);
+
+      Optional<String> precedingGSE = findPrecedingSeriesID(chunkConnection.connection, startSeriesIndex);
+
+      if (!precedingGSE.isPresent()) {
+        System.out.println("No series found starting at index " + startSeriesIndex);
+        return;
+      }
+
+      String lastGSE = precedingGSE.get();
+      int seriesChunkStart = startSeriesIndex;
+      int remainingNumberOfSeries = numberOfSeries;
+
+      while (remainingNumberOfSeries > 0) {
+        List<String[]> seriesRows = extractSeriesChunkRows(chunkConnection, lastGSE,
+          Math.min(this.seriesChunkSize, remainingNumberOfSeries), seriesChunkStart);
+
+        if (seriesRows.isEmpty())
+          break;
+
+        extractSeriesChunk(chunkConnection, lastGSE, seriesRows, Optional.empty(), handler);
+
+        lastGSE = seriesRows.get(seriesRows.size() - 1)[SERIES_GSE];
+        seriesChunkStart += seriesRows.size();
+        remainingNumberOfSeries -= seriesRows.size();
+      }
+    } catch (SQLException e) {
+      throw new GEOReaderException("database error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Extract a range of series by reading the database file directly.
+   * <p>
+   * One scan of each table collects the key of every row with its rowid: the GSEs are sorted to find the range, and
+   * the rowids of the samples and platforms are grouped by series ID and GPL. The rows of each chunk of series and of
+   * their samples are then read by rowid in GSE order and merged as for the JDBC queries.
+   */
+  private void extractGEOSubmissionsMetadataDirectly(int startSeriesIndex, int numberOfSeries,
+    GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    try (GEOmetadbSQLiteFile databaseFile = new GEOmetadbSQLiteFile(this.sqliteDatabaseFilename)) {
+      GEOmetadbTableScanner seriesScanner = databaseFile.scan(GEOmetadbNames.SERIES_TABLE_NAME);
+      GEOmetadbTableScanner samplesScanner = databaseFile.scan(GEOmetadbNames.SAMPLE_TABLE_NAME);
+      GEOmetadbTableScanner platformScanner = databaseFile.scan(GEOmetadbNames.PLATFORM_TABLE_NAME);
+      int[] seriesColumns = seriesScanner.getColumnIndexes(GEOmetadbNames.SeriesTableColumnNames);
+      int[] sampleColumns = samplesScanner.getColumnIndexes(Arrays.asList(GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES));
+      int[] platformColumns = platformScanner.getColumnIndexes(GEOmetadbNames.PlatformTableColumnNames);
+      int gseColumn = seriesColumns[SERIES_GSE];
+      int seriesIDColumn = sampleColumns[GEOmetadbSample.SERIES_ID];
+      int gplColumn = platformColumns[PLATFORM_GPL];
+
+      if (this.warmPlatformCache && this.projection.getIncludePlatforms())
+        warmPlatformCache(platformScanner, platformColumns);
+
+      List<RowKey> seriesKeys = new ArrayList<>();
+      while (seriesScanner.next()) {
+        String gse = seriesScanner.getString(gseColumn);
+        if (gse != null && !gse.isEmpty())
+          seriesKeys.add(new RowKey(gse, seriesScanner.getRowID()));
+      }
+      Collections.sort(seriesKeys);
+
+      if (startSeriesIndex >= seriesKeys.size()) {
+        System.out.println("No series found starting at index " + startSeriesIndex);
+        return;
+      }
+
+      List<RowKey> selectedSeriesKeys = seriesKeys
+        .subList(startSeriesIndex, (int)Math.min((long)startSeriesIndex + numberOfSeries, seriesKeys.size()));
+      String lowerGSE = selectedSeriesKeys.get(0).value;
+      String upperGSE = selectedSeriesKeys.get(selectedSeriesKeys.size() - 1).value;
+
+      Map<String, RowIDs> sampleRowIDs = new HashMap<>(); // series ID -> sample rowids in rowid order
+      while (samplesScanner.next()) {
+        String seriesID = samplesScanner.getString(seriesIDColumn);
+        if (seriesID != null && seriesID.compareTo(lowerGSE) >= 0 && seriesID.compareTo(upperGSE) <= 0)
+          sampleRowIDs.computeIfAbsent(seriesID, k -> new RowIDs()).add(samplesScanner.getRowID());
+      }
+
+      Map<String, RowIDs> platformRowIDs = new HashMap<>(); // gpl -> platform rowids in rowid order
+      platformScanner.reset();
+      while (this.projection.getIncludePlatforms() && platformScanner.next()) {
+        String gpl = platformScanner.getString(gplColumn);
+        if (gpl != null)
+          platformRowIDs.computeIfAbsent(gpl, k -> new RowIDs()).add(platformScanner.getRowID());
+      }
+
+      for (int chunkStart = 0; chunkStart < selectedSeriesKeys.size(); chunkStart += this.seriesChunkSize) {
+        List<RowKey> chunkSeriesKeys = selectedSeriesKeys
+          .subList(chunkStart, Math.min(chunkStart + this.seriesChunkSize, selectedSeriesKeys.size()));
+        List<String[]> seriesRows = new ArrayList<>(chunkSeriesKeys.size());
+        List<RowIDs> chunkSampleRowIDs = new ArrayList<>(); // For each distinct series ID in the chunk, in order
+
+        for (RowKey seriesKey : chunkSeriesKeys) {
+          seriesScanner.seek(seriesKey.rowID);
+          seriesRows.add(this.projection.getSeriesBinding().read(seriesScanner, seriesColumns));
+          if (seriesRows.size() == 1 || !seriesKey.value.equals(chunkSeriesKeys.get(seriesRows.size() - 2).value))
+            chunkSampleRowIDs.add(sampleRowIDs.getOrDefault(seriesKey.value, new RowIDs()));
+        }
+
+        System.out.println(
+          "Extracting " + seriesRows.size() + " series, starting at index " + (startSeriesIndex + chunkStart)
+            + " (up to " + chunkSeriesKeys.get(chunkSeriesKeys.size() - 1).value + ")");
+
+        Iterator<RowIDs> seriesSampleRowIDs = chunkSampleRowIDs.iterator();
+        RowIDs[] currentSampleRowIDs = { null };
+        int[] nextSample = { 0 };
+
+        SampleRowSource sampleRows = () -> {
+          while (currentSampleRowIDs[0] == null || nextSample[0] == currentSampleRowIDs[0].size()) {
+            if (!seriesSampleRowIDs.hasNext())
+              return null;
+            currentSampleRowIDs[0] = seriesSampleRowIDs.next();
+            nextSample[0] = 0;
+          }
+          samplesScanner.seek(currentSampleRowIDs[0].get(nextSample[0]++));
+          return this.projection.getSampleBinding().read(samplesScanner, sampleColumns);
+        };
+
+        mergeSeriesAndSamples(
+          (gse, gpl) -> getPlatform(platformScanner, platformColumns, platformRowIDs.get(gpl), gse, gpl),
+          seriesRows, sampleRows, Optional.empty(), handler);
+      }
+    } catch (SQLException e) { // Not thrown when reading the file directly
+      throw new GEOReaderException("database error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * @param platformRowIDs The rowids of the platform rows with the GPL, or null if there are none
+   */
+  private Optional<Platform> getPlatform(GEOmetadbTableScanner platformScanner, int[] platformColumns,
+    RowIDs platformRowIDs, String gse, String gpl) throws GEOReaderException
+  {
+    Optional<Platform> cachedPlatform = this.platformCache.get(gpl);
+
+    if (cachedPlatform.isPresent())
+      return cachedPlatform;
+
+    if (platformRowIDs == null || !platformScanner.seek(platformRowIDs.get(0)))
+      return missingPlatform(gse, gpl);
+
+    Platform geoPlatform = extractGEOPlatformFromRow(
+      PLATFORM_BINDING.read(platformScanner, platformColumns));
+
+    if (platformRowIDs.size() > 1)
+      duplicatePlatform(gse, gpl);
+
+    return Optional.of(this.platformCache.put(gpl, geoPlatform));
+  }
+
+  /**
+   * Stream the submissions for a range of series to a handler, recording progress in a checkpoint file so that an
+   * interrupted extraction can be resumed.
+   * <p>
+   * Series are read in chunks as by {@link #extractGEOSubmissionsMetadata(int, int, GEOSubmissionMetadataHandler)}.
+   * After each chunk has been passed to the handler, a {@link GEOmetadbCheckpoint} with the next series to extract and
+   * the GPLs in the platform cache is written to the checkpoint file; the GPLs are only rewritten when the cache has
+   * gained or lost platforms. If the file exists when this method is called, extraction resumes after the last
+   * completed chunk and, if platforms are projected and the cache is not about to be warmed, the checkpointed
+   * platforms are reloaded into the cache with a few bulk queries.
+   * Series in a chunk that was interrupted are passed to the handler again on resumption.
+   * <p>
+   * If a quarantine file is given, series whose rows cannot be converted are appended to it with their error and
+   * extraction continues; otherwise the first such error aborts extraction.
+   *
+   * @param startSeriesIndex   Index of the first series to extract
+   * @param numberOfSeries     The number of series to extract
+   * @param checkpointFileName The checkpoint file, which is created if it does not exist
+   * @param quarantineFileName An optional file recording the series that could not be extracted
+   * @param handler            Receives each extracted submission
+   * @return The final checkpoint
+   * @throws GEOReaderException If an error occurs reading the database or the checkpoint file, if the checkpoint was
+   *                            written for a different range of series, or if the handler fails
+   */
+  public GEOmetadbCheckpoint extractResumableGEOSubmissionsMetadata(int startSeriesIndex, int numberOfSeries,
+    String checkpointFileName, Optional<String> quarantineFileName, GEOSubmissionMetadataHandler handler)
+    throws GEOReaderException
+  {
+    Optional<GEOmetadbCheckpoint> previousCheckpoint = GEOmetadbCheckpoint.read(checkpointFileName);
+
+    if (previousCheckpoint.isPresent()) {
+      GEOmetadbCheckpoint checkpoint = previousCheckpoint.get();
+
+      if (checkpoint.getStartSeriesIndex() != startSeriesIndex || checkpoint.getNumberOfSeries() != numberOfSeries)
+        throw new GEOReaderException(
+          "checkpoint file " + checkpointFileName + " is for " + checkpoint.getNumberOfSeries()
+            + " series starting at index " + checkpoint.getStartSeriesIndex() + ", not " + numberOfSeries
+            + " series starting at index " + startSeriesIndex);
+
+      if (checkpoint.isComplete()) {
+        System.out.println("Extraction recorded in checkpoint file " + checkpointFileName + " is already complete");
+        return checkpoint;
+      }
+      System.out.println("Resuming extraction at series index " + checkpoint.getNextSeriesIndex() + " from checkpoint "
+        + "file " + checkpointFileName);
+    }
+
+    registerJDBCDriver();
+
+    try (SeriesChunkConnection chunkConnection = openSeriesChunkConnection();
+      GEOmetadbQuarantine quarantine = quarantineFileName.isPresent() ?
+        new GEOmetadbQuarantine(quarantineFileName.get()) :
+        null) {
+      String lastGSE;
+      int seriesChunkStart;
+      int previousNumberOfQuarantinedSeries;
+
+      if (previousCheckpoint.isPresent()) {
+        lastGSE = previousCheckpoint.get().getLastSeriesID();
+        seriesChunkStart = previousCheckpoint.get().getNextSeriesIndex();
+        previousNumberOfQuarantinedSeries = previousCheckpoint.get().getNumberOfQuarantinedSeries();
+        if (this.projection.getIncludePlatforms() && !(this.warmPlatformCache && !this.platformCacheWarmed))
+          reloadPlatforms(chunkConnection.connection, previousCheckpoint.get().getCachedPlatformIDs());
+      } else {
+        Optional<String> precedingGSE = findPrecedingSeriesID(chunkConnection.connection, startSeriesIndex);
+
+        if (!precedingGSE.isPresent()) {
+          System.out.println("No series found starting at index " + startSeriesIndex);
+          GEOmetadbCheckpoint checkpoint = new GEOmetadbCheckpoint(startSeriesIndex, numberOfSeries,
+            startSeriesIndex, "", 0, Collections.emptyList(), true);
+          checkpoint.write(checkpointFileName);
+          return checkpoint;
+        }
+        lastGSE = precedingGSE.get();
+        seriesChunkStart = startSeriesIndex;
+        previousNumberOfQuarantinedSeries = 0;
+      }
+
+      if (this.warmPlatformCache && this.projection.getIncludePlatforms())
+        warmPlatformCache(chunkConnection.connection);
+
+      int remainingNumberOfSeries = numberOfSeries - (seriesChunkStart - startSeriesIndex);
+      Optional<GEOmetadbQuarantine> seriesQuarantine = Optional.ofNullable(quarantine);
+      List<String> cachedPlatformIDs = Collections.emptyList();
+      long platformCacheModificationCount = -1; // The GPLs are written with the first checkpoint
+      GEOmetadbCheckpoint checkpoint;
+
+      while (true) {
+        List<String[]> seriesRows = remainingNumberOfSeries > 0 ?
+          extractSeriesChunkRows(chunkConnection, lastGSE, Math.min(this.seriesChunkSize, remainingNumberOfSeries),
+            seriesChunkStart) :
+          Collections.emptyList();
+
+        if (!seriesRows.isEmpty()) {
+          extractSeriesChunk(chunkConnection, lastGSE, seriesRows, seriesQuarantine, handler);
+
+          lastGSE = seriesRows.get(seriesRows.size() - 1)[SERIES_GSE];
+          seriesChunkStart += seriesRows.size();
+          remainingNumberOfSeries -= seriesRows.size();
+        }
+
+        boolean platformCacheModified = this.platformCache.getModificationCount() != platformCacheModificationCount;
+
+        if (platformCacheModified) {
+          platformCacheModificationCount = this.platformCache.getModificationCount();
+          cachedPlatformIDs = this.platformCache.getGPLs();
+        }
+        checkpoint = new GEOmetadbCheckpoint(startSeriesIndex, numberOfSeries, seriesChunkStart, lastGSE,
+          previousNumberOfQuarantinedSeries + (quarantine != null ? quarantine.getNumberOfQuarantinedSeries() : 0),
+          cachedPlatformIDs, seriesRows.isEmpty());
+        if (platformCacheModified)
+          checkpoint.write(checkpointFileName);
+        else
+          checkpoint.writeProgress(checkpointFileName);
+
+        if (seriesRows.isEmpty())
+          break;
+      }
+
+      System.out.println("Extraction complete at series index " + seriesChunkStart + "; "
+        + checkpoint.getNumberOfQuarantinedSeries() + " series quarantined");
+
+      return checkpoint;
+    } catch (SQLException e) {
+      throw new GEOReaderException("database error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stream the submissions for a range of series to a handler, reading and converting chunks of series in parallel.
+   * <p>
+   * The range is split into chunks of {@link #getSeriesChunkSize()} series. Each chunk is read on a worker thread
+   * using one of a pool of read-only database connections, one per thread, and its rows are converted to
+   * submissions on that thread. The handler is always called on the calling thread. At most two chunks per thread
+   * are in flight at any time, which bounds memory use.
+   *
+   * @param startSeriesIndex    Index of the first series to extract
+   * @param numberOfSeries      The number of series to extract
+   * @param numberOfThreads     The number of worker threads and database connections
+   * @param preserveSeriesOrder If true, submissions are passed to the handler in GSE order; otherwise chunks are
+   *                            passed to the handler as soon as they are complete
+   * @param handler             Receives each extracted submission
+   * @throws GEOReaderException If an error occurs reading the database or if the handler fails
+   */
+  public void extractGEOSubmissionsMetadataInParallel(int startSeriesIndex, int numberOfSeries, int numberOfThreads,
+    boolean preserveSeriesOrder, GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    if (numberOfThreads < 1)
+      throw new GEOReaderException("number of threads must be positive; got " + numberOfThreads);
+
+    registerJDBCDriver();
+
+    // All opened connections are kept so that they are closed even if a worker is stopped while holding one
+    List<SeriesChunkConnection> openedChunkConnections = new ArrayList<>(numberOfThreads);
+    BlockingQueue<SeriesChunkConnection> chunkConnections = new ArrayBlockingQueue<>(numberOfThreads);
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    try {
+      for (int i = 0; i < numberOfThreads; i++) {
+        SeriesChunkConnection chunkConnection = openSeriesChunkConnection();
+        openedChunkConnections.add(chunkConnection);
+        chunkConnections.add(chunkConnection);
+      }
+
+      SeriesChunkConnection firstChunkConnection = chunkConnections.peek();
+      if (this.warmPlatformCache && this.projection.getIncludePlatforms())
+        warmPlatformCache(firstChunkConnection.connection);
+
+      Optional<String> precedingGSE = findPrecedingSeriesID(firstChunkConnection.connection, startSeriesIndex);
+
+      if (!precedingGSE.isPresent()) {
+        System.out.println("No series found starting at index " + startSeriesIndex);
+        return;
+      }
+
+      List<String> seriesChunkBoundaries = findSeriesChunkBoundaries(firstChunkConnection.connection,
+        precedingGSE.get(), numberOfSeries);
+      int maxChunksInFlight = 2 * numberOfThreads;
+      Deque<Future<List<GEOSubmissionMetadata>>> chunksInFlight = new ArrayDeque<>();
+      CompletionService<List<GEOSubmissionMetadata>> completionService = new ExecutorCompletionService<>(executor);
+
+      for (int chunkNumber = 0; chunkNumber < seriesChunkBoundaries.size() - 1; chunkNumber++) {
+        String lowerGSE = seriesChunkBoundaries.get(chunkNumber);
+        int seriesChunkStart = startSeriesIndex + chunkNumber * this.seriesChunkSize;
+        int seriesChunkSize = Math.min(this.seriesChunkSize, numberOfSeries - chunkNumber * this.seriesChunkSize);
+
+        if (chunksInFlight.size() == maxChunksInFlight)
+          handleSeriesChunk(preserveSeriesOrder ? chunksInFlight.poll() : takeCompleted(completionService,
+            chunksInFlight), handler);
+
+        Callable<List<GEOSubmissionMetadata>> chunkExtractor = () -> {
+          SeriesChunkConnection chunkConnection = chunkConnections.take();
+          try {
+            List<GEOSubmissionMetadata> submissions = new ArrayList<>();
+            List<String[]> seriesRows = extractSeriesChunkRows(chunkConnection, lowerGSE, seriesChunkSize,
+              seriesChunkStart);
+            extractSeriesChunk(chunkConnection, lowerGSE, seriesRows, Optional.empty(), submissions::add);
+            return submissions;
+          } finally {
+            chunkConnections.offer(chunkConnection); // Never blocks, so it is returned even if interrupted
+          }
+        };
+
+        // Completed chunks are only queued by the completion service when they are taken out of order
+        chunksInFlight.add(preserveSeriesOrder ?
+          executor.submit(chunkExtractor) :
+          completionService.submit(chunkExtractor));
+      }
+
+      while (!chunksInFlight.isEmpty())
+        handleSeriesChunk(preserveSeriesOrder ? chunksInFlight.poll() : takeCompleted(completionService,
+          chunksInFlight), handler);
+
+    } catch (SQLException e) {
+      throw new GEOReaderException("database error: " + e.getMessage());
+    } finally {
+      shutdownAndAwaitTermination(executor);
+      for (SeriesChunkConnection chunkConnection : openedChunkConnections) {
+        try {
+          chunkConnection.close();
+        } catch (SQLException e) {
+          System.err.println("Error closing database connection: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Stop the workers of an executor and wait until they have finished, so that the resources they use can be released
+   */
+  private static void shutdownAndAwaitTermination(ExecutorService executor)
+  {
+    executor.shutdownNow();
+    try {
+      while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+        System.err.println("Waiting for extraction threads to stop");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stream the submissions for a range of series to a handler through a pipeline of three stages connected by bounded
+   * queues, so that reading the database, which mostly waits on I/O, overlaps with converting rows, which is CPU-bound.
+   * <p>
+   * The read stage runs the chunk queries of {@link #extractGEOSubmissionsMetadata(int, int,
+   * GEOSubmissionMetadataHandler)} on its own thread and connection, and merge-joins the series and sample rows into
+   * batches of whole series. The parse stage converts the rows of each batch to series and samples on several threads.
+   * The assemble stage runs on the calling thread: it puts the batches back in GSE order, adds the platforms, and
+   * passes each submission to the handler. When a stage falls behind, the queue in front of it fills up and the stages
+   * before it block, so only a fixed number of batches are in memory at any time.
+   *
+   * @param startSeriesIndex     Index of the first series to extract
+   * @param numberOfSeries       The number of series to extract
+   * @param numberOfParseThreads The number of threads of the parse stage
+   * @param queueCapacity        The number of batches that each of the two queues can hold
+   * @param handler              Receives each extracted submission, in GSE order
+   * @return The busy and wait times and the throughput of each stage
+   * @throws GEOReaderException If an error occurs reading the database or if the handler fails
+   */
+  public GEOmetadbPipelineReport extractGEOSubmissionsMetadataInPipeline(int startSeriesIndex, int numberOfSeries,
+    int numberOfParseThreads, int queueCapacity, GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    if (numberOfParseThreads < 1)
+      throw new GEOReaderException("number of parse threads must be positive; got " + numberOfParseThreads);
+    if (queueCapacity < 1)
+      throw new GEOReaderException("queue capacity must be positive; got " + queueCapacity);
+
+    registerJDBCDriver();
+
+    long startNanos = System.nanoTime();
+    GEOmetadbStageMetrics readStage = new GEOmetadbStageMetrics("read", 1);
+    GEOmetadbStageMetrics parseStage = new GEOmetadbStageMetrics("parse", numberOfParseThreads);
+    GEOmetadbStageMetrics assembleStage = new GEOmetadbStageMetrics("assemble", 1);
+    BlockingQueue<SeriesBatch> readBatches = new ArrayBlockingQueue<>(queueCapacity);
+    BlockingQueue<SeriesBatch> parsedBatches = new ArrayBlockingQueue<>(queueCapacity);
+    // Batches are parsed out of order, so the assemble stage also holds the batches that are parsed ahead of a
+    // preceding batch; this bounds them together with the batches in the queues and in the parse threads
+    Semaphore batchPermits = new Semaphore(2 * queueCapacity + numberOfParseThreads);
+    ExecutorService executor = Executors.newFixedThreadPool(1 + numberOfParseThreads);
+
+    try (SeriesChunkConnection chunkConnection = openSeriesChunkConnection()) {
+      if (this.warmPlatformCache && this.projection.getIncludePlatforms())
+        warmPlatformCache(chunkConnection.connection);
+
+      Optional<String> precedingGSE = findPrecedingSeriesID(chunkConnection.connection, startSeriesIndex);
+
+      if (precedingGSE.isPresent()) {
+        executor.execute(
+          () -> readSeriesBatches(precedingGSE.get(), startSeriesIndex, numberOfSeries, readBatches, batchPermits,
+            readStage));
+        for (int i = 0; i < numberOfParseThreads; i++)
+          executor.execute(() -> parseSeriesBatches(readBatches, parsedBatches, parseStage));
+
+        assembleSeriesBatches(chunkConnection, parsedBatches, batchPermits, assembleStage, handler);
+      } else
+        System.out.println("No series found starting at index " + startSeriesIndex);
+    } catch (SQLException e) {
+      throw new GEOReaderException("database error: " + e.getMessage());
+    } finally {
+      shutdownAndAwaitTermination(executor); // The read stage holds its own connection until it stops
+    }
+    return new GEOmetadbPipelineReport(readStage, parseStage, assembleStage, System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Stream the submissions for the series that were added or changed since a watermark to a handler, and report
+   * which series were added, changed or removed.
+   * <p>
+   * A series is extracted if its GSE row, one of its GSM rows or the GPL row of one of its samples has a last update
+   * date on or after the watermark date, or if it is not among the watermark's series IDs. Dates have a resolution of
+   * one day, so series updated on the watermark date itself are extracted again. Series are read by ID in chunks of at
+   * most {@link #getSeriesChunkSize()} series.
+   * <p>
+   * The report's next watermark holds the latest update date in the database and the IDs of all of its series; writing
+   * it with {@link GEOmetadbWatermark#write(String)} after the handler has processed the submissions makes the next
+   * refresh incremental.
+   *
+   * @param watermark The point up to which the database was previously extracted; {@link GEOmetadbWatermark#initial()}
+   *                  extracts every series
+   * @param handler   Receives each extracted submission
+   * @return The added, changed and removed series
+   * @throws GEOReaderException If an error occurs reading the database or if the handler fails
+   */
+  public GEOmetadbChangeReport extractChangedGEOSubmissionsMetadata(GEOmetadbWatermark watermark,
+    GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    registerJDBCDriver();
+
+    try (SeriesChunkConnection chunkConnection = openSeriesChunkConnection()) {
+      Connection connection = chunkConnection.connection;
+
+      if (this.warmPlatformCache && this.projection.getIncludePlatforms())
+        warmPlatformCache(connection);
+
+      String latestUpdateDate = findLatestUpdateDate(connection).orElse(watermark.getDate());
+      SortedSet<String> seriesIDs = findSeriesIDs(connection, ALL_SERIES_IDS_SELECT, 0, null);
+      SortedSet<String> updatedSeriesIDs = findSeriesIDs(connection, CHANGED_SERIES_IDS_SELECT, 3,
+        watermark.getDate());
+      SortedSet<String> addedSeriesIDs = new TreeSet<>();
+      SortedSet<String> removedSeriesIDs = new TreeSet<>();
+
+      updatedSeriesIDs.retainAll(seriesIDs); // Ignore sample rows whose series is not in the database
+
+      if (watermark.getSeriesIDs().isPresent()) {
+        SortedSet<String> previousSeriesIDs = watermark.getSeriesIDs().get();
+
+        for (String gse : seriesIDs) {
+          if (!previousSeriesIDs.contains(gse))
+            addedSeriesIDs.add(gse);
+        }
+        for (String gse : previousSeriesIDs) {
+          if (!seriesIDs.contains(gse))
+            removedSeriesIDs.add(gse);
+        }
+      } else {
+        addedSeriesIDs.addAll(findSeriesIDs(connection, SUBMITTED_SERIES_IDS_SELECT, 1, watermark.getDate()));
+        addedSeriesIDs.retainAll(updatedSeriesIDs);
+      }
+
+      SortedSet<String> changedSeriesIDs = new TreeSet<>(updatedSeriesIDs);
+      changedSeriesIDs.removeAll(addedSeriesIDs);
+
+      SortedSet<String> extractedSeriesIDs = new TreeSet<>(addedSeriesIDs);
+      extractedSeriesIDs.addAll(changedSeriesIDs);
+
+      System.out.println(
+        "Extracting " + addedSeriesIDs.size() + " added and " + changedSeriesIDs.size() + " changed series since "
+          + (watermark.getDate().isEmpty() ? "the beginning" : watermark.getDate()));
+
+      extractSeriesByID(chunkConnection, extractedSeriesIDs, handler);
+
+      return new GEOmetadbChangeReport(addedSeriesIDs, changedSeriesIDs, removedSeriesIDs,
+        watermark.getSeriesIDs().isPresent(), new GEOmetadbWatermark(latestUpdateDate, seriesIDs));
+    } catch (SQLException e) {
+      throw new GEOReaderException("database error: " + e.getMessage());
+    }
+  }
+
+  private Future<List<GEOSubmissionMetadata>> takeCompleted(
+    CompletionService<List<GEOSubmissionMetadata>> completionService,
+    Deque<Future<List<GEOSubmissionMetadata>>> chunksInFlight) throws GEOReaderException
+  {
+    try {
+      Future<List<GEOSubmissionMetadata>> completedChunk = completionService.take();
+      chunksInFlight.remove(completedChunk);
+      return completedChunk;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GEOReaderException("interrupted waiting for series chunk", e);
+    }
+  }
+
+  private void handleSeriesChunk(Future<List<GEOSubmissionMetadata>> chunk, GEOSubmissionMetadataHandler handler)
+    throws GEOReaderException
+  {
+    try {
+      for (GEOSubmissionMetadata geoSubmissionMetadata : chunk.get())
+        handler.handle(geoSubmissionMetadata);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GEOReaderException("interrupted waiting for series chunk", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof GEOReaderException)
+        throw (GEOReaderException)e.getCause();
+      else if (e.getCause() instanceof SQLException)
+        throw new GEOReaderException("database error: " + e.getCause().getMessage(), e.getCause());
+      else
+        throw new GEOReaderException("error extracting series chunk: " + e.getCause(), e.getCause());
+    }
+  }
+
+  /**
+   * The read stage of a pipelined extraction. The series are read in chunks as by
+   * {@link #extractGEOSubmissionsMetadata(int, int, GEOSubmissionMetadataHandler)} and passed on in batches of whole
+   * series with their sample rows. The batches are followed by a last, empty batch, or by a batch holding the error
+   * that stopped the stage.
+   */
+  private void readSeriesBatches(String precedingGSE, int startSeriesIndex, int numberOfSeries,
+    BlockingQueue<SeriesBatch> readBatches, Semaphore batchPermits, GEOmetadbStageMetrics readStage)
+  {
+    SeriesBatch batch = new SeriesBatch(0);
+    Optional<GEOReaderException> error = Optional.empty();
+
+    try (SeriesChunkConnection chunkConnection = openSeriesChunkConnection()) {
+      String lastGSE = precedingGSE;
+      int seriesChunkStart = startSeriesIndex;
+      int remainingNumberOfSeries = numberOfSeries;
+      long batchStartNanos = System.nanoTime();
+
+      // SQLite queries are not interrupted, so an interrupt is checked between chunks
+      while (remainingNumberOfSeries > 0 && !Thread.currentThread().isInterrupted()) {
+        List<String[]> seriesRows = extractSeriesChunkRows(chunkConnection, lastGSE,
+          Math.min(this.seriesChunkSize, remainingNumberOfSeries), seriesChunkStart);
+
+        if (seriesRows.isEmpty())
+          break;
+
+        chunkConnection.samplesChunkSelectStatement.setString(1, lastGSE);
+        chunkConnection.samplesChunkSelectStatement.setString(2, seriesRows.get(seriesRows.size() - 1)[SERIES_GSE]);
+
+        try (ResultSet samplesRS = chunkConnection.samplesChunkSelectStatement.executeQuery()) {
+          SeriesGroupSource seriesGroups = new SeriesGroupSource(seriesRows, sampleRows(samplesRS));
+          SeriesGroup seriesGroup;
+
+          while ((seriesGroup = seriesGroups.next()) != null) {
+            batch.seriesGroups.add(seriesGroup);
+            batch.numberOfSamples += seriesGroup.sampleRows.size();
+
+            if (batch.numberOfSamples >= SAMPLES_PER_PIPELINE_BATCH) {
+              readStage.recordBatch(batch.seriesGroups.size(), batch.numberOfSamples,
+                System.nanoTime() - batchStartNanos);
+              passSeriesBatch(batch, readBatches, batchPermits, readStage);
+              batch = new SeriesBatch(batch.sequenceNumber + 1);
+              batchStartNanos = System.nanoTime();
+            }
+          }
+        }
+
+        lastGSE = seriesRows.get(seriesRows.size() - 1)[SERIES_GSE];
+        seriesChunkStart += seriesRows.size();
+        remainingNumberOfSeries -= seriesRows.size();
+      }
+
+      if (!batch.seriesGroups.isEmpty()) {
+        readStage.recordBatch(batch.seriesGroups.size(), batch.numberOfSamples, System.nanoTime() - batchStartNanos);
+        passSeriesBatch(batch, readBatches, batchPermits, readStage);
+        batch = new SeriesBatch(batch.sequenceNumber + 1);
+      }
+    } catch (SQLException e) {
+      error = Optional.of(new GEOReaderException("database error: " + e.getMessage()));
+    } catch (GEOReaderException e) {
+      error = Optional.of(e);
+    } catch (RuntimeException e) {
+      error = Optional.of(new GEOReaderException("error reading series: " + e, e));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt(); // The extraction was stopped
+      return;
+    }
+
+    try {
+      if (error.isPresent()) {
+        // The series that were read before the error are handled before it is reported
+        if (!batch.seriesGroups.isEmpty()) {
+          passSeriesBatch(batch, readBatches, batchPermits, readStage);
+          batch = new SeriesBatch(batch.sequenceNumber + 1);
+        }
+        batch.fail(0, error.get());
+      } else
+        batch.last = true;
+      readBatches.put(batch);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void passSeriesBatch(SeriesBatch batch, BlockingQueue<SeriesBatch> readBatches, Semaphore batchPermits,
+    GEOmetadbStageMetrics readStage) throws InterruptedException
+  {
+    long waitStartNanos = System.nanoTime();
+
+    batchPermits.acquire();
+    readBatches.put(batch);
+    readStage.recordWait(System.nanoTime() - waitStartNanos);
+  }
+
+  /**
+   * The parse stage of a pipelined extraction, which runs on each parse thread until it reaches the last batch. A batch
+   * that cannot be converted is passed on holding its error.
+   */
+  private void parseSeriesBatches(BlockingQueue<SeriesBatch> readBatches, BlockingQueue<SeriesBatch> parsedBatches,
+    GEOmetadbStageMetrics parseStage)
+  {
+    try {
+      while (true) {
+        long waitStartNanos = System.nanoTime();
+        SeriesBatch batch = readBatches.take();
+        long parseStartNanos = System.nanoTime();
+        parseStage.recordWait(parseStartNanos - waitStartNanos);
+
+        if (batch.last) {
+          readBatches.put(batch); // For the other parse threads
+          parsedBatches.put(batch);
+          return;
+        }
+
+        int seriesGroupIndex = 0;
+        try {
+          for (; seriesGroupIndex < batch.seriesGroups.size(); seriesGroupIndex++)
+            parseSeriesGroup(batch.seriesGroups.get(seriesGroupIndex));
+        } catch (GEOReaderException e) {
+          batch.fail(seriesGroupIndex, e);
+        } catch (RuntimeException e) {
+          batch.fail(seriesGroupIndex, new GEOReaderException("error extracting series: " + e, e));
+        }
+
+        long parseEndNanos = System.nanoTime();
+        parseStage.recordBatch(batch.seriesGroups.size(), batch.numberOfSamples, parseEndNanos - parseStartNanos);
+        parsedBatches.put(batch);
+        parseStage.recordWait(System.nanoTime() - parseEndNanos);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt(); // The extraction was stopped
+    }
+  }
+
+  private void parseSeriesGroup(SeriesGroup seriesGroup) throws GEOReaderException
+  {
+    int currentSampleRowNumber = seriesGroup.firstSampleRowNumber;
+
+    for (String[] sampleRow : seriesGroup.sampleRows) {
+      Optional<Sample> geoSample = extractGEOSampleFromRow(sampleRow, currentSampleRowNumber++);
+
+      if (geoSample.isPresent())
+        seriesGroup.samples.put(geoSample.get().getGSM(), geoSample.get());
+    }
+
+    if (!seriesGroup.samples.isEmpty())
+      seriesGroup.series = Optional.of(extractGEOSeriesFromRow(seriesGroup.seriesRow));
+  }
+
+  /**
+   * The assemble stage of a pipelined extraction. Batches are handled in sequence; a batch that arrives before the
+   * batches preceding it waits until they have been handled.
+   */
+  private void assembleSeriesBatches(SeriesChunkConnection chunkConnection, BlockingQueue<SeriesBatch> parsedBatches,
+    Semaphore batchPermits, GEOmetadbStageMetrics assembleStage, GEOSubmissionMetadataHandler handler)
+    throws SQLException, GEOReaderException
+  {
+    PlatformSource platforms = (gse, gpl) -> getPlatform(chunkConnection, gse, gpl);
+    Map<Long, SeriesBatch> waitingBatches = new HashMap<>(); // sequence number -> SeriesBatch
+    long nextSequenceNumber = 0;
+
+    try {
+      while (true) {
+        SeriesBatch batch = waitingBatches.remove(nextSequenceNumber);
+
+        if (batch == null) {
+          long waitStartNanos = System.nanoTime();
+          SeriesBatch parsedBatch = parsedBatches.take();
+          assembleStage.recordWait(System.nanoTime() - waitStartNanos);
+          waitingBatches.put(parsedBatch.sequenceNumber, parsedBatch);
+          continue;
+        }
+
+        if (!batch.seriesGroups.isEmpty()) {
+          long assembleStartNanos = System.nanoTime();
+
+          for (SeriesGroup seriesGroup : batch.seriesGroups) {
+            String gse = seriesGroup.seriesRow[SERIES_GSE];
+
+            if (seriesGroup.series.isPresent()) {
+              System.out.println(" Processing " + seriesGroup.samples.size() + " sample(s) for series " + gse);
+              handler.handle(assembleSubmission(platforms, gse, seriesGroup.series.get(), seriesGroup.samples));
+            } else
+              System.out.println("No samples for series " + gse + "; skipping");
+          }
+          assembleStage.recordBatch(batch.seriesGroups.size(), batch.numberOfSamples,
+            System.nanoTime() - assembleStartNanos);
+        }
+
+        // A failed batch holds the series before the one that failed, which are handled before the error is thrown
+        if (batch.error.isPresent())
+          throw batch.error.get();
+        else if (batch.last)
+          return;
+
+        batchPermits.release();
+        nextSequenceNumber++;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GEOReaderException("interrupted waiting for series batch", e);
+    }
+  }
+
+  /**
+   * @return The exclusive lower GSE bound of each chunk of series in the range, followed by the inclusive upper GSE
+   * bound of the last chunk
+   */
+  private List<String> findSeriesChunkBoundaries(Connection connection, String precedingGSE, int numberOfSeries)
+    throws SQLException
+  {
+    List<String> seriesChunkBoundaries = new ArrayList<>();
+
+    try (PreparedStatement seriesIDsSelectStatement = connection.prepareStatement(SERIES_IDS_SELECT)) {
+      seriesIDsSelectStatement.setString(1, precedingGSE);
+      seriesIDsSelectStatement.setInt(2, numberOfSeries);
+
+      ResultSet rs = seriesIDsSelectStatement.executeQuery();
+      String gse = precedingGSE;
+      int seriesCount = 0;
+
+      seriesChunkBoundaries.add(precedingGSE);
+      while (rs.next()) {
+        gse = rs.getString(1);
+        if (++seriesCount % this.seriesChunkSize == 0)
+          seriesChunkBoundaries.add(gse);
+      }
+      if (seriesCount % this.seriesChunkSize != 0)
+        seriesChunkBoundaries.add(gse);
+    }
+    return seriesChunkBoundaries;
+  }
+
+  /**
+   * @return The GSE immediately before the series at the supplied index, an empty string if the index is zero, or
+   * nothing if there is no series at the index
+   */
+  private Optional<String> findPrecedingSeriesID(Connection connection, int startSeriesIndex)
+    throws SQLException, GEOReaderException
+  {
+    try (PreparedStatement precedingSeriesIDSelectStatement = connection.prepareStatement(PRECEDING_SERIES_ID_SELECT)) {
+      precedingSeriesIDSelectStatement.setInt(1, startSeriesIndex == 0 ? 0 : startSeriesIndex - 1);
+
+      ResultSet rs = precedingSeriesIDSelectStatement.executeQuery();
+
+      if (!rs.next())
+        return Optional.empty();
+      else if (startSeriesIndex == 0)
+        return Optional.of("");
+      else {
+        String gse = rs.getString(1);
+
+        if (gse == null || gse.isEmpty())
+          throw new GEOReaderException(
+            "empty or missing primary key " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " before series index "
+              + startSeriesIndex);
+
+        return Optional.of(gse);
+      }
+    }
   }
 
-  public List<GEOSubmissionMetadata> extractGEOSubmissionsMetadata(int startSeriesIndex, int numberOfSeries)
-    throws GEOReaderException
+  /**
+   * @return Up to maxSeries series rows with a GSE greater than lowerGSE, in GSE order
+   */
+  private List<String[]> extractSeriesChunkRows(SeriesChunkConnection chunkConnection, String lowerGSE,
+    int maxSeries, int seriesChunkStart) throws SQLException, GEOReaderException
   {
-    List<GEOSubmissionMetadata> submissions = new ArrayList<>();
-    Map<String, Platform> geoPlatforms = new HashMap<>(); // gpl -> Platform
-    int seriesSliceStart = startSeriesIndex;
-    int seriesSliceEnd = startSeriesIndex + numberOfSeries;
+    List<String[]> seriesRows = new ArrayList<>();
 
-    registerJDBCDriver();
+    chunkConnection.seriesChunkSelectStatement.setString(1, lowerGSE);
+    chunkConnection.seriesChunkSelectStatement.setInt(2, maxSeries);
 
-    try (Connection connection = DriverManager.getConnection(JDBC.PREFIX + sqliteDatabaseFilename);
-      PreparedStatement seriesIDSelectStatement = connection.prepareStatement(SERIES_ID_SELECT)) {
+    try (ResultSet rs = chunkConnection.seriesChunkSelectStatement.executeQuery()) {
+      while (rs.next()) {
+        String[] seriesRow = this.projection.getSeriesBinding().read(rs);
 
-      List<String> seriesIDs = extractTableColumn(seriesIDSelectStatement, GEOmetadbNames.SERIES_TABLE_NAME,
-        GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME);
-      seriesIDSelectStatement.close();
+        if (seriesRow[SERIES_GSE] == null)
+          throw new GEOReaderException("Internal error: no column " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME +
+            " in " + GEOmetadbNames.SERIES_TABLE_NAME);
 
-      System.out.println("Found " + seriesIDs.size() + " series");
+        seriesRows.add(seriesRow);
+      }
+    }
 
-      String samplesForSeriesSelect = createSamplesSelectStatement(seriesIDs.subList(seriesSliceStart, seriesSliceEnd));
-      PreparedStatement samplesForSeriesSelectStatement = connection.prepareStatement(samplesForSeriesSelect);
+    if (!seriesRows.isEmpty())
+      System.out.println(
+        "Extracting " + seriesRows.size() + " series, starting at index " + seriesChunkStart + " (up to "
+          + seriesRows.get(seriesRows.size() - 1)[SERIES_GSE] + ")");
 
-      System.out.println("Extracting samples for " + numberOfSeries + " series, starting at index " + seriesSliceStart);
+    return seriesRows;
+  }
 
-      Map<String, Map<String, Sample>> geoSamples = extractGEOSamples(samplesForSeriesSelectStatement);
-      samplesForSeriesSelectStatement.close();
+  /**
+   * Read the samples for a chunk of series and merge them with the series rows.
+   */
+  private void extractSeriesChunk(SeriesChunkConnection chunkConnection, String lowerGSE,
+    List<String[]> seriesRows, Optional<GEOmetadbQuarantine> quarantine,
+    GEOSubmissionMetadataHandler handler) throws SQLException, GEOReaderException
+  {
+    if (seriesRows.isEmpty())
+      return;
 
-      System.out.println("Extracted samples for " + geoSamples.keySet().size() + " series");
+    String upperGSE = seriesRows.get(seriesRows.size() - 1)[SERIES_GSE];
 
-      for (String gse : seriesIDs.subList(seriesSliceStart, seriesSliceEnd)) {
-        PreparedStatement seriesSelectStatement = connection.prepareStatement(SERIES_SELECT);
-        seriesSelectStatement.setString(1, gse);
+    chunkConnection.samplesChunkSelectStatement.setString(1, lowerGSE);
+    chunkConnection.samplesChunkSelectStatement.setString(2, upperGSE);
 
-        List<Map<String, String>> seriesRows = extractTableRows(seriesSelectStatement, GEOmetadbNames.SERIES_TABLE_NAME,
-          GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME, GEOmetadbNames.SeriesTableColumnNames);
+    try (ResultSet samplesRS = chunkConnection.samplesChunkSelectStatement.executeQuery()) {
+      mergeSeriesAndSamples((gse, gpl) -> getPlatform(chunkConnection, gse, gpl), seriesRows, sampleRows(samplesRS),
+        quarantine, handler);
+    }
+  }
 
-        if (seriesRows.isEmpty())
-          throw new GEOReaderException("No series rows for series ID " + gse);
-        else if (seriesRows.size() > 1)
-          throw new GEOReaderException("Duplicate series rows for series ID " + gse);
+  /**
+   * Extract series by ID. The IDs are read in sorted chunks, so the series rows and sample rows of each chunk can be
+   * merge-joined like a range of series.
+   */
+  private void extractSeriesByID(SeriesChunkConnection chunkConnection, SortedSet<String> seriesIDs,
+    GEOSubmissionMetadataHandler handler) throws SQLException, GEOReaderException
+  {
+    int chunkSize = Math.min(this.seriesChunkSize, MAX_SERIES_IDS_PER_QUERY);
+    List<String> seriesIDChunk = new ArrayList<>(chunkSize);
+    Iterator<String> seriesIDIterator = seriesIDs.iterator();
+
+    while (seriesIDIterator.hasNext()) {
+      seriesIDChunk.clear();
+      while (seriesIDIterator.hasNext() && seriesIDChunk.size() < chunkSize)
+        seriesIDChunk.add(seriesIDIterator.next());
+
+      String parameters = String.join(", ", Collections.nCopies(seriesIDChunk.size(), "?"));
+      List<String[]> seriesRows = new ArrayList<>();
+
+      try (PreparedStatement seriesSelectStatement = chunkConnection.connection.prepareStatement(
+        "SELECT " + this.projection.getSeriesBinding().getSelectList() + " FROM "
+          + GEOmetadbNames.SERIES_TABLE_NAME + " WHERE " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME + " IN ("
+          + parameters + ") ORDER BY " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME)) {
+        for (int i = 0; i < seriesIDChunk.size(); i++)
+          seriesSelectStatement.setString(i + 1, seriesIDChunk.get(i));
+
+        try (ResultSet rs = seriesSelectStatement.executeQuery()) {
+          while (rs.next())
+            seriesRows.add(this.projection.getSeriesBinding().read(rs));
+        }
+      }
 
-        Map<String, String> seriesRow = seriesRows.get(0);
+      System.out.println("Extracting " + seriesRows.size() + " series, from " + seriesIDChunk.get(0) + " to "
+        + seriesIDChunk.get(seriesIDChunk.size() - 1));
 
-        if (!seriesRow.containsKey(GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME))
-          throw new GEOReaderException("Internal error: no column " + GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME +
-            " in " + GEOmetadbNames.SERIES_TABLE_NAME);
+      try (PreparedStatement samplesSelectStatement = chunkConnection.connection.prepareStatement(
+        "SELECT " + this.projection.getSampleBinding().getSelectList() + " FROM "
+          + GEOmetadbNames.SAMPLE_TABLE_NAME + " WHERE " + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME + " IN ("
+          + parameters + ") ORDER BY " + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME)) {
+        for (int i = 0; i < seriesIDChunk.size(); i++)
+          samplesSelectStatement.setString(i + 1, seriesIDChunk.get(i));
 
-        System.out.println(" Processing " + geoSamples.size() + " sample(s) for series " + gse);
-
-        if (geoSamples.containsKey(gse)) {
-          Map<String, Sample> geoSamplesForSeries = geoSamples.get(gse);
-          List<Platform> geoPlatformsForSeries = new ArrayList<>();
-          for (String gsm : geoSamplesForSeries.keySet()) {
-            Sample geoSample = geoSamplesForSeries.get(gsm);
-            String gpl = geoSample.getGPL();
-            Platform geoPlatform;
-
-            if (gpl.isEmpty())
-              throw new GEOReaderException("No platform specified in GEO sample " + gsm);
-
-            if (geoPlatforms.containsKey(gpl)) {
-              geoPlatform = geoPlatforms.get(gpl);
-              geoPlatformsForSeries.add(geoPlatform);
-            } else {
-              geoPlatform = getPlatform(connection, gse, gpl);
-              geoPlatformsForSeries.add(geoPlatform);
-              geoPlatforms.put(gpl, geoPlatform);
-            }
-          }
+        try (ResultSet samplesRS = samplesSelectStatement.executeQuery()) {
+          mergeSeriesAndSamples((gse, gpl) -> getPlatform(chunkConnection, gse, gpl), seriesRows,
+            sampleRows(samplesRS), Optional.empty(), handler);
+        }
+      }
+    }
+  }
 
-          Series geoSeries = extractGEOSeriesFromRow(seriesRow);
+  private Optional<String> findLatestUpdateDate(Connection connection) throws SQLException
+  {
+    try (Statement statement = connection.createStatement();
+      ResultSet rs = statement.executeQuery(LATEST_UPDATE_DATE_SELECT)) {
+      return rs.next() ? Optional.ofNullable(rs.getString(1)) : Optional.empty();
+    }
+  }
 
-          GEOSubmissionMetadata geoSubmissionMetadata = new GEOSubmissionMetadata(geoSeries, geoSamplesForSeries,
-            Optional.empty(), geoPlatformsForSeries);
-          submissions.add(geoSubmissionMetadata);
-        } else
-          System.out.println("No samples for series " + gse + "; skipping");
+  /**
+   * @param query              A query that selects series IDs
+   * @param numberOfParameters The number of parameters in the query, all of which are bound to the parameter value
+   */
+  private SortedSet<String> findSeriesIDs(Connection connection, String query, int numberOfParameters,
+    String parameterValue) throws SQLException
+  {
+    SortedSet<String> seriesIDs = new TreeSet<>();
 
+    try (PreparedStatement statement = connection.prepareStatement(query)) {
+      for (int i = 1; i <= numberOfParameters; i++)
+        statement.setString(i, parameterValue);
+
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          String gse = rs.getString(1);
+          if (gse != null && !gse.trim().isEmpty())
+            seriesIDs.add(gse.trim());
+        }
+      }
+    }
+    return seriesIDs;
+  }
+
+  private SeriesChunkConnection openSeriesChunkConnection() throws GEOReaderException
+  {
+    SQLiteConfig config = new SQLiteConfig();
+    config.setReadOnly(true);
+
+    try {
+      Connection connection = DriverManager.getConnection(JDBC.PREFIX + sqliteDatabaseFilename, config.toProperties());
+      try {
+        String seriesChunkSelect = String.format(SERIES_CHUNK_SELECT,
+          this.projection.getSeriesBinding().getSelectList());
+        String samplesChunkSelect = String.format(SAMPLES_CHUNK_SELECT,
+          this.projection.getSampleBinding().getSelectList());
+
+        return new SeriesChunkConnection(connection, connection.prepareStatement(seriesChunkSelect),
+          connection.prepareStatement(samplesChunkSelect), connection.prepareStatement(PLATFORM_SELECT));
+      } catch (SQLException e) {
+        connection.close();
+        throw e;
       }
     } catch (SQLException e) {
       throw new GEOReaderException("database error: " + e.getMessage());
     }
-    return submissions;
   }
 
-  private Platform getPlatform(Connection connection, String gse, String gpl) throws SQLException, GEOReaderException
+  /**
+   * The series rows and the sample rows must both be ordered by GSE. Each series row is paired with the run of sample
+   * rows that have the same series ID; sample rows for series that are not in the series rows are skipped.
+   * <p>
+   * If a quarantine is supplied, a series whose rows cannot be converted is recorded in it and skipped; otherwise the
+   * conversion error is thrown. Errors from the handler are always thrown.
+   */
+  private void mergeSeriesAndSamples(PlatformSource platforms, List<String[]> seriesRows,
+    SampleRowSource sampleRows, Optional<GEOmetadbQuarantine> quarantine, GEOSubmissionMetadataHandler handler)
+    throws SQLException, GEOReaderException
+  {
+    SeriesGroupSource seriesGroups = new SeriesGroupSource(seriesRows, sampleRows);
+    SeriesGroup seriesGroup;
+
+    while ((seriesGroup = seriesGroups.next()) != null) {
+      String gse = seriesGroup.seriesRow[SERIES_GSE];
+      GEOSubmissionMetadata geoSubmissionMetadata;
+
+      try {
+        parseSeriesGroup(seriesGroup);
+
+        if (!seriesGroup.series.isPresent()) {
+          System.out.println("No samples for series " + gse + "; skipping");
+          continue;
+        }
+
+        System.out.println(" Processing " + seriesGroup.samples.size() + " sample(s) for series " + gse);
+        geoSubmissionMetadata = assembleSubmission(platforms, gse, seriesGroup.series.get(), seriesGroup.samples);
+      } catch (GEOReaderException e) {
+        if (!quarantine.isPresent())
+          throw e;
+        quarantine.get().add(gse, e.getMessage());
+        continue;
+      }
+      handler.handle(geoSubmissionMetadata);
+    }
+  }
+
+  /**
+   * @param previousGSE The GSE of the preceding series row, or null
+   * @return True if the series row is a duplicate of the preceding one and the reader is lenient
+   */
+  private boolean isDuplicateSeries(String gse, String previousGSE) throws GEOReaderException
+  {
+    if (!gse.equals(previousGSE))
+      return false;
+
+    if (!this.lenient)
+      throw new GEOReaderException("Duplicate series rows for series ID " + gse);
+    this.diagnostics.add(new GEOmetadbDiagnostic(GEOmetadbNames.SERIES_TABLE_NAME, gse, "",
+      GEOmetadbDiagnostic.Reason.DUPLICATE_ROW, true));
+    return true;
+  }
+
+  private GEOSubmissionMetadata assembleSubmission(PlatformSource platforms, String gse, Series geoSeries,
+    Map<String, Sample> geoSamplesForSeries) throws SQLException, GEOReaderException
+  {
+    Map<String, Optional<Platform>> geoPlatformsForSeries = new HashMap<>(); // gpl -> Platform, if found
+    List<Platform> geoPlatforms = new ArrayList<>(); // In first-use order
+
+    for (String gsm : geoSamplesForSeries.keySet()) {
+      Sample geoSample = geoSamplesForSeries.get(gsm);
+      String gpl = geoSample.getGPL();
+
+      if (gpl.isEmpty())
+        throw new GEOReaderException("No platform specified in GEO sample " + gsm);
+
+      if (this.projection.getIncludePlatforms() && !geoPlatformsForSeries.containsKey(gpl)) {
+        Optional<Platform> geoPlatform = platforms.getPlatform(gse, gpl);
+
+        geoPlatformsForSeries.put(gpl, geoPlatform);
+        geoPlatform.ifPresent(geoPlatforms::add);
+      }
+    }
+
+    return new GEOSubmissionMetadata(geoSeries, geoSamplesForSeries, Optional.empty(), geoPlatforms);
+  }
+
+  /**
+   * @return The platform, or nothing if it is missing and the reader is lenient
+   */
+  private Optional<Platform> getPlatform(SeriesChunkConnection chunkConnection, String gse, String gpl)
+    throws SQLException, GEOReaderException
   {
-    PreparedStatement platformSelectStatement = connection.prepareStatement(PLATFORM_SELECT);
+    Optional<Platform> cachedPlatform = this.platformCache.get(gpl);
+
+    if (cachedPlatform.isPresent())
+      return cachedPlatform;
+
+    chunkConnection.platformSelectStatement.setString(1, gpl);
 
-    platformSelectStatement.setString(1, gpl);
+    try (ResultSet rs = chunkConnection.platformSelectStatement.executeQuery()) {
+      if (!rs.next())
+        return missingPlatform(gse, gpl);
 
-    List<Map<String, String>> platformRows = extractTableRows(platformSelectStatement,
-      GEOmetadbNames.PLATFORM_TABLE_NAME, GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME,
-      GEOmetadbNames.PlatformTableColumnNames);
+      Platform geoPlatform = extractGEOPlatformFromRow(PLATFORM_BINDING.read(rs));
+
+      if (rs.next())
+        duplicatePlatform(gse, gpl);
+
+      return Optional.of(this.platformCache.put(gpl, geoPlatform));
+    }
+  }
 
-    if (platformRows.isEmpty())
+  private Optional<Platform> missingPlatform(String gse, String gpl) throws GEOReaderException
+  {
+    if (!this.lenient)
       throw new GEOReaderException("No platform with GPL " + gpl + " found for series " + gse);
-    else if (platformRows.size() > 1)
+
+    this.diagnostics.add(new GEOmetadbDiagnostic(GEOmetadbNames.PLATFORM_TABLE_NAME, gpl, "",
+      GEOmetadbDiagnostic.Reason.MISSING_ROW, true));
+    return Optional.empty();
+  }
+
+  /**
+   * In lenient mode the first of the duplicate platform rows is used.
+   */
+  private void duplicatePlatform(String gse, String gpl) throws GEOReaderException
+  {
+    if (!this.lenient)
       throw new GEOReaderException("Duplicate platform with GPL " + gpl + " found for series " + gse);
 
-    return extractGEOPlatformFromRow(platformRows.get(0));
+    this.diagnostics.add(new GEOmetadbDiagnostic(GEOmetadbNames.PLATFORM_TABLE_NAME, gpl, "",
+      GEOmetadbDiagnostic.Reason.DUPLICATE_ROW, false));
   }
 
-  private void registerJDBCDriver() throws GEOReaderException
+  /**
+   * Bulk-load the platform table into the platform cache, stopping when the cache is full. Platform rows that cannot
+   * be converted are skipped here; an error is reported if a sample refers to one of them.
+   *
+   * @throws GEOReaderException If an error occurs reading the database
+   */
+  public void warmPlatformCache() throws GEOReaderException
   {
-    try {
-      DriverManager.registerDriver(new org.sqlite.JDBC());
+    registerJDBCDriver();
+
+    try (SeriesChunkConnection chunkConnection = openSeriesChunkConnection()) {
+      warmPlatformCache(chunkConnection.connection);
     } catch (SQLException e) {
-      throw new GEOReaderException("error registering JDBC driver: " + e.getMessage());
+      throw new GEOReaderException("database error: " + e.getMessage());
+    }
+  }
+
+  private synchronized void warmPlatformCache(Connection connection) throws SQLException
+  {
+    if (this.platformCacheWarmed)
+      return;
+
+    int numberOfPlatforms = 0;
+
+    try (PreparedStatement platformsSelectStatement = connection.prepareStatement(PLATFORMS_SELECT)) {
+      ResultSet rs = platformsSelectStatement.executeQuery();
+
+      while (rs.next() && !this.platformCache.isFull()) {
+        if (cachePlatform(PLATFORM_BINDING.read(rs)))
+          numberOfPlatforms++;
+      }
+    }
+    this.platformCacheWarmed = true;
+
+    System.out.println("Loaded " + numberOfPlatforms + " platform(s) from " + GEOmetadbNames.PLATFORM_TABLE_NAME
+      + " table into platform cache");
+  }
+
+  private synchronized void warmPlatformCache(GEOmetadbTableScanner platformScanner, int[] platformColumns)
+    throws GEOReaderException
+  {
+    if (this.platformCacheWarmed)
+      return;
+
+    int numberOfPlatforms = 0;
+
+    platformScanner.reset();
+    while (platformScanner.next() && !this.platformCache.isFull()) {
+      if (cachePlatform(PLATFORM_BINDING.read(platformScanner, platformColumns)))
+        numberOfPlatforms++;
     }
+    this.platformCacheWarmed = true;
+
+    System.out.println("Loaded " + numberOfPlatforms + " platform(s) from " + GEOmetadbNames.PLATFORM_TABLE_NAME
+      + " table into platform cache");
   }
 
   /**
-   * @param samplesSelectStatement
-   * @return gse -> (gsm -> Sample)
-   * @throws SQLException
-   * @throws GEOReaderException
+   * Load the platforms with the given GPLs that are not already cached into the platform cache, in the given order,
+   * with one query per {@link #MAX_PLATFORM_IDS_PER_QUERY} GPLs. GPLs with no platform row are skipped; an error is
+   * reported if a sample refers to one of them.
    */
-  private Map<String, Map<String, Sample>> extractGEOSamples(PreparedStatement samplesSelectStatement)
-    throws SQLException, GEOReaderException
+  private synchronized void reloadPlatforms(Connection connection, List<String> gpls) throws SQLException
   {
-    Map<String, Map<String, Sample>> geoSamples = new HashMap<>(); // gse -> (gsm -> Sample)
-    ResultSet rs = samplesSelectStatement.executeQuery();
-
-    int currentRowNumber = 1;
-    while (rs.next()) {
-      Map<String, String> sampleRow = new LinkedHashMap<>();
-      for (String columnName : GEOmetadbNames.SampleTableColumnNames) {
-        String value = rs.getString(columnName);
-        if (value != null && !value.isEmpty())
-          sampleRow.put(columnName, value.trim());
-      }
-      if (sampleRow.containsKey(GEOmetadbNames.SAMPLE_TABLE_GSM_COLUMN_NAME)) {
-        String gse = sampleRow.get(GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME);
-        String gsm = sampleRow.get(GEOmetadbNames.SAMPLE_TABLE_GSM_COLUMN_NAME);
-        Sample geoSample = extractGEOSampleFromRow(gse, sampleRow, currentRowNumber);
-        if (geoSamples.containsKey(gse)) {
-          geoSamples.get(gse).put(gsm, geoSample);
-        } else {
-          Map<String, Sample> samplesForSeries = new HashMap<>();
-          samplesForSeries.put(gsm, geoSample);
-          geoSamples.put(gse, samplesForSeries);
+    List<String> uncachedGPLs = new ArrayList<>();
+    int numberOfPlatforms = 0;
+
+    for (String gpl : gpls)
+      if (!this.platformCache.get(gpl).isPresent())
+        uncachedGPLs.add(gpl);
+
+    for (int chunkStart = 0; chunkStart < uncachedGPLs.size(); chunkStart += MAX_PLATFORM_IDS_PER_QUERY) {
+      List<String> gplChunk = uncachedGPLs
+        .subList(chunkStart, Math.min(chunkStart + MAX_PLATFORM_IDS_PER_QUERY, uncachedGPLs.size()));
+      Map<String, String[]> platformRows = new HashMap<>(); // gpl -> first platform row
+
+      try (PreparedStatement platformsSelectStatement = connection.prepareStatement(
+        PLATFORMS_SELECT + " WHERE " + GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME + " IN (" + String
+          .join(", ", Collections.nCopies(gplChunk.size(), "?")) + ")")) {
+        for (int i = 0; i < gplChunk.size(); i++)
+          platformsSelectStatement.setString(i + 1, gplChunk.get(i));
+
+        try (ResultSet rs = platformsSelectStatement.executeQuery()) {
+          while (rs.next()) {
+            String[] platformRow = PLATFORM_BINDING.read(rs);
+
+            if (platformRow[PLATFORM_GPL] != null)
+              platformRows.putIfAbsent(platformRow[PLATFORM_GPL], platformRow);
+          }
         }
-      } else {
-        throw new GEOReaderException(
-          "Missing value in " + GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME + " column of table "
-            + GEOmetadbNames.SAMPLE_TABLE_NAME);
       }
-      currentRowNumber++;
+
+      for (String gpl : gplChunk)
+        if (platformRows.containsKey(gpl) && cachePlatform(platformRows.get(gpl)))
+          numberOfPlatforms++;
     }
 
-    System.out
-      .println("" + (currentRowNumber - 1) + " row(s) extracted from  " + GEOmetadbNames.SAMPLE_TABLE_NAME + " table");
+    System.out.println("Reloaded " + numberOfPlatforms + " checkpointed platform(s) into platform cache");
+  }
+
+  /**
+   * @return True if the platform row was converted and cached
+   */
+  private boolean cachePlatform(String[] platformRow)
+  {
+    String gpl = platformRow[PLATFORM_GPL];
+
+    if (gpl == null)
+      return false;
+
+    try {
+      this.platformCache.put(gpl, extractGEOPlatformFromRow(platformRow));
+      return true;
+    } catch (GEOReaderException e) {
+      System.out.println("Not caching platform " + gpl + ": " + e.getMessage());
+      return false;
+    }
+  }
 
-    return geoSamples;
+  private void registerJDBCDriver() throws GEOReaderException
+  {
+    try {
+      DriverManager.registerDriver(new org.sqlite.JDBC());
+    } catch (SQLException e) {
+      throw new GEOReaderException("error registering JDBC driver: " + e.getMessage());
+    }
   }
 
-  private Series extractGEOSeriesFromRow(Map<String, String> seriesRow) throws GEOReaderException
+  private Series extractGEOSeriesFromRow(String[] seriesRow) throws GEOReaderException
   {
-    String gse = getRequiredStringValueFromRow(GEOmetadbNames.SERIES_TABLE_GSE_COLUMN_NAME, seriesRow);
-    String title = getRequiredStringValueFromRow(GEOmetadbNames.SERIES_TABLE_TITLE_COLUMN_NAME, seriesRow);
-    String summary = getRequiredStringValueFromRow(GEOmetadbNames.SERIES_TABLE_SUMMARY_COLUMN_NAME, seriesRow);
-    Optional<String> overallDesign = getOptionalStringValueFromRow(
-      GEOmetadbNames.SERIES_TABLE_OVERALL_DESIGN_COLUMN_NAME, seriesRow);
-    Optional<String> contributor = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_CONTRIBUTOR_COLUMN_NAME,
-      seriesRow);
+    String gse = seriesRow[SERIES_GSE];
+    String title = getRequiredSeriesValueFromRow(seriesRow, SERIES_TITLE, gse);
+    Optional<String> summary = this.projection.getSeriesBinding().selects(SERIES_SUMMARY) ?
+      Optional.of(getRequiredSeriesValueFromRow(seriesRow, SERIES_SUMMARY, gse)) :
+      Optional.empty();
+    Optional<String> overallDesign = getOptionalStringValueFromRow(seriesRow, SERIES_OVERALL_DESIGN);
+    Optional<String> contributor = getOptionalStringValueFromRow(seriesRow, SERIES_CONTRIBUTOR);
     List<Contributor> contributors = contributor.isPresent() ?
       extractContributors(contributor.get()) :
       Collections.emptyList();
-    Optional<String> webLink = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_WEB_LINK_COLUMN_NAME,
-      seriesRow);
-    String type = getRequiredStringValueFromRow(GEOmetadbNames.SERIES_TABLE_TYPE_COLUMN_NAME, seriesRow);
-    Optional<String> status = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_STATUS_COLUMN_NAME, seriesRow);
-    Optional<String> submissionDate = getOptionalStringValueFromRow(
-      GEOmetadbNames.SERIES_TABLE_SUBMISSION_DATE_COLUMN_NAME, seriesRow);
-    Optional<String> lastUpdateDate = getOptionalStringValueFromRow(
-      GEOmetadbNames.SERIES_TABLE_LAST_UPDATE_DATE_COLUMN_NAME, seriesRow);
-    Optional<String> contact = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_CONTACT_COLUMN_NAME,
-      seriesRow);
-    Optional<String> pubMedID = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_PUBMED_ID_COLUMN_NAME,
-      seriesRow);
+    Optional<String> webLink = getOptionalStringValueFromRow(seriesRow, SERIES_WEB_LINK);
+    String type = getRequiredSeriesValueFromRow(seriesRow, SERIES_TYPE, gse);
+    Optional<String> status = getOptionalStringValueFromRow(seriesRow, SERIES_STATUS);
+    Optional<String> submissionDate = getOptionalStringValueFromRow(seriesRow, SERIES_SUBMISSION_DATE);
+    Optional<String> lastUpdateDate = getOptionalStringValueFromRow(seriesRow, SERIES_LAST_UPDATE_DATE);
+    Optional<String> contact = getOptionalStringValueFromRow(seriesRow, SERIES_CONTACT);
+    Optional<String> pubMedID = getOptionalStringValueFromRow(seriesRow, SERIES_PUBMED_ID);
     List<String> pubMedIDs = pubMedID.isPresent() ? Collections.singletonList(pubMedID.get()) : Collections.emptyList();
-    Optional<String> repeats = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_REPEATS_COLUMN_NAME,
-      seriesRow);
-    Optional<String> repeatsSamples = getOptionalStringValueFromRow(
-      GEOmetadbNames.SERIES_TABLE_REPEATS_SAMPLE_LIST_COLUMN_NAME, seriesRow);
-    Optional<String> variable = getOptionalStringValueFromRow(GEOmetadbNames.SERIES_TABLE_VARIABLE_COLUMN_NAME,
-      seriesRow);
+    Optional<String> repeats = getOptionalStringValueFromRow(seriesRow, SERIES_REPEATS);
+    Optional<String> repeatsSamples = getOptionalStringValueFromRow(seriesRow, SERIES_REPEATS_SAMPLE_LIST);
+    Optional<String> variable = getOptionalStringValueFromRow(seriesRow, SERIES_VARIABLE);
     Map<String, Map<String, String>> variables = variable.isPresent() ?
       extractVariables(variable.get()) :
       Collections.emptyMap();
-    Optional<String> variableDescription = getOptionalStringValueFromRow(
-      GEOmetadbNames.SERIES_TABLE_VARIABLE_DESCRIPTION_COLUMN_NAME, seriesRow);
-    Optional<String> supplementaryFile = getOptionalStringValueFromRow(
-      GEOmetadbNames.SERIES_TABLE_SUPPLEMENTARY_FILE_COLUMN_NAME, seriesRow);
+    Optional<String> variableDescription = getOptionalStringValueFromRow(seriesRow, SERIES_VARIABLE_DESCRIPTION);
+    Optional<String> supplementaryFile = getOptionalStringValueFromRow(seriesRow, SERIES_SUPPLEMENTARY_FILE);
 
-    // TODO Use: type (comma separated), webLink, status, submissionDate, lastUpdateDate, contact,
+    // TODO Use: type (comma separated), webLink, status, contact,
     // supplementaryFile (comma separated), repeats
-    return new Series(gse, title, Collections.singletonList(summary),
+    return new Series(gse, title,
+      summary.isPresent() ? Collections.singletonList(summary.get()) : Collections.emptyList(),
       overallDesign.isPresent() ? Collections.singletonList(overallDesign.get()) : Collections.emptyList(),
-      contributors, pubMedIDs, variables, Collections.emptyMap());
+      contributors, pubMedIDs, variables, Collections.emptyMap(), submissionDate, lastUpdateDate);
+  }
+
+  /**
+   * @return The value of a required column of the series table, or an empty string if the column is not in the
+   * projection
+   */
+  private String getRequiredSeriesValueFromRow(String[] seriesRow, int column, String gse) throws GEOReaderException
+  {
+    if (!this.projection.getSeriesBinding().selects(column))
+      return "";
+
+    return getRequiredStringValueFromRow(seriesRow, column, GEOmetadbNames.SERIES_TABLE_NAME,
+      GEOmetadbNames.SERIES_TABLE_COLUMN_NAMES, gse);
   }
 
-  private Sample extractGEOSampleFromRow(String gse, Map<String, String> sampleRow, int currentRowNumber)
+  private String getRequiredPlatformValueFromRow(String[] platformRow, int column, String gpl)
     throws GEOReaderException
   {
-    String gsm = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_GSM_COLUMN_NAME, sampleRow,
-      currentRowNumber);
-    String gpl = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_GPL_COLUMN_NAME, sampleRow,
-      currentRowNumber);
-    String seriesID = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME, sampleRow,
-      currentRowNumber);
-
-    String title = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_TITLE_COLUMN_NAME, sampleRow,
-      currentRowNumber);
-    String status = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_STATUS_COLUMN_NAME, sampleRow,
-      currentRowNumber);
-    String typesString = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_TYPE_COLUMN_NAME, sampleRow,
-      currentRowNumber);
-    Set<String> types = extractTypes(typesString);
-
-    String channel1Source = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_SOURCE_NAME_CH1_COLUMN_NAME,
-      sampleRow, currentRowNumber);
-    Optional<String> channel1RawCharacteristic = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_CHARACTERISTIC_CH1_COLUMN_NAME, sampleRow);
-
-    Map<String, String> channel1Characteristics = extractCharacteristics(channel1RawCharacteristic);
-    String channel1Molecule = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_MOLECULE_CH1_COLUMN_NAME,
-            sampleRow, currentRowNumber);
-    String channel1Organism = getRequiredStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_ORGANISM_CH1_COLUMN_NAME,
-            sampleRow, currentRowNumber);
-    String channel1Label = getStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_LABEL_CH1_COLUMN_NAME, sampleRow);
-    Optional<String> channel1TreatmentProtocol = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_TREATMENT_PROTOCOL_CH1_COLUMN_NAME, sampleRow);
-    Optional<String> channel1ExtractProtocol = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_EXTRACT_PROTOCOL_CH1_COLUMN_NAME, sampleRow);
-
-    String channel2Source = getStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_SOURCE_NAME_CH2_COLUMN_NAME, sampleRow);
-    Optional<String> channel2RawCharacteristic = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_CHARACTERISTIC_CH2_COLUMN_NAME, sampleRow);
-    Map<String, String> channel2Characteristics = extractCharacteristics(channel2RawCharacteristic);
-    String channel2Molecule = getStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_MOLECULE_CH2_COLUMN_NAME, sampleRow);
-    String channel2Organism = getStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_ORGANISM_CH2_COLUMN_NAME, sampleRow);
-    String channel2Label = getStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_LABEL_CH2_COLUMN_NAME, sampleRow);
-    Optional<String> channel2TreatmentProtocol = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_TREATMENT_PROTOCOL_CH2_COLUMN_NAME, sampleRow);
-    Optional<String> channel2ExtractProtocol = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_EXTRACT_PROTOCOL_CH2_COLUMN_NAME, sampleRow);
-
-    Optional<String> hybProtocol = getOptionalStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_HYB_PROTOCOL_COLUMN_NAME,
-      sampleRow);
-    Optional<String> description = getOptionalStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_DESCRIPTION_COLUMN_NAME,
-      sampleRow);
-    Optional<String> dataProcessing = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_DATA_PROCESSING_COLUMN_NAME, sampleRow);
-    Optional<String> contact = getOptionalStringValueFromRow(GEOmetadbNames.SAMPLE_TABLE_CONTACT_COLUMN_NAME,
-      sampleRow);
-    Optional<String> supplementaryFile = getOptionalStringValueFromRow(
-      GEOmetadbNames.SAMPLE_TABLE_SUPPLEMENTARY_FILE_COLUMN_NAME, sampleRow);
-
-    Map<Integer, PerChannelSampleInfo> perChannelInformation = new HashMap<>();
-    PerChannelSampleInfo channel1SampleInfo = new PerChannelSampleInfo(1, channel1Source, channel1Organism,
-            channel1Characteristics, channel1Molecule, channel1Label, channel1TreatmentProtocol, channel1ExtractProtocol);
-    PerChannelSampleInfo channel2SampleInfo = new PerChannelSampleInfo(2, channel2Source, channel2Organism,
-      channel2Characteristics, channel2Molecule, channel2Label, channel2TreatmentProtocol, channel2ExtractProtocol);
-    perChannelInformation.put(1, channel1SampleInfo);
-    perChannelInformation.put(2, channel2SampleInfo);
+    return getRequiredStringValueFromRow(platformRow, column, GEOmetadbNames.PLATFORM_TABLE_NAME,
+      GEOmetadbNames.PLATFORM_TABLE_COLUMN_NAMES, gpl);
+  }
+
+  /**
+   * The returned sample is a view over the row, which must not be modified afterwards.
+   */
+  private Optional<Sample> extractGEOSampleFromRow(String[] sampleRow, int currentRowNumber) throws GEOReaderException
+  {
+    for (int column : GEOmetadbSample.REQUIRED_COLUMNS) {
+      if (sampleRow[column] == null && !this.projection.getSampleBinding().selects(column))
+        sampleRow[column] = ""; // Not extracted
+      else if (sampleRow[column] == null) {
+        String key = sampleRow[GEOmetadbSample.GSM] != null ?
+          sampleRow[GEOmetadbSample.GSM] :
+          "row " + currentRowNumber;
+
+        if (!this.lenient)
+          throw new GEOReaderException(
+            "missing value for required column " + GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES[column] + " in table "
+              + GEOmetadbNames.SAMPLE_TABLE_NAME + " for " + key + " at row " + currentRowNumber);
+
+        boolean keyColumn = column == GEOmetadbSample.GSM || column == GEOmetadbSample.GPL
+          || column == GEOmetadbSample.SERIES_ID;
+
+        this.diagnostics.add(new GEOmetadbDiagnostic(GEOmetadbNames.SAMPLE_TABLE_NAME, key,
+          GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES[column], GEOmetadbDiagnostic.Reason.MISSING_REQUIRED_VALUE,
+          keyColumn));
+
+        if (keyColumn)
+          return Optional.empty();
+        else
+          sampleRow[column] = "";
+      }
+    }
 
     // TODO Use: status, types, hybProtocol, dataProcessing, supplementaryFile
-    return new Sample(gse, gsm, title, "", description, gpl, perChannelInformation, Optional.empty(),
-      Collections.emptyList(), Optional.empty(), Optional.empty(), Optional.empty());
+    return Optional.of(new GEOmetadbSample(sampleRow, this.dictionary));
   }
 
   /**
@@ -337,43 +1704,36 @@ public class GEOmetadbReader
     return variables;
   }
 
-  private Platform extractGEOPlatformFromRow(Map<String, String> platformRow) throws GEOReaderException
-  {
-    String title = getRequiredStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_TITLE_COLUMN_NAME, platformRow);
-    String gpl = getRequiredStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME, platformRow);
-    Optional<String> status = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_STATUS_COLUMN_NAME,
-      platformRow);
-    Optional<String> submissionDate = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_SUBMISSION_DATE_COLUMN_NAME, platformRow);
-    Optional<String> lastUpdateDate = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_LAST_UPDATE_DATE_COLUMN_NAME, platformRow);
-    String technology = getRequiredStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_TECHNOLOGY_COLUMN_NAME,
-      platformRow);
-    String distribution = getRequiredStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_DISTRIBUTION_COLUMN_NAME,
-      platformRow);
-    String organism = getRequiredStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_ORGANISM_COLUMN_NAME, platformRow);
-    Optional<String> manufacturer = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_MANUFACTURER_COLUMN_NAME, platformRow);
-    Optional<String> manufactureProtocol = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_MANUFACTURE_PROTOCOL_COLUMN_NAME, platformRow);
-    Optional<String> coating = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_COATING_COLUMN_NAME,
-      platformRow);
-    Optional<String> catalogNumber = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_CATALOG_NUMBER_COLUMN_NAME, platformRow);
-    Optional<String> support = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_SUPPORT_COLUMN_NAME,
-      platformRow);
-    Optional<String> description = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_DESCRIPTION_COLUMN_NAME,
-      platformRow);
-    Optional<String> webLink = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_WEB_LINK_COLUMN_NAME,
-      platformRow);
-    Optional<String> contact = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_CONTACT_COLUMN_NAME,
-      platformRow);
-    Optional<String> dataRowCount = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_DATA_ROW_COUNT_COLUMN_NAME, platformRow);
-    Optional<String> supplementaryFile = getOptionalStringValueFromRow(
-      GEOmetadbNames.PLATFORM_TABLE_SUPPLEMENTARY_FILE_COLUMN_NAME, platformRow);
-    Optional<String> biocPackage = getOptionalStringValueFromRow(GEOmetadbNames.PLATFORM_TABLE_BIOC_PACKAGE_COLUMN_NAME,
-      platformRow);
+  private Platform extractGEOPlatformFromRow(String[] platformRow) throws GEOReaderException
+  {
+    String gpl = platformRow[PLATFORM_GPL];
+
+    if (gpl == null)
+      throw new GEOReaderException("missing value for required column " + GEOmetadbNames.PLATFORM_TABLE_GPL_COLUMN_NAME
+        + " in table " + GEOmetadbNames.PLATFORM_TABLE_NAME);
+
+    String title = getRequiredPlatformValueFromRow(platformRow, PLATFORM_TITLE, gpl);
+    Optional<String> status = getOptionalStringValueFromRow(platformRow, PLATFORM_STATUS)
+      .map(this.dictionary::canonicalize);
+    Optional<String> submissionDate = getOptionalStringValueFromRow(platformRow, PLATFORM_SUBMISSION_DATE);
+    Optional<String> lastUpdateDate = getOptionalStringValueFromRow(platformRow, PLATFORM_LAST_UPDATE_DATE);
+    String technology = this.dictionary.canonicalize(
+      getRequiredPlatformValueFromRow(platformRow, PLATFORM_TECHNOLOGY, gpl));
+    String distribution = this.dictionary.canonicalize(
+      getRequiredPlatformValueFromRow(platformRow, PLATFORM_DISTRIBUTION, gpl));
+    String organism = this.dictionary.canonicalize(
+      getRequiredPlatformValueFromRow(platformRow, PLATFORM_ORGANISM, gpl));
+    Optional<String> manufacturer = getOptionalStringValueFromRow(platformRow, PLATFORM_MANUFACTURER);
+    Optional<String> manufactureProtocol = getOptionalStringValueFromRow(platformRow, PLATFORM_MANUFACTURE_PROTOCOL);
+    Optional<String> coating = getOptionalStringValueFromRow(platformRow, PLATFORM_COATING);
+    Optional<String> catalogNumber = getOptionalStringValueFromRow(platformRow, PLATFORM_CATALOG_NUMBER);
+    Optional<String> support = getOptionalStringValueFromRow(platformRow, PLATFORM_SUPPORT);
+    Optional<String> description = getOptionalStringValueFromRow(platformRow, PLATFORM_DESCRIPTION);
+    Optional<String> webLink = getOptionalStringValueFromRow(platformRow, PLATFORM_WEB_LINK);
+    Optional<String> contact = getOptionalStringValueFromRow(platformRow, PLATFORM_CONTACT);
+    Optional<String> dataRowCount = getOptionalStringValueFromRow(platformRow, PLATFORM_DATA_ROW_COUNT);
+    Optional<String> supplementaryFile = getOptionalStringValueFromRow(platformRow, PLATFORM_SUPPLEMENTARY_FILE);
+    Optional<String> biocPackage = getOptionalStringValueFromRow(platformRow, PLATFORM_BIOC_PACKAGE);
 
     // TODO Use: status, submissionDate, lastUpdateDate, contact, dataRowCount, supplementaryFile, biocPackage
     return new Platform(title, distribution, technology, organism, manufacturer,
@@ -383,227 +1743,282 @@ public class GEOmetadbReader
   }
 
   /**
-   * @param selectStatement      The prepared statement to extract all rows from a table
-   * @param tableName            The table name
-   * @param primaryKeyColumnName The primary key column.
-   * @param columnNames          All relevant columns in the table
-   * @return [(column name -> column value)]
-   * @throws SQLException         If a SQL error error occurs
-   * @throws GEOReaderException If an ingestor error occurs
+   * @param rs The result set of a sample query that selects the columns of the projection
+   * @return The sample rows, indexed by position in {@link GEOmetadbNames#SAMPLE_TABLE_COLUMN_NAMES}
    */
-  private List<Map<String, String>> extractTableRows(PreparedStatement selectStatement, String tableName,
-    String primaryKeyColumnName, List<String> columnNames) throws SQLException, GEOReaderException
+  private SampleRowSource sampleRows(ResultSet rs)
   {
-    List<Map<String, String>> tableData = new ArrayList<>();
-    Set<String> keys = new HashSet<>();
-    ResultSet rs = selectStatement.executeQuery();
+    GEOmetadbColumnBinding sampleBinding = this.projection.getSampleBinding();
 
-    int currentRowNumber = 1;
-    while (rs.next()) {
-      String key = rs.getString(primaryKeyColumnName).trim();
-
-      if (key == null || key.isEmpty())
-        throw new GEOReaderException(
-          "empty or missing primary key " + primaryKeyColumnName + " at row " + rs.getRow());
+    return () -> rs.next() ? sampleBinding.read(rs) : null;
+  }
 
-      if (keys.contains(key))
-        throw new GEOReaderException(
-          "duplicate entries for primary key " + key + " found at row " + currentRowNumber);
+  /**
+   * @param rawCharacteristics String of form: characteristic_name1: value1; characteristic_name2: value2; ...
+   * @return (characteristic name -> [characteristic value])
+   * @see GEOmetadbCharacteristicsParser
+   */
+  static Map<String, List<String>> extractCharacteristics(Optional<String> rawCharacteristics)
+  {
+    Map<String, List<String>> characteristics = new HashMap<>();
 
-      Map<String, String> row = new LinkedHashMap<>();
-      for (String columnName : columnNames) {
-        String value = rs.getString(columnName);
-        if (value != null && !value.isEmpty())
-          row.put(columnName, value.trim());
-      }
-      tableData.add(row);
-      currentRowNumber++;
-    }
-    selectStatement.close();
-    System.out.println("" + (currentRowNumber - 1) + " row(s) in " + tableName + " table");
+    GEOmetadbCharacteristicsParser.parse(rawCharacteristics.orElse(null), characteristics);
 
-    return tableData;
+    return characteristics;
   }
 
   /**
-   * @param selectStatement The prepared statement to extract all rows from a table
-   * @param tableName       The table name
-   * @param columnName      The name of the column
-   * @return List of values for the column
-   * @throws SQLException         If a SQL error error occurs
-   * @throws GEOReaderException If an ingestor error occurs
+   * @param contributorsString The raw contributor string, in the GEOmetadb form <tt>First,Middle,Last;\tFirst,,Last</tt>
+   * @return A list of contributors extracted from the string, each named by its non-empty name parts
    */
-  private List<String> extractTableColumn(PreparedStatement selectStatement, String tableName, String columnName)
-    throws SQLException, GEOReaderException
+  static List<Contributor> extractContributors(String contributorsString)
   {
-    List<String> columnData = new ArrayList<>();
-    ResultSet rs = selectStatement.executeQuery();
-
-    int currentRowNumber = 1;
-    while (rs.next()) {
-      String key = rs.getString(columnName).trim();
+    List<Contributor> contributors = new ArrayList<>();
 
-      if (key == null || key.isEmpty())
-        throw new GEOReaderException("empty or missing column " + columnName + " at row " + currentRowNumber);
+    for (String contributorString : Arrays.stream(contributorsString.split(";")).map(String::trim)
+      .filter(s -> !s.isEmpty()).toArray(String[]::new)) {
+      String name = Arrays.stream(contributorString.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+        .collect(Collectors.joining(" "));
 
-      String value = rs.getString(columnName);
-      if (value != null && !value.isEmpty())
-        columnData.add(value);
-      currentRowNumber++;
+      if (!name.isEmpty())
+        contributors.add(new Contributor(name));
     }
-    selectStatement.close();
-    System.out.println("Found " + columnData.size() + " row(s) in column " + columnName + ", table " + tableName);
-
-    return columnData;
+    return contributors;
   }
 
   /**
-   * @param rawCharacteristics String of form: characteristic_name1: value1; characteristic_name2: value2; ...
-   * @return (characteristic name -> characteristic value)
+   * @param typesString The raw string containing the comma-separated types
+   * @return A list of types
    */
-  private Map<String, String> extractCharacteristics(Optional<String> rawCharacteristics)
+  static Set<String> extractTypes(String typesString)
   {
-    Map<String, String> characteristics = new HashMap<>();
+    Set<String> types = new HashSet<>();
 
-    if (rawCharacteristics.isPresent()) {
-      for (String characteristicString : Arrays.stream(rawCharacteristics.get().split(";")).map(String::trim)
-        .filter(s -> !s.isEmpty()).toArray(String[]::new)) {
-        String characteristicAndValue[] = characteristicString.split(":");
-        if (characteristicAndValue.length == 2) {
-          String characteristicName = characteristicAndValue[0].trim();
-          String characteristicValues = characteristicAndValue[1].trim();
+    for (String type : Arrays.stream(typesString.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+      .toArray(String[]::new))
+      types.add(type);
 
-          if (!characteristicName.isEmpty() && !characteristicValues.isEmpty()) {
-            characteristics.put(characteristicName, characteristicValues);
-          }
-        }
-      }
-    }
-    return characteristics;
+    return types;
   }
 
   /**
-   * @param contributorsString
-   * @return A list of contributors extracted from the string
+   * @return The value of the column, or an empty string if it is missing and the reader is lenient
    */
-  private List<Contributor> extractContributors(String contributorsString)
+  private String getRequiredStringValueFromRow(String[] row, int column, String tableName, String[] columnNames,
+    String key) throws GEOReaderException
   {
-    List<Contributor> contributors = new ArrayList<>();
+    if (row[column] != null)
+      return row[column];
+    else if (this.lenient) {
+      this.diagnostics.add(new GEOmetadbDiagnostic(tableName, key, columnNames[column],
+        GEOmetadbDiagnostic.Reason.MISSING_REQUIRED_VALUE, false));
+      return "";
+    } else
+      throw new GEOReaderException(
+        "missing value for required column " + columnNames[column] + " in table " + tableName + " for " + key);
+  }
 
-    for (String contributorString : Arrays.stream(contributorsString.split(",")).map(String::trim)
-      .filter(s -> !s.isEmpty()).toArray(String[]::new)) {
-      Map<String, String> fieldValues = new HashMap<>();
-      for (String field : Arrays.stream(contributorString.split(",")).map(String::trim).filter(s -> !s.isEmpty())
-        .toArray(String[]::new)) {
-        String attributeValue[] = field.split(":");
-        if (attributeValue.length == 2) {
-          String fieldName = attributeValue[0].trim();
-          String fieldValue = attributeValue[1].trim();
-          if (GEOmetadbNames.ContactFieldNames.contains(fieldName) && !fieldValue.isEmpty())
-            fieldValues.put(fieldName, fieldValue);
-        }
-      }
-      if (!fieldValues.isEmpty()) {
-        String name = getOrElse(fieldValues, GEOmetadbNames.NAME_CONTACT_ATTRIBUTE, "");
-        String email = getOrElse(fieldValues, GEOmetadbNames.EMAIL_CONTACT_ATTRIBUTE, "");
-        String phone = getOrElse(fieldValues, GEOmetadbNames.PHONE_CONTACT_ATTRIBUTE, "");
-        String fax = getOrElse(fieldValues, GEOmetadbNames.FAX_CONTACT_ATTRIBUTE, "");
-        String laboratory = getOrElse(fieldValues, GEOmetadbNames.LABORATORY_CONTACT_ATTRIBUTE, "");
-        String department = getOrElse(fieldValues, GEOmetadbNames.DEPARTMENT_CONTACT_ATTRIBUTE, "");
-        String institute = getOrElse(fieldValues, GEOmetadbNames.INSTITUTE_CONTACT_ATTRIBUTE, "");
-        String address = getOrElse(fieldValues, GEOmetadbNames.ADDRESS_CONTACT_ATTRIBUTE, "");
-        String city = getOrElse(fieldValues, GEOmetadbNames.CITY_CONTACT_ATTRIBUTE, "");
-        String state = getOrElse(fieldValues, GEOmetadbNames.STATE_CONTACT_ATTRIBUTE, "");
-        String zipOrPostalCode = getOrElse(fieldValues, GEOmetadbNames.ZIP_POSTAL_CODE_CONTACT_ATTRIBUTE, "");
-        String country = getOrElse(fieldValues, GEOmetadbNames.COUNTRY_CONTACT_ATTRIBUTE, "");
-        String webLink = getOrElse(fieldValues, GEOmetadbNames.WEB_LINK_CONTACT_ATTRIBUTE, "");
-        Contributor contributor = new Contributor(name, email, phone, fax, laboratory, department, institute, address,
-          city, state, zipOrPostalCode, country, webLink);
-
-        contributors.add(contributor);
-      }
-    }
-    return contributors;
+  private Optional<String> getOptionalStringValueFromRow(String[] row, int column)
+  {
+    return Optional.ofNullable(row[column]);
+  }
+
+  private static int seriesColumn(String columnName)
+  {
+    return GEOmetadbNames.SeriesTableColumnNames.indexOf(columnName);
+  }
+
+  private static int platformColumn(String columnName)
+  {
+    return GEOmetadbNames.PlatformTableColumnNames.indexOf(columnName);
   }
 
-  private String createSamplesSelectStatement(List<String> seriesIDs) throws GEOReaderException
+  /**
+   * Supplies sample rows ordered by series ID, returning null after the last row.
+   */
+  private interface SampleRowSource
   {
-    StringBuilder sb = new StringBuilder(SAMPLES_SELECT_BASE);
+    String[] next() throws SQLException, GEOReaderException;
+  }
 
-    sb.append("(");
+  private interface PlatformSource
+  {
+    Optional<Platform> getPlatform(String gse, String gpl) throws SQLException, GEOReaderException;
+  }
 
-    if (seriesIDs.size() > GEOmetadbNames.MAX_SERIES_PER_SLICE)
-      throw new GEOReaderException("Internal error: too many series selected for slice;" +
-        " expecting maximum of " + GEOmetadbNames.MAX_SERIES_PER_SLICE + " and got " + seriesIDs.size());
+  /**
+   * The value of a key column in a row, with the row's rowid; keys are ordered by value and then rowid
+   */
+  private static class RowKey implements Comparable<RowKey>
+  {
+    private final String value;
+    private final long rowID;
 
-    boolean isFirst = true;
-    for (String seriesID : seriesIDs) {
-      if (!isFirst)
-        sb.append(", ");
-      sb.append("\"" + seriesID + "\"");
-      isFirst = false;
+    public RowKey(String value, long rowID)
+    {
+      this.value = value;
+      this.rowID = rowID;
     }
 
-    sb.append(")");
+    @Override public int compareTo(RowKey other)
+    {
+      int comparison = this.value.compareTo(other.value);
 
-    return sb.toString();
+      return comparison != 0 ? comparison : Long.compare(this.rowID, other.rowID);
+    }
   }
 
   /**
-   * @param typesString The raw string containing the comma-separated types
-   * @return A list of types
+   * A growable list of rowids, used in place of a list of boxed longs
    */
-  private Set<String> extractTypes(String typesString)
+  private static class RowIDs
   {
-    Set<String> types = new HashSet<>();
+    private long[] rowIDs = new long[4];
+    private int size = 0;
+
+    public void add(long rowID)
+    {
+      if (this.size == this.rowIDs.length)
+        this.rowIDs = Arrays.copyOf(this.rowIDs, this.size * 2);
+      this.rowIDs[this.size++] = rowID;
+    }
 
-    for (String type : Arrays.stream(typesString.split(",")).map(String::trim).filter(s -> !s.isEmpty())
-      .toArray(String[]::new))
-      types.add(type);
+    public long get(int index)
+    {
+      return this.rowIDs[index];
+    }
 
-    return types;
+    public int size()
+    {
+      return this.size;
+    }
   }
 
-  private String getOrElse(Map<String, String> fieldValues, String fieldName, String defaultValue)
+  /**
+   * A batch of series passed between the stages of a pipelined extraction. Batches are numbered in GSE order.
+   */
+  private static class SeriesBatch
   {
-    if (fieldValues.containsKey(fieldName))
-      return fieldValues.get(fieldName);
-    else
-      return defaultValue;
-  }
+    private final long sequenceNumber;
+    private final List<SeriesGroup> seriesGroups = new ArrayList<>();
+    private int numberOfSamples = 0;
+    private boolean last = false; // Ends the extraction once the preceding batches have been handled
+    private Optional<GEOReaderException> error = Optional.empty();
+
+    public SeriesBatch(long sequenceNumber)
+    {
+      this.sequenceNumber = sequenceNumber;
+    }
 
-  private String getStringValueFromRow(String columnName, Map<String, String> row) throws GEOReaderException
-  {
-    if (row.containsKey(columnName))
-      return row.get(columnName);
-    else
-      return "";
+    /**
+     * @param failedSeriesGroupIndex The index of the series group that failed; the groups before it are kept
+     */
+    public void fail(int failedSeriesGroupIndex, GEOReaderException error)
+    {
+      this.seriesGroups.subList(failedSeriesGroupIndex, this.seriesGroups.size()).clear();
+      this.numberOfSamples = 0;
+      for (SeriesGroup seriesGroup : this.seriesGroups)
+        this.numberOfSamples += seriesGroup.sampleRows.size();
+      this.last = true;
+      this.error = Optional.of(error);
+    }
   }
 
-  private String getRequiredStringValueFromRow(String columnName, Map<String, String> row, int rowNumber)
-    throws GEOReaderException
+  /**
+   * A series row with its sample rows, and the series and samples that the parse stage converts them to
+   */
+  private static class SeriesGroup
   {
-    if (row.containsKey(columnName))
-      return row.get(columnName);
-    else
-      throw new GEOReaderException("missing value for required column " + columnName + " at row " + rowNumber +
-      " \n Row = " + row + " \n");
+    private final String[] seriesRow;
+    private final List<String[]> sampleRows = new ArrayList<>();
+    private int firstSampleRowNumber;
+    private final Map<String, Sample> samples = new LinkedHashMap<>(); // gsm -> Sample
+    private Optional<Series> series = Optional.empty(); // Present if there are samples
+
+    public SeriesGroup(String[] seriesRow)
+    {
+      this.seriesRow = seriesRow;
+    }
   }
 
-  private String getRequiredStringValueFromRow(String columnName, Map<String, String> row) throws GEOReaderException
+  /**
+   * Merge-joins series rows and sample rows that are both ordered by GSE, pairing each series row with the run of
+   * sample rows that have the same series ID. Sample rows for series that are not in the series rows are skipped, and
+   * duplicate series rows are handled by {@link #isDuplicateSeries(String, String)}.
+   */
+  private class SeriesGroupSource
   {
-    if (row.containsKey(columnName))
-      return row.get(columnName);
-    else
-      throw new GEOReaderException("missing value for required column " + columnName);
+    private final Iterator<String[]> seriesRows;
+    private final SampleRowSource sampleRows;
+    private String[] sampleRow;
+    private int currentSampleRowNumber = 1;
+    private String previousGSE = null;
+
+    public SeriesGroupSource(List<String[]> seriesRows, SampleRowSource sampleRows)
+      throws SQLException, GEOReaderException
+    {
+      this.seriesRows = seriesRows.iterator();
+      this.sampleRows = sampleRows;
+      this.sampleRow = sampleRows.next();
+    }
+
+    /**
+     * @return The next series row with its sample rows, or null after the last series row
+     */
+    public SeriesGroup next() throws SQLException, GEOReaderException
+    {
+      while (this.seriesRows.hasNext()) {
+        String[] seriesRow = this.seriesRows.next();
+        String gse = seriesRow[SERIES_GSE];
+
+        if (isDuplicateSeries(gse, this.previousGSE))
+          continue;
+
+        SeriesGroup seriesGroup = new SeriesGroup(seriesRow);
+        while (this.sampleRow != null) {
+          String seriesID = this.sampleRow[GEOmetadbSample.SERIES_ID];
+          int comparison = (seriesID != null ? seriesID : "").compareTo(gse);
+
+          if (comparison > 0)
+            break;
+          else if (comparison == 0) {
+            if (seriesGroup.sampleRows.isEmpty())
+              seriesGroup.firstSampleRowNumber = this.currentSampleRowNumber;
+            seriesGroup.sampleRows.add(this.sampleRow);
+          }
+          this.sampleRow = this.sampleRows.next();
+          this.currentSampleRowNumber++;
+        }
+        this.previousGSE = gse;
+        return seriesGroup;
+      }
+      return null;
+    }
   }
 
-  private Optional<String> getOptionalStringValueFromRow(String columnName, Map<String, String> row)
-    throws GEOReaderException
+  /**
+   * A read-only database connection and the prepared statements used to read chunks of series and their platforms.
+   * A connection is used by one thread at a time.
+   */
+  private static class SeriesChunkConnection implements AutoCloseable
   {
-    if (row.containsKey(columnName))
-      return Optional.of(row.get(columnName));
-    else
-      return Optional.empty();
+    private final Connection connection;
+    private final PreparedStatement seriesChunkSelectStatement;
+    private final PreparedStatement samplesChunkSelectStatement;
+    private final PreparedStatement platformSelectStatement;
+
+    public SeriesChunkConnection(Connection connection, PreparedStatement seriesChunkSelectStatement,
+      PreparedStatement samplesChunkSelectStatement, PreparedStatement platformSelectStatement)
+    {
+      this.connection = connection;
+      this.seriesChunkSelectStatement = seriesChunkSelectStatement;
+      this.samplesChunkSelectStatement = samplesChunkSelectStatement;
+      this.platformSelectStatement = platformSelectStatement;
+    }
+
+    @Override public void close() throws SQLException
+    {
+      this.connection.close();
+    }
   }
 }
@@ -0,0 +1,368 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A read-only, memory-mapped reader of the SQLite database file format, used to scan GEOmetadb tables without JDBC
+ * or a native SQLite library.
+ * <p>
+ * Only what scans of ordinary rowid tables need is supported: the file header, the schema table, and table B-trees
+ * with overflow pages, in UTF-8 databases. Indexes are not used. A database with a non-empty write-ahead log is
+ * rejected, since its latest changes are not in the main file.
+ * <p>
+ * The file is mapped in segments of at most 1 GiB, so databases of any size can be read. Mapped memory is released
+ * when the instance and its scanners are garbage collected.
+ *
+ * @see <a href="https://www.sqlite.org/fileformat.html">The SQLite Database File Format</a>
+ */
+public class GEOmetadbSQLiteFile implements AutoCloseable
+{
+  private static final byte[] MAGIC = "SQLite format 3\0".getBytes(StandardCharsets.US_ASCII);
+  private static final int FILE_HEADER_SIZE = 100;
+  private static final int MAXIMUM_SEGMENT_SIZE = 1 << 30;
+  private static final int SCHEMA_ROOT_PAGE = 1;
+  private static final int UTF_8_TEXT_ENCODING = 1;
+  private static final int WAL_FILE_FORMAT_VERSION = 2;
+  private static final Pattern DEFAULT_VALUE_PATTERN = Pattern
+    .compile("\\bDEFAULT\\s+(?:'((?:[^']|'')*)'|\"((?:[^\"]|\"\")*)\"|\\(?\\s*([-+]?[0-9][0-9.eE+-]*)\\s*\\)?)",
+      Pattern.CASE_INSENSITIVE);
+
+  private final String fileName;
+  private final FileChannel channel;
+  private final ByteBuffer[] segments;
+  private final int pageSize;
+  private final int usableSize;
+  private final int pagesPerSegment;
+  private final long numberOfPages;
+  private final Map<String, TableSchema> tables; // lower-case table name -> TableSchema
+
+  public GEOmetadbSQLiteFile(String fileName) throws GEOReaderException
+  {
+    this.fileName = fileName;
+
+    try {
+      this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+    } catch (IOException e) {
+      throw new GEOReaderException("error opening SQLite file " + fileName + ": " + e.getMessage(), e);
+    }
+
+    try {
+      long fileSize = this.channel.size();
+      ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+
+      while (header.hasRemaining() && this.channel.read(header, header.position()) > 0)
+        ;
+      if (header.hasRemaining())
+        throw new GEOReaderException("file " + fileName + " is too short to be a SQLite database");
+
+      for (int i = 0; i < MAGIC.length; i++)
+        if (header.get(i) != MAGIC[i])
+          throw new GEOReaderException("file " + fileName + " is not a SQLite database");
+
+      int rawPageSize = header.getShort(16) & 0xffff;
+      this.pageSize = rawPageSize == 1 ? 65536 : rawPageSize;
+      if (this.pageSize < 512 || Integer.bitCount(this.pageSize) != 1)
+        throw new GEOReaderException("invalid page size " + this.pageSize + " in SQLite file " + fileName);
+
+      this.usableSize = this.pageSize - (header.get(20) & 0xff);
+      this.pagesPerSegment = MAXIMUM_SEGMENT_SIZE / this.pageSize;
+      this.numberOfPages = fileSize / this.pageSize;
+
+      int textEncoding = header.getInt(56);
+      if (textEncoding != UTF_8_TEXT_ENCODING)
+        throw new GEOReaderException("SQLite file " + fileName + " uses text encoding " + textEncoding + "; only UTF-8 "
+          + "databases can be read directly");
+
+      File walFile = new File(fileName + "-wal");
+      if (header.get(19) == WAL_FILE_FORMAT_VERSION && walFile.length() > 0)
+        throw new GEOReaderException("SQLite file " + fileName + " has a non-empty write-ahead log; checkpoint it "
+          + "before reading the file directly");
+
+      long segmentSize = (long)this.pagesPerSegment * this.pageSize;
+      int numberOfSegments = (int)((fileSize + segmentSize - 1) / segmentSize);
+      this.segments = new ByteBuffer[numberOfSegments];
+      for (int segment = 0; segment < numberOfSegments; segment++) {
+        long position = segment * segmentSize;
+        this.segments[segment] = this.channel
+          .map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, fileSize - position));
+      }
+      this.tables = readSchema();
+    } catch (IOException e) {
+      closeQuietly();
+      throw new GEOReaderException("error reading SQLite file " + fileName + ": " + e.getMessage(), e);
+    } catch (GEOReaderException | RuntimeException e) {
+      closeQuietly();
+      throw e;
+    }
+  }
+
+  public String getFileName()
+  {
+    return this.fileName;
+  }
+
+  public boolean hasTable(String tableName)
+  {
+    return this.tables.containsKey(tableName.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * @return The names of the table's columns in declaration order
+   */
+  public List<String> getColumnNames(String tableName) throws GEOReaderException
+  {
+    return getTableSchema(tableName).columnNames;
+  }
+
+  /**
+   * @return A new scanner positioned before the first row of the table. Scanners are not thread-safe, but several
+   * scanners of the same file can be used concurrently.
+   */
+  public GEOmetadbTableScanner scan(String tableName) throws GEOReaderException
+  {
+    TableSchema table = getTableSchema(tableName);
+
+    if (table.withoutRowID)
+      throw new GEOReaderException(
+        "table " + tableName + " in SQLite file " + this.fileName + " is a WITHOUT ROWID table, which cannot be read "
+          + "directly");
+
+    return new GEOmetadbTableScanner(this, table.name, table.rootPage, table.columnNames, table.realColumns,
+      table.defaultValues, table.rowIDColumn);
+  }
+
+  @Override public void close() throws GEOReaderException
+  {
+    try {
+      this.channel.close();
+    } catch (IOException e) {
+      throw new GEOReaderException("error closing SQLite file " + this.fileName + ": " + e.getMessage(), e);
+    }
+  }
+
+  int getUsableSize()
+  {
+    return this.usableSize;
+  }
+
+  /**
+   * @return A new set of views of the mapped segments, which share the mapped memory but have their own positions
+   */
+  ByteBuffer[] newSegmentViews()
+  {
+    ByteBuffer[] views = new ByteBuffer[this.segments.length];
+
+    for (int segment = 0; segment < this.segments.length; segment++)
+      views[segment] = this.segments[segment].duplicate();
+
+    return views;
+  }
+
+  /**
+   * @return The index of the segment containing a page; pages never span segments
+   */
+  int getSegment(int page) throws GEOReaderException
+  {
+    if (page < 1 || page > this.numberOfPages)
+      throw new GEOReaderException("page " + page + " is outside SQLite file " + this.fileName + ", which has "
+        + this.numberOfPages + " pages; the file may be corrupt");
+
+    return (page - 1) / this.pagesPerSegment;
+  }
+
+  /**
+   * @return The offset of a page within its segment
+   */
+  int getPageOffset(int page)
+  {
+    return ((page - 1) % this.pagesPerSegment) * this.pageSize;
+  }
+
+  private TableSchema getTableSchema(String tableName) throws GEOReaderException
+  {
+    TableSchema table = this.tables.get(tableName.toLowerCase(Locale.ROOT));
+
+    if (table == null)
+      throw new GEOReaderException("no table " + tableName + " in SQLite file " + this.fileName);
+
+    return table;
+  }
+
+  private Map<String, TableSchema> readSchema() throws GEOReaderException
+  {
+    Map<String, TableSchema> tables = new HashMap<>();
+    GEOmetadbTableScanner schemaScanner = new GEOmetadbTableScanner(this, "sqlite_master", SCHEMA_ROOT_PAGE,
+      Collections.emptyList(), new boolean[0], new String[0], -1);
+
+    while (schemaScanner.next()) {
+      String type = schemaScanner.getString(0);
+      String name = schemaScanner.getString(1);
+      String rootPage = schemaScanner.getString(3);
+      String sql = schemaScanner.getString(4);
+
+      if ("table".equals(type) && name != null && rootPage != null && sql != null)
+        tables.put(name.toLowerCase(Locale.ROOT), parseTableSchema(name, Integer.parseInt(rootPage), sql));
+    }
+    return tables;
+  }
+
+  /**
+   * Extract the column names from a <tt>CREATE TABLE</tt> statement, noting the columns with REAL affinity, whose
+   * integral values are stored as integers, an <tt>INTEGER PRIMARY KEY</tt> column, whose values are stored as the
+   * rowid, and literal default values, which apply to rows written before a column was added.
+   */
+  static TableSchema parseTableSchema(String name, int rootPage, String sql) throws GEOReaderException
+  {
+    int start = sql.indexOf('(');
+    int end = sql.lastIndexOf(')');
+
+    if (start < 0 || end < start)
+      throw new GEOReaderException("cannot parse definition of table " + name + ": " + sql);
+
+    List<String> columnNames = new ArrayList<>();
+    List<Boolean> realColumns = new ArrayList<>();
+    List<String> defaultValues = new ArrayList<>();
+    int rowIDColumn = -1;
+
+    for (String definition : splitColumnDefinitions(sql.substring(start + 1, end))) {
+      String[] tokens = definition.trim().split("\\s+");
+      String firstToken = tokens[0].toUpperCase(Locale.ROOT);
+
+      if (tokens[0].isEmpty() || firstToken.equals("CONSTRAINT") || firstToken.equals("PRIMARY") || firstToken
+        .equals("UNIQUE") || firstToken.equals("CHECK") || firstToken.equals("FOREIGN"))
+        continue;
+
+      if (tokens.length >= 4 && tokens[1].equalsIgnoreCase("INTEGER") && tokens[2].equalsIgnoreCase("PRIMARY")
+        && tokens[3].toUpperCase(Locale.ROOT).startsWith("KEY"))
+        rowIDColumn = columnNames.size();
+
+      boolean realColumn = tokens.length > 1 && hasRealAffinity(tokens[1].toUpperCase(Locale.ROOT));
+      Matcher defaultValueMatcher = DEFAULT_VALUE_PATTERN.matcher(definition);
+      String defaultValue = null;
+
+      if (defaultValueMatcher.find()) {
+        if (defaultValueMatcher.group(1) != null)
+          defaultValue = defaultValueMatcher.group(1).replace("''", "'");
+        else if (defaultValueMatcher.group(2) != null) // SQLite accepts a double-quoted string here
+          defaultValue = defaultValueMatcher.group(2).replace("\"\"", "\"");
+        else if (realColumn)
+          defaultValue = GEOmetadbTableScanner.realToText(Double.parseDouble(defaultValueMatcher.group(3)));
+        else
+          defaultValue = defaultValueMatcher.group(3);
+      }
+
+      columnNames.add(unquote(tokens[0]));
+      realColumns.add(realColumn);
+      defaultValues.add(defaultValue);
+    }
+
+    String trailer = sql.substring(end + 1).toUpperCase(Locale.ROOT).replaceAll("\\s+", " ");
+    boolean[] realColumnFlags = new boolean[realColumns.size()];
+
+    for (int column = 0; column < realColumnFlags.length; column++)
+      realColumnFlags[column] = realColumns.get(column);
+
+    return new TableSchema(name, rootPage, columnNames, realColumnFlags, defaultValues.toArray(new String[0]),
+      rowIDColumn, trailer.contains("WITHOUT ROWID"));
+  }
+
+  /**
+   * @see <a href="https://www.sqlite.org/datatype3.html#determination_of_column_affinity">Column affinity</a>
+   */
+  private static boolean hasRealAffinity(String type)
+  {
+    return !type.contains("INT") && !type.contains("CHAR") && !type.contains("CLOB") && !type.contains("TEXT")
+      && !type.contains("BLOB") && (type.contains("REAL") || type.contains("FLOA") || type.contains("DOUB"));
+  }
+
+  private static List<String> splitColumnDefinitions(String columnDefinitions)
+  {
+    List<String> definitions = new ArrayList<>();
+    int depth = 0;
+    char quote = 0;
+    int start = 0;
+
+    for (int i = 0; i < columnDefinitions.length(); i++) {
+      char c = columnDefinitions.charAt(i);
+
+      if (quote != 0) {
+        if (c == quote)
+          quote = 0;
+      } else if (c == '"' || c == '\'' || c == '`')
+        quote = c;
+      else if (c == '[')
+        quote = ']';
+      else if (c == '(')
+        depth++;
+      else if (c == ')')
+        depth--;
+      else if (c == ',' && depth == 0) {
+        definitions.add(columnDefinitions.substring(start, i));
+        start = i + 1;
+      }
+    }
+    definitions.add(columnDefinitions.substring(start));
+
+    return definitions;
+  }
+
+  private static String unquote(String identifier)
+  {
+    if (identifier.length() >= 2) {
+      char first = identifier.charAt(0);
+      char last = identifier.charAt(identifier.length() - 1);
+
+      if ((first == '"' && last == '"') || (first == '`' && last == '`') || (first == '[' && last == ']'))
+        return identifier.substring(1, identifier.length() - 1);
+    }
+    return identifier;
+  }
+
+  private void closeQuietly()
+  {
+    try {
+      this.channel.close();
+    } catch (IOException e) {
+      // Already reporting the original error
+    }
+  }
+
+  static final class TableSchema
+  {
+    private final String name;
+    private final int rootPage;
+    private final List<String> columnNames;
+    private final boolean[] realColumns;
+    private final String[] defaultValues; // null if a column has no literal default value
+    private final int rowIDColumn; // -1 if there is no INTEGER PRIMARY KEY column
+    private final boolean withoutRowID;
+
+    TableSchema(String name, int rootPage, List<String> columnNames, boolean[] realColumns, String[] defaultValues,
+      int rowIDColumn, boolean withoutRowID)
+    {
+      this.name = name;
+      this.rootPage = rootPage;
+      this.columnNames = Collections.unmodifiableList(columnNames);
+      this.realColumns = realColumns;
+      this.defaultValues = defaultValues;
+      this.rowIDColumn = rowIDColumn;
+      this.withoutRowID = withoutRowID;
+    }
+  }
+}
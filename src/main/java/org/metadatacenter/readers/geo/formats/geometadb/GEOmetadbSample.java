@@ -0,0 +1,263 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.metadata.PerChannelSampleInfo;
+import org.metadatacenter.readers.geo.metadata.Sample;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link Sample} that is a view over a single row of the GEOmetadb GSM table.
+ * <p>
+ * The row is held as an array of column values indexed by the column's position in
+ * {@link GEOmetadbNames#SAMPLE_TABLE_COLUMN_NAMES}, with missing or empty values stored as null. Values that repeat
+ * across many rows, such as organism, molecule and label, are encoded with the reader's {@link GEOmetadbDictionary};
+ * the row holds their canonical instances and their codes are available for grouping and filtering. Per-channel
+ * information is built from the row each time it is requested rather than being stored with the sample, so callers
+ * that use it repeatedly should keep the returned map. Organisms, source names, molecules and labels are read from
+ * the row directly, and characteristics are only parsed when they are requested.
+ */
+public class GEOmetadbSample extends Sample
+{
+  static final int TITLE = ordinal(GEOmetadbNames.SAMPLE_TABLE_TITLE_COLUMN_NAME);
+  static final int GSM = ordinal(GEOmetadbNames.SAMPLE_TABLE_GSM_COLUMN_NAME);
+  static final int SERIES_ID = ordinal(GEOmetadbNames.SAMPLE_TABLE_SERIES_ID_COLUMN_NAME);
+  static final int GPL = ordinal(GEOmetadbNames.SAMPLE_TABLE_GPL_COLUMN_NAME);
+  static final int STATUS = ordinal(GEOmetadbNames.SAMPLE_TABLE_STATUS_COLUMN_NAME);
+  static final int TYPE = ordinal(GEOmetadbNames.SAMPLE_TABLE_TYPE_COLUMN_NAME);
+  static final int CHANNEL_COUNT = ordinal(GEOmetadbNames.SAMPLE_TABLE_CHANNEL_COUNT_COLUMN_NAME);
+  static final int SOURCE_NAME_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_SOURCE_NAME_CH1_COLUMN_NAME);
+  static final int CHARACTERISTIC_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_CHARACTERISTIC_CH1_COLUMN_NAME);
+  static final int MOLECULE_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_MOLECULE_CH1_COLUMN_NAME);
+  static final int ORGANISM_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_ORGANISM_CH1_COLUMN_NAME);
+  static final int LABEL_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_LABEL_CH1_COLUMN_NAME);
+  static final int TREATMENT_PROTOCOL_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_TREATMENT_PROTOCOL_CH1_COLUMN_NAME);
+  static final int EXTRACT_PROTOCOL_CH1 = ordinal(GEOmetadbNames.SAMPLE_TABLE_EXTRACT_PROTOCOL_CH1_COLUMN_NAME);
+  static final int SOURCE_NAME_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_SOURCE_NAME_CH2_COLUMN_NAME);
+  static final int CHARACTERISTIC_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_CHARACTERISTIC_CH2_COLUMN_NAME);
+  static final int MOLECULE_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_MOLECULE_CH2_COLUMN_NAME);
+  static final int ORGANISM_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_ORGANISM_CH2_COLUMN_NAME);
+  static final int LABEL_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_LABEL_CH2_COLUMN_NAME);
+  static final int TREATMENT_PROTOCOL_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_TREATMENT_PROTOCOL_CH2_COLUMN_NAME);
+  static final int EXTRACT_PROTOCOL_CH2 = ordinal(GEOmetadbNames.SAMPLE_TABLE_EXTRACT_PROTOCOL_CH2_COLUMN_NAME);
+  static final int DESCRIPTION = ordinal(GEOmetadbNames.SAMPLE_TABLE_DESCRIPTION_COLUMN_NAME);
+
+  /**
+   * Columns whose values repeat across many rows and are dictionary encoded
+   */
+  static final int[] ENCODED_COLUMNS = { GPL, STATUS, TYPE, CHANNEL_COUNT, MOLECULE_CH1, ORGANISM_CH1, LABEL_CH1,
+    MOLECULE_CH2, ORGANISM_CH2, LABEL_CH2 };
+
+  private static final int[] CODE_POSITIONS = codePositions(); // column -> position in ENCODED_COLUMNS, or -1
+
+  /**
+   * Columns that must have a value in every row
+   */
+  static final int[] REQUIRED_COLUMNS = { GSM, GPL, SERIES_ID, TITLE, STATUS, TYPE, SOURCE_NAME_CH1, MOLECULE_CH1,
+    ORGANISM_CH1 };
+
+  private final String[] row;
+  private final int[] codes; // Indexed by position in ENCODED_COLUMNS
+
+  /**
+   * The encoded columns of the row are replaced by their canonical values, so the row must not be shared.
+   */
+  GEOmetadbSample(String[] row, GEOmetadbDictionary dictionary)
+  {
+    this.row = row;
+    this.codes = new int[ENCODED_COLUMNS.length];
+
+    for (int position = 0; position < ENCODED_COLUMNS.length; position++) {
+      int column = ENCODED_COLUMNS[position];
+      this.codes[position] = dictionary.encode(row[column]);
+      row[column] = dictionary.decode(this.codes[position]);
+    }
+  }
+
+  @Override public String getGSE()
+  {
+    return row[SERIES_ID];
+  }
+
+  @Override public String getGSM()
+  {
+    return row[GSM];
+  }
+
+  @Override public String getTitle()
+  {
+    return row[TITLE];
+  }
+
+  @Override public Optional<String> getDescription()
+  {
+    return Optional.ofNullable(row[DESCRIPTION]);
+  }
+
+  @Override public String getGPL()
+  {
+    return row[GPL];
+  }
+
+  @Override public Map<Integer, PerChannelSampleInfo> getPerChannelInformation()
+  {
+    Map<Integer, PerChannelSampleInfo> perChannelInformation = new HashMap<>();
+
+    perChannelInformation.put(1,
+      new PerChannelSampleInfo(1, row[SOURCE_NAME_CH1], row[ORGANISM_CH1],
+        GEOmetadbReader.extractCharacteristics(Optional.ofNullable(row[CHARACTERISTIC_CH1])), row[MOLECULE_CH1],
+        getValue(LABEL_CH1), Optional.ofNullable(row[TREATMENT_PROTOCOL_CH1]),
+        Optional.ofNullable(row[EXTRACT_PROTOCOL_CH1])));
+    perChannelInformation.put(2,
+      new PerChannelSampleInfo(2, getValue(SOURCE_NAME_CH2), getValue(ORGANISM_CH2),
+        GEOmetadbReader.extractCharacteristics(Optional.ofNullable(row[CHARACTERISTIC_CH2])), getValue(MOLECULE_CH2),
+        getValue(LABEL_CH2), Optional.ofNullable(row[TREATMENT_PROTOCOL_CH2]),
+        Optional.ofNullable(row[EXTRACT_PROTOCOL_CH2])));
+
+    return Collections.unmodifiableMap(perChannelInformation);
+  }
+
+  @Override public List<String> getOrganisms()
+  {
+    return channelValues(row[ORGANISM_CH1], getValue(ORGANISM_CH2));
+  }
+
+  @Override public List<String> getSourceNames()
+  {
+    return channelValues(row[SOURCE_NAME_CH1], getValue(SOURCE_NAME_CH2));
+  }
+
+  @Override public List<String> getMolecules()
+  {
+    return channelValues(row[MOLECULE_CH1], getValue(MOLECULE_CH2));
+  }
+
+  @Override public List<String> getLabels()
+  {
+    return channelValues(getValue(LABEL_CH1), getValue(LABEL_CH2));
+  }
+
+  @Override public Map<String, String> getCharacteristics()
+  {
+    return PerChannelSampleInfo.joinCharacteristicValues(getCharacteristicValues());
+  }
+
+  /**
+   * Characteristics of both channels are parsed directly into one map; a characteristic that appears in both
+   * channels keeps the values of both.
+   */
+  @Override public Map<String, List<String>> getCharacteristicValues()
+  {
+    Map<String, List<String>> characteristicValues = new HashMap<>();
+
+    GEOmetadbCharacteristicsParser.parse(row[CHARACTERISTIC_CH1], characteristicValues);
+    GEOmetadbCharacteristicsParser.parse(row[CHARACTERISTIC_CH2], characteristicValues);
+
+    return characteristicValues;
+  }
+
+  /**
+   * @return The sample's type as it appears in the database, such as RNA or SRA
+   */
+  public String getType()
+  {
+    return row[TYPE];
+  }
+
+  /**
+   * @return The dictionary code of the sample's GPL, or {@link GEOmetadbDictionary#NO_CODE} if it has none
+   */
+  public int getGPLCode()
+  {
+    return getCode(GPL);
+  }
+
+  public int getStatusCode()
+  {
+    return getCode(STATUS);
+  }
+
+  /**
+   * @return The dictionary code of the sample's type string as it appears in the database
+   */
+  public int getTypeCode()
+  {
+    return getCode(TYPE);
+  }
+
+  /**
+   * @param channel The channel number, which is 1 or 2
+   */
+  public int getOrganismCode(int channel)
+  {
+    return getCode(channel == 1 ? ORGANISM_CH1 : ORGANISM_CH2, channel);
+  }
+
+  /**
+   * @param channel The channel number, which is 1 or 2
+   */
+  public int getMoleculeCode(int channel)
+  {
+    return getCode(channel == 1 ? MOLECULE_CH1 : MOLECULE_CH2, channel);
+  }
+
+  /**
+   * @param channel The channel number, which is 1 or 2
+   */
+  public int getLabelCode(int channel)
+  {
+    return getCode(channel == 1 ? LABEL_CH1 : LABEL_CH2, channel);
+  }
+
+  private int getCode(int column, int channel)
+  {
+    if (channel != 1 && channel != 2)
+      throw new IllegalArgumentException("invalid channel " + channel + "; expecting 1 or 2");
+
+    return getCode(column);
+  }
+
+  private int getCode(int column)
+  {
+    return this.codes[CODE_POSITIONS[column]];
+  }
+
+  private String getValue(int column)
+  {
+    return row[column] != null ? row[column] : "";
+  }
+
+  /**
+   * @return The values of the two channels, in channel order, as the per-channel information would give them
+   */
+  private static List<String> channelValues(String channel1Value, String channel2Value)
+  {
+    List<String> values = new ArrayList<>(2);
+
+    values.add(channel1Value);
+    values.add(channel2Value);
+
+    return values;
+  }
+
+  private static int[] codePositions()
+  {
+    int[] codePositions = new int[GEOmetadbNames.SAMPLE_TABLE_COLUMN_NAMES.length];
+
+    Arrays.fill(codePositions, -1);
+    for (int position = 0; position < ENCODED_COLUMNS.length; position++)
+      codePositions[ENCODED_COLUMNS[position]] = position;
+
+    return codePositions;
+  }
+
+  private static int ordinal(String columnName)
+  {
+    return GEOmetadbNames.SampleTableColumnNames.indexOf(columnName);
+  }
+}
@@ -0,0 +1,103 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of one stage of a pipelined {@link GEOmetadbReader} extraction.
+ * <p>
+ * Busy time is the time the stage's threads spent working on batches of series. Wait time is the time they spent
+ * blocked on a queue, either waiting for the previous stage or, when the next stage falls behind, waiting for room to
+ * pass a batch on. The stage with the lowest {@link #getSeriesPerSecond()} limits the pipeline.
+ *
+ * @see GEOmetadbReader#extractGEOSubmissionsMetadataInPipeline(int, int, int, int, GEOSubmissionMetadataHandler)
+ */
+public class GEOmetadbStageMetrics
+{
+  private final String name;
+  private final int numberOfThreads;
+  private final LongAdder numberOfBatches = new LongAdder();
+  private final LongAdder numberOfSeries = new LongAdder();
+  private final LongAdder numberOfSamples = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+
+  public GEOmetadbStageMetrics(String name, int numberOfThreads)
+  {
+    this.name = name;
+    this.numberOfThreads = numberOfThreads;
+  }
+
+  void recordBatch(int numberOfSeries, int numberOfSamples, long busyNanos)
+  {
+    this.numberOfBatches.increment();
+    this.numberOfSeries.add(numberOfSeries);
+    this.numberOfSamples.add(numberOfSamples);
+    this.busyNanos.add(busyNanos);
+  }
+
+  void recordWait(long waitNanos)
+  {
+    this.waitNanos.add(waitNanos);
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  public int getNumberOfThreads()
+  {
+    return numberOfThreads;
+  }
+
+  public long getNumberOfBatches()
+  {
+    return numberOfBatches.sum();
+  }
+
+  public long getNumberOfSeries()
+  {
+    return numberOfSeries.sum();
+  }
+
+  public long getNumberOfSamples()
+  {
+    return numberOfSamples.sum();
+  }
+
+  /**
+   * @return The busy time of all of the stage's threads together
+   */
+  public long getBusyNanos()
+  {
+    return busyNanos.sum();
+  }
+
+  /**
+   * @return The wait time of all of the stage's threads together
+   */
+  public long getWaitNanos()
+  {
+    return waitNanos.sum();
+  }
+
+  /**
+   * @return The number of series per second that the stage would process if its threads never waited
+   */
+  public double getSeriesPerSecond()
+  {
+    long busyNanos = getBusyNanos();
+
+    return busyNanos == 0 ? 0.0 : getNumberOfSeries() * this.numberOfThreads * (double)TimeUnit.SECONDS.toNanos(1)
+      / busyNanos;
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbStageMetrics{" + "name='" + name + '\'' + ", numberOfThreads=" + numberOfThreads
+      + ", numberOfBatches=" + getNumberOfBatches() + ", numberOfSeries=" + getNumberOfSeries() + ", numberOfSamples="
+      + getNumberOfSamples() + ", busyMillis=" + TimeUnit.NANOSECONDS.toMillis(getBusyNanos()) + ", waitMillis="
+      + TimeUnit.NANOSECONDS.toMillis(getWaitNanos()) + ", seriesPerSecond=" + Math.round(getSeriesPerSecond()) + '}';
+  }
+}
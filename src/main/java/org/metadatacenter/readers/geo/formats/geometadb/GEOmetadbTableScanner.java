@@ -0,0 +1,436 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A cursor over the rows of a table in a {@link GEOmetadbSQLiteFile}, which walks the table's B-tree directly in the
+ * memory-mapped file.
+ * <p>
+ * {@link #next()} visits the rows in rowid order and {@link #seek(long)} positions the cursor at a single row. Column
+ * values are returned as the strings that SQLite's <tt>sqlite3_column_text</tt> would give, which is what JDBC
+ * returns for <tt>getString</tt>. A scanner is not thread-safe.
+ */
+public class GEOmetadbTableScanner
+{
+  private static final int LEAF_TABLE_PAGE = 0x0d;
+  private static final int INTERIOR_TABLE_PAGE = 0x05;
+  private static final int MAXIMUM_DEPTH = 40;
+  private static final MathContext REAL_TO_TEXT_PRECISION = new MathContext(15); // As SQLite's "%!.15g"
+
+  private final GEOmetadbSQLiteFile databaseFile;
+  private final String tableName;
+  private final int rootPage;
+  private final List<String> columnNames;
+  private final boolean[] realColumns; // Columns with REAL affinity
+  private final String[] defaultValues; // Values of columns added after a row was written
+  private final int rowIDColumn;
+  private final ByteBuffer[] segments;
+  private final int usableSize;
+
+  private final int[] pageStack = new int[MAXIMUM_DEPTH]; // Pages from the root to the current leaf
+  private final int[] cellStack = new int[MAXIMUM_DEPTH]; // Next cell to visit on each page
+  private int depth;
+
+  private long rowID;
+  private ByteBuffer record; // A segment view for a record held in one page, or a wrapper of payload
+  private int recordStart;
+  private byte[] payload = new byte[0]; // Records that spill onto overflow pages are copied here
+  private int numberOfRecordColumns;
+  private long[] serialTypes = new long[32];
+  private int[] valueOffsets = new int[32];
+  private byte[] textBuffer = new byte[256];
+  private int varintLength;
+
+  GEOmetadbTableScanner(GEOmetadbSQLiteFile databaseFile, String tableName, int rootPage, List<String> columnNames,
+    boolean[] realColumns, String[] defaultValues, int rowIDColumn)
+  {
+    this.databaseFile = databaseFile;
+    this.tableName = tableName;
+    this.rootPage = rootPage;
+    this.columnNames = columnNames;
+    this.realColumns = realColumns;
+    this.defaultValues = defaultValues;
+    this.rowIDColumn = rowIDColumn;
+    this.segments = databaseFile.newSegmentViews();
+    this.usableSize = databaseFile.getUsableSize();
+    reset();
+  }
+
+  public String getTableName()
+  {
+    return this.tableName;
+  }
+
+  public List<String> getColumnNames()
+  {
+    return this.columnNames;
+  }
+
+  /**
+   * @return The position of each named column in the table, for use with {@link #getString(int)}
+   * @throws GEOReaderException If the table has no column with one of the names
+   */
+  public int[] getColumnIndexes(List<String> columnNames) throws GEOReaderException
+  {
+    int[] columnIndexes = new int[columnNames.size()];
+
+    for (int i = 0; i < columnIndexes.length; i++) {
+      columnIndexes[i] = -1;
+      for (int column = 0; column < this.columnNames.size(); column++) {
+        if (this.columnNames.get(column).toLowerCase(Locale.ROOT)
+          .equals(columnNames.get(i).toLowerCase(Locale.ROOT))) {
+          columnIndexes[i] = column;
+          break;
+        }
+      }
+      if (columnIndexes[i] == -1)
+        throw new GEOReaderException("no column " + columnNames.get(i) + " in table " + this.tableName);
+    }
+    return columnIndexes;
+  }
+
+  /**
+   * Position the scanner before the first row of the table.
+   */
+  public void reset()
+  {
+    this.depth = 0;
+    this.pageStack[0] = this.rootPage;
+    this.cellStack[0] = 0;
+  }
+
+  /**
+   * Move to the next row in rowid order.
+   *
+   * @return False if there are no more rows
+   */
+  public boolean next() throws GEOReaderException
+  {
+    while (this.depth >= 0) {
+      int page = this.pageStack[this.depth];
+      int cell = this.cellStack[this.depth];
+      ByteBuffer segment = this.segments[this.databaseFile.getSegment(page)];
+      int pageOffset = this.databaseFile.getPageOffset(page);
+      int headerOffset = pageOffset + (page == 1 ? 100 : 0);
+      int pageType = segment.get(headerOffset) & 0xff;
+      int numberOfCells = segment.getShort(headerOffset + 3) & 0xffff;
+
+      if (pageType == LEAF_TABLE_PAGE) {
+        if (cell < numberOfCells) {
+          this.cellStack[this.depth]++;
+          positionAtLeafCell(segment, pageOffset, headerOffset, cell);
+          return true;
+        }
+        this.depth--;
+      } else if (pageType == INTERIOR_TABLE_PAGE) {
+        if (cell <= numberOfCells) {
+          int childPage = cell < numberOfCells ?
+            segment.getInt(pageOffset + cellOffset(segment, headerOffset, 12, cell)) :
+            segment.getInt(headerOffset + 8);
+          this.cellStack[this.depth]++;
+          push(childPage);
+        } else
+          this.depth--;
+      } else
+        throw unexpectedPageType(page, pageType);
+    }
+    return false;
+  }
+
+  /**
+   * Position the scanner at the row with a rowid. A subsequent {@link #next()} restarts from the first row.
+   *
+   * @return False if there is no row with the rowid
+   */
+  public boolean seek(long targetRowID) throws GEOReaderException
+  {
+    int page = this.rootPage;
+
+    reset();
+    this.depth = -1; // Until the next reset, a scan would find no rows
+
+    for (int level = 0; level < MAXIMUM_DEPTH; level++) {
+      ByteBuffer segment = this.segments[this.databaseFile.getSegment(page)];
+      int pageOffset = this.databaseFile.getPageOffset(page);
+      int headerOffset = pageOffset + (page == 1 ? 100 : 0);
+      int pageType = segment.get(headerOffset) & 0xff;
+      int numberOfCells = segment.getShort(headerOffset + 3) & 0xffff;
+
+      if (pageType == INTERIOR_TABLE_PAGE) {
+        int low = 0, high = numberOfCells; // Find the first cell whose key is at least the target
+
+        while (low < high) {
+          int middle = (low + high) >>> 1;
+          int cellStart = pageOffset + cellOffset(segment, headerOffset, 12, middle);
+
+          if (readVarint(segment, cellStart + 4) < targetRowID)
+            low = middle + 1;
+          else
+            high = middle;
+        }
+        page = low < numberOfCells ?
+          segment.getInt(pageOffset + cellOffset(segment, headerOffset, 12, low)) :
+          segment.getInt(headerOffset + 8);
+      } else if (pageType == LEAF_TABLE_PAGE) {
+        int low = 0, high = numberOfCells - 1;
+
+        while (low <= high) {
+          int middle = (low + high) >>> 1;
+          int cellStart = pageOffset + cellOffset(segment, headerOffset, 8, middle);
+          readVarint(segment, cellStart);
+          long cellRowID = readVarint(segment, cellStart + this.varintLength);
+
+          if (cellRowID < targetRowID)
+            low = middle + 1;
+          else if (cellRowID > targetRowID)
+            high = middle - 1;
+          else {
+            positionAtLeafCell(segment, pageOffset, headerOffset, middle);
+            return true;
+          }
+        }
+        return false;
+      } else
+        throw unexpectedPageType(page, pageType);
+    }
+    throw new GEOReaderException("B-tree of table " + this.tableName + " is deeper than " + MAXIMUM_DEPTH + " pages");
+  }
+
+  public long getRowID()
+  {
+    return this.rowID;
+  }
+
+  /**
+   * @param column The position of the column in the table
+   * @return The value of the column in the current row as text, or null if the value is NULL
+   */
+  public String getString(int column) throws GEOReaderException
+  {
+    if (column >= this.numberOfRecordColumns) // A column added to the table after the row was written
+      return column < this.defaultValues.length ? this.defaultValues[column] : null;
+
+    long serialType = this.serialTypes[column];
+
+    if (serialType == 0)
+      return column == this.rowIDColumn ? Long.toString(this.rowID) : null;
+    else if (serialType <= 9 && serialType != 7) { // Integers; SQLite stores integral reals this way too
+      long value = serialType <= 6 ? readInteger(this.valueOffsets[column], (int)serialType) : serialType - 8;
+
+      return column < this.realColumns.length && this.realColumns[column] ?
+        realToText(value) :
+        Long.toString(value);
+    } else if (serialType == 7)
+      return realToText(Double.longBitsToDouble(readInteger(this.valueOffsets[column], 6)));
+    else if (serialType >= 12) { // Text is odd, blob is even; both are read as UTF-8 text
+      int length = (int)((serialType - 12) / 2);
+
+      if (this.record.hasArray())
+        return new String(this.record.array(), this.valueOffsets[column], length, StandardCharsets.UTF_8);
+
+      if (this.textBuffer.length < length)
+        this.textBuffer = new byte[Math.max(length, this.textBuffer.length * 2)];
+      this.record.position(this.valueOffsets[column]);
+      this.record.get(this.textBuffer, 0, length);
+      return new String(this.textBuffer, 0, length, StandardCharsets.UTF_8);
+    } else
+      throw new GEOReaderException(
+        "invalid serial type " + serialType + " in row " + this.rowID + " of table " + this.tableName);
+  }
+
+  private void push(int page) throws GEOReaderException
+  {
+    if (++this.depth == MAXIMUM_DEPTH)
+      throw new GEOReaderException("B-tree of table " + this.tableName + " is deeper than " + MAXIMUM_DEPTH + " pages");
+
+    this.pageStack[this.depth] = page;
+    this.cellStack[this.depth] = 0;
+  }
+
+  /**
+   * @return The offset of a cell from the start of its page
+   */
+  private int cellOffset(ByteBuffer segment, int headerOffset, int headerSize, int cell)
+  {
+    return segment.getShort(headerOffset + headerSize + 2 * cell) & 0xffff;
+  }
+
+  private void positionAtLeafCell(ByteBuffer segment, int pageOffset, int headerOffset, int cell)
+    throws GEOReaderException
+  {
+    int position = pageOffset + cellOffset(segment, headerOffset, 8, cell);
+    long payloadSize = readVarint(segment, position);
+    position += this.varintLength;
+    this.rowID = readVarint(segment, position);
+    position += this.varintLength;
+
+    int maximumLocalSize = this.usableSize - 35;
+
+    if (payloadSize <= maximumLocalSize) {
+      this.record = segment;
+      this.recordStart = position;
+    } else
+      readOverflowingPayload(segment, position, payloadSize, maximumLocalSize);
+
+    readRecordHeader();
+  }
+
+  /**
+   * Copy a payload that does not fit in its leaf page, following the chain of overflow pages.
+   */
+  private void readOverflowingPayload(ByteBuffer segment, int position, long payloadSize, int maximumLocalSize)
+    throws GEOReaderException
+  {
+    if (payloadSize > Integer.MAX_VALUE - 8)
+      throw new GEOReaderException("row " + this.rowID + " of table " + this.tableName + " is too large to read");
+
+    int size = (int)payloadSize;
+    int minimumLocalSize = ((this.usableSize - 12) * 32 / 255) - 23;
+    int localSize = minimumLocalSize + (size - minimumLocalSize) % (this.usableSize - 4);
+
+    if (localSize > maximumLocalSize)
+      localSize = minimumLocalSize;
+
+    if (this.payload.length < size)
+      this.payload = new byte[Math.max(size, this.payload.length * 2)];
+
+    segment.position(position);
+    segment.get(this.payload, 0, localSize);
+
+    int copied = localSize;
+    int overflowPage = segment.getInt(position + localSize);
+
+    while (copied < size) {
+      if (overflowPage == 0)
+        throw new GEOReaderException("overflow chain of row " + this.rowID + " of table " + this.tableName
+          + " ends early; the file may be corrupt");
+
+      ByteBuffer overflowSegment = this.segments[this.databaseFile.getSegment(overflowPage)];
+      int overflowOffset = this.databaseFile.getPageOffset(overflowPage);
+      int length = Math.min(size - copied, this.usableSize - 4);
+
+      overflowSegment.position(overflowOffset + 4);
+      overflowSegment.get(this.payload, copied, length);
+      copied += length;
+      overflowPage = overflowSegment.getInt(overflowOffset);
+    }
+    this.record = ByteBuffer.wrap(this.payload);
+    this.recordStart = 0;
+  }
+
+  private void readRecordHeader()
+  {
+    int headerSize = (int)readVarint(this.record, this.recordStart);
+    int position = this.recordStart + this.varintLength;
+    int headerEnd = this.recordStart + headerSize;
+    int valueOffset = headerEnd;
+    int column = 0;
+
+    while (position < headerEnd) {
+      long serialType = readVarint(this.record, position);
+      position += this.varintLength;
+
+      if (column == this.serialTypes.length) {
+        this.serialTypes = Arrays.copyOf(this.serialTypes, column * 2);
+        this.valueOffsets = Arrays.copyOf(this.valueOffsets, column * 2);
+      }
+      this.serialTypes[column] = serialType;
+      this.valueOffsets[column] = valueOffset;
+      valueOffset += valueSize(serialType);
+      column++;
+    }
+    this.numberOfRecordColumns = column;
+  }
+
+  private static int valueSize(long serialType)
+  {
+    if (serialType >= 12)
+      return (int)((serialType - 12) / 2);
+    else if (serialType <= 4)
+      return (int)serialType;
+    else if (serialType == 5)
+      return 6;
+    else if (serialType <= 7)
+      return 8;
+    else
+      return 0;
+  }
+
+  /**
+   * @param sizeCode A serial type from 1 to 6, which give integers of 1, 2, 3, 4, 6 and 8 bytes
+   */
+  private long readInteger(int offset, int sizeCode)
+  {
+    int size = sizeCode <= 4 ? sizeCode : (sizeCode == 5 ? 6 : 8);
+    long value = this.record.get(offset); // Sign-extended
+
+    for (int i = 1; i < size; i++)
+      value = (value << 8) | (this.record.get(offset + i) & 0xff);
+
+    return value;
+  }
+
+  /**
+   * Read a SQLite variable-length integer, setting {@link #varintLength} to its length in bytes.
+   */
+  private long readVarint(ByteBuffer buffer, int position)
+  {
+    long value = 0;
+
+    for (int i = 0; i < 8; i++) {
+      int b = buffer.get(position + i) & 0xff;
+      value = (value << 7) | (b & 0x7f);
+      if ((b & 0x80) == 0) {
+        this.varintLength = i + 1;
+        return value;
+      }
+    }
+    this.varintLength = 9;
+    return (value << 8) | (buffer.get(position + 8) & 0xff);
+  }
+
+  private GEOReaderException unexpectedPageType(int page, int pageType)
+  {
+    return new GEOReaderException(
+      "unexpected page type " + pageType + " at page " + page + " of table " + this.tableName + " in SQLite file "
+        + this.databaseFile.getFileName());
+  }
+
+  /**
+   * Format a real as SQLite does when converting it to text, with 15 significant digits and at least one digit after
+   * the decimal point.
+   */
+  static String realToText(double value)
+  {
+    if (Double.isNaN(value))
+      return "NaN";
+    else if (Double.isInfinite(value))
+      return value > 0 ? "Inf" : "-Inf";
+    else if (value == 0)
+      return "0.0";
+
+    BigDecimal rounded = new BigDecimal(value).round(REAL_TO_TEXT_PRECISION).stripTrailingZeros();
+    int exponent = rounded.precision() - rounded.scale() - 1;
+
+    if (exponent < -4 || exponent >= REAL_TO_TEXT_PRECISION.getPrecision()) {
+      String digits = rounded.unscaledValue().abs().toString();
+      String mantissa = digits.charAt(0) + "." + (digits.length() > 1 ? digits.substring(1) : "0");
+
+      return (value < 0 ? "-" : "") + mantissa + "e" + (exponent < 0 ? "-" : "+") + (Math.abs(exponent) < 10 ?
+        "0" :
+        "") + Math.abs(exponent);
+    } else {
+      String plain = rounded.toPlainString();
+
+      return plain.indexOf('.') < 0 ? plain + ".0" : plain;
+    }
+  }
+}
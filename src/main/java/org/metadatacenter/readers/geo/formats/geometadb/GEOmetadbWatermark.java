@@ -0,0 +1,146 @@
+package org.metadatacenter.readers.geo.formats.geometadb;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The point up to which a GEOmetadb database has been extracted, for use with
+ * {@link GEOmetadbReader#extractChangedGEOSubmissionsMetadata(GEOmetadbWatermark,
+ * org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler)}.
+ * <p>
+ * A watermark holds a date in the <tt>YYYY-MM-DD</tt> form used by the GEOmetadb date columns and, optionally, the IDs
+ * of the series that were in the database at that point. Series are only reported as removed when the IDs are known.
+ * <p>
+ * A watermark file starts with a comment line, followed by the date and then one series ID per line.
+ */
+public class GEOmetadbWatermark
+{
+  private static final String FILE_HEADER = "# GEOmetadb watermark: last update date followed by series IDs";
+
+  private final String date;
+  private final Optional<SortedSet<String>> seriesIDs;
+
+  /**
+   * @param date A date in the form <tt>YYYY-MM-DD</tt>
+   */
+  public GEOmetadbWatermark(String date)
+  {
+    this.date = date;
+    this.seriesIDs = Optional.empty();
+  }
+
+  /**
+   * @param date      A date in the form <tt>YYYY-MM-DD</tt>
+   * @param seriesIDs The IDs of the series in the database at that date
+   */
+  public GEOmetadbWatermark(String date, SortedSet<String> seriesIDs)
+  {
+    this.date = date;
+    this.seriesIDs = Optional.of(Collections.unmodifiableSortedSet(seriesIDs));
+  }
+
+  /**
+   * @return A watermark before every update, from which every series in a database is reported as added
+   */
+  public static GEOmetadbWatermark initial()
+  {
+    return new GEOmetadbWatermark("", new TreeSet<>());
+  }
+
+  public String getDate()
+  {
+    return this.date;
+  }
+
+  public Optional<SortedSet<String>> getSeriesIDs()
+  {
+    return this.seriesIDs;
+  }
+
+  /**
+   * @param fileName A watermark file
+   * @return The watermark in the file, or {@link #initial()} if the file does not exist
+   */
+  public static GEOmetadbWatermark read(String fileName) throws GEOReaderException
+  {
+    Path path = Paths.get(fileName);
+
+    if (!Files.exists(path))
+      return initial();
+
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line = reader.readLine();
+
+      while (line != null && line.startsWith("#"))
+        line = reader.readLine();
+
+      if (line == null)
+        throw new GEOReaderException("no date in watermark file " + fileName);
+
+      String date = line.trim();
+      SortedSet<String> seriesIDs = new TreeSet<>();
+
+      while ((line = reader.readLine()) != null) {
+        String gse = line.trim();
+        if (!gse.isEmpty())
+          seriesIDs.add(gse);
+      }
+      return new GEOmetadbWatermark(date, seriesIDs);
+    } catch (IOException e) {
+      throw new GEOReaderException("error reading watermark file " + fileName + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Only watermarks with series IDs can be written. The file is replaced atomically where the file system allows it,
+   * so an interrupted write leaves the previous watermark in place.
+   */
+  public void write(String fileName) throws GEOReaderException
+  {
+    if (!this.seriesIDs.isPresent())
+      throw new GEOReaderException("cannot write watermark without series IDs to " + fileName);
+
+    Path path = Paths.get(fileName).toAbsolutePath();
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+        writer.write(FILE_HEADER);
+        writer.newLine();
+        writer.write(this.date);
+        writer.newLine();
+        for (String gse : this.seriesIDs.get()) {
+          writer.write(gse);
+          writer.newLine();
+        }
+      }
+      try {
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing watermark file " + fileName + ": " + e.getMessage(), e);
+    }
+  }
+
+  @Override public String toString()
+  {
+    return "GEOmetadbWatermark{" +
+      "date='" + date + '\'' +
+      ", numberOfSeries=" + (seriesIDs.isPresent() ? Integer.toString(seriesIDs.get().size()) : "unknown") +
+      '}';
+  }
+}
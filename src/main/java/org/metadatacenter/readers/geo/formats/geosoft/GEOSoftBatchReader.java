@@ -0,0 +1,146 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads many GEO SOFT spreadsheets concurrently, each with its own {@link GEOSoftReader}.
+ * <p>
+ * Opening and parsing a spreadsheet only uses state of its own, so the spreadsheets are read on a fixed pool of
+ * threads, by default one per processor, and the time to read a batch falls with the number of processors. A
+ * spreadsheet that cannot be read does not stop the batch: its result holds the error instead of a submission.
+ */
+public class GEOSoftBatchReader
+{
+  private final int numberOfThreads;
+  private boolean streaming = false;
+
+  public GEOSoftBatchReader()
+  {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param numberOfThreads The maximum number of spreadsheets read at the same time
+   */
+  public GEOSoftBatchReader(int numberOfThreads)
+  {
+    if (numberOfThreads < 1)
+      throw new IllegalArgumentException("number of threads must be positive; got " + numberOfThreads);
+
+    this.numberOfThreads = numberOfThreads;
+  }
+
+  public int getNumberOfThreads()
+  {
+    return numberOfThreads;
+  }
+
+  public boolean getStreaming()
+  {
+    return streaming;
+  }
+
+  /**
+   * @see GEOSoftReader#setStreaming(boolean)
+   */
+  public void setStreaming(boolean streaming)
+  {
+    this.streaming = streaming;
+  }
+
+  /**
+   * Read every .xls and .xlsx spreadsheet in a directory. Subdirectories are not searched.
+   *
+   * @return The result for each spreadsheet, in file name order
+   * @throws GEOReaderException If the directory cannot be listed
+   */
+  public List<GEOSoftBatchResult> extractGEOSubmissionsMetadata(String directoryName) throws GEOReaderException
+  {
+    File[] spreadsheetFiles = new File(directoryName).listFiles(file -> file.isFile() && isSpreadsheet(file.getName()));
+
+    if (spreadsheetFiles == null)
+      throw new GEOReaderException("Error listing spreadsheet directory " + directoryName);
+
+    List<String> spreadsheetFileNames = new ArrayList<>(spreadsheetFiles.length);
+
+    Arrays.sort(spreadsheetFiles);
+    for (File spreadsheetFile : spreadsheetFiles)
+      spreadsheetFileNames.add(spreadsheetFile.getPath());
+
+    return extractGEOSubmissionsMetadata(spreadsheetFileNames);
+  }
+
+  /**
+   * @return The result for each spreadsheet, in the order of the file names
+   * @throws GEOReaderException If the batch is interrupted
+   */
+  public List<GEOSoftBatchResult> extractGEOSubmissionsMetadata(List<String> spreadsheetFileNames)
+    throws GEOReaderException
+  {
+    List<GEOSoftBatchResult> results = new ArrayList<>(spreadsheetFileNames.size());
+
+    if (spreadsheetFileNames.isEmpty())
+      return results;
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+      Math.min(this.numberOfThreads, spreadsheetFileNames.size()));
+
+    try {
+      List<Future<GEOSoftBatchResult>> futureResults = new ArrayList<>(spreadsheetFileNames.size());
+
+      for (String spreadsheetFileName : spreadsheetFileNames)
+        futureResults.add(executor.submit(() -> extractGEOSubmissionMetadata(spreadsheetFileName)));
+
+      for (Future<GEOSoftBatchResult> futureResult : futureResults)
+        results.add(futureResult.get());
+
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GEOReaderException("interrupted reading spreadsheets", e);
+    } catch (ExecutionException e) {
+      throw new GEOReaderException("error reading spreadsheets: " + e.getCause(), e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private GEOSoftBatchResult extractGEOSubmissionMetadata(String spreadsheetFileName)
+  {
+    long startNanos = System.nanoTime();
+
+    try {
+      GEOSoftReader geoSoftReader = new GEOSoftReader(spreadsheetFileName);
+
+      geoSoftReader.setStreaming(this.streaming);
+      GEOSubmissionMetadata geoSubmissionMetadata = geoSoftReader.extractGEOSubmissionMetadata();
+
+      return new GEOSoftBatchResult(spreadsheetFileName, geoSubmissionMetadata, System.nanoTime() - startNanos);
+    } catch (GEOReaderException e) {
+      return new GEOSoftBatchResult(spreadsheetFileName, e, System.nanoTime() - startNanos);
+    } catch (RuntimeException e) { // POI reports some malformed spreadsheets with unchecked exceptions
+      return new GEOSoftBatchResult(spreadsheetFileName,
+        new GEOReaderException("Error reading spreadsheet " + spreadsheetFileName + ": " + e, e),
+        System.nanoTime() - startNanos);
+    }
+  }
+
+  private static boolean isSpreadsheet(String fileName)
+  {
+    String upperCase = fileName.toUpperCase(Locale.US);
+
+    return upperCase.endsWith(SpreadsheetUtil.XLS_EXTENSION.toUpperCase(Locale.US)) || upperCase
+      .endsWith(SpreadsheetUtil.XLSX_EXTENSION.toUpperCase(Locale.US));
+  }
+}
@@ -0,0 +1,72 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+
+import java.util.Optional;
+
+/**
+ * The outcome of reading one spreadsheet with a {@link GEOSoftBatchReader}: either the extracted submission or the
+ * error that stopped it.
+ */
+public class GEOSoftBatchResult
+{
+  private final String spreadsheetFileName;
+  private final Optional<GEOSubmissionMetadata> geoSubmissionMetadata;
+  private final Optional<GEOReaderException> error;
+  private final long readNanos;
+
+  public GEOSoftBatchResult(String spreadsheetFileName, GEOSubmissionMetadata geoSubmissionMetadata, long readNanos)
+  {
+    this.spreadsheetFileName = spreadsheetFileName;
+    this.geoSubmissionMetadata = Optional.of(geoSubmissionMetadata);
+    this.error = Optional.empty();
+    this.readNanos = readNanos;
+  }
+
+  public GEOSoftBatchResult(String spreadsheetFileName, GEOReaderException error, long readNanos)
+  {
+    this.spreadsheetFileName = spreadsheetFileName;
+    this.geoSubmissionMetadata = Optional.empty();
+    this.error = Optional.of(error);
+    this.readNanos = readNanos;
+  }
+
+  public String getSpreadsheetFileName()
+  {
+    return spreadsheetFileName;
+  }
+
+  /**
+   * @return The extracted submission, which is absent if the spreadsheet could not be read
+   */
+  public Optional<GEOSubmissionMetadata> getGEOSubmissionMetadata()
+  {
+    return geoSubmissionMetadata;
+  }
+
+  public Optional<GEOReaderException> getError()
+  {
+    return error;
+  }
+
+  public boolean isSuccessful()
+  {
+    return geoSubmissionMetadata.isPresent();
+  }
+
+  /**
+   * @return The time taken to read the spreadsheet, not counting the time it waited for a thread
+   */
+  public long getReadNanos()
+  {
+    return readNanos;
+  }
+
+  @Override public String toString()
+  {
+    return "GEOSoftBatchResult{" + "spreadsheetFileName='" + spreadsheetFileName + '\'' + (error.isPresent() ?
+      ", error=" + error.get().getMessage() :
+      ", geoSubmissionMetadata=" + geoSubmissionMetadata.get()) + '}';
+  }
+}
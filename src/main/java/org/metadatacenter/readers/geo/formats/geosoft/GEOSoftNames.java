@@ -112,6 +112,12 @@ public class GEOSoftNames
 
   public final static Set<String> PlatformFieldNames = new HashSet<>(Arrays.asList(PLATFORM_FIELD_NAMES));
 
+  // The field names whose rows start the sections of the metadata sheet
+  public final static String[] SECTION_MARKER_NAMES = { SERIES_HEADER_NAME, SERIES_TITLE_FIELD_NAME,
+    SAMPLES_HEADER_NAME, SAMPLES_SAMPLE_NAME_FIELD_NAME, PROTOCOLS_HEADER_NAME, PLATFORM_HEADER_NAME };
+
+  public final static Set<String> SectionMarkerNames = new HashSet<>(Arrays.asList(SECTION_MARKER_NAMES));
+
   public final static int FIELD_NAMES_COLUMN_NUMBER = 0;
   public final static int FIELD_VALUES_COLUMN_NUMBER = 1;
 
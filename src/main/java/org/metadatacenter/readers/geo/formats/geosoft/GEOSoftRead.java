@@ -3,8 +3,11 @@ package org.metadatacenter.readers.geo.formats.geosoft;
 import org.metadatacenter.readers.geo.GEOReaderException;
 import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
 
+import java.io.File;
+
 /**
- * Basic example of using the {@link GEOSoftReader} class to read GEO metadata from an Excel spreadsheet.
+ * Basic example of using the {@link GEOSoftReader} class to read GEO metadata from an Excel spreadsheet. Given a
+ * directory, it reads all of the spreadsheets in it with a {@link GEOSoftBatchReader}.
  */
 public class GEOSoftRead
 {
@@ -16,6 +19,17 @@ public class GEOSoftRead
     String geoExcelFilename = args[0];
 
     try {
+      if (new File(geoExcelFilename).isDirectory()) {
+        for (GEOSoftBatchResult result : new GEOSoftBatchReader().extractGEOSubmissionsMetadata(geoExcelFilename)) {
+          if (result.isSuccessful())
+            System.out.println(result.getSpreadsheetFileName() + ": " + result.getGEOSubmissionMetadata().get());
+          else
+            System.err.println(result.getSpreadsheetFileName() + ": Error reading: " + result.getError().get()
+              .getMessage());
+        }
+        return;
+      }
+
       GEOSoftReader geoSoftReader = new GEOSoftReader(geoExcelFilename);
       GEOSubmissionMetadata geoSubmissionMetadata = geoSoftReader.extractGEOSubmissionMetadata();
 
@@ -29,7 +43,7 @@ public class GEOSoftRead
 
   private static void Usage()
   {
-    System.err.println("Usage: " + GEOSoftRead.class.getName() + " <GEO Excel Filename>");
+    System.err.println("Usage: " + GEOSoftRead.class.getName() + " <GEO Excel Filename or Directory>");
     System.exit(-1);
   }
 }
@@ -71,33 +71,59 @@ import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SERIES
 import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SERIES_PUBMED_ID_FIELD_NAME;
 import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SERIES_SUMMARY_FIELD_NAME;
 import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SERIES_TITLE_FIELD_NAME;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SectionMarkerNames;
 import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SeriesFieldNames;
 
 public class GEOSoftReader
 {
   private final String spreadsheetFileName;
+  private boolean streaming = false;
 
   public GEOSoftReader(String spreadsheetFileName) throws GEOReaderException
   {
     this.spreadsheetFileName = spreadsheetFileName;
   }
 
+  public boolean getStreaming()
+  {
+    return streaming;
+  }
+
+  /**
+   * In streaming mode the metadata sheet is read row by row in a single pass, with the HSSF event API for XLS files
+   * and a SAX parser for XLSX files, instead of loading the whole workbook. Memory then stays flat as spreadsheets
+   * grow. Both modes extract the same metadata and report the same errors.
+   */
+  public void setStreaming(boolean streaming)
+  {
+    this.streaming = streaming;
+  }
+
   public GEOSubmissionMetadata extractGEOSubmissionMetadata() throws GEOReaderException
   {
-    InputStream spreadsheetStream = SpreadsheetUtil.openSpreadsheetInputStream(spreadsheetFileName);
-    Workbook workbook = SpreadsheetUtil.createReadonlyWorkbook(spreadsheetStream);
-    Sheet geoMetadataSheet = getGEOMetadataSheet(workbook);
+    if (streaming) {
+      GEOSoftStreamedSections geoMetadataSections = new GEOSoftStreamedSections();
+
+      if (!SpreadsheetStreamer.streamSheet(spreadsheetFileName, GEO_METADATA_SHEET_NAME, geoMetadataSections))
+        throw noGEOMetadataSheetException();
 
-    return extractGEOSubmissionMetadata(geoMetadataSheet);
+      return extractGEOSubmissionMetadata(geoMetadataSections);
+    } else {
+      InputStream spreadsheetStream = SpreadsheetUtil.openSpreadsheetInputStream(spreadsheetFileName);
+      Workbook workbook = SpreadsheetUtil.createReadonlyWorkbook(spreadsheetStream);
+      Sheet geoMetadataSheet = getGEOMetadataSheet(workbook);
+
+      return extractGEOSubmissionMetadata(new SheetSections(geoMetadataSheet));
+    }
   }
 
-  private GEOSubmissionMetadata extractGEOSubmissionMetadata(Sheet geoMetadataSheet)
+  private GEOSubmissionMetadata extractGEOSubmissionMetadata(GEOSoftSections geoMetadataSections)
     throws GEOReaderException
   {
-    Series series = extractSeries(geoMetadataSheet);
-    Map<String, Sample> samples = extractSamples(series.getGSE(), geoMetadataSheet);
-    Protocol protocol = extractProtocol(geoMetadataSheet);
-    Optional<Platform> platform = extractPlatform(geoMetadataSheet);
+    Series series = extractSeries(geoMetadataSections);
+    Map<String, Sample> samples = extractSamples(series.getGSE(), geoMetadataSections);
+    Protocol protocol = extractProtocol(geoMetadataSections);
+    Optional<Platform> platform = extractPlatform(geoMetadataSections);
     List<Platform> platforms = platform.isPresent() ?
       Collections.singletonList(platform.get()) :
       Collections.emptyList();
@@ -105,9 +131,9 @@ public class GEOSoftReader
     return new GEOSubmissionMetadata(series, samples, Optional.of(protocol), platforms);
   }
 
-  private Series extractSeries(Sheet geoMetadataSheet) throws GEOReaderException
+  private Series extractSeries(GEOSoftSections geoMetadataSections) throws GEOReaderException
   {
-    Map<String, List<String>> seriesFields = extractSeriesFields(geoMetadataSheet);
+    Map<String, List<String>> seriesFields = extractSeriesFields(geoMetadataSections);
     String gse = ""; // Metadata spreadsheet does not have GSE identifier
     String title = getRequiredMultiValueFieldValue(seriesFields, SERIES_TITLE_FIELD_NAME, SERIES_HEADER_NAME);
     List<String> summary = getMultiValueFieldValues(seriesFields, SERIES_SUMMARY_FIELD_NAME);
@@ -205,20 +231,16 @@ public class GEOSoftReader
       throw new GEOReaderException("no values for field " + fieldName + " in " + fieldCollectionName);
   }
 
-  private Map<String, List<String>> extractSeriesFields(Sheet geoMetadataSheet) throws GEOReaderException
+  private Map<String, List<String>> extractSeriesFields(GEOSoftSections geoMetadataSections)
+    throws GEOReaderException
   {
-    Optional<Integer> seriesHeaderRowNumber = findFieldRowNumber(geoMetadataSheet, SERIES_HEADER_NAME,
-      FIELD_NAMES_COLUMN_NUMBER);
-
-    if (!seriesHeaderRowNumber.isPresent())
+    if (!geoMetadataSections.hasSeriesHeader())
       throw new GEOReaderException("no series header found in metadata spreadsheet");
 
-    Optional<Integer> seriesTitleRowNumber = findFieldRowNumber(geoMetadataSheet, SERIES_TITLE_FIELD_NAME,
-      FIELD_NAMES_COLUMN_NUMBER);
+    Optional<Map<String, List<String>>> seriesFields = geoMetadataSections.getSeriesFields();
 
-    if (seriesTitleRowNumber.isPresent()) {
-      Map<String, List<String>> fieldName2Values = findFieldValues(geoMetadataSheet, FIELD_NAMES_COLUMN_NUMBER,
-        FIELD_VALUES_COLUMN_NUMBER, seriesTitleRowNumber.get());
+    if (seriesFields.isPresent()) {
+      Map<String, List<String>> fieldName2Values = seriesFields.get();
 
       if (fieldName2Values.isEmpty())
         throw new GEOReaderException("no series fields found in metadata spreadsheet");
@@ -234,9 +256,9 @@ public class GEOSoftReader
       throw new GEOReaderException("no series title field named " + SERIES_TITLE_FIELD_NAME + " in metadata sheet");
   }
 
-  private Protocol extractProtocol(Sheet geoMetadataSheet) throws GEOReaderException
+  private Protocol extractProtocol(GEOSoftSections geoMetadataSections) throws GEOReaderException
   {
-    Map<String, List<String>> protocolFields = extractProtocolFields(geoMetadataSheet);
+    Map<String, List<String>> protocolFields = extractProtocolFields(geoMetadataSections);
 
     if (protocolFields.isEmpty())
       throw new GEOReaderException("no protocol fields found in metadata sheet");
@@ -256,9 +278,9 @@ public class GEOSoftReader
     return new Protocol(growth, treatment, extract, label, hyb, scan, dataProcessing, valueDefinition, protocolFields);
   }
 
-  private Optional<Platform> extractPlatform(Sheet geoMetadataSheet) throws GEOReaderException
+  private Optional<Platform> extractPlatform(GEOSoftSections geoMetadataSections) throws GEOReaderException
   {
-    Map<String, List<String>> platformFields = extractPlatformFields(geoMetadataSheet);
+    Map<String, List<String>> platformFields = extractPlatformFields(geoMetadataSections);
 
     if (!platformFields.isEmpty()) {
       String title = getRequiredMultiValueFieldValue(platformFields, PLATFORM_TITLE_FIELD_NAME, PLATFORM_HEADER_NAME);
@@ -291,15 +313,14 @@ public class GEOSoftReader
       return Optional.empty();
   }
 
-  private Map<String, List<String>> extractPlatformFields(Sheet geoMetadataSheet) throws GEOReaderException
+  private Map<String, List<String>> extractPlatformFields(GEOSoftSections geoMetadataSections)
+    throws GEOReaderException
   {
-    Optional<Integer> platformHeaderRowNumber = findFieldRowNumber(geoMetadataSheet, PLATFORM_HEADER_NAME,
-      FIELD_NAMES_COLUMN_NUMBER);
+    Optional<Map<String, List<String>>> platformFields = geoMetadataSections.getPlatformFields();
 
-    if (platformHeaderRowNumber.isPresent()) {
+    if (platformFields.isPresent()) {
 
-      Map<String, List<String>> fieldName2Values = findFieldValues(geoMetadataSheet, FIELD_NAMES_COLUMN_NUMBER,
-        FIELD_VALUES_COLUMN_NUMBER, platformHeaderRowNumber.get() + 1);
+      Map<String, List<String>> fieldName2Values = platformFields.get();
 
       if (!fieldName2Values.isEmpty()) {
 
@@ -316,16 +337,15 @@ public class GEOSoftReader
       return Collections.emptyMap();
   }
 
-  private Map<String, List<String>> extractProtocolFields(Sheet geoMetadataSheet) throws GEOReaderException
+  private Map<String, List<String>> extractProtocolFields(GEOSoftSections geoMetadataSections)
+    throws GEOReaderException
   {
-    Optional<Integer> protocolsHeaderRowNumber = findFieldRowNumber(geoMetadataSheet, PROTOCOLS_HEADER_NAME,
-      FIELD_NAMES_COLUMN_NUMBER);
+    Optional<Map<String, List<String>>> protocolFields = geoMetadataSections.getProtocolFields();
 
-    if (!protocolsHeaderRowNumber.isPresent())
+    if (!protocolFields.isPresent())
       throw new GEOReaderException("no protocols header field named " + PROTOCOLS_HEADER_NAME + " in metadata sheet");
 
-    Map<String, List<String>> fieldName2Values = findProtocolFieldValues(geoMetadataSheet, FIELD_NAMES_COLUMN_NUMBER,
-      FIELD_VALUES_COLUMN_NUMBER, protocolsHeaderRowNumber.get() + 1);
+    Map<String, List<String>> fieldName2Values = protocolFields.get();
 
     if (fieldName2Values.isEmpty())
       throw new GEOReaderException("no protocol fields found in metadata spreadsheet");
@@ -336,24 +356,21 @@ public class GEOSoftReader
     return fieldName2Values;
   }
 
-  private Map<String, Sample> extractSamples(String gse, Sheet geoMetadataSheet) throws GEOReaderException
+  private Map<String, Sample> extractSamples(String gse, GEOSoftSections geoMetadataSections)
+    throws GEOReaderException
   {
     Map<String, Sample> samples = new HashMap<>();
 
-    Optional<Integer> samplesHeaderRowNumber = findFieldRowNumber(geoMetadataSheet, SAMPLES_HEADER_NAME,
-      FIELD_NAMES_COLUMN_NUMBER);
-
-    if (!samplesHeaderRowNumber.isPresent())
+    if (!geoMetadataSections.hasSamplesHeader())
       throw new GEOReaderException("no samples header found in metadata spreadsheet");
 
-    Optional<Integer> samplesColumnNamesRowNumber = findFieldRowNumber(geoMetadataSheet, SAMPLES_SAMPLE_NAME_FIELD_NAME,
-      FIELD_NAMES_COLUMN_NUMBER);
+    Optional<Map<String, Map<String, List<String>>>> samplesColumnValues = geoMetadataSections
+      .getSamplesColumnValues();
 
-    if (samplesColumnNamesRowNumber.isPresent()) {
+    if (samplesColumnValues.isPresent()) {
 
       // sample name -> (sample column name -> [value])
-      Map<String, Map<String, List<String>>> samplesColumns = extractSamplesColumnValues(geoMetadataSheet,
-        samplesColumnNamesRowNumber.get());
+      Map<String, Map<String, List<String>>> samplesColumns = samplesColumnValues.get();
 
       for (String sampleName : samplesColumns.keySet()) {
         Map<String, List<String>> sampleFields = samplesColumns.get(sampleName);
@@ -372,7 +389,7 @@ public class GEOSoftReader
           SAMPLES_HEADER_NAME);
         String organism = getRequiredMultiValueFieldValue(sampleFields, SAMPLES_ORGANISM_FIELD_NAME,
           SAMPLES_HEADER_NAME);
-        Map<String, String> characteristics = extractCharacteristicsFromSampleFields(sampleFields);
+        Map<String, List<String>> characteristics = extractCharacteristicsFromSampleFields(sampleFields);
         Optional<String> biomaterialProvider = getOptionalMultiValueFieldValue(sampleFields,
           SAMPLES_BIOMATERIAL_PROVIDER_FIELD_NAME, SAMPLES_HEADER_NAME);
         String molecule = getRequiredMultiValueFieldValue(sampleFields, SAMPLES_MOLECULE_FIELD_NAME,
@@ -428,10 +445,10 @@ public class GEOSoftReader
       return new ArrayList<>();
   }
 
-  private Map<String, String> extractCharacteristicsFromSampleFields(Map<String, List<String>> sampleFields)
+  private Map<String, List<String>> extractCharacteristicsFromSampleFields(Map<String, List<String>> sampleFields)
     throws GEOReaderException
   {
-    Map<String, String> characteristics = new HashMap<>();
+    Map<String, List<String>> characteristics = new HashMap<>();
 
     for (String fieldName : sampleFields.keySet()) {
       if (fieldName.startsWith(CHARACTERISTICS_FIELD_PREFIX)) {
@@ -445,7 +462,7 @@ public class GEOSoftReader
             throw new GEOReaderException(
               "multiple values for characteristic " + characteristicName + " in metadata spreadsheet");
           String characteristicValue = characteristicValues.get(0);
-          characteristics.put(characteristicName, characteristicValue);
+          characteristics.put(characteristicName, Collections.singletonList(characteristicValue));
         }
       }
     }
@@ -530,12 +547,17 @@ public class GEOSoftReader
     Sheet metadataSheet = workbook.getSheet(GEO_METADATA_SHEET_NAME);
 
     if (metadataSheet == null)
-      throw new GEOReaderException(
-        "spreadsheet does not contain a GEO metadata template sheet called " + GEO_METADATA_SHEET_NAME);
+      throw noGEOMetadataSheetException();
     else
       return metadataSheet;
   }
 
+  private GEOReaderException noGEOMetadataSheetException()
+  {
+    return new GEOReaderException(
+      "spreadsheet does not contain a GEO metadata template sheet called " + GEO_METADATA_SHEET_NAME);
+  }
+
   public static Optional<Integer> findFieldRowNumber(Sheet sheet, String fieldName, int fieldColumnNumber)
     throws GEOReaderException
   {
@@ -556,6 +578,32 @@ public class GEOSoftReader
     return Optional.empty();
   }
 
+  /**
+   * Find the rows of several fields in a single pass over the sheet.
+   *
+   * @return Field name -> the number of the first row with the field, as {@link #findFieldRowNumber} would return,
+   * for each field that is found
+   */
+  public static Map<String, Integer> findFieldRowNumbers(Sheet sheet, Set<String> fieldNames, int fieldColumnNumber)
+    throws GEOReaderException
+  {
+    Map<String, Integer> fieldRowNumbers = new HashMap<>();
+    int lastRow = sheet.getLastRowNum();
+
+    for (int currentRow = 0; currentRow <= lastRow && fieldRowNumbers.size() < fieldNames.size(); currentRow++) {
+      Row row = sheet.getRow(currentRow);
+      if (row != null) {
+        Cell cell = row.getCell(fieldColumnNumber);
+        if (cell != null && SpreadsheetUtil.isStringCellType(cell)) {
+          String value = SpreadsheetUtil.getCellValueAsString(cell);
+          if (fieldNames.contains(value) && !fieldRowNumbers.containsKey(value))
+            fieldRowNumbers.put(value, currentRow);
+        }
+      }
+    }
+    return fieldRowNumbers;
+  }
+
   /**
    * A field can have multiple values.
    */
@@ -657,4 +705,80 @@ public class GEOSoftReader
     }
     return field2Values;
   }
+
+  /**
+   * The sections of a metadata sheet in a loaded workbook. The rows of the section markers are indexed in a single
+   * pass over the sheet, and each section is then read from its marker row to the blank row that ends it.
+   */
+  private class SheetSections implements GEOSoftSections
+  {
+    private final Sheet geoMetadataSheet;
+    private final Map<String, Integer> sectionMarkerRowNumbers;
+
+    public SheetSections(Sheet geoMetadataSheet) throws GEOReaderException
+    {
+      this.geoMetadataSheet = geoMetadataSheet;
+      this.sectionMarkerRowNumbers = findFieldRowNumbers(geoMetadataSheet, SectionMarkerNames,
+        FIELD_NAMES_COLUMN_NUMBER);
+    }
+
+    private Optional<Integer> findSectionMarkerRowNumber(String sectionMarkerName)
+    {
+      return Optional.ofNullable(sectionMarkerRowNumbers.get(sectionMarkerName));
+    }
+
+    @Override public boolean hasSeriesHeader() throws GEOReaderException
+    {
+      return findSectionMarkerRowNumber(SERIES_HEADER_NAME).isPresent();
+    }
+
+    @Override public Optional<Map<String, List<String>>> getSeriesFields() throws GEOReaderException
+    {
+      Optional<Integer> seriesTitleRowNumber = findSectionMarkerRowNumber(SERIES_TITLE_FIELD_NAME);
+
+      if (seriesTitleRowNumber.isPresent())
+        return Optional.of(findFieldValues(geoMetadataSheet, FIELD_NAMES_COLUMN_NUMBER, FIELD_VALUES_COLUMN_NUMBER,
+          seriesTitleRowNumber.get()));
+      else
+        return Optional.empty();
+    }
+
+    @Override public boolean hasSamplesHeader() throws GEOReaderException
+    {
+      return findSectionMarkerRowNumber(SAMPLES_HEADER_NAME).isPresent();
+    }
+
+    @Override public Optional<Map<String, Map<String, List<String>>>> getSamplesColumnValues()
+      throws GEOReaderException
+    {
+      Optional<Integer> samplesColumnNamesRowNumber = findSectionMarkerRowNumber(SAMPLES_SAMPLE_NAME_FIELD_NAME);
+
+      if (samplesColumnNamesRowNumber.isPresent())
+        return Optional.of(extractSamplesColumnValues(geoMetadataSheet, samplesColumnNamesRowNumber.get()));
+      else
+        return Optional.empty();
+    }
+
+    @Override public Optional<Map<String, List<String>>> getProtocolFields() throws GEOReaderException
+    {
+      Optional<Integer> protocolsHeaderRowNumber = findSectionMarkerRowNumber(PROTOCOLS_HEADER_NAME);
+
+      if (protocolsHeaderRowNumber.isPresent())
+        return Optional.of(findProtocolFieldValues(geoMetadataSheet, FIELD_NAMES_COLUMN_NUMBER,
+          FIELD_VALUES_COLUMN_NUMBER, protocolsHeaderRowNumber.get() + 1));
+      else
+        return Optional.empty();
+    }
+
+    @Override public Optional<Map<String, List<String>>> getPlatformFields() throws GEOReaderException
+    {
+      Optional<Integer> platformHeaderRowNumber = findSectionMarkerRowNumber(PLATFORM_HEADER_NAME);
+
+      if (platformHeaderRowNumber.isPresent())
+        return Optional.of(findFieldValues(geoMetadataSheet, FIELD_NAMES_COLUMN_NUMBER, FIELD_VALUES_COLUMN_NUMBER,
+          platformHeaderRowNumber.get() + 1));
+      else
+        return Optional.empty();
+    }
+  }
 }
@@ -0,0 +1,40 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The raw field values of the sections of a GEO metadata sheet, from which a {@link GEOSoftReader} builds a
+ * submission. Each section starts at the first row whose field name cell holds the section's marker and ends at the
+ * first blank row after it.
+ */
+interface GEOSoftSections
+{
+  boolean hasSeriesHeader() throws GEOReaderException;
+
+  /**
+   * @return Field name -> [field values] starting at the series title row, which is absent if there is no title row
+   */
+  Optional<Map<String, List<String>>> getSeriesFields() throws GEOReaderException;
+
+  boolean hasSamplesHeader() throws GEOReaderException;
+
+  /**
+   * @return Sample name -> (sample field name -> [field values]), which is absent if there is no sample column names
+   * row
+   */
+  Optional<Map<String, Map<String, List<String>>>> getSamplesColumnValues() throws GEOReaderException;
+
+  /**
+   * @return Field name -> [field values], which is absent if there is no protocols header
+   */
+  Optional<Map<String, List<String>>> getProtocolFields() throws GEOReaderException;
+
+  /**
+   * @return Field name -> [field values], which is absent if there is no platform header
+   */
+  Optional<Map<String, List<String>>> getPlatformFields() throws GEOReaderException;
+}
@@ -0,0 +1,285 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.FIELD_NAMES_COLUMN_NUMBER;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.FIELD_VALUES_COLUMN_NUMBER;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.PLATFORM_HEADER_NAME;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.PROTOCOLS_HEADER_NAME;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SAMPLES_HEADER_NAME;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SAMPLES_SAMPLE_NAME_FIELD_NAME;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SERIES_HEADER_NAME;
+import static org.metadatacenter.readers.geo.formats.geosoft.GEOSoftNames.SERIES_TITLE_FIELD_NAME;
+
+/**
+ * Collects the sections of a GEO metadata sheet from the rows of a {@link SpreadsheetStreamer} in a single pass. A
+ * section's collector starts at the first row with the section's marker and stops at the first blank row, so only the
+ * section values and the current row are held in memory. The collectors check the cells as the workbook-based reader
+ * does; an error is kept until its section is asked for, so errors are reported in the same order.
+ */
+final class GEOSoftStreamedSections implements GEOSoftSections, SpreadsheetStreamer.RowHandler
+{
+  private static final StreamedCell[] NO_CELLS = new StreamedCell[0];
+
+  private boolean seriesHeaderFound = false;
+  private boolean samplesHeaderFound = false;
+  private FieldsCollector seriesCollector;
+  private SamplesCollector samplesCollector;
+  private FieldsCollector protocolCollector;
+  private FieldsCollector platformCollector;
+  private int nextRowIndex = 0;
+
+  @Override public void row(int rowIndex, StreamedCell[] cells)
+  {
+    if (rowIndex > this.nextRowIndex) // A missing row ends every section
+      collect(this.nextRowIndex, NO_CELLS);
+
+    collect(rowIndex, cells);
+
+    StreamedCell fieldNameCell = StreamedCell.getCell(cells, FIELD_NAMES_COLUMN_NUMBER);
+
+    if (fieldNameCell != null) {
+      if (!this.seriesHeaderFound && fieldNameCell.hasStringValue(SERIES_HEADER_NAME))
+        this.seriesHeaderFound = true;
+      else if (!this.samplesHeaderFound && fieldNameCell.hasStringValue(SAMPLES_HEADER_NAME))
+        this.samplesHeaderFound = true;
+      else if (this.seriesCollector == null && fieldNameCell.hasStringValue(SERIES_TITLE_FIELD_NAME)) {
+        this.seriesCollector = new FieldsCollector(false);
+        this.seriesCollector.row(rowIndex, cells); // The title row is the first series field
+      } else if (this.samplesCollector == null && fieldNameCell.hasStringValue(SAMPLES_SAMPLE_NAME_FIELD_NAME)) {
+        this.samplesCollector = new SamplesCollector();
+        this.samplesCollector.row(rowIndex, cells); // The sample column names row is the first samples row
+      } else if (this.protocolCollector == null && fieldNameCell.hasStringValue(PROTOCOLS_HEADER_NAME))
+        this.protocolCollector = new FieldsCollector(true);
+      else if (this.platformCollector == null && fieldNameCell.hasStringValue(PLATFORM_HEADER_NAME))
+        this.platformCollector = new FieldsCollector(false);
+    }
+    this.nextRowIndex = rowIndex + 1;
+  }
+
+  @Override public boolean hasSeriesHeader()
+  {
+    return this.seriesHeaderFound;
+  }
+
+  @Override public Optional<Map<String, List<String>>> getSeriesFields() throws GEOReaderException
+  {
+    return this.seriesCollector == null ? Optional.empty() : Optional.of(this.seriesCollector.getFields());
+  }
+
+  @Override public boolean hasSamplesHeader()
+  {
+    return this.samplesHeaderFound;
+  }
+
+  @Override public Optional<Map<String, Map<String, List<String>>>> getSamplesColumnValues()
+    throws GEOReaderException
+  {
+    return this.samplesCollector == null ?
+      Optional.empty() :
+      Optional.of(this.samplesCollector.getSamplesColumnValues());
+  }
+
+  @Override public Optional<Map<String, List<String>>> getProtocolFields() throws GEOReaderException
+  {
+    return this.protocolCollector == null ? Optional.empty() : Optional.of(this.protocolCollector.getFields());
+  }
+
+  @Override public Optional<Map<String, List<String>>> getPlatformFields() throws GEOReaderException
+  {
+    return this.platformCollector == null ? Optional.empty() : Optional.of(this.platformCollector.getFields());
+  }
+
+  private void collect(int rowIndex, StreamedCell[] cells)
+  {
+    if (this.seriesCollector != null)
+      this.seriesCollector.row(rowIndex, cells);
+    if (this.samplesCollector != null)
+      this.samplesCollector.row(rowIndex, cells);
+    if (this.protocolCollector != null)
+      this.protocolCollector.row(rowIndex, cells);
+    if (this.platformCollector != null)
+      this.platformCollector.row(rowIndex, cells);
+  }
+
+  private static boolean isBlank(StreamedCell cell)
+  {
+    return cell == null || cell.isBlank();
+  }
+
+  private static void addFieldValue(Map<String, List<String>> field2Values, String fieldName, String fieldValue)
+  {
+    if (field2Values.containsKey(fieldName))
+      field2Values.get(fieldName).add(fieldValue);
+    else {
+      List<String> fieldValues = new ArrayList<>();
+      fieldValues.add(fieldValue);
+      field2Values.put(fieldName, fieldValues);
+    }
+  }
+
+  /**
+   * Collects the rows of a section until a row ends it or is in error
+   */
+  private static abstract class SectionCollector
+  {
+    private boolean finished = false;
+    private GEOReaderException error;
+
+    public void row(int rowIndex, StreamedCell[] cells)
+    {
+      if (this.finished)
+        return;
+
+      try {
+        this.finished = !add(rowIndex, cells);
+      } catch (GEOReaderException e) {
+        this.error = e;
+        this.finished = true;
+      }
+    }
+
+    /**
+     * @return False if the row ends the section
+     */
+    protected abstract boolean add(int rowIndex, StreamedCell[] cells) throws GEOReaderException;
+
+    protected void checkForError() throws GEOReaderException
+    {
+      if (this.error != null)
+        throw this.error;
+    }
+  }
+
+  /**
+   * Collects field name and value rows as {@link GEOSoftReader} does for the series and platform fields or, if
+   * protocol fields, for the protocol fields, where a field name without a value is skipped.
+   */
+  private static class FieldsCollector extends SectionCollector
+  {
+    private final boolean protocolFields;
+    private final Map<String, List<String>> field2Values = new HashMap<>();
+
+    public FieldsCollector(boolean protocolFields)
+    {
+      this.protocolFields = protocolFields;
+    }
+
+    public Map<String, List<String>> getFields() throws GEOReaderException
+    {
+      checkForError();
+
+      return this.field2Values;
+    }
+
+    @Override protected boolean add(int rowIndex, StreamedCell[] cells) throws GEOReaderException
+    {
+      StreamedCell fieldNameCell = StreamedCell.getCell(cells, FIELD_NAMES_COLUMN_NUMBER);
+      StreamedCell fieldValueCell = StreamedCell.getCell(cells, FIELD_VALUES_COLUMN_NUMBER);
+
+      if (isBlank(fieldNameCell))
+        return false;
+
+      if (this.protocolFields) {
+        String fieldName = fieldNameCell.getStringValue();
+
+        if (fieldName.isEmpty())
+          return false;
+
+        if (!isBlank(fieldValueCell)) {
+          String fieldValue = fieldValueCell.getValueAsString();
+
+          if (fieldValue.isEmpty())
+            throw new GEOReaderException("empty field value at location " + fieldValueCell.getLocation());
+
+          addFieldValue(this.field2Values, fieldName, fieldValue);
+        }
+      } else {
+        if (isBlank(fieldValueCell))
+          return false;
+
+        String fieldName = fieldNameCell.getStringValue();
+
+        if (fieldName.isEmpty())
+          throw new GEOReaderException("empty field name at location " + fieldNameCell.getLocation());
+
+        String fieldValue = fieldValueCell.getValueAsString();
+
+        if (fieldValue.isEmpty())
+          throw new GEOReaderException("empty field value at location " + fieldValueCell.getLocation());
+
+        addFieldValue(this.field2Values, fieldName, fieldValue);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Collects the sample column names row and the sample rows that follow it
+   */
+  private static class SamplesCollector extends SectionCollector
+  {
+    // sample name -> (sample column name -> [value])
+    private final Map<String, Map<String, List<String>>> samplesColumnValues = new HashMap<>();
+    private List<String> samplesColumnNames;
+
+    public Map<String, Map<String, List<String>>> getSamplesColumnValues() throws GEOReaderException
+    {
+      checkForError();
+
+      return this.samplesColumnValues;
+    }
+
+    @Override protected boolean add(int rowIndex, StreamedCell[] cells) throws GEOReaderException
+    {
+      if (this.samplesColumnNames == null) {
+        this.samplesColumnNames = new ArrayList<>();
+
+        for (int columnIndex = 0; columnIndex < cells.length && !isBlank(cells[columnIndex]); columnIndex++) {
+          String fieldNameValue = cells[columnIndex].getStringValue();
+
+          if (fieldNameValue.isEmpty())
+            throw new GEOReaderException("empty samples title cell at row " + rowIndex + ", column " + columnIndex);
+
+          this.samplesColumnNames.add(fieldNameValue);
+        }
+        return true;
+      }
+
+      StreamedCell sampleNameCell = StreamedCell.getCell(cells, 0);
+
+      if (isBlank(sampleNameCell))
+        return false;
+
+      String sampleName = sampleNameCell.getValueAsString();
+
+      if (sampleName.isEmpty())
+        throw new GEOReaderException("empty sample name at row " + rowIndex);
+
+      if (this.samplesColumnValues.containsKey(sampleName))
+        throw new GEOReaderException("duplicate sample name " + sampleName + " found at row " + rowIndex);
+
+      Map<String, List<String>> sampleFields = new HashMap<>();
+
+      this.samplesColumnValues.put(sampleName, sampleFields);
+
+      for (int columnIndex = 0; columnIndex < this.samplesColumnNames.size(); columnIndex++) {
+        StreamedCell fieldValueCell = StreamedCell.getCell(cells, columnIndex);
+
+        if (!isBlank(fieldValueCell)) {
+          String fieldValue = fieldValueCell.getValueAsString();
+
+          if (!fieldValue.isEmpty())
+            addFieldValue(sampleFields, this.samplesColumnNames.get(columnIndex), fieldValue);
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,398 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the rows of one sheet of an XLS or XLSX spreadsheet without building a {@link Workbook}. XLS files are read
+ * with the HSSF event API and XLSX files are parsed with SAX, so only the cells of the current row are held in memory,
+ * together with the shared string table.
+ */
+final class SpreadsheetStreamer
+{
+  interface RowHandler
+  {
+    /**
+     * Called for each row that has cells, in row order.
+     *
+     * @param rowIndex The zero-based row number
+     * @param cells    The row's cells indexed by column, with null for missing cells
+     */
+    void row(int rowIndex, StreamedCell[] cells);
+  }
+
+  private static final byte[] ZIP_HEADER = { 'P', 'K', 3, 4 };
+
+  private SpreadsheetStreamer()
+  {
+  }
+
+  /**
+   * @param sheetName The name of the sheet, which is compared ignoring case as by {@link Workbook#getSheet(String)}
+   * @return False if the spreadsheet has no sheet with the name
+   */
+  static boolean streamSheet(String fileName, String sheetName, RowHandler handler) throws GEOReaderException
+  {
+    SpreadsheetUtil.checkForXLSOrXLSXExtension(fileName);
+
+    byte[] header = new byte[8];
+
+    try (InputStream inputStream = new FileInputStream(fileName)) {
+      int headerLength = 0;
+      int bytesRead;
+
+      while (headerLength < header.length
+        && (bytesRead = inputStream.read(header, headerLength, header.length - headerLength)) != -1)
+        headerLength += bytesRead;
+    } catch (IOException e) {
+      throw new GEOReaderException("Error opening spreadsheet " + fileName + ": " + e.getMessage(), e);
+    }
+
+    if (POIFSFileSystem.hasPOIFSHeader(header))
+      return streamXLSSheet(fileName, sheetName, handler);
+    else if (header[0] == ZIP_HEADER[0] && header[1] == ZIP_HEADER[1] && header[2] == ZIP_HEADER[2]
+      && header[3] == ZIP_HEADER[3])
+      return streamXLSXSheet(fileName, sheetName, handler);
+    else
+      throw new GEOReaderException("Invalid format for workbook " + fileName + ": neither an XLS nor an XLSX file");
+  }
+
+  private static boolean streamXLSSheet(String fileName, String sheetName, RowHandler handler)
+    throws GEOReaderException
+  {
+    try (NPOIFSFileSystem fileSystem = new NPOIFSFileSystem(new File(fileName), true)) {
+      XLSSheetListener listener = new XLSSheetListener(sheetName, handler);
+      HSSFRequest request = new HSSFRequest();
+
+      request.addListenerForAllRecords(listener);
+      new HSSFEventFactory().abortableProcessWorkbookEvents(request, fileSystem.getRoot());
+
+      return listener.sheetFound;
+    } catch (IOException | HSSFUserException e) {
+      throw new GEOReaderException("IO error opening workbook " + e.getMessage(), e);
+    }
+  }
+
+  private static boolean streamXLSXSheet(String fileName, String sheetName, RowHandler handler)
+    throws GEOReaderException
+  {
+    OPCPackage opcPackage = null;
+
+    try {
+      opcPackage = OPCPackage.open(new File(fileName), PackageAccess.READ);
+
+      ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+      XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator)new XSSFReader(opcPackage).getSheetsData();
+
+      while (sheets.hasNext()) {
+        try (InputStream sheetStream = sheets.next()) {
+          if (sheets.getSheetName().equalsIgnoreCase(sheetName)) {
+            XMLReader xmlReader = SAXHelper.newXMLReader();
+
+            xmlReader.setContentHandler(new XLSXSheetHandler(sharedStrings, handler));
+            xmlReader.parse(new InputSource(sheetStream));
+            return true;
+          }
+        }
+      }
+      return false;
+    } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+      throw new GEOReaderException("Invalid format for workbook " + e.getMessage(), e);
+    } catch (IOException e) {
+      throw new GEOReaderException("IO error opening workbook " + e.getMessage(), e);
+    } finally {
+      if (opcPackage != null)
+        opcPackage.revert(); // Read-only, so there is nothing to save
+    }
+  }
+
+  /**
+   * Collects the cells of a row and passes the row to a handler when the next row starts
+   */
+  private static class RowAssembler
+  {
+    private final RowHandler handler;
+    private final List<StreamedCell> cells = new ArrayList<>();
+    private int rowIndex = -1;
+
+    public RowAssembler(RowHandler handler)
+    {
+      this.handler = handler;
+    }
+
+    public void add(StreamedCell cell)
+    {
+      if (cell.getRowIndex() != this.rowIndex) {
+        flush();
+        this.rowIndex = cell.getRowIndex();
+      }
+      this.cells.add(cell);
+    }
+
+    public void flush()
+    {
+      if (this.cells.isEmpty())
+        return;
+
+      int numberOfColumns = 0;
+      for (StreamedCell cell : this.cells)
+        numberOfColumns = Math.max(numberOfColumns, cell.getColumnIndex() + 1);
+
+      StreamedCell[] row = new StreamedCell[numberOfColumns];
+      for (StreamedCell cell : this.cells)
+        row[cell.getColumnIndex()] = cell;
+
+      this.cells.clear();
+      this.handler.row(this.rowIndex, row);
+    }
+  }
+
+  /**
+   * Passes on the cell records of one worksheet and stops reading the workbook at the end of it. The worksheets
+   * follow the workbook globals in the order of their bound sheet records; charts embedded in a worksheet are nested
+   * between their own BOF and EOF records.
+   */
+  private static class XLSSheetListener extends AbortableHSSFListener
+  {
+    private final String sheetName;
+    private final RowAssembler rowAssembler;
+    private final List<String> sheetNames = new ArrayList<>();
+    private SSTRecord sharedStrings;
+    private int depth = 0; // Of nested BOF and EOF records
+    private int sheetIndex = -1;
+    private boolean inSheet = false;
+    private boolean sheetFound = false;
+
+    public XLSSheetListener(String sheetName, RowHandler handler)
+    {
+      this.sheetName = sheetName;
+      this.rowAssembler = new RowAssembler(handler);
+    }
+
+    @Override public short abortableProcessRecord(Record record)
+    {
+      switch (record.getSid()) {
+      case BoundSheetRecord.sid:
+        this.sheetNames.add(((BoundSheetRecord)record).getSheetname());
+        break;
+      case SSTRecord.sid:
+        this.sharedStrings = (SSTRecord)record;
+        break;
+      case BOFRecord.sid:
+        if (this.depth++ == 0 && ((BOFRecord)record).getType() != BOFRecord.TYPE_WORKBOOK) {
+          this.sheetIndex++;
+          this.inSheet = this.sheetIndex < this.sheetNames.size() && this.sheetNames.get(this.sheetIndex)
+            .equalsIgnoreCase(this.sheetName);
+        }
+        break;
+      case EOFRecord.sid:
+        if (--this.depth == 0 && this.inSheet) {
+          this.rowAssembler.flush();
+          this.sheetFound = true;
+          return 1; // The rest of the workbook is not needed
+        }
+        break;
+      default:
+        if (this.inSheet && this.depth == 1)
+          addCells(record);
+      }
+      return 0;
+    }
+
+    private void addCells(Record record)
+    {
+      switch (record.getSid()) {
+      case LabelSSTRecord.sid:
+        LabelSSTRecord labelSSTRecord = (LabelSSTRecord)record;
+        add(labelSSTRecord.getRow(), labelSSTRecord.getColumn(), Cell.CELL_TYPE_STRING,
+          this.sharedStrings.getString(labelSSTRecord.getSSTIndex()).getString());
+        break;
+      case LabelRecord.sid:
+        LabelRecord labelRecord = (LabelRecord)record;
+        add(labelRecord.getRow(), labelRecord.getColumn(), Cell.CELL_TYPE_STRING, labelRecord.getValue());
+        break;
+      case NumberRecord.sid:
+        NumberRecord numberRecord = (NumberRecord)record;
+        add(numberRecord.getRow(), numberRecord.getColumn(), Cell.CELL_TYPE_NUMERIC,
+          String.valueOf(numberRecord.getValue()));
+        break;
+      case RKRecord.sid:
+        RKRecord rkRecord = (RKRecord)record;
+        add(rkRecord.getRow(), rkRecord.getColumn(), Cell.CELL_TYPE_NUMERIC, String.valueOf(rkRecord.getRKNumber()));
+        break;
+      case MulRKRecord.sid:
+        MulRKRecord mulRKRecord = (MulRKRecord)record;
+        for (int i = 0; i < mulRKRecord.getNumColumns(); i++)
+          add(mulRKRecord.getRow(), mulRKRecord.getFirstColumn() + i, Cell.CELL_TYPE_NUMERIC,
+            String.valueOf(mulRKRecord.getRKNumberAt(i)));
+        break;
+      case BoolErrRecord.sid:
+        BoolErrRecord boolErrRecord = (BoolErrRecord)record;
+        if (boolErrRecord.isBoolean())
+          add(boolErrRecord.getRow(), boolErrRecord.getColumn(), Cell.CELL_TYPE_BOOLEAN,
+            String.valueOf(boolErrRecord.getBooleanValue()));
+        else
+          add(boolErrRecord.getRow(), boolErrRecord.getColumn(), Cell.CELL_TYPE_ERROR, null);
+        break;
+      case FormulaRecord.sid:
+        FormulaRecord formulaRecord = (FormulaRecord)record;
+        add(formulaRecord.getRow(), formulaRecord.getColumn(), Cell.CELL_TYPE_FORMULA, null);
+        break;
+      case BlankRecord.sid:
+        BlankRecord blankRecord = (BlankRecord)record;
+        add(blankRecord.getRow(), blankRecord.getColumn(), Cell.CELL_TYPE_BLANK, null);
+        break;
+      case MulBlankRecord.sid:
+        MulBlankRecord mulBlankRecord = (MulBlankRecord)record;
+        for (int i = 0; i < mulBlankRecord.getNumColumns(); i++)
+          add(mulBlankRecord.getRow(), mulBlankRecord.getFirstColumn() + i, Cell.CELL_TYPE_BLANK, null);
+        break;
+      }
+    }
+
+    private void add(int rowIndex, int columnIndex, int cellType, String value)
+    {
+      this.rowAssembler.add(new StreamedCell(rowIndex, columnIndex, cellType, value));
+    }
+  }
+
+  /**
+   * Converts the cells of an XLSX worksheet as {@link org.apache.poi.xssf.usermodel.XSSFCell} does: a cell with a
+   * formula is a formula cell, shared and inline strings are strings, and a numeric cell without a value is blank.
+   */
+  private static class XLSXSheetHandler extends DefaultHandler
+  {
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final RowAssembler rowAssembler;
+    private final StringBuilder text = new StringBuilder();
+    private int rowIndex = -1;
+    private int columnIndex = -1;
+    private String cellType;
+    private boolean hasFormula;
+    private boolean hasValue;
+    private boolean collectingText = false;
+
+    public XLSXSheetHandler(ReadOnlySharedStringsTable sharedStrings, RowHandler handler)
+    {
+      this.sharedStrings = sharedStrings;
+      this.rowAssembler = new RowAssembler(handler);
+    }
+
+    @Override public void startElement(String uri, String localName, String qName, Attributes attributes)
+    {
+      switch (localName) {
+      case "row":
+        String rowReference = attributes.getValue("r");
+        this.rowIndex = rowReference != null ? Integer.parseInt(rowReference) - 1 : this.rowIndex + 1;
+        this.columnIndex = -1;
+        break;
+      case "c":
+        String cellReference = attributes.getValue("r");
+        this.columnIndex = cellReference != null ?
+          new CellReference(cellReference).getCol() :
+          this.columnIndex + 1;
+        this.cellType = attributes.getValue("t");
+        this.hasFormula = false;
+        this.hasValue = false;
+        this.text.setLength(0);
+        break;
+      case "f":
+        this.hasFormula = true;
+        break;
+      case "v":
+        this.hasValue = true;
+        this.collectingText = true;
+        break;
+      case "t": // Of an inline string
+        this.collectingText = true;
+        break;
+      }
+    }
+
+    @Override public void characters(char[] characters, int start, int length)
+    {
+      if (this.collectingText)
+        this.text.append(characters, start, length);
+    }
+
+    @Override public void endElement(String uri, String localName, String qName)
+    {
+      switch (localName) {
+      case "v":
+      case "t":
+        this.collectingText = false;
+        break;
+      case "c":
+        this.rowAssembler.add(cell());
+        break;
+      case "sheetData":
+        this.rowAssembler.flush();
+        break;
+      }
+    }
+
+    private StreamedCell cell()
+    {
+      String value = this.text.toString();
+
+      if (this.hasFormula)
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_FORMULA, null);
+      else if ("s".equals(this.cellType))
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_STRING,
+          value.isEmpty() ? "" : this.sharedStrings.getEntryAt(Integer.parseInt(value)));
+      else if ("inlineStr".equals(this.cellType) || "str".equals(this.cellType))
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_STRING, value);
+      else if ("b".equals(this.cellType))
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_BOOLEAN,
+          String.valueOf("1".equals(value)));
+      else if ("e".equals(this.cellType))
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_ERROR, null);
+      else if (!this.hasValue)
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_BLANK, null);
+      else
+        return new StreamedCell(this.rowIndex, this.columnIndex, Cell.CELL_TYPE_NUMERIC,
+          String.valueOf(Double.parseDouble(value)));
+    }
+  }
+}
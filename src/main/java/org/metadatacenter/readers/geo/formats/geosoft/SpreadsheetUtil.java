@@ -281,23 +281,25 @@ public class SpreadsheetUtil
   {
     if (cell == null)
       return "Cell is NULL";
-    else {
-      int celltype = cell.getCellType();
-
-      if (celltype == Cell.CELL_TYPE_BLANK)
-        return "CELL_TYPE_BLANK";
-      else if (celltype == Cell.CELL_TYPE_FORMULA)
-        return "CELL_TYPE_BLANK";
-      else if (celltype == Cell.CELL_TYPE_STRING)
-        return "CELL_TYPE_STRING";
-      else if (celltype == Cell.CELL_TYPE_NUMERIC)
-        return "CELL_TYPE_NUMERIC";
-      else if (celltype == Cell.CELL_TYPE_BOOLEAN)
-        return "CELL_TYPE_BOOLEAN";
-      else if (celltype == Cell.CELL_TYPE_ERROR)
-        return "CELL_TYPE_ERROR";
-      else
-        return "UNKNOWN CELL TYPE!";
-    }
+    else
+      return getCellTypeName(cell.getCellType());
+  }
+
+  public static String getCellTypeName(int celltype)
+  {
+    if (celltype == Cell.CELL_TYPE_BLANK)
+      return "CELL_TYPE_BLANK";
+    else if (celltype == Cell.CELL_TYPE_FORMULA)
+      return "CELL_TYPE_BLANK";
+    else if (celltype == Cell.CELL_TYPE_STRING)
+      return "CELL_TYPE_STRING";
+    else if (celltype == Cell.CELL_TYPE_NUMERIC)
+      return "CELL_TYPE_NUMERIC";
+    else if (celltype == Cell.CELL_TYPE_BOOLEAN)
+      return "CELL_TYPE_BOOLEAN";
+    else if (celltype == Cell.CELL_TYPE_ERROR)
+      return "CELL_TYPE_ERROR";
+    else
+      return "UNKNOWN CELL TYPE!";
   }
 }
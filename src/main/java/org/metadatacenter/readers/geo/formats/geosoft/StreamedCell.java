@@ -0,0 +1,93 @@
+package org.metadatacenter.readers.geo.formats.geosoft;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.metadatacenter.readers.geo.GEOReaderException;
+
+/**
+ * A cell read by a {@link SpreadsheetStreamer}. Its type is one of the {@link Cell} cell types, and its value is
+ * converted to a string as {@link SpreadsheetUtil#getCellValueAsString(Cell)} converts the value of a workbook cell.
+ */
+final class StreamedCell
+{
+  private final int rowIndex;
+  private final int columnIndex;
+  private final int cellType;
+  private final String value; // Null for blank, error and formula cells
+
+  StreamedCell(int rowIndex, int columnIndex, int cellType, String value)
+  {
+    this.rowIndex = rowIndex;
+    this.columnIndex = columnIndex;
+    this.cellType = cellType;
+    this.value = value;
+  }
+
+  int getRowIndex()
+  {
+    return rowIndex;
+  }
+
+  int getColumnIndex()
+  {
+    return columnIndex;
+  }
+
+  boolean isBlank()
+  {
+    return cellType == Cell.CELL_TYPE_BLANK;
+  }
+
+  boolean isString()
+  {
+    return cellType == Cell.CELL_TYPE_STRING;
+  }
+
+  /**
+   * @see GEOSoftReader#findFieldRowNumber(org.apache.poi.ss.usermodel.Sheet, String, int)
+   */
+  boolean hasStringValue(String stringValue)
+  {
+    return isString() && stringValue.equals(value);
+  }
+
+  String getLocation()
+  {
+    return SpreadsheetUtil.convertLocation2String(columnIndex, rowIndex);
+  }
+
+  /**
+   * @see SpreadsheetUtil#getStringCellValue(Cell)
+   */
+  String getStringValue() throws GEOReaderException
+  {
+    if (!isString())
+      throw new GEOReaderException(
+        "Cell at location " + getLocation() + " is not a string; type is " + SpreadsheetUtil.getCellTypeName(cellType));
+
+    return value;
+  }
+
+  /**
+   * @see SpreadsheetUtil#getCellValueAsString(Cell)
+   */
+  String getValueAsString() throws GEOReaderException
+  {
+    if (cellType == Cell.CELL_TYPE_BLANK)
+      throw new GEOReaderException("Blank cell at location " + getLocation());
+    else if (cellType == Cell.CELL_TYPE_ERROR)
+      throw new GEOReaderException("Error cell at location " + getLocation());
+    else if (value == null)
+      throw new GEOReaderException("Unknown cell type at location " + getLocation());
+    else
+      return value;
+  }
+
+  /**
+   * @param cells A row's cells indexed by column, with null for missing cells
+   * @return The cell, or null if the row has no cell in the column
+   */
+  static StreamedCell getCell(StreamedCell[] cells, int columnIndex)
+  {
+    return columnIndex < cells.length ? cells[columnIndex] : null;
+  }
+}
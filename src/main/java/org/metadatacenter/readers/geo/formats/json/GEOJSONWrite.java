@@ -0,0 +1,46 @@
+package org.metadatacenter.readers.geo.formats.json;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbReader;
+
+/**
+ * Extracts a range of series from a GEOmetadb database with a {@link GEOmetadbReader} and writes the submissions as
+ * newline-delimited JSON with a {@link GEOJSONWriter}. The output is gzipped if the file name ends with <tt>.gz</tt>.
+ */
+public class GEOJSONWrite
+{
+  public static void main(String[] args)
+  {
+    if (args.length != 4)
+      Usage();
+
+    try {
+      String geometadbFilename = args[0];
+      int startIndex = Integer.parseInt(args[1]);
+      int numberOfSeries = Integer.parseInt(args[2]);
+      String jsonFilename = args[3];
+
+      GEOmetadbReader geometadbReader = new GEOmetadbReader(geometadbFilename);
+
+      try (GEOJSONWriter jsonWriter = new GEOJSONWriter(jsonFilename)) {
+        geometadbReader.extractGEOSubmissionsMetadata(startIndex, numberOfSeries, jsonWriter);
+
+        System.out.println("Wrote " + jsonWriter.getNumberOfSubmissions() + " submissions to " + jsonFilename);
+      }
+
+    } catch (GEOReaderException e) {
+      System.err.println(GEOJSONWrite.class.getName() + ": Error writing JSON: " + e.getMessage());
+      System.exit(-1);
+    } catch (NumberFormatException e) {
+      System.err.println(GEOJSONWrite.class.getName() + ": Error processing arguments: " + e.getMessage());
+      System.exit(-1);
+    }
+  }
+
+  private static void Usage()
+  {
+    System.err.println("Usage: " + GEOJSONWrite.class.getName()
+      + " <GEOmetadb Filename> <startIndex> <numberOfSeries> <JSON Filename>");
+    System.exit(-1);
+  }
+}
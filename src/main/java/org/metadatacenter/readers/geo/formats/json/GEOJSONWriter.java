@@ -0,0 +1,516 @@
+package org.metadatacenter.readers.geo.formats.json;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler;
+import org.metadatacenter.readers.geo.metadata.Contributor;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+import org.metadatacenter.readers.geo.metadata.PerChannelSampleInfo;
+import org.metadatacenter.readers.geo.metadata.Platform;
+import org.metadatacenter.readers.geo.metadata.Protocol;
+import org.metadatacenter.readers.geo.metadata.Sample;
+import org.metadatacenter.readers.geo.metadata.Series;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes {@link GEOSubmissionMetadata} instances as newline-delimited JSON (NDJSON), one submission per line.
+ * <p>
+ * A writer is a {@link GEOSubmissionMetadataHandler}, so it can be passed directly to the extraction methods of a
+ * reader. Submissions are encoded as UTF-8 straight into a byte buffer that is written to the output stream when it
+ * fills, without building strings for the submissions or their values.
+ * <p>
+ * Output is stable: object members are always written in the same order, with null for absent values, and the
+ * entries of maps, such as samples and characteristics, are written in key order. Samples and channels are written
+ * as arrays.
+ */
+public class GEOJSONWriter implements GEOSubmissionMetadataHandler, AutoCloseable
+{
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAXIMUM_BYTES_PER_CHAR = 6; // A unicode escape; a surrogate pair takes 4 bytes for 2 chars
+  private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e',
+    'f' };
+
+  private final OutputStream outputStream;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private final Map<String, byte[]> encodedNames = new HashMap<>(); // member name -> "name": in UTF-8
+
+  private int bufferPosition = 0;
+  private int lastByte = '\n'; // The last byte written before the buffer was last flushed
+  private long numberOfSubmissions = 0;
+
+  /**
+   * @param outputStream The stream to write to, which is closed when the writer is closed
+   */
+  public GEOJSONWriter(OutputStream outputStream)
+  {
+    this.outputStream = outputStream;
+  }
+
+  /**
+   * @param outputStream The stream to write to, which is closed when the writer is closed
+   * @param compress     True to gzip the output
+   */
+  public GEOJSONWriter(OutputStream outputStream, boolean compress) throws GEOReaderException
+  {
+    try {
+      this.outputStream = compress ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing JSON: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @param fileName The file to write, which is gzipped if its name ends with <tt>.gz</tt>
+   */
+  public GEOJSONWriter(String fileName) throws GEOReaderException
+  {
+    this(openFile(fileName), fileName.endsWith(".gz"));
+  }
+
+  public long getNumberOfSubmissions()
+  {
+    return this.numberOfSubmissions;
+  }
+
+  @Override public void handle(GEOSubmissionMetadata geoSubmissionMetadata) throws GEOReaderException
+  {
+    try {
+      writeSubmission(geoSubmissionMetadata);
+      write('\n');
+    } catch (IOException e) {
+      throw new GEOReaderException(
+        "error writing JSON for series " + geoSubmissionMetadata.getGSE() + ": " + e.getMessage(), e);
+    }
+    this.numberOfSubmissions++;
+  }
+
+  public void flush() throws GEOReaderException
+  {
+    try {
+      flushBuffer();
+      this.outputStream.flush();
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing JSON: " + e.getMessage(), e);
+    }
+  }
+
+  @Override public void close() throws GEOReaderException
+  {
+    try {
+      flushBuffer();
+      this.outputStream.close();
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing JSON: " + e.getMessage(), e);
+    }
+  }
+
+  private void writeSubmission(GEOSubmissionMetadata geoSubmissionMetadata) throws IOException
+  {
+    write('{');
+    writeMember("gse", geoSubmissionMetadata.getGSE());
+    writeName("series");
+    writeSeries(geoSubmissionMetadata.getSeries());
+
+    writeName("samples");
+    write('[');
+    for (String sampleID : sortedKeys(geoSubmissionMetadata.getSamples()))
+      writeSample(geoSubmissionMetadata.getSamples().get(sampleID));
+    write(']');
+
+    writeName("protocol");
+    if (geoSubmissionMetadata.getProtocol().isPresent())
+      writeProtocol(geoSubmissionMetadata.getProtocol().get());
+    else
+      writeNull();
+
+    writeName("platforms");
+    write('[');
+    for (Platform platform : geoSubmissionMetadata.getPlatforms())
+      writePlatform(platform);
+    write(']');
+    write('}');
+  }
+
+  private void writeSeries(Series series) throws IOException
+  {
+    beginValue();
+    write('{');
+    writeMember("gse", series.getGSE());
+    writeMember("title", series.getTitle());
+    writeMember("summary", series.getSummary());
+    writeMember("overallDesign", series.getOverallDesign());
+
+    writeName("contributors");
+    write('[');
+    for (Contributor contributor : series.getContributors())
+      writeContributor(contributor);
+    write(']');
+
+    writeMember("pubMedIDs", series.getPubMedIDs());
+
+    writeName("variables");
+    write('{');
+    for (String sampleID : sortedKeys(series.getVariables())) {
+      writeKey(sampleID);
+      writeStringMap(series.getVariables().get(sampleID));
+    }
+    write('}');
+
+    writeName("repeats");
+    write('{');
+    for (String sampleID : sortedKeys(series.getRepeats())) {
+      writeKey(sampleID);
+      writeStrings(series.getRepeats().get(sampleID));
+    }
+    write('}');
+
+    writeMember("submissionDate", series.getSubmissionDate());
+    writeMember("lastUpdateDate", series.getLastUpdateDate());
+    write('}');
+  }
+
+  private void writeContributor(Contributor contributor) throws IOException
+  {
+    beginValue();
+    write('{');
+    writeMember("name", contributor.getName());
+    writeMember("email", contributor.getEmail());
+    writeMember("phone", contributor.getPhone());
+    writeMember("fax", contributor.getFax());
+    writeMember("laboratory", contributor.getLaboratory());
+    writeMember("department", contributor.getDepartment());
+    writeMember("institute", contributor.getInstitute());
+    writeMember("address", contributor.getAddress());
+    writeMember("city", contributor.getCity());
+    writeMember("state", contributor.getState());
+    writeMember("zipOrPostalCode", contributor.getZipOrPostalCode());
+    writeMember("country", contributor.getCountry());
+    writeMember("webLink", contributor.getWebLink());
+    write('}');
+  }
+
+  private void writeSample(Sample sample) throws IOException
+  {
+    Map<Integer, PerChannelSampleInfo> perChannelInformation = sample.getPerChannelInformation();
+
+    beginValue();
+    write('{');
+    writeMember("gsm", sample.getGSM());
+    writeMember("gse", sample.getGSE());
+    writeMember("title", sample.getTitle());
+    writeMember("label", sample.getLabel());
+    writeMember("description", sample.getDescription());
+    writeMember("gpl", sample.getGPL());
+
+    writeName("channels");
+    write('[');
+    for (Integer channel : sortedKeys(perChannelInformation))
+      writeChannel(perChannelInformation.get(channel));
+    write(']');
+
+    writeMember("biomaterialProvider", sample.getBiomaterialProvider());
+    writeMember("rawDataFiles", sample.getRawDataFiles());
+    writeMember("celFile", sample.getCelFile());
+    writeMember("expFile", sample.getExpFile());
+    writeMember("chpFile", sample.getChpFile());
+    write('}');
+  }
+
+  private void writeChannel(PerChannelSampleInfo perChannelSampleInfo) throws IOException
+  {
+    beginValue();
+    write('{');
+    writeName("channelNumber");
+    if (perChannelSampleInfo.getChannelNumber() != null)
+      writeInt(perChannelSampleInfo.getChannelNumber());
+    else
+      writeNull();
+    writeMember("sourceName", perChannelSampleInfo.getSourceName());
+    writeMember("organism", perChannelSampleInfo.getOrganism());
+    writeName("characteristics");
+    writeStringMap(perChannelSampleInfo.getCharacteristics());
+    writeMember("molecule", perChannelSampleInfo.getMolecule());
+    writeMember("label", perChannelSampleInfo.getLabel());
+    writeMember("treatmentProtocol", perChannelSampleInfo.getTreatmentProtocol());
+    writeMember("extractProtocol", perChannelSampleInfo.getExtractProtocol());
+    write('}');
+  }
+
+  private void writeProtocol(Protocol protocol) throws IOException
+  {
+    write('{');
+    writeMember("growthProtocols", protocol.getGrowthProtocols());
+    writeMember("treatmentProtocols", protocol.getTreatmentProtocols());
+    writeMember("extractProtocols", protocol.getExtractProtocols());
+    writeMember("labelProtocols", protocol.getLabelProtocol());
+    writeMember("hybridizationProtocols", protocol.getHybridizationProtocol());
+    writeMember("scanProtocols", protocol.getScanProtocols());
+    writeMember("dataProcessing", protocol.getDataProcessing());
+    writeMember("valueDefinitions", protocol.getValueDefinition());
+
+    writeName("userDefinedFields");
+    write('{');
+    for (String fieldName : sortedKeys(protocol.getUserDefinedFields())) {
+      writeKey(fieldName);
+      writeStrings(protocol.getUserDefinedFields().get(fieldName));
+    }
+    write('}');
+    write('}');
+  }
+
+  private void writePlatform(Platform platform) throws IOException
+  {
+    beginValue();
+    write('{');
+    writeMember("title", platform.getTitle());
+    writeMember("distribution", platform.getDistribution());
+    writeMember("technology", platform.getTechnology());
+    writeMember("organism", platform.getOrganism());
+    writeMember("manufacturer", platform.getManufacturer());
+    writeMember("manufacturerProtocol", platform.getManufacturerProtocol());
+    writeMember("description", platform.getDescription());
+    writeMember("catalogNumber", platform.getCatalogNumber());
+    writeMember("webLink", platform.getWebLink());
+    writeMember("support", platform.getSupport());
+    writeMember("coating", platform.getCoating());
+    writeMember("contributor", platform.getContributor());
+    writeMember("pubMedID", platform.getPubMedID());
+    write('}');
+  }
+
+  private void writeStringMap(Map<String, String> values) throws IOException
+  {
+    write('{');
+    for (String key : sortedKeys(values)) {
+      writeKey(key);
+      writeString(values.get(key));
+    }
+    write('}');
+  }
+
+  private void writeMember(String name, List<String> values) throws IOException
+  {
+    writeName(name);
+    writeStrings(values);
+  }
+
+  private void writeStrings(List<String> values) throws IOException
+  {
+    write('[');
+    for (String value : values) {
+      beginValue();
+      writeString(value);
+    }
+    write(']');
+  }
+
+  private void writeMember(String name, Optional<String> value) throws IOException
+  {
+    writeMember(name, value.orElse(null));
+  }
+
+  private void writeMember(String name, String value) throws IOException
+  {
+    writeName(name);
+    writeString(value);
+  }
+
+  /**
+   * Write the name of an object member. Names are fixed, so each is encoded once and its bytes are reused.
+   */
+  private void writeName(String name) throws IOException
+  {
+    byte[] encodedName = this.encodedNames.get(name);
+
+    if (encodedName == null) {
+      encodedName = ("\"" + name + "\":").getBytes(StandardCharsets.UTF_8);
+      this.encodedNames.put(name, encodedName);
+    }
+
+    beginValue();
+    if (this.buffer.length - this.bufferPosition < encodedName.length)
+      flushBuffer();
+    System.arraycopy(encodedName, 0, this.buffer, this.bufferPosition, encodedName.length);
+    this.bufferPosition += encodedName.length;
+  }
+
+  /**
+   * Write a map key, such as a sample ID or a characteristic name, as a member name
+   */
+  private void writeKey(String key) throws IOException
+  {
+    beginValue();
+    writeString(key);
+    write(':');
+  }
+
+  /**
+   * Write the comma that separates a member or an array element from the one before it
+   */
+  private void beginValue() throws IOException
+  {
+    int lastByte = this.bufferPosition > 0 ? this.buffer[this.bufferPosition - 1] : this.lastByte;
+
+    if (lastByte != '{' && lastByte != '[' && lastByte != ':' && lastByte != '\n')
+      write(',');
+  }
+
+  private void writeNull() throws IOException
+  {
+    write('n');
+    write('u');
+    write('l');
+    write('l');
+  }
+
+  private void writeInt(int value) throws IOException
+  {
+    if (value < 0) {
+      write('-');
+      writeDigits(-(long)value);
+    } else
+      writeDigits(value);
+  }
+
+  private void writeDigits(long value) throws IOException
+  {
+    if (value >= 10)
+      writeDigits(value / 10);
+    write('0' + (int)(value % 10));
+  }
+
+  /**
+   * Encode a string as a JSON string in UTF-8. Unpaired surrogates, which cannot be encoded in UTF-8, are written
+   * as escapes. Characters are encoded straight into the buffer in runs that are guaranteed to fit.
+   */
+  private void writeString(String value) throws IOException
+  {
+    if (value == null) {
+      writeNull();
+      return;
+    }
+
+    write('"');
+
+    int i = 0;
+    while (i < value.length()) {
+      if (this.buffer.length - this.bufferPosition < MAXIMUM_BYTES_PER_CHAR * 2)
+        flushBuffer();
+
+      byte[] buffer = this.buffer;
+      int position = this.bufferPosition;
+      int end = Math.min(value.length(), i + (buffer.length - position) / MAXIMUM_BYTES_PER_CHAR - 1);
+
+      for (; i < end; i++) {
+        char c = value.charAt(i);
+
+        if (c < 0x80) {
+          if (c >= 0x20 && c != '"' && c != '\\')
+            buffer[position++] = (byte)c;
+          else
+            position = encodeEscape(c, buffer, position);
+        } else if (c < 0x800) {
+          buffer[position++] = (byte)(0xc0 | c >> 6);
+          buffer[position++] = (byte)(0x80 | c & 0x3f);
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character
+          .isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+
+          buffer[position++] = (byte)(0xf0 | codePoint >> 18);
+          buffer[position++] = (byte)(0x80 | codePoint >> 12 & 0x3f);
+          buffer[position++] = (byte)(0x80 | codePoint >> 6 & 0x3f);
+          buffer[position++] = (byte)(0x80 | codePoint & 0x3f);
+        } else if (Character.isSurrogate(c))
+          position = encodeUnicodeEscape(c, buffer, position);
+        else {
+          buffer[position++] = (byte)(0xe0 | c >> 12);
+          buffer[position++] = (byte)(0x80 | c >> 6 & 0x3f);
+          buffer[position++] = (byte)(0x80 | c & 0x3f);
+        }
+      }
+      this.bufferPosition = position;
+    }
+    write('"');
+  }
+
+  private static int encodeEscape(char c, byte[] buffer, int position)
+  {
+    switch (c) {
+    case '"':
+    case '\\':
+      buffer[position++] = '\\';
+      buffer[position++] = (byte)c;
+      return position;
+    case '\n':
+      buffer[position++] = '\\';
+      buffer[position++] = 'n';
+      return position;
+    case '\r':
+      buffer[position++] = '\\';
+      buffer[position++] = 'r';
+      return position;
+    case '\t':
+      buffer[position++] = '\\';
+      buffer[position++] = 't';
+      return position;
+    default:
+      return encodeUnicodeEscape(c, buffer, position);
+    }
+  }
+
+  private static int encodeUnicodeEscape(char c, byte[] buffer, int position)
+  {
+    buffer[position++] = '\\';
+    buffer[position++] = 'u';
+    buffer[position++] = HEX_DIGITS[c >> 12];
+    buffer[position++] = HEX_DIGITS[c >> 8 & 0xf];
+    buffer[position++] = HEX_DIGITS[c >> 4 & 0xf];
+    buffer[position++] = HEX_DIGITS[c & 0xf];
+
+    return position;
+  }
+
+  private void write(int b) throws IOException
+  {
+    if (this.bufferPosition == this.buffer.length)
+      flushBuffer();
+
+    this.buffer[this.bufferPosition++] = (byte)b;
+  }
+
+  private void flushBuffer() throws IOException
+  {
+    if (this.bufferPosition > 0)
+      this.lastByte = this.buffer[this.bufferPosition - 1];
+    this.outputStream.write(this.buffer, 0, this.bufferPosition);
+    this.bufferPosition = 0;
+  }
+
+  private static <K extends Comparable<K>> List<K> sortedKeys(Map<K, ?> map)
+  {
+    List<K> keys = new ArrayList<>(map.keySet());
+
+    keys.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    return keys;
+  }
+
+  private static OutputStream openFile(String fileName) throws GEOReaderException
+  {
+    try {
+      return new FileOutputStream(fileName);
+    } catch (IOException e) {
+      throw new GEOReaderException("error opening JSON file " + fileName + ": " + e.getMessage(), e);
+    }
+  }
+}
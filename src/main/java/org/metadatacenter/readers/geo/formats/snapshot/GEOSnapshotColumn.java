@@ -0,0 +1,149 @@
+package org.metadatacenter.readers.geo.formats.snapshot;
+
+/**
+ * The columns of a GEO snapshot file, in the order in which they are stored.
+ * <p>
+ * A snapshot has one table per model class: submissions (with their series), contributors, samples, channels,
+ * protocols and platforms. Each column holds one value per row of its table. Strings are stored as codes into the
+ * snapshot's string dictionary, with {@link GEOSnapshotWriter#NO_CODE} for a null or absent value. A variable-length
+ * value, such as a list of strings or the rows of a child table, is stored as an offsets column, which holds the start
+ * of each row's values and, after the last row, the end of its values, together with the column (or the first column
+ * of the child table) that the offsets refer to.
+ */
+enum GEOSnapshotColumn
+{
+  STRING_BYTES(1), // The UTF-8 bytes of the dictionary strings
+  STRING_OFFSETS(8, STRING_BYTES),
+
+  SERIES_GSE(4),
+  SERIES_TITLE(4),
+  SERIES_SUMMARY_VALUES(4),
+  SERIES_SUMMARY(4, SERIES_SUMMARY_VALUES),
+  SERIES_OVERALL_DESIGN_VALUES(4),
+  SERIES_OVERALL_DESIGN(4, SERIES_OVERALL_DESIGN_VALUES),
+  SERIES_PUBMED_ID_VALUES(4),
+  SERIES_PUBMED_IDS(4, SERIES_PUBMED_ID_VALUES),
+  SERIES_VARIABLE_VALUES(4), // For each sample: the sample ID, the number of variables, then their names and values
+  SERIES_VARIABLES(4, SERIES_VARIABLE_VALUES),
+  SERIES_REPEAT_VALUES(4), // For each sample: the sample ID, the number of repeats types, then the types
+  SERIES_REPEATS(4, SERIES_REPEAT_VALUES),
+  SERIES_SUBMISSION_DATE(4),
+  SERIES_LAST_UPDATE_DATE(4),
+
+  CONTRIBUTOR_NAME(4),
+  CONTRIBUTOR_EMAIL(4),
+  CONTRIBUTOR_PHONE(4),
+  CONTRIBUTOR_FAX(4),
+  CONTRIBUTOR_LABORATORY(4),
+  CONTRIBUTOR_DEPARTMENT(4),
+  CONTRIBUTOR_INSTITUTE(4),
+  CONTRIBUTOR_ADDRESS(4),
+  CONTRIBUTOR_CITY(4),
+  CONTRIBUTOR_STATE(4),
+  CONTRIBUTOR_ZIP_OR_POSTAL_CODE(4),
+  CONTRIBUTOR_COUNTRY(4),
+  CONTRIBUTOR_WEB_LINK(4),
+  SERIES_CONTRIBUTORS(4, CONTRIBUTOR_NAME),
+
+  CHANNEL_KEY(4), // The channel's key in the sample's per-channel information
+  CHANNEL_NUMBER(4),
+  CHANNEL_SOURCE_NAME(4),
+  CHANNEL_ORGANISM(4),
+  CHANNEL_CHARACTERISTIC_VALUES(4), // Characteristic names and values
+  CHANNEL_CHARACTERISTICS(4, CHANNEL_CHARACTERISTIC_VALUES),
+  CHANNEL_MOLECULE(4),
+  CHANNEL_LABEL(4),
+  CHANNEL_TREATMENT_PROTOCOL(4),
+  CHANNEL_EXTRACT_PROTOCOL(4),
+
+  SAMPLE_KEY(4), // The sample's key in the submission's samples
+  SAMPLE_GSE(4),
+  SAMPLE_GSM(4),
+  SAMPLE_TITLE(4),
+  SAMPLE_LABEL(4),
+  SAMPLE_DESCRIPTION(4),
+  SAMPLE_GPL(4),
+  SAMPLE_CHANNELS(4, CHANNEL_KEY),
+  SAMPLE_BIOMATERIAL_PROVIDER(4),
+  SAMPLE_RAW_DATA_FILE_VALUES(4),
+  SAMPLE_RAW_DATA_FILES(4, SAMPLE_RAW_DATA_FILE_VALUES),
+  SAMPLE_CEL_FILE(4),
+  SAMPLE_EXP_FILE(4),
+  SAMPLE_CHP_FILE(4),
+  SUBMISSION_SAMPLES(4, SAMPLE_KEY),
+
+  PROTOCOL_GROWTH_PROTOCOL_VALUES(4),
+  PROTOCOL_GROWTH_PROTOCOLS(4, PROTOCOL_GROWTH_PROTOCOL_VALUES),
+  PROTOCOL_TREATMENT_PROTOCOL_VALUES(4),
+  PROTOCOL_TREATMENT_PROTOCOLS(4, PROTOCOL_TREATMENT_PROTOCOL_VALUES),
+  PROTOCOL_EXTRACT_PROTOCOL_VALUES(4),
+  PROTOCOL_EXTRACT_PROTOCOLS(4, PROTOCOL_EXTRACT_PROTOCOL_VALUES),
+  PROTOCOL_LABEL_PROTOCOL_VALUES(4),
+  PROTOCOL_LABEL_PROTOCOLS(4, PROTOCOL_LABEL_PROTOCOL_VALUES),
+  PROTOCOL_HYBRIDIZATION_PROTOCOL_VALUES(4),
+  PROTOCOL_HYBRIDIZATION_PROTOCOLS(4, PROTOCOL_HYBRIDIZATION_PROTOCOL_VALUES),
+  PROTOCOL_SCAN_PROTOCOL_VALUES(4),
+  PROTOCOL_SCAN_PROTOCOLS(4, PROTOCOL_SCAN_PROTOCOL_VALUES),
+  PROTOCOL_DATA_PROCESSING_VALUES(4),
+  PROTOCOL_DATA_PROCESSING(4, PROTOCOL_DATA_PROCESSING_VALUES),
+  PROTOCOL_VALUE_DEFINITION_VALUES(4),
+  PROTOCOL_VALUE_DEFINITIONS(4, PROTOCOL_VALUE_DEFINITION_VALUES),
+  PROTOCOL_USER_DEFINED_FIELD_VALUES(4), // For each field: the name, the number of values, then the values
+  PROTOCOL_USER_DEFINED_FIELDS(4, PROTOCOL_USER_DEFINED_FIELD_VALUES),
+  SUBMISSION_PROTOCOL(4), // The submission's protocol row, or -1 if it has none
+
+  PLATFORM_TITLE(4),
+  PLATFORM_DISTRIBUTION(4),
+  PLATFORM_TECHNOLOGY(4),
+  PLATFORM_ORGANISM(4),
+  PLATFORM_MANUFACTURER(4),
+  PLATFORM_MANUFACTURER_PROTOCOL_VALUES(4),
+  PLATFORM_MANUFACTURER_PROTOCOL(4, PLATFORM_MANUFACTURER_PROTOCOL_VALUES),
+  PLATFORM_DESCRIPTION_VALUES(4),
+  PLATFORM_DESCRIPTION(4, PLATFORM_DESCRIPTION_VALUES),
+  PLATFORM_CATALOG_NUMBER(4),
+  PLATFORM_WEB_LINK(4),
+  PLATFORM_SUPPORT(4),
+  PLATFORM_COATING(4),
+  PLATFORM_CONTRIBUTOR_VALUES(4),
+  PLATFORM_CONTRIBUTOR(4, PLATFORM_CONTRIBUTOR_VALUES),
+  PLATFORM_PUBMED_ID_VALUES(4),
+  PLATFORM_PUBMED_ID(4, PLATFORM_PUBMED_ID_VALUES),
+  SUBMISSION_PLATFORM_VALUES(4), // Platform rows, which are shared by submissions
+  SUBMISSION_PLATFORMS(4, SUBMISSION_PLATFORM_VALUES);
+
+  private final int valueSize;
+  private final GEOSnapshotColumn target;
+
+  GEOSnapshotColumn(int valueSize)
+  {
+    this(valueSize, null);
+  }
+
+  GEOSnapshotColumn(int valueSize, GEOSnapshotColumn target)
+  {
+    this.valueSize = valueSize;
+    this.target = target;
+  }
+
+  /**
+   * @return The size of each value in bytes
+   */
+  int getValueSize()
+  {
+    return this.valueSize;
+  }
+
+  boolean isOffsets()
+  {
+    return this.target != null;
+  }
+
+  /**
+   * @return The column that the values of an offsets column refer to
+   */
+  GEOSnapshotColumn getTarget()
+  {
+    return this.target;
+  }
+}
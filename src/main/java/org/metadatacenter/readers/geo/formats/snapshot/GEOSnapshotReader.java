@@ -0,0 +1,542 @@
+package org.metadatacenter.readers.geo.formats.snapshot;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler;
+import org.metadatacenter.readers.geo.metadata.Contributor;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+import org.metadatacenter.readers.geo.metadata.PerChannelSampleInfo;
+import org.metadatacenter.readers.geo.metadata.Platform;
+import org.metadatacenter.readers.geo.metadata.Protocol;
+import org.metadatacenter.readers.geo.metadata.Sample;
+import org.metadatacenter.readers.geo.metadata.Series;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads {@link GEOSubmissionMetadata} instances from a snapshot written by a {@link GEOSnapshotWriter}.
+ * <p>
+ * The file is memory mapped and nothing is decoded when it is opened: the model objects of a submission are built
+ * from the columns only when the submission is requested, and strings are decoded from the dictionary as they are
+ * needed. Recently decoded strings and the platforms, which are shared by many submissions, are cached so that their
+ * instances are shared. The file is mapped in segments of at most 1 GiB, so snapshots of any size can be read.
+ * <p>
+ * A reader can be used by several threads at once.
+ */
+public class GEOSnapshotReader implements AutoCloseable
+{
+  private static final int MAXIMUM_SEGMENT_SIZE = 1 << 30;
+  private static final int STRING_CACHE_SIZE = 1 << 16;
+
+  private final String fileName;
+  private final FileChannel channel;
+  private final ByteBuffer[] segments;
+  private final long[] columnPositions; // By column ordinal
+  private final long[] columnSizes; // Number of values, by column ordinal
+  private final int numberOfSubmissions;
+  private final DecodedString[] stringCache = new DecodedString[STRING_CACHE_SIZE]; // Indexed by code
+  private final Platform[] platforms; // Indexed by platform row; built when first needed
+
+  public GEOSnapshotReader(String fileName) throws GEOReaderException
+  {
+    this.fileName = fileName;
+
+    try {
+      this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+    } catch (IOException e) {
+      throw new GEOReaderException("error opening snapshot file " + fileName + ": " + e.getMessage(), e);
+    }
+
+    try {
+      long fileSize = this.channel.size();
+      GEOSnapshotColumn[] columns = GEOSnapshotColumn.values();
+
+      this.columnPositions = new long[columns.length];
+      this.columnSizes = new long[columns.length];
+      Arrays.fill(this.columnPositions, -1);
+
+      readDirectory(fileSize);
+
+      int numberOfSegments = (int)((fileSize + MAXIMUM_SEGMENT_SIZE - 1) / MAXIMUM_SEGMENT_SIZE);
+      this.segments = new ByteBuffer[numberOfSegments];
+      for (int segment = 0; segment < numberOfSegments; segment++) {
+        long position = (long)segment * MAXIMUM_SEGMENT_SIZE;
+        this.segments[segment] = this.channel
+          .map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAXIMUM_SEGMENT_SIZE, fileSize - position));
+      }
+
+      for (GEOSnapshotColumn column : columns)
+        if (column.isOffsets() && getEndOffset(column) != this.columnSizes[column.getTarget().ordinal()])
+          throw new GEOReaderException("column " + column + " of snapshot file " + fileName + " is corrupt");
+
+      this.numberOfSubmissions = (int)this.columnSizes[GEOSnapshotColumn.SERIES_GSE.ordinal()];
+      this.platforms = new Platform[(int)this.columnSizes[GEOSnapshotColumn.PLATFORM_TITLE.ordinal()]];
+    } catch (IOException e) {
+      closeQuietly();
+      throw new GEOReaderException("error reading snapshot file " + fileName + ": " + e.getMessage(), e);
+    } catch (GEOReaderException | RuntimeException e) {
+      closeQuietly();
+      throw e;
+    }
+  }
+
+  public String getFileName()
+  {
+    return this.fileName;
+  }
+
+  public int getNumberOfSubmissions()
+  {
+    return this.numberOfSubmissions;
+  }
+
+  public long getNumberOfSamples()
+  {
+    return this.columnSizes[GEOSnapshotColumn.SAMPLE_KEY.ordinal()];
+  }
+
+  public String getGSE(int submissionIndex) throws GEOReaderException
+  {
+    checkSubmissionIndex(submissionIndex);
+
+    try {
+      return getString(GEOSnapshotColumn.SERIES_GSE, submissionIndex);
+    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+      throw new GEOReaderException("snapshot file " + this.fileName + " is corrupt: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @param submissionIndex The index of the submission in the order in which it was written
+   */
+  public GEOSubmissionMetadata getGEOSubmissionMetadata(int submissionIndex) throws GEOReaderException
+  {
+    checkSubmissionIndex(submissionIndex);
+
+    try {
+      Series series = readSeries(submissionIndex);
+      Map<String, Sample> samples = new LinkedHashMap<>();
+      int protocolRow = getInt(GEOSnapshotColumn.SUBMISSION_PROTOCOL, submissionIndex);
+      Optional<Protocol> protocol = protocolRow == GEOSnapshotWriter.NO_ROW ?
+        Optional.empty() :
+        Optional.of(readProtocol(protocolRow));
+      List<Platform> platforms = new ArrayList<>();
+
+      for (int sampleRow = getOffset(GEOSnapshotColumn.SUBMISSION_SAMPLES, submissionIndex);
+           sampleRow < getOffset(GEOSnapshotColumn.SUBMISSION_SAMPLES, submissionIndex + 1); sampleRow++)
+        samples.put(getString(GEOSnapshotColumn.SAMPLE_KEY, sampleRow), readSample(sampleRow));
+
+      for (int value = getOffset(GEOSnapshotColumn.SUBMISSION_PLATFORMS, submissionIndex);
+           value < getOffset(GEOSnapshotColumn.SUBMISSION_PLATFORMS, submissionIndex + 1); value++)
+        platforms.add(getPlatform(getInt(GEOSnapshotColumn.SUBMISSION_PLATFORM_VALUES, value)));
+
+      return new GEOSubmissionMetadata(series, samples, protocol, platforms);
+    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+      throw new GEOReaderException("snapshot file " + this.fileName + " is corrupt: " + e.getMessage(), e);
+    }
+  }
+
+  public List<GEOSubmissionMetadata> extractGEOSubmissionsMetadata(int startSubmissionIndex,
+    int numberOfSubmissions) throws GEOReaderException
+  {
+    List<GEOSubmissionMetadata> submissions = new ArrayList<>();
+
+    extractGEOSubmissionsMetadata(startSubmissionIndex, numberOfSubmissions, submissions::add);
+
+    return submissions;
+  }
+
+  public void extractAllGEOSubmissionsMetadata(GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    extractGEOSubmissionsMetadata(0, this.numberOfSubmissions, handler);
+  }
+
+  /**
+   * Stream a range of submissions to a handler, building each one just before it is handled. The range is cut short
+   * at the end of the snapshot.
+   */
+  public void extractGEOSubmissionsMetadata(int startSubmissionIndex, int numberOfSubmissions,
+    GEOSubmissionMetadataHandler handler) throws GEOReaderException
+  {
+    if (startSubmissionIndex < 0)
+      throw new IllegalArgumentException("start submission index must not be negative; got " + startSubmissionIndex);
+
+    long endSubmissionIndex = Math.min(this.numberOfSubmissions, (long)startSubmissionIndex + numberOfSubmissions);
+
+    for (int submissionIndex = startSubmissionIndex; submissionIndex < endSubmissionIndex; submissionIndex++)
+      handler.handle(getGEOSubmissionMetadata(submissionIndex));
+  }
+
+  @Override public void close() throws GEOReaderException
+  {
+    try {
+      this.channel.close();
+    } catch (IOException e) {
+      throw new GEOReaderException("error closing snapshot file " + this.fileName + ": " + e.getMessage(), e);
+    }
+  }
+
+  private void readDirectory(long fileSize) throws IOException, GEOReaderException
+  {
+    DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(this.channel)));
+    byte[] magic = new byte[GEOSnapshotWriter.MAGIC.length];
+
+    input.readFully(magic);
+    if (!Arrays.equals(magic, GEOSnapshotWriter.MAGIC))
+      throw new GEOReaderException("file " + this.fileName + " is not a GEO snapshot");
+
+    int version = input.readInt();
+    if (version != GEOSnapshotWriter.VERSION)
+      throw new GEOReaderException("snapshot file " + this.fileName + " has format version " + version
+        + "; expecting version " + GEOSnapshotWriter.VERSION);
+
+    int numberOfColumns = input.readInt();
+    for (int i = 0; i < numberOfColumns; i++) {
+      String columnName = input.readUTF();
+      long columnPosition = input.readLong();
+      long columnSize = input.readLong();
+
+      Optional<GEOSnapshotColumn> column = Arrays.stream(GEOSnapshotColumn.values())
+        .filter(knownColumn -> knownColumn.name().equals(columnName)).findFirst();
+
+      if (!column.isPresent())
+        continue; // A column added by a later writer
+
+      if (columnPosition % GEOSnapshotWriter.ALIGNMENT != 0 || columnSize < 0
+        || columnPosition + columnSize * column.get().getValueSize() > fileSize)
+        throw new GEOReaderException("column " + columnName + " of snapshot file " + this.fileName + " is corrupt");
+
+      this.columnPositions[column.get().ordinal()] = columnPosition;
+      this.columnSizes[column.get().ordinal()] = columnSize;
+    }
+
+    for (GEOSnapshotColumn column : GEOSnapshotColumn.values())
+      if (this.columnPositions[column.ordinal()] < 0)
+        throw new GEOReaderException("no column " + column + " in snapshot file " + this.fileName);
+  }
+
+  private Series readSeries(int submissionIndex)
+  {
+    List<Contributor> contributors = new ArrayList<>();
+    Map<String, Map<String, String>> variables = new LinkedHashMap<>();
+    Map<String, List<String>> repeats = new LinkedHashMap<>();
+
+    for (int row = getOffset(GEOSnapshotColumn.SERIES_CONTRIBUTORS, submissionIndex);
+         row < getOffset(GEOSnapshotColumn.SERIES_CONTRIBUTORS, submissionIndex + 1); row++)
+      contributors.add(readContributor(row));
+
+    int value = getOffset(GEOSnapshotColumn.SERIES_VARIABLES, submissionIndex);
+    int endValue = getOffset(GEOSnapshotColumn.SERIES_VARIABLES, submissionIndex + 1);
+    while (value < endValue) {
+      String sampleID = getString(GEOSnapshotColumn.SERIES_VARIABLE_VALUES, value);
+      int numberOfVariables = getInt(GEOSnapshotColumn.SERIES_VARIABLE_VALUES, value + 1);
+
+      variables.put(sampleID, readStringPairs(GEOSnapshotColumn.SERIES_VARIABLE_VALUES, value + 2,
+        value + 2 + 2 * numberOfVariables));
+      value += 2 + 2 * numberOfVariables;
+    }
+
+    value = getOffset(GEOSnapshotColumn.SERIES_REPEATS, submissionIndex);
+    endValue = getOffset(GEOSnapshotColumn.SERIES_REPEATS, submissionIndex + 1);
+    while (value < endValue) {
+      String sampleID = getString(GEOSnapshotColumn.SERIES_REPEAT_VALUES, value);
+      int numberOfRepeatsTypes = getInt(GEOSnapshotColumn.SERIES_REPEAT_VALUES, value + 1);
+
+      repeats.put(sampleID,
+        readStrings(GEOSnapshotColumn.SERIES_REPEAT_VALUES, value + 2, value + 2 + numberOfRepeatsTypes));
+      value += 2 + numberOfRepeatsTypes;
+    }
+
+    return new Series(getString(GEOSnapshotColumn.SERIES_GSE, submissionIndex),
+      getString(GEOSnapshotColumn.SERIES_TITLE, submissionIndex),
+      readStrings(GEOSnapshotColumn.SERIES_SUMMARY, submissionIndex),
+      readStrings(GEOSnapshotColumn.SERIES_OVERALL_DESIGN, submissionIndex), contributors,
+      readStrings(GEOSnapshotColumn.SERIES_PUBMED_IDS, submissionIndex), variables, repeats,
+      getOptionalString(GEOSnapshotColumn.SERIES_SUBMISSION_DATE, submissionIndex),
+      getOptionalString(GEOSnapshotColumn.SERIES_LAST_UPDATE_DATE, submissionIndex));
+  }
+
+  private Contributor readContributor(int row)
+  {
+    return new Contributor(getString(GEOSnapshotColumn.CONTRIBUTOR_NAME, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_EMAIL, row), getString(GEOSnapshotColumn.CONTRIBUTOR_PHONE, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_FAX, row), getString(GEOSnapshotColumn.CONTRIBUTOR_LABORATORY, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_DEPARTMENT, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_INSTITUTE, row), getString(GEOSnapshotColumn.CONTRIBUTOR_ADDRESS, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_CITY, row), getString(GEOSnapshotColumn.CONTRIBUTOR_STATE, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_ZIP_OR_POSTAL_CODE, row),
+      getString(GEOSnapshotColumn.CONTRIBUTOR_COUNTRY, row), getString(GEOSnapshotColumn.CONTRIBUTOR_WEB_LINK, row));
+  }
+
+  private Sample readSample(int row)
+  {
+    Map<Integer, PerChannelSampleInfo> perChannelInformation = new LinkedHashMap<>();
+
+    for (int channelRow = getOffset(GEOSnapshotColumn.SAMPLE_CHANNELS, row);
+         channelRow < getOffset(GEOSnapshotColumn.SAMPLE_CHANNELS, row + 1); channelRow++)
+      perChannelInformation.put(getInteger(GEOSnapshotColumn.CHANNEL_KEY, channelRow), readChannel(channelRow));
+
+    return new Sample(getString(GEOSnapshotColumn.SAMPLE_GSE, row), getString(GEOSnapshotColumn.SAMPLE_GSM, row),
+      getString(GEOSnapshotColumn.SAMPLE_TITLE, row), getString(GEOSnapshotColumn.SAMPLE_LABEL, row),
+      getOptionalString(GEOSnapshotColumn.SAMPLE_DESCRIPTION, row), getString(GEOSnapshotColumn.SAMPLE_GPL, row),
+      perChannelInformation, getOptionalString(GEOSnapshotColumn.SAMPLE_BIOMATERIAL_PROVIDER, row),
+      readStrings(GEOSnapshotColumn.SAMPLE_RAW_DATA_FILES, row),
+      getOptionalString(GEOSnapshotColumn.SAMPLE_CEL_FILE, row),
+      getOptionalString(GEOSnapshotColumn.SAMPLE_EXP_FILE, row),
+      getOptionalString(GEOSnapshotColumn.SAMPLE_CHP_FILE, row));
+  }
+
+  private PerChannelSampleInfo readChannel(int row)
+  {
+    return new PerChannelSampleInfo(getInteger(GEOSnapshotColumn.CHANNEL_NUMBER, row),
+      getString(GEOSnapshotColumn.CHANNEL_SOURCE_NAME, row), getString(GEOSnapshotColumn.CHANNEL_ORGANISM, row),
+      readStringListPairs(GEOSnapshotColumn.CHANNEL_CHARACTERISTIC_VALUES,
+        getOffset(GEOSnapshotColumn.CHANNEL_CHARACTERISTICS, row),
+        getOffset(GEOSnapshotColumn.CHANNEL_CHARACTERISTICS, row + 1)),
+      getString(GEOSnapshotColumn.CHANNEL_MOLECULE, row), getString(GEOSnapshotColumn.CHANNEL_LABEL, row),
+      getOptionalString(GEOSnapshotColumn.CHANNEL_TREATMENT_PROTOCOL, row),
+      getOptionalString(GEOSnapshotColumn.CHANNEL_EXTRACT_PROTOCOL, row));
+  }
+
+  private Protocol readProtocol(int row)
+  {
+    Map<String, List<String>> userDefinedFields = new LinkedHashMap<>();
+    int value = getOffset(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELDS, row);
+    int endValue = getOffset(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELDS, row + 1);
+
+    while (value < endValue) {
+      String fieldName = getString(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELD_VALUES, value);
+      int numberOfValues = getInt(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELD_VALUES, value + 1);
+
+      userDefinedFields.put(fieldName,
+        readStrings(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELD_VALUES, value + 2, value + 2 + numberOfValues));
+      value += 2 + numberOfValues;
+    }
+
+    return new Protocol(readStrings(GEOSnapshotColumn.PROTOCOL_GROWTH_PROTOCOLS, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_TREATMENT_PROTOCOLS, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_EXTRACT_PROTOCOLS, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_LABEL_PROTOCOLS, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_HYBRIDIZATION_PROTOCOLS, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_SCAN_PROTOCOLS, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_DATA_PROCESSING, row),
+      readStrings(GEOSnapshotColumn.PROTOCOL_VALUE_DEFINITIONS, row), userDefinedFields);
+  }
+
+  /**
+   * Platforms are immutable, so an instance built by one thread can be used by others even if two threads happen to
+   * build the same platform.
+   */
+  private Platform getPlatform(int row)
+  {
+    Platform platform = this.platforms[row];
+
+    if (platform == null) {
+      platform = new Platform(getString(GEOSnapshotColumn.PLATFORM_TITLE, row),
+        getString(GEOSnapshotColumn.PLATFORM_DISTRIBUTION, row),
+        getString(GEOSnapshotColumn.PLATFORM_TECHNOLOGY, row), getString(GEOSnapshotColumn.PLATFORM_ORGANISM, row),
+        getOptionalString(GEOSnapshotColumn.PLATFORM_MANUFACTURER, row),
+        readStrings(GEOSnapshotColumn.PLATFORM_MANUFACTURER_PROTOCOL, row),
+        readStrings(GEOSnapshotColumn.PLATFORM_DESCRIPTION, row),
+        getOptionalString(GEOSnapshotColumn.PLATFORM_CATALOG_NUMBER, row),
+        getOptionalString(GEOSnapshotColumn.PLATFORM_WEB_LINK, row),
+        getOptionalString(GEOSnapshotColumn.PLATFORM_SUPPORT, row),
+        getOptionalString(GEOSnapshotColumn.PLATFORM_COATING, row),
+        readStrings(GEOSnapshotColumn.PLATFORM_CONTRIBUTOR, row),
+        readStrings(GEOSnapshotColumn.PLATFORM_PUBMED_ID, row));
+      this.platforms[row] = platform;
+    }
+    return platform;
+  }
+
+  /**
+   * @return The strings of a row of an offsets column
+   */
+  private List<String> readStrings(GEOSnapshotColumn offsetsColumn, int row)
+  {
+    return readStrings(offsetsColumn.getTarget(), getOffset(offsetsColumn, row), getOffset(offsetsColumn, row + 1));
+  }
+
+  private List<String> readStrings(GEOSnapshotColumn column, int startValue, int endValue)
+  {
+    List<String> strings = new ArrayList<>(endValue - startValue);
+
+    for (int value = startValue; value < endValue; value++)
+      strings.add(getString(column, value));
+
+    return strings;
+  }
+
+  private Map<String, String> readStringPairs(GEOSnapshotColumn column, int startValue, int endValue)
+  {
+    Map<String, String> pairs = new LinkedHashMap<>();
+
+    for (int value = startValue; value < endValue; value += 2)
+      pairs.put(getString(column, value), getString(column, value + 1));
+
+    return pairs;
+  }
+
+  /**
+   * The values of pairs with the same name are collected in order
+   */
+  private Map<String, List<String>> readStringListPairs(GEOSnapshotColumn column, int startValue, int endValue)
+  {
+    Map<String, List<String>> pairs = new LinkedHashMap<>();
+
+    for (int value = startValue; value < endValue; value += 2)
+      pairs.computeIfAbsent(getString(column, value), name -> new ArrayList<>()).add(getString(column, value + 1));
+
+    return pairs;
+  }
+
+  private Optional<String> getOptionalString(GEOSnapshotColumn column, long index)
+  {
+    return Optional.ofNullable(getString(column, index));
+  }
+
+  private String getString(GEOSnapshotColumn column, long index)
+  {
+    return decode(getInt(column, index));
+  }
+
+  private Integer getInteger(GEOSnapshotColumn column, long index)
+  {
+    int value = getInt(column, index);
+
+    return value != GEOSnapshotWriter.NULL_INTEGER ? value : null;
+  }
+
+  /**
+   * Recently decoded strings are kept in a small direct-mapped cache, which holds on to the frequent values of
+   * low-cardinality fields, such as organism and molecule, without keeping every decoded string.
+   */
+  private String decode(int code)
+  {
+    if (code == GEOSnapshotWriter.NO_CODE)
+      return null;
+
+    DecodedString decodedString = this.stringCache[code & (STRING_CACHE_SIZE - 1)];
+
+    if (decodedString != null && decodedString.code == code)
+      return decodedString.value;
+
+    long start = getLong(GEOSnapshotColumn.STRING_OFFSETS, code);
+    long end = getLong(GEOSnapshotColumn.STRING_OFFSETS, code + 1L);
+
+    if (start < 0 || end < start || end - start > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("invalid offsets of string " + code);
+
+    String value = new String(getBytes(this.columnPositions[GEOSnapshotColumn.STRING_BYTES.ordinal()] + start,
+      (int)(end - start)), StandardCharsets.UTF_8);
+    this.stringCache[code & (STRING_CACHE_SIZE - 1)] = new DecodedString(code, value);
+
+    return value;
+  }
+
+  /**
+   * Values never span segments, since columns are aligned and segments are a multiple of the alignment, but the
+   * bytes of a string can.
+   */
+  private byte[] getBytes(long position, int length)
+  {
+    byte[] bytes = new byte[length];
+    int copied = 0;
+
+    while (copied < length) {
+      ByteBuffer segment = this.segments[(int)((position + copied) / MAXIMUM_SEGMENT_SIZE)].duplicate();
+      int offset = (int)((position + copied) % MAXIMUM_SEGMENT_SIZE);
+      int count = Math.min(length - copied, segment.limit() - offset);
+
+      segment.position(offset);
+      segment.get(bytes, copied, count);
+      copied += count;
+    }
+    return bytes;
+  }
+
+  private int getOffset(GEOSnapshotColumn offsetsColumn, long row)
+  {
+    return getInt(offsetsColumn, row);
+  }
+
+  /**
+   * @return The last value of an offsets column, which is the end of the values of its last row, or -1 if the column
+   * is empty
+   */
+  private long getEndOffset(GEOSnapshotColumn offsetsColumn)
+  {
+    long size = this.columnSizes[offsetsColumn.ordinal()];
+
+    if (size == 0)
+      return -1;
+    else if (offsetsColumn.getValueSize() == Long.BYTES)
+      return getLong(offsetsColumn, size - 1);
+    else
+      return getInt(offsetsColumn, size - 1);
+  }
+
+  private int getInt(GEOSnapshotColumn column, long index)
+  {
+    long position = getValuePosition(column, index);
+
+    return this.segments[(int)(position / MAXIMUM_SEGMENT_SIZE)].getInt((int)(position % MAXIMUM_SEGMENT_SIZE));
+  }
+
+  private long getLong(GEOSnapshotColumn column, long index)
+  {
+    long position = getValuePosition(column, index);
+
+    return this.segments[(int)(position / MAXIMUM_SEGMENT_SIZE)].getLong((int)(position % MAXIMUM_SEGMENT_SIZE));
+  }
+
+  private long getValuePosition(GEOSnapshotColumn column, long index)
+  {
+    if (index < 0 || index >= this.columnSizes[column.ordinal()])
+      throw new IndexOutOfBoundsException("value " + index + " of column " + column + ", which has "
+        + this.columnSizes[column.ordinal()] + " values");
+
+    return this.columnPositions[column.ordinal()] + index * column.getValueSize();
+  }
+
+  private void checkSubmissionIndex(int submissionIndex)
+  {
+    if (submissionIndex < 0 || submissionIndex >= this.numberOfSubmissions)
+      throw new IndexOutOfBoundsException("submission index " + submissionIndex + " is outside snapshot file "
+        + this.fileName + ", which has " + this.numberOfSubmissions + " submissions");
+  }
+
+  private void closeQuietly()
+  {
+    try {
+      this.channel.close();
+    } catch (IOException e) {
+      // Ignore; an error is already being reported
+    }
+  }
+
+  private static class DecodedString
+  {
+    private final int code;
+    private final String value;
+
+    public DecodedString(int code, String value)
+    {
+      this.code = code;
+      this.value = value;
+    }
+  }
+}
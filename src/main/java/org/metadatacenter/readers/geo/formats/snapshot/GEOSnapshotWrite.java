@@ -0,0 +1,43 @@
+package org.metadatacenter.readers.geo.formats.snapshot;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbReader;
+
+/**
+ * Extracts every submission in a GEOmetadb database with a {@link GEOmetadbReader} and writes them to a snapshot
+ * file with a {@link GEOSnapshotWriter}.
+ */
+public class GEOSnapshotWrite
+{
+  public static void main(String[] args)
+  {
+    if (args.length != 2)
+      Usage();
+
+    try {
+      String geometadbFilename = args[0];
+      String snapshotFilename = args[1];
+      GEOmetadbReader geometadbReader = new GEOmetadbReader(geometadbFilename);
+
+      GEOSnapshotWriter snapshotWriter = new GEOSnapshotWriter(snapshotFilename);
+
+      try {
+        geometadbReader.extractAllGEOSubmissionsMetadata(snapshotWriter);
+      } catch (GEOReaderException | RuntimeException e) {
+        snapshotWriter.discard();
+        throw e;
+      }
+      snapshotWriter.close();
+
+    } catch (GEOReaderException e) {
+      System.err.println(GEOSnapshotWrite.class.getName() + ": Error writing snapshot: " + e.getMessage());
+      System.exit(-1);
+    }
+  }
+
+  private static void Usage()
+  {
+    System.err.println("Usage: " + GEOSnapshotWrite.class.getName() + " <GEOmetadb Filename> <snapshot Filename>");
+    System.exit(-1);
+  }
+}
@@ -0,0 +1,536 @@
+package org.metadatacenter.readers.geo.formats.snapshot;
+
+import org.metadatacenter.readers.geo.GEOReaderException;
+import org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler;
+import org.metadatacenter.readers.geo.metadata.Contributor;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+import org.metadatacenter.readers.geo.metadata.PerChannelSampleInfo;
+import org.metadatacenter.readers.geo.metadata.Platform;
+import org.metadatacenter.readers.geo.metadata.Protocol;
+import org.metadatacenter.readers.geo.metadata.Sample;
+import org.metadatacenter.readers.geo.metadata.Series;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes {@link GEOSubmissionMetadata} instances to a GEO snapshot, a columnar binary file from which a
+ * {@link GEOSnapshotReader} can reload them far faster than they can be extracted from a GEOmetadb database.
+ * <p>
+ * A writer is a {@link GEOSubmissionMetadataHandler}, so it can be passed directly to the extraction methods of a
+ * reader. Each column is streamed to its own temporary file as submissions arrive and the snapshot is assembled from
+ * these files when the writer is closed, so memory use does not grow with the number of submissions. Strings are
+ * dictionary encoded; a bounded cache of recently written strings gives repeated values, such as organisms,
+ * protocols and characteristic values, a single code. Equal platforms are stored once.
+ * <p>
+ * Closing the writer replaces the snapshot file atomically where the file system allows it. If writing a submission
+ * fails, no snapshot is written; {@link #discard()} abandons a snapshot for other reasons.
+ */
+public class GEOSnapshotWriter implements GEOSubmissionMetadataHandler, AutoCloseable
+{
+  /**
+   * The code of a null or absent string
+   */
+  public static final int NO_CODE = -1;
+
+  public static final int DEFAULT_DICTIONARY_CACHE_SIZE = 1 << 20;
+
+  static final byte[] MAGIC = "GEOSNAP\0".getBytes(StandardCharsets.US_ASCII);
+  static final int VERSION = 1;
+  static final int ALIGNMENT = 8;
+  static final int NO_ROW = -1;
+  static final int NULL_INTEGER = Integer.MIN_VALUE;
+
+  private static final int COLUMN_BUFFER_SIZE = 1 << 16;
+
+  private final String fileName;
+  private final Path temporaryDirectory;
+  private final Map<GEOSnapshotColumn, DataOutputStream> columnOutputs = new EnumMap<>(GEOSnapshotColumn.class);
+  private final long[] columnSizes = new long[GEOSnapshotColumn.values().length]; // Number of values, by ordinal
+  private final Map<String, Integer> dictionaryCache; // string -> code, for recently written strings
+  private final Map<Platform, Integer> platformRows = new HashMap<>();
+
+  private int numberOfSubmissions = 0;
+  private int numberOfStrings = 0;
+  private boolean failed = false;
+  private boolean closed = false;
+
+  public GEOSnapshotWriter(String fileName) throws GEOReaderException
+  {
+    this(fileName, DEFAULT_DICTIONARY_CACHE_SIZE);
+  }
+
+  /**
+   * @param fileName            The snapshot file, which is replaced when the writer is closed
+   * @param dictionaryCacheSize The number of recently written strings whose codes are reused
+   */
+  public GEOSnapshotWriter(String fileName, int dictionaryCacheSize) throws GEOReaderException
+  {
+    if (dictionaryCacheSize < 0)
+      throw new IllegalArgumentException("dictionary cache size must not be negative; got " + dictionaryCacheSize);
+
+    Path path = Paths.get(fileName).toAbsolutePath();
+
+    this.fileName = fileName;
+    this.dictionaryCache = new LinkedHashMap<String, Integer>(16, 0.75f, true)
+    {
+      @Override protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest)
+      {
+        return size() > dictionaryCacheSize;
+      }
+    };
+
+    try {
+      this.temporaryDirectory = Files.createTempDirectory(path.getParent(), path.getFileName() + ".columns");
+    } catch (IOException e) {
+      throw new GEOReaderException("error creating column files for snapshot file " + fileName + ": " + e.getMessage(),
+        e);
+    }
+
+    try {
+      for (GEOSnapshotColumn column : GEOSnapshotColumn.values())
+        this.columnOutputs.put(column, new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(getColumnPath(column)), COLUMN_BUFFER_SIZE)));
+    } catch (IOException e) {
+      closeColumnOutputs();
+      deleteColumnFiles();
+      throw new GEOReaderException("error creating column files for snapshot file " + fileName + ": " + e.getMessage(),
+        e);
+    }
+  }
+
+  public String getFileName()
+  {
+    return this.fileName;
+  }
+
+  public int getNumberOfSubmissions()
+  {
+    return this.numberOfSubmissions;
+  }
+
+  public long getNumberOfSamples()
+  {
+    return this.columnSizes[GEOSnapshotColumn.SAMPLE_KEY.ordinal()];
+  }
+
+  /**
+   * @return The number of strings in the dictionary so far
+   */
+  public int getNumberOfStrings()
+  {
+    return this.numberOfStrings;
+  }
+
+  @Override public void handle(GEOSubmissionMetadata geoSubmissionMetadata) throws GEOReaderException
+  {
+    if (this.closed)
+      throw new IllegalStateException("snapshot writer for " + this.fileName + " is closed");
+    if (this.failed)
+      throw new GEOReaderException("an earlier submission could not be written to snapshot file " + this.fileName);
+
+    try {
+      writeSeries(geoSubmissionMetadata.getSeries());
+      writeSamples(geoSubmissionMetadata.getSamples());
+      writeProtocol(geoSubmissionMetadata.getProtocol());
+      writePlatforms(geoSubmissionMetadata.getPlatforms());
+    } catch (IOException e) {
+      this.failed = true;
+      throw new GEOReaderException("error writing snapshot file " + this.fileName + ": " + e.getMessage(), e);
+    } catch (GEOReaderException | RuntimeException e) {
+      this.failed = true;
+      throw e;
+    }
+    this.numberOfSubmissions++;
+  }
+
+  /**
+   * Write the snapshot file from the submissions handled so far and delete the column files.
+   */
+  @Override public void close() throws GEOReaderException
+  {
+    if (this.closed)
+      return;
+
+    this.closed = true;
+
+    try {
+      if (!this.failed) {
+        for (GEOSnapshotColumn column : GEOSnapshotColumn.values())
+          if (column.isOffsets())
+            writeOffset(column); // The end of the last row's values
+
+        for (DataOutputStream columnOutput : this.columnOutputs.values())
+          columnOutput.close();
+
+        writeSnapshot();
+
+        System.out.println("Wrote " + this.numberOfSubmissions + " submissions, " + getNumberOfSamples()
+          + " samples and " + this.numberOfStrings + " strings to snapshot file " + this.fileName);
+      }
+    } catch (IOException e) {
+      throw new GEOReaderException("error writing snapshot file " + this.fileName + ": " + e.getMessage(), e);
+    } finally {
+      closeColumnOutputs();
+      deleteColumnFiles();
+    }
+  }
+
+  /**
+   * Close the writer without writing the snapshot file, for example when an extraction fails part way through.
+   */
+  public void discard()
+  {
+    if (this.closed)
+      return;
+
+    this.closed = true;
+    closeColumnOutputs();
+    deleteColumnFiles();
+  }
+
+  private void writeSeries(Series series) throws IOException, GEOReaderException
+  {
+    writeString(GEOSnapshotColumn.SERIES_GSE, series.getGSE());
+    writeString(GEOSnapshotColumn.SERIES_TITLE, series.getTitle());
+    writeStrings(GEOSnapshotColumn.SERIES_SUMMARY, series.getSummary());
+    writeStrings(GEOSnapshotColumn.SERIES_OVERALL_DESIGN, series.getOverallDesign());
+    writeStrings(GEOSnapshotColumn.SERIES_PUBMED_IDS, series.getPubMedIDs());
+
+    writeOffset(GEOSnapshotColumn.SERIES_VARIABLES);
+    for (Map.Entry<String, Map<String, String>> sampleVariables : series.getVariables().entrySet()) {
+      writeString(GEOSnapshotColumn.SERIES_VARIABLE_VALUES, sampleVariables.getKey());
+      writeInt(GEOSnapshotColumn.SERIES_VARIABLE_VALUES, sampleVariables.getValue().size());
+      writeStringPairs(GEOSnapshotColumn.SERIES_VARIABLE_VALUES, sampleVariables.getValue());
+    }
+
+    writeOffset(GEOSnapshotColumn.SERIES_REPEATS);
+    for (Map.Entry<String, List<String>> sampleRepeats : series.getRepeats().entrySet()) {
+      writeString(GEOSnapshotColumn.SERIES_REPEAT_VALUES, sampleRepeats.getKey());
+      writeInt(GEOSnapshotColumn.SERIES_REPEAT_VALUES, sampleRepeats.getValue().size());
+      for (String repeatsType : sampleRepeats.getValue())
+        writeString(GEOSnapshotColumn.SERIES_REPEAT_VALUES, repeatsType);
+    }
+
+    writeOptionalString(GEOSnapshotColumn.SERIES_SUBMISSION_DATE, series.getSubmissionDate());
+    writeOptionalString(GEOSnapshotColumn.SERIES_LAST_UPDATE_DATE, series.getLastUpdateDate());
+
+    writeOffset(GEOSnapshotColumn.SERIES_CONTRIBUTORS);
+    for (Contributor contributor : series.getContributors())
+      writeContributor(contributor);
+  }
+
+  private void writeContributor(Contributor contributor) throws IOException, GEOReaderException
+  {
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_NAME, contributor.getName());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_EMAIL, contributor.getEmail());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_PHONE, contributor.getPhone());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_FAX, contributor.getFax());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_LABORATORY, contributor.getLaboratory());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_DEPARTMENT, contributor.getDepartment());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_INSTITUTE, contributor.getInstitute());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_ADDRESS, contributor.getAddress());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_CITY, contributor.getCity());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_STATE, contributor.getState());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_ZIP_OR_POSTAL_CODE, contributor.getZipOrPostalCode());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_COUNTRY, contributor.getCountry());
+    writeString(GEOSnapshotColumn.CONTRIBUTOR_WEB_LINK, contributor.getWebLink());
+  }
+
+  private void writeSamples(Map<String, Sample> samples) throws IOException, GEOReaderException
+  {
+    writeOffset(GEOSnapshotColumn.SUBMISSION_SAMPLES);
+
+    for (Map.Entry<String, Sample> entry : samples.entrySet()) {
+      Sample sample = entry.getValue();
+
+      writeString(GEOSnapshotColumn.SAMPLE_KEY, entry.getKey());
+      writeString(GEOSnapshotColumn.SAMPLE_GSE, sample.getGSE());
+      writeString(GEOSnapshotColumn.SAMPLE_GSM, sample.getGSM());
+      writeString(GEOSnapshotColumn.SAMPLE_TITLE, sample.getTitle());
+      writeString(GEOSnapshotColumn.SAMPLE_LABEL, sample.getLabel());
+      writeOptionalString(GEOSnapshotColumn.SAMPLE_DESCRIPTION, sample.getDescription());
+      writeString(GEOSnapshotColumn.SAMPLE_GPL, sample.getGPL());
+
+      writeOffset(GEOSnapshotColumn.SAMPLE_CHANNELS);
+      for (Map.Entry<Integer, PerChannelSampleInfo> channel : sample.getPerChannelInformation().entrySet())
+        writeChannel(channel.getKey(), channel.getValue());
+
+      writeOptionalString(GEOSnapshotColumn.SAMPLE_BIOMATERIAL_PROVIDER, sample.getBiomaterialProvider());
+      writeStrings(GEOSnapshotColumn.SAMPLE_RAW_DATA_FILES, sample.getRawDataFiles());
+      writeOptionalString(GEOSnapshotColumn.SAMPLE_CEL_FILE, sample.getCelFile());
+      writeOptionalString(GEOSnapshotColumn.SAMPLE_EXP_FILE, sample.getExpFile());
+      writeOptionalString(GEOSnapshotColumn.SAMPLE_CHP_FILE, sample.getChpFile());
+    }
+  }
+
+  private void writeChannel(Integer key, PerChannelSampleInfo perChannelSampleInfo)
+    throws IOException, GEOReaderException
+  {
+    writeInteger(GEOSnapshotColumn.CHANNEL_KEY, key);
+    writeInteger(GEOSnapshotColumn.CHANNEL_NUMBER, perChannelSampleInfo.getChannelNumber());
+    writeString(GEOSnapshotColumn.CHANNEL_SOURCE_NAME, perChannelSampleInfo.getSourceName());
+    writeString(GEOSnapshotColumn.CHANNEL_ORGANISM, perChannelSampleInfo.getOrganism());
+    writeOffset(GEOSnapshotColumn.CHANNEL_CHARACTERISTICS);
+    writeStringListPairs(GEOSnapshotColumn.CHANNEL_CHARACTERISTIC_VALUES,
+      perChannelSampleInfo.getCharacteristicValues());
+    writeString(GEOSnapshotColumn.CHANNEL_MOLECULE, perChannelSampleInfo.getMolecule());
+    writeString(GEOSnapshotColumn.CHANNEL_LABEL, perChannelSampleInfo.getLabel());
+    writeOptionalString(GEOSnapshotColumn.CHANNEL_TREATMENT_PROTOCOL, perChannelSampleInfo.getTreatmentProtocol());
+    writeOptionalString(GEOSnapshotColumn.CHANNEL_EXTRACT_PROTOCOL, perChannelSampleInfo.getExtractProtocol());
+  }
+
+  private void writeProtocol(Optional<Protocol> protocol) throws IOException, GEOReaderException
+  {
+    if (!protocol.isPresent()) {
+      writeInt(GEOSnapshotColumn.SUBMISSION_PROTOCOL, NO_ROW);
+      return;
+    }
+
+    writeInt(GEOSnapshotColumn.SUBMISSION_PROTOCOL, getNumberOfRows(GEOSnapshotColumn.PROTOCOL_GROWTH_PROTOCOLS));
+    writeStrings(GEOSnapshotColumn.PROTOCOL_GROWTH_PROTOCOLS, protocol.get().getGrowthProtocols());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_TREATMENT_PROTOCOLS, protocol.get().getTreatmentProtocols());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_EXTRACT_PROTOCOLS, protocol.get().getExtractProtocols());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_LABEL_PROTOCOLS, protocol.get().getLabelProtocol());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_HYBRIDIZATION_PROTOCOLS, protocol.get().getHybridizationProtocol());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_SCAN_PROTOCOLS, protocol.get().getScanProtocols());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_DATA_PROCESSING, protocol.get().getDataProcessing());
+    writeStrings(GEOSnapshotColumn.PROTOCOL_VALUE_DEFINITIONS, protocol.get().getValueDefinition());
+
+    writeOffset(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELDS);
+    for (Map.Entry<String, List<String>> field : protocol.get().getUserDefinedFields().entrySet()) {
+      writeString(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELD_VALUES, field.getKey());
+      writeInt(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELD_VALUES, field.getValue().size());
+      for (String value : field.getValue())
+        writeString(GEOSnapshotColumn.PROTOCOL_USER_DEFINED_FIELD_VALUES, value);
+    }
+  }
+
+  private void writePlatforms(List<Platform> platforms) throws IOException, GEOReaderException
+  {
+    writeOffset(GEOSnapshotColumn.SUBMISSION_PLATFORMS);
+
+    for (Platform platform : platforms) {
+      Integer platformRow = this.platformRows.get(platform);
+
+      if (platformRow == null) {
+        platformRow = getNumberOfRows(GEOSnapshotColumn.PLATFORM_TITLE);
+        writePlatform(platform);
+        this.platformRows.put(platform, platformRow);
+      }
+      writeInt(GEOSnapshotColumn.SUBMISSION_PLATFORM_VALUES, platformRow);
+    }
+  }
+
+  private void writePlatform(Platform platform) throws IOException, GEOReaderException
+  {
+    writeString(GEOSnapshotColumn.PLATFORM_TITLE, platform.getTitle());
+    writeString(GEOSnapshotColumn.PLATFORM_DISTRIBUTION, platform.getDistribution());
+    writeString(GEOSnapshotColumn.PLATFORM_TECHNOLOGY, platform.getTechnology());
+    writeString(GEOSnapshotColumn.PLATFORM_ORGANISM, platform.getOrganism());
+    writeOptionalString(GEOSnapshotColumn.PLATFORM_MANUFACTURER, platform.getManufacturer());
+    writeStrings(GEOSnapshotColumn.PLATFORM_MANUFACTURER_PROTOCOL, platform.getManufacturerProtocol());
+    writeStrings(GEOSnapshotColumn.PLATFORM_DESCRIPTION, platform.getDescription());
+    writeOptionalString(GEOSnapshotColumn.PLATFORM_CATALOG_NUMBER, platform.getCatalogNumber());
+    writeOptionalString(GEOSnapshotColumn.PLATFORM_WEB_LINK, platform.getWebLink());
+    writeOptionalString(GEOSnapshotColumn.PLATFORM_SUPPORT, platform.getSupport());
+    writeOptionalString(GEOSnapshotColumn.PLATFORM_COATING, platform.getCoating());
+    writeStrings(GEOSnapshotColumn.PLATFORM_CONTRIBUTOR, platform.getContributor());
+    writeStrings(GEOSnapshotColumn.PLATFORM_PUBMED_ID, platform.getPubMedID());
+  }
+
+  /**
+   * Write a row of an offsets column and its strings to the column's target
+   */
+  private void writeStrings(GEOSnapshotColumn offsetsColumn, List<String> values) throws IOException, GEOReaderException
+  {
+    writeOffset(offsetsColumn);
+    for (String value : values)
+      writeString(offsetsColumn.getTarget(), value);
+  }
+
+  private void writeStringPairs(GEOSnapshotColumn column, Map<String, String> values)
+    throws IOException, GEOReaderException
+  {
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      writeString(column, entry.getKey());
+      writeString(column, entry.getValue());
+    }
+  }
+
+  /**
+   * Each value is written as a pair with its name, so a name with several values is repeated
+   */
+  private void writeStringListPairs(GEOSnapshotColumn column, Map<String, List<String>> values)
+    throws IOException, GEOReaderException
+  {
+    for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+      for (String value : entry.getValue()) {
+        writeString(column, entry.getKey());
+        writeString(column, value);
+      }
+    }
+  }
+
+  private void writeOptionalString(GEOSnapshotColumn column, Optional<String> value)
+    throws IOException, GEOReaderException
+  {
+    writeString(column, value.orElse(null));
+  }
+
+  private void writeString(GEOSnapshotColumn column, String value) throws IOException, GEOReaderException
+  {
+    writeInt(column, encode(value));
+  }
+
+  private void writeInteger(GEOSnapshotColumn column, Integer value) throws IOException
+  {
+    writeInt(column, value != null ? value : NULL_INTEGER);
+  }
+
+  /**
+   * Write the current number of values in an offsets column's target as the start of its next row
+   */
+  private void writeOffset(GEOSnapshotColumn offsetsColumn) throws IOException, GEOReaderException
+  {
+    long offset = this.columnSizes[offsetsColumn.getTarget().ordinal()];
+
+    if (offsetsColumn.getValueSize() == Long.BYTES) {
+      this.columnOutputs.get(offsetsColumn).writeLong(offset);
+      this.columnSizes[offsetsColumn.ordinal()]++;
+    } else if (offset > Integer.MAX_VALUE)
+      throw new GEOReaderException("too many values in column " + offsetsColumn.getTarget() + " of snapshot file "
+        + this.fileName);
+    else
+      writeInt(offsetsColumn, (int)offset);
+  }
+
+  private void writeInt(GEOSnapshotColumn column, int value) throws IOException
+  {
+    this.columnOutputs.get(column).writeInt(value);
+    this.columnSizes[column.ordinal()]++;
+  }
+
+  private int getNumberOfRows(GEOSnapshotColumn offsetsColumn)
+  {
+    return (int)this.columnSizes[offsetsColumn.ordinal()];
+  }
+
+  private int encode(String value) throws IOException, GEOReaderException
+  {
+    if (value == null)
+      return NO_CODE;
+
+    Integer code = this.dictionaryCache.get(value);
+
+    if (code != null)
+      return code;
+
+    if (this.numberOfStrings == Integer.MAX_VALUE)
+      throw new GEOReaderException("too many strings for snapshot file " + this.fileName);
+
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+    writeOffset(GEOSnapshotColumn.STRING_OFFSETS);
+    this.columnOutputs.get(GEOSnapshotColumn.STRING_BYTES).write(bytes);
+    this.columnSizes[GEOSnapshotColumn.STRING_BYTES.ordinal()] += bytes.length;
+
+    code = this.numberOfStrings++;
+    this.dictionaryCache.put(value, code);
+
+    return code;
+  }
+
+  /**
+   * The snapshot is the magic number, the format version, a directory giving the name, position and number of
+   * values of each column, and then the contents of the column files, each starting on an 8-byte boundary.
+   */
+  private void writeSnapshot() throws IOException
+  {
+    Path path = Paths.get(this.fileName).toAbsolutePath();
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    GEOSnapshotColumn[] columns = GEOSnapshotColumn.values();
+    long[] columnPositions = new long[columns.length];
+    long position = MAGIC.length + Integer.BYTES + Integer.BYTES;
+
+    for (GEOSnapshotColumn column : columns)
+      position += 2 + column.name().length() + Long.BYTES + Long.BYTES;
+
+    for (GEOSnapshotColumn column : columns) {
+      position = align(position);
+      columnPositions[column.ordinal()] = position;
+      position += this.columnSizes[column.ordinal()] * column.getValueSize();
+    }
+
+    try (DataOutputStream output = new DataOutputStream(
+      new BufferedOutputStream(Files.newOutputStream(temporaryPath), COLUMN_BUFFER_SIZE))) {
+      long written = MAGIC.length + Integer.BYTES + Integer.BYTES;
+
+      output.write(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(columns.length);
+      for (GEOSnapshotColumn column : columns) {
+        output.writeUTF(column.name());
+        output.writeLong(columnPositions[column.ordinal()]);
+        output.writeLong(this.columnSizes[column.ordinal()]);
+        written += 2 + column.name().length() + Long.BYTES + Long.BYTES;
+      }
+
+      for (GEOSnapshotColumn column : columns) {
+        for (; written < columnPositions[column.ordinal()]; written++)
+          output.write(0);
+        written += Files.copy(getColumnPath(column), output);
+      }
+    }
+
+    try {
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private void closeColumnOutputs()
+  {
+    for (DataOutputStream columnOutput : this.columnOutputs.values()) {
+      try {
+        columnOutput.close();
+      } catch (IOException e) {
+        // Ignore; the column file is deleted
+      }
+    }
+  }
+
+  private void deleteColumnFiles()
+  {
+    try {
+      for (GEOSnapshotColumn column : GEOSnapshotColumn.values())
+        Files.deleteIfExists(getColumnPath(column));
+      Files.deleteIfExists(this.temporaryDirectory);
+    } catch (IOException e) {
+      System.err.println("Error deleting column files in " + this.temporaryDirectory + ": " + e.getMessage());
+    }
+  }
+
+  private Path getColumnPath(GEOSnapshotColumn column)
+  {
+    return this.temporaryDirectory.resolve(column.name());
+  }
+
+  static long align(long position)
+  {
+    return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+}
@@ -0,0 +1,171 @@
+package org.metadatacenter.readers.geo.index;
+
+import org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler;
+import org.metadatacenter.readers.geo.formats.geometadb.GEOmetadbSample;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+import org.metadatacenter.readers.geo.metadata.PerChannelSampleInfo;
+import org.metadatacenter.readers.geo.metadata.Sample;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An in-memory inverted index over extracted samples that answers {@link GEOSampleQuery} boolean queries on organism,
+ * platform, molecule, sample type and characteristics without scanning the samples.
+ * <p>
+ * Each sample is numbered in the order in which it is added. For every indexed value the index holds a posting list
+ * of the numbers of the samples with that value, stored as a compressed {@link RoaringBitmap}, and queries combine
+ * these lists with bitmap operations. Values of both channels are indexed, and characteristics are indexed by channel
+ * rather than merged, so a sample matches a characteristic that either of its channels has. Each value of a repeated
+ * characteristic is indexed separately, and values match exactly.
+ * Sample types are only known for samples read from a GEOmetadb database.
+ * <p>
+ * An index is a {@link GEOSubmissionMetadataHandler}, so it can be built by passing it to the extraction methods of a
+ * reader. Its methods are synchronized, so samples can be added and queries run from several threads.
+ */
+public class GEOSampleIndex implements GEOSubmissionMetadataHandler
+{
+  enum Field
+  {
+    ORGANISM, PLATFORM, MOLECULE, TYPE, CHARACTERISTIC_NAME
+  }
+
+  private final List<Sample> samples = new ArrayList<>(); // sample number -> Sample
+  private final RoaringBitmap allSamples = new RoaringBitmap();
+  private final Map<Field, Map<String, RoaringBitmap>> postings = new EnumMap<>(Field.class); // value -> samples
+  private final Map<String, Map<String, RoaringBitmap>> characteristicPostings = new HashMap<>(); // name -> values
+
+  public GEOSampleIndex()
+  {
+    for (Field field : Field.values())
+      this.postings.put(field, new HashMap<>());
+  }
+
+  @Override public void handle(GEOSubmissionMetadata geoSubmissionMetadata)
+  {
+    add(geoSubmissionMetadata);
+  }
+
+  public synchronized void add(GEOSubmissionMetadata geoSubmissionMetadata)
+  {
+    for (Sample sample : geoSubmissionMetadata.getSamples().values())
+      add(sample);
+  }
+
+  public synchronized void add(Sample sample)
+  {
+    int sampleNumber = this.samples.size();
+
+    this.samples.add(sample);
+    this.allSamples.add(sampleNumber);
+
+    addPosting(Field.PLATFORM, sample.getGPL(), sampleNumber);
+    if (sample instanceof GEOmetadbSample)
+      addPosting(Field.TYPE, ((GEOmetadbSample)sample).getType(), sampleNumber);
+
+    for (PerChannelSampleInfo perChannelSampleInfo : sample.getPerChannelInformation().values()) {
+      addPosting(Field.ORGANISM, perChannelSampleInfo.getOrganism(), sampleNumber);
+      addPosting(Field.MOLECULE, perChannelSampleInfo.getMolecule(), sampleNumber);
+
+      for (Map.Entry<String, List<String>> characteristic : perChannelSampleInfo.getCharacteristicValues()
+        .entrySet()) {
+        String name = characteristic.getKey();
+
+        addPosting(Field.CHARACTERISTIC_NAME, name, sampleNumber);
+        for (String value : characteristic.getValue()) // Each value of a repeated characteristic is indexed
+          if (value != null && !value.isEmpty())
+            this.characteristicPostings.computeIfAbsent(name, n -> new HashMap<>())
+              .computeIfAbsent(value, v -> new RoaringBitmap()).add(sampleNumber);
+      }
+    }
+  }
+
+  public synchronized int getNumberOfSamples()
+  {
+    return this.samples.size();
+  }
+
+  /**
+   * @return The number of samples that match the query
+   */
+  public synchronized int count(GEOSampleQuery query)
+  {
+    return query.evaluate(this).getCardinality();
+  }
+
+  /**
+   * @return The samples that match the query, in the order in which they were added
+   */
+  public synchronized List<Sample> find(GEOSampleQuery query)
+  {
+    RoaringBitmap sampleNumbers = query.evaluate(this);
+    List<Sample> matchingSamples = new ArrayList<>(sampleNumbers.getCardinality());
+
+    sampleNumbers.forEach((int sampleNumber) -> matchingSamples.add(this.samples.get(sampleNumber)));
+
+    return matchingSamples;
+  }
+
+  public synchronized Set<String> getOrganisms()
+  {
+    return Collections.unmodifiableSet(new TreeSet<>(this.postings.get(Field.ORGANISM).keySet()));
+  }
+
+  public synchronized Set<String> getPlatforms()
+  {
+    return Collections.unmodifiableSet(new TreeSet<>(this.postings.get(Field.PLATFORM).keySet()));
+  }
+
+  public synchronized Set<String> getCharacteristicNames()
+  {
+    return Collections.unmodifiableSet(new TreeSet<>(this.postings.get(Field.CHARACTERISTIC_NAME).keySet()));
+  }
+
+  /**
+   * Compress runs of consecutive sample numbers in the posting lists, which are common when samples are added series
+   * by series. Call this once the index is built to reduce its size and speed up queries.
+   */
+  public synchronized void optimize()
+  {
+    for (Map<String, RoaringBitmap> fieldPostings : this.postings.values())
+      fieldPostings.values().forEach(RoaringBitmap::runOptimize);
+    for (Map<String, RoaringBitmap> valuePostings : this.characteristicPostings.values())
+      valuePostings.values().forEach(RoaringBitmap::runOptimize);
+    this.allSamples.runOptimize();
+  }
+
+  /**
+   * The returned bitmaps belong to the index and must not be modified
+   */
+  RoaringBitmap getPostings(Field field, String value)
+  {
+    RoaringBitmap samples = this.postings.get(field).get(value);
+
+    return samples != null ? samples : new RoaringBitmap();
+  }
+
+  RoaringBitmap getCharacteristicPostings(String name, String value)
+  {
+    RoaringBitmap samples = this.characteristicPostings.getOrDefault(name, Collections.emptyMap()).get(value);
+
+    return samples != null ? samples : new RoaringBitmap();
+  }
+
+  RoaringBitmap getAllSamples()
+  {
+    return this.allSamples;
+  }
+
+  private void addPosting(Field field, String value, int sampleNumber)
+  {
+    if (value != null && !value.isEmpty())
+      this.postings.get(field).computeIfAbsent(value, v -> new RoaringBitmap()).add(sampleNumber);
+  }
+}
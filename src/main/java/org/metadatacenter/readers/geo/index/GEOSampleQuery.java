@@ -0,0 +1,221 @@
+package org.metadatacenter.readers.geo.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A boolean query over a {@link GEOSampleIndex}, built from the static factory methods of this class. For example,
+ * human RNA samples on GPL570 from liver are found with
+ * <pre>
+ *   and(organism("Homo sapiens"), type("RNA"), platform("GPL570"), characteristic("tissue", "liver"))
+ * </pre>
+ */
+public abstract class GEOSampleQuery
+{
+  public static GEOSampleQuery organism(String organism)
+  {
+    return new TermQuery(GEOSampleIndex.Field.ORGANISM, organism);
+  }
+
+  /**
+   * @param gpl The GPL of the platform
+   */
+  public static GEOSampleQuery platform(String gpl)
+  {
+    return new TermQuery(GEOSampleIndex.Field.PLATFORM, gpl);
+  }
+
+  public static GEOSampleQuery molecule(String molecule)
+  {
+    return new TermQuery(GEOSampleIndex.Field.MOLECULE, molecule);
+  }
+
+  public static GEOSampleQuery type(String type)
+  {
+    return new TermQuery(GEOSampleIndex.Field.TYPE, type);
+  }
+
+  /**
+   * @return A query for samples that have the characteristic, whatever its value
+   */
+  public static GEOSampleQuery characteristic(String name)
+  {
+    return new TermQuery(GEOSampleIndex.Field.CHARACTERISTIC_NAME, name);
+  }
+
+  public static GEOSampleQuery characteristic(String name, String value)
+  {
+    return new CharacteristicQuery(name, value);
+  }
+
+  public static GEOSampleQuery and(GEOSampleQuery... queries)
+  {
+    if (queries.length == 0)
+      throw new IllegalArgumentException("and requires at least one query");
+
+    return new AndQuery(Arrays.asList(queries));
+  }
+
+  public static GEOSampleQuery or(GEOSampleQuery... queries)
+  {
+    if (queries.length == 0)
+      throw new IllegalArgumentException("or requires at least one query");
+
+    return new OrQuery(Arrays.asList(queries));
+  }
+
+  public static GEOSampleQuery not(GEOSampleQuery query)
+  {
+    return new NotQuery(query);
+  }
+
+  /**
+   * @return The numbers of the matching samples, which may be a posting list of the index and must not be modified
+   */
+  abstract RoaringBitmap evaluate(GEOSampleIndex index);
+
+  private static class TermQuery extends GEOSampleQuery
+  {
+    private final GEOSampleIndex.Field field;
+    private final String value;
+
+    public TermQuery(GEOSampleIndex.Field field, String value)
+    {
+      this.field = field;
+      this.value = value;
+    }
+
+    @Override RoaringBitmap evaluate(GEOSampleIndex index)
+    {
+      return index.getPostings(this.field, this.value);
+    }
+
+    @Override public String toString()
+    {
+      return this.field.toString().toLowerCase() + "=" + this.value;
+    }
+  }
+
+  private static class CharacteristicQuery extends GEOSampleQuery
+  {
+    private final String name;
+    private final String value;
+
+    public CharacteristicQuery(String name, String value)
+    {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override RoaringBitmap evaluate(GEOSampleIndex index)
+    {
+      return index.getCharacteristicPostings(this.name, this.value);
+    }
+
+    @Override public String toString()
+    {
+      return "characteristic:" + this.name + "=" + this.value;
+    }
+  }
+
+  /**
+   * The operands are intersected smallest first, and negated operands are subtracted rather than complemented, so
+   * the cost depends on the sizes of the posting lists rather than on the number of samples in the index.
+   */
+  private static class AndQuery extends GEOSampleQuery
+  {
+    private final List<GEOSampleQuery> queries;
+
+    public AndQuery(List<GEOSampleQuery> queries)
+    {
+      this.queries = Collections.unmodifiableList(new ArrayList<>(queries));
+    }
+
+    @Override RoaringBitmap evaluate(GEOSampleIndex index)
+    {
+      List<RoaringBitmap> included = new ArrayList<>();
+      List<RoaringBitmap> excluded = new ArrayList<>();
+
+      for (GEOSampleQuery query : this.queries) {
+        if (query instanceof NotQuery)
+          excluded.add(((NotQuery)query).query.evaluate(index));
+        else
+          included.add(query.evaluate(index));
+      }
+
+      RoaringBitmap result;
+      if (included.isEmpty())
+        result = index.getAllSamples();
+      else {
+        included.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        result = included.get(0);
+        for (int i = 1; i < included.size() && !result.isEmpty(); i++)
+          result = RoaringBitmap.and(result, included.get(i));
+      }
+
+      for (RoaringBitmap excludedSamples : excluded)
+        if (!result.isEmpty())
+          result = RoaringBitmap.andNot(result, excludedSamples);
+
+      return result;
+    }
+
+    @Override public String toString()
+    {
+      return "and" + this.queries;
+    }
+  }
+
+  private static class OrQuery extends GEOSampleQuery
+  {
+    private final List<GEOSampleQuery> queries;
+
+    public OrQuery(List<GEOSampleQuery> queries)
+    {
+      this.queries = Collections.unmodifiableList(new ArrayList<>(queries));
+    }
+
+    @Override RoaringBitmap evaluate(GEOSampleIndex index)
+    {
+      if (this.queries.size() == 1)
+        return this.queries.get(0).evaluate(index);
+
+      RoaringBitmap[] operands = new RoaringBitmap[this.queries.size()];
+
+      for (int i = 0; i < operands.length; i++)
+        operands[i] = this.queries.get(i).evaluate(index);
+
+      return RoaringBitmap.or(operands);
+    }
+
+    @Override public String toString()
+    {
+      return "or" + this.queries;
+    }
+  }
+
+  private static class NotQuery extends GEOSampleQuery
+  {
+    private final GEOSampleQuery query;
+
+    public NotQuery(GEOSampleQuery query)
+    {
+      this.query = query;
+    }
+
+    @Override RoaringBitmap evaluate(GEOSampleIndex index)
+    {
+      return RoaringBitmap.andNot(index.getAllSamples(), this.query.evaluate(index));
+    }
+
+    @Override public String toString()
+    {
+      return "not(" + this.query + ")";
+    }
+  }
+}
@@ -0,0 +1,352 @@
+package org.metadatacenter.readers.geo.index;
+
+import org.metadatacenter.readers.geo.GEOSubmissionMetadataHandler;
+import org.metadatacenter.readers.geo.metadata.GEOSubmissionMetadata;
+import org.metadatacenter.readers.geo.metadata.Protocol;
+import org.metadatacenter.readers.geo.metadata.Sample;
+import org.metadatacenter.readers.geo.metadata.Series;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * An in-memory full-text index over the free-text fields of extracted submissions: the series title, summary and
+ * overall design, the treatment and extract protocols, and the sample descriptions. Each series is one document.
+ * <p>
+ * Text is split into terms at every character that is not a letter or a digit, and terms are lower-cased. A query is
+ * a list of words that must all occur in a series; a word ending in <code>*</code> matches every term that starts with
+ * it. Matching series are ranked with BM25, which favours series in which the query terms occur often relative to the
+ * length of their text and rare terms over common ones.
+ * <p>
+ * An index is a {@link GEOSubmissionMetadataHandler}, so it can be built during extraction. Adding a series that is
+ * already indexed replaces it, so an index can be kept current by adding the series returned by an incremental
+ * extraction and removing the series it reports as removed. Removed series are dropped from the posting lists by
+ * {@link #optimize()}. The methods are synchronized, so series can be added and searches run from several threads.
+ */
+public class GEOTextIndex implements GEOSubmissionMetadataHandler
+{
+  public static final int DEFAULT_MAX_RESULTS = 20;
+  public static final int MAX_TERM_LENGTH = 64; // Longer terms, such as sequences, are not indexed
+
+  private static final float K1 = 1.2f; // BM25 term frequency saturation
+  private static final float B = 0.75f; // BM25 document length normalization
+  private static final char PREFIX_WILDCARD = '*';
+
+  private final NavigableMap<String, Postings> postings = new TreeMap<>(); // term -> documents
+  private final Map<String, Integer> documentNumbers = new HashMap<>(); // GSE -> document number
+  private final List<String> gses = new ArrayList<>(); // document number -> GSE, or null if removed
+  private int[] documentLengths = new int[16]; // document number -> number of terms
+  private int numberOfDocuments; // Not counting removed documents
+  private long totalLength; // Of documents that are not removed
+
+  @Override public void handle(GEOSubmissionMetadata geoSubmissionMetadata)
+  {
+    add(geoSubmissionMetadata);
+  }
+
+  /**
+   * Index a submission, replacing any earlier version of its series.
+   */
+  public synchronized void add(GEOSubmissionMetadata geoSubmissionMetadata)
+  {
+    Map<String, Integer> termFrequencies = new HashMap<>();
+    Series series = geoSubmissionMetadata.getSeries();
+
+    addTerms(series.getTitle(), termFrequencies);
+    addTerms(series.getSummary(), termFrequencies);
+    addTerms(series.getOverallDesign(), termFrequencies);
+    if (geoSubmissionMetadata.getProtocol().isPresent()) {
+      Protocol protocol = geoSubmissionMetadata.getProtocol().get();
+      addTerms(protocol.getTreatmentProtocols(), termFrequencies);
+      addTerms(protocol.getExtractProtocols(), termFrequencies);
+    }
+    for (Sample sample : geoSubmissionMetadata.getSamples().values())
+      if (sample.getDescription().isPresent())
+        addTerms(sample.getDescription().get(), termFrequencies);
+
+    remove(series.getGSE());
+
+    int documentNumber = this.gses.size();
+    int length = 0;
+
+    for (Map.Entry<String, Integer> termFrequency : termFrequencies.entrySet()) {
+      this.postings.computeIfAbsent(termFrequency.getKey(), t -> new Postings())
+        .add(documentNumber, termFrequency.getValue());
+      length += termFrequency.getValue();
+    }
+
+    if (documentNumber == this.documentLengths.length)
+      this.documentLengths = Arrays.copyOf(this.documentLengths, documentNumber * 2);
+    this.documentLengths[documentNumber] = length;
+    this.gses.add(series.getGSE());
+    this.documentNumbers.put(series.getGSE(), documentNumber);
+    this.numberOfDocuments++;
+    this.totalLength += length;
+  }
+
+  /**
+   * @return True if the series was indexed
+   */
+  public synchronized boolean remove(String gse)
+  {
+    Integer documentNumber = this.documentNumbers.remove(gse);
+
+    if (documentNumber == null)
+      return false;
+
+    this.gses.set(documentNumber, null);
+    this.numberOfDocuments--;
+    this.totalLength -= this.documentLengths[documentNumber];
+
+    return true;
+  }
+
+  public synchronized boolean contains(String gse)
+  {
+    return this.documentNumbers.containsKey(gse);
+  }
+
+  /**
+   * @return The number of indexed series
+   */
+  public synchronized int getNumberOfSeries()
+  {
+    return this.numberOfDocuments;
+  }
+
+  public synchronized int getNumberOfTerms()
+  {
+    return this.postings.size();
+  }
+
+  public List<GEOTextSearchResult> search(String query)
+  {
+    return search(query, DEFAULT_MAX_RESULTS);
+  }
+
+  /**
+   * @return The best matching series, most relevant first
+   */
+  public synchronized List<GEOTextSearchResult> search(String query, int maxResults)
+  {
+    List<List<Postings>> clauses = parseQuery(query);
+
+    if (clauses.isEmpty() || maxResults <= 0)
+      return Collections.emptyList();
+
+    // Documents only score for a clause if they matched all earlier clauses; a prefix clause can match a document
+    // through several terms, whose scores are summed
+    int numberOfDocumentNumbers = this.gses.size();
+    float[] scores = new float[numberOfDocumentNumbers];
+    int[] matchedClauses = new int[numberOfDocumentNumbers];
+    float averageLength = this.numberOfDocuments == 0 ? 1.0f : (float)this.totalLength / this.numberOfDocuments;
+
+    for (int clause = 0; clause < clauses.size(); clause++) {
+      for (Postings termPostings : clauses.get(clause)) {
+        float idf = idf(termPostings.size);
+
+        for (int i = 0; i < termPostings.size; i++) {
+          int documentNumber = termPostings.documents[i];
+          int matched = matchedClauses[documentNumber];
+
+          if (matched == clause || matched == clause + 1) {
+            int frequency = termPostings.frequencies[i];
+            float lengthNormalization = 1.0f - B + B * this.documentLengths[documentNumber] / averageLength;
+
+            scores[documentNumber] += idf * frequency * (K1 + 1.0f) / (frequency + K1 * lengthNormalization);
+            matchedClauses[documentNumber] = clause + 1;
+          }
+        }
+      }
+    }
+
+    PriorityQueue<Integer> best = new PriorityQueue<>(maxResults + 1,
+      (d1, d2) -> scores[d1] != scores[d2] ? Float.compare(scores[d1], scores[d2]) : Integer.compare(d2, d1));
+
+    for (int documentNumber = 0; documentNumber < numberOfDocumentNumbers; documentNumber++) {
+      if (matchedClauses[documentNumber] == clauses.size() && this.gses.get(documentNumber) != null) {
+        best.add(documentNumber);
+        if (best.size() > maxResults)
+          best.poll();
+      }
+    }
+
+    GEOTextSearchResult[] results = new GEOTextSearchResult[best.size()];
+
+    for (int i = results.length - 1; i >= 0; i--) {
+      int documentNumber = best.poll();
+      results[i] = new GEOTextSearchResult(this.gses.get(documentNumber), scores[documentNumber]);
+    }
+
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Drop removed series from the posting lists and release unused capacity. Call this after removing or replacing
+   * many series; until then removed series still take space and count towards the rarity of the terms they contain.
+   */
+  public synchronized void optimize()
+  {
+    int[] newDocumentNumbers = new int[this.gses.size()];
+    List<String> newGSEs = new ArrayList<>(this.numberOfDocuments);
+    int[] newDocumentLengths = new int[Math.max(this.numberOfDocuments, 16)];
+
+    for (int documentNumber = 0; documentNumber < this.gses.size(); documentNumber++) {
+      String gse = this.gses.get(documentNumber);
+
+      if (gse != null) {
+        newDocumentNumbers[documentNumber] = newGSEs.size();
+        newDocumentLengths[newGSEs.size()] = this.documentLengths[documentNumber];
+        this.documentNumbers.put(gse, newGSEs.size());
+        newGSEs.add(gse);
+      } else
+        newDocumentNumbers[documentNumber] = -1;
+    }
+
+    Iterator<Postings> postingsIterator = this.postings.values().iterator();
+    while (postingsIterator.hasNext()) {
+      Postings termPostings = postingsIterator.next();
+
+      termPostings.renumber(newDocumentNumbers);
+      if (termPostings.size == 0)
+        postingsIterator.remove();
+    }
+
+    this.gses.clear();
+    this.gses.addAll(newGSEs);
+    this.documentLengths = newDocumentLengths;
+  }
+
+  /**
+   * The inverse document frequency of a term, which is higher for rarer terms. Posting lists may still include removed
+   * series, so the number of series that contain the term is estimated from the fraction of series that are left.
+   */
+  private float idf(int postingsSize)
+  {
+    double documentFrequency = this.gses.isEmpty() ?
+      0.0 :
+      (double)postingsSize * this.numberOfDocuments / this.gses.size();
+
+    return (float)Math.log(1.0 + (this.numberOfDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+  }
+
+  /**
+   * @return For each query term, the posting lists of the terms that it matches
+   */
+  private List<List<Postings>> parseQuery(String query)
+  {
+    List<List<Postings>> clauses = new ArrayList<>();
+
+    for (String word : query.trim().split("\\s+")) {
+      List<String> terms = new ArrayList<>();
+      boolean prefix = !word.isEmpty() && word.charAt(word.length() - 1) == PREFIX_WILDCARD;
+
+      tokenize(word, terms);
+      for (int i = 0; i < terms.size(); i++) {
+        String term = terms.get(i);
+
+        if (prefix && i == terms.size() - 1) {
+          Collection<Postings> termPostings = this.postings.subMap(term, true, term + Character.MAX_VALUE, false)
+            .values();
+          clauses.add(new ArrayList<>(termPostings));
+        } else {
+          Postings termPostings = this.postings.get(term);
+          clauses.add(termPostings != null ? Collections.singletonList(termPostings) : Collections.emptyList());
+        }
+      }
+    }
+    return clauses;
+  }
+
+  private static void addTerms(List<String> texts, Map<String, Integer> termFrequencies)
+  {
+    for (String text : texts)
+      addTerms(text, termFrequencies);
+  }
+
+  private static void addTerms(String text, Map<String, Integer> termFrequencies)
+  {
+    List<String> terms = new ArrayList<>();
+
+    tokenize(text, terms);
+    for (String term : terms)
+      termFrequencies.merge(term, 1, Integer::sum);
+  }
+
+  /**
+   * Split text into lower-cased terms at every character that is not a letter or a digit
+   */
+  private static void tokenize(String text, List<String> terms)
+  {
+    if (text == null)
+      return;
+
+    StringBuilder term = new StringBuilder();
+    int i = 0;
+
+    while (i <= text.length()) {
+      int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+
+      if (Character.isLetterOrDigit(codePoint))
+        term.appendCodePoint(Character.toLowerCase(codePoint));
+      else if (term.length() != 0) {
+        if (term.length() <= MAX_TERM_LENGTH)
+          terms.add(term.toString());
+        term.setLength(0);
+      }
+      i += Character.charCount(codePoint);
+    }
+  }
+
+  /**
+   * The documents that contain a term, in increasing order of document number, with the number of times they
+   * contain it
+   */
+  private static final class Postings
+  {
+    private int[] documents = new int[2];
+    private int[] frequencies = new int[2];
+    private int size;
+
+    private void add(int documentNumber, int frequency)
+    {
+      if (this.size == this.documents.length) {
+        this.documents = Arrays.copyOf(this.documents, this.size * 2);
+        this.frequencies = Arrays.copyOf(this.frequencies, this.size * 2);
+      }
+      this.documents[this.size] = documentNumber;
+      this.frequencies[this.size] = frequency;
+      this.size++;
+    }
+
+    /**
+     * Renumber the documents, dropping those whose new number is negative, and trim the arrays
+     */
+    private void renumber(int[] newDocumentNumbers)
+    {
+      int newSize = 0;
+
+      for (int i = 0; i < this.size; i++) {
+        int newDocumentNumber = newDocumentNumbers[this.documents[i]];
+
+        if (newDocumentNumber >= 0) {
+          this.documents[newSize] = newDocumentNumber;
+          this.frequencies[newSize] = this.frequencies[i];
+          newSize++;
+        }
+      }
+      this.size = newSize;
+      this.documents = Arrays.copyOf(this.documents, newSize);
+      this.frequencies = Arrays.copyOf(this.frequencies, newSize);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package org.metadatacenter.readers.geo.index;
+
+/**
+ * A series found by a {@link GEOTextIndex} search, with its relevance score.
+ */
+public class GEOTextSearchResult
+{
+  private final String gse;
+  private final float score;
+
+  public GEOTextSearchResult(String gse, float score)
+  {
+    this.gse = gse;
+    this.score = score;
+  }
+
+  public String getGSE() { return this.gse; }
+
+  /**
+   * @return The relevance of the series to the query; higher scores are more relevant
+   */
+  public float getScore() { return this.score; }
+
+  @Override public String toString()
+  {
+    return "GEOTextSearchResult{" + "gse='" + gse + '\'' + ", score=" + score + '}';
+  }
+}
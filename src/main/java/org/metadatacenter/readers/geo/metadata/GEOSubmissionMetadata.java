@@ -72,10 +72,9 @@ public class GEOSubmissionMetadata
   {
     StringBuilder sb = new StringBuilder();
 
-    for (String sampleName : this.samples.keySet()) {
-      Sample sample = this.samples.get(sampleName);
-      sb.append("\nsampleName=" + sampleName + ", " + sample);
-    }
+    for (Map.Entry<String, Sample> sample : this.samples.entrySet())
+      sb.append("\nsampleName=").append(sample.getKey()).append(", ").append(sample.getValue());
+
     return sb.toString();
   }
 }
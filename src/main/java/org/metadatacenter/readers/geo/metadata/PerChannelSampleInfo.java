@@ -1,29 +1,41 @@
 package org.metadatacenter.readers.geo.metadata;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class PerChannelSampleInfo
 {
+  /**
+   * Separates the values of a characteristic that has several values in {@link #getCharacteristics()}
+   */
+  public static final String CHARACTERISTIC_VALUE_SEPARATOR = ", ";
+
   private final Integer channelNumber;
   private final String sourceName;
   private final String organism;
-  private final Map<String, String> characteristics; // characteristic name -> characteristic value
+  private final Map<String, List<String>> characteristicValues; // characteristic name -> [characteristic value]
+  private final Map<String, String> characteristics; // characteristic name -> joined characteristic values
   private final String molecule;
   private final String label;
   private final Optional<String> treatmentProtocol;
   private final Optional<String> extractProtocol;
 
+  /**
+   * @param characteristicValues Characteristic name -> [characteristic value]; a characteristic can have several values
+   */
   public PerChannelSampleInfo(Integer channelNumber, String sourceName, String organism,
-    Map<String, String> characteristics, String molecule, String label, Optional<String> treatmentProtocol,
+    Map<String, List<String>> characteristicValues, String molecule, String label, Optional<String> treatmentProtocol,
     Optional<String> extractProtocol)
   {
     this.channelNumber = channelNumber;
     this.sourceName = sourceName;
     this.organism = organism;
-    this.characteristics = Collections.unmodifiableMap(characteristics);
+    this.characteristicValues = unmodifiableCharacteristicValues(characteristicValues);
+    this.characteristics = Collections.unmodifiableMap(joinCharacteristicValues(characteristicValues));
     this.molecule = molecule;
     this.label = label;
     this.treatmentProtocol = treatmentProtocol;
@@ -45,11 +57,24 @@ public class PerChannelSampleInfo
     return organism;
   }
 
+  /**
+   * @return Characteristic name -> the characteristic's values, joined with {@link #CHARACTERISTIC_VALUE_SEPARATOR} if
+   * it has several
+   * @see #getCharacteristicValues()
+   */
   public Map<String, String> getCharacteristics()
   {
     return characteristics;
   }
 
+  /**
+   * @return Characteristic name -> [characteristic value], with the values in the order in which they appear
+   */
+  public Map<String, List<String>> getCharacteristicValues()
+  {
+    return characteristicValues;
+  }
+
   public String getMolecule()
   {
     return molecule;
@@ -69,4 +94,26 @@ public class PerChannelSampleInfo
   {
     return extractProtocol;
   }
+
+  public static Map<String, String> joinCharacteristicValues(Map<String, List<String>> characteristicValues)
+  {
+    Map<String, String> characteristics = new HashMap<>();
+
+    for (Map.Entry<String, List<String>> characteristic : characteristicValues.entrySet())
+      characteristics
+        .put(characteristic.getKey(), String.join(CHARACTERISTIC_VALUE_SEPARATOR, characteristic.getValue()));
+
+    return characteristics;
+  }
+
+  static Map<String, List<String>> unmodifiableCharacteristicValues(Map<String, List<String>> characteristicValues)
+  {
+    Map<String, List<String>> unmodifiableCharacteristicValues = new HashMap<>();
+
+    for (Map.Entry<String, List<String>> characteristic : characteristicValues.entrySet())
+      unmodifiableCharacteristicValues.put(characteristic.getKey(),
+        Collections.unmodifiableList(new ArrayList<>(characteristic.getValue())));
+
+    return Collections.unmodifiableMap(unmodifiableCharacteristicValues);
+  }
 }
@@ -2,6 +2,7 @@ package org.metadatacenter.readers.geo.metadata;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -110,6 +111,36 @@ public class Platform
     return pubMedID;
   }
 
+  @Override public boolean equals(Object o)
+  {
+    if (this == o)
+      return true;
+    if (o == null || getClass() != o.getClass())
+      return false;
+
+    Platform platform = (Platform)o;
+
+    return Objects.equals(title, platform.title) &&
+      Objects.equals(distribution, platform.distribution) &&
+      Objects.equals(technology, platform.technology) &&
+      Objects.equals(organism, platform.organism) &&
+      Objects.equals(manufacturer, platform.manufacturer) &&
+      Objects.equals(manufacturerProtocol, platform.manufacturerProtocol) &&
+      Objects.equals(description, platform.description) &&
+      Objects.equals(catalogNumber, platform.catalogNumber) &&
+      Objects.equals(webLink, platform.webLink) &&
+      Objects.equals(support, platform.support) &&
+      Objects.equals(coating, platform.coating) &&
+      Objects.equals(contributor, platform.contributor) &&
+      Objects.equals(pubMedID, platform.pubMedID);
+  }
+
+  @Override public int hashCode()
+  {
+    return Objects.hash(title, distribution, technology, organism, manufacturer, manufacturerProtocol, description,
+      catalogNumber, webLink, support, coating, contributor, pubMedID);
+  }
+
   @Override public String toString()
   {
     return "Platform{" +
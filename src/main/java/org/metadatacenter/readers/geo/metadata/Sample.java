@@ -27,6 +27,9 @@ public class Sample
   private final Optional<String> expFile;
   private final Optional<String> chpFile;
 
+  private Map<String, String> characteristics; // Merged characteristics of all channels
+  private Map<String, List<String>> characteristicValues; // Merged characteristic values of all channels
+
   public Sample(String gse, String gsm, String title, String label, Optional<String> description, String gpl,
     Map<Integer, PerChannelSampleInfo> perChannelInformation, Optional<String> biomaterialProvider,
     List<String> rawDataFiles, Optional<String> celFile, Optional<String> expFile, Optional<String> chpFile)
@@ -45,6 +48,15 @@ public class Sample
     this.chpFile = chpFile;
   }
 
+  /**
+   * For subclasses that supply the sample's values by overriding its accessors.
+   */
+  protected Sample()
+  {
+    this("", "", "", "", Optional.empty(), "", Collections.emptyMap(), Optional.empty(), Collections.emptyList(),
+      Optional.empty(), Optional.empty(), Optional.empty());
+  }
+
   public String getGSE()
   {
     return gse;
@@ -105,21 +117,56 @@ public class Sample
     return chpFile;
   }
 
+  /**
+   * @return The characteristics of all channels merged into one map, which is built when first requested; the values
+   * of a characteristic with several values are joined
+   * @see PerChannelSampleInfo#getCharacteristics()
+   */
   public Map<String, String> getCharacteristics()
   {
-    Map<String, String> characteristics = new HashMap<>();
-
-    for (PerChannelSampleInfo perChannelSampleInfo : this.perChannelInformation.values())
-      characteristics.putAll(perChannelSampleInfo.getCharacteristics());
+    Map<String, String> characteristics = this.characteristics;
 
+    if (characteristics == null) {
+      characteristics = Collections
+        .unmodifiableMap(PerChannelSampleInfo.joinCharacteristicValues(getCharacteristicValues()));
+      this.characteristics = characteristics; // The map is immutable, so it can be shared without synchronization
+    }
     return characteristics;
   }
 
+  /**
+   * @return The characteristic values of all channels merged into one map, which is built when first requested; a
+   * value that appears in more than one channel is kept once
+   */
+  public Map<String, List<String>> getCharacteristicValues()
+  {
+    Map<String, List<String>> characteristicValues = this.characteristicValues;
+
+    if (characteristicValues == null) {
+      Map<String, List<String>> mergedCharacteristicValues = new HashMap<>();
+
+      for (PerChannelSampleInfo perChannelSampleInfo : getPerChannelInformation().values()) {
+        for (Map.Entry<String, List<String>> characteristic : perChannelSampleInfo.getCharacteristicValues()
+          .entrySet()) {
+          List<String> values = mergedCharacteristicValues.computeIfAbsent(characteristic.getKey(),
+            name -> new ArrayList<>());
+          for (String value : characteristic.getValue())
+            if (!values.contains(value))
+              values.add(value);
+        }
+      }
+
+      characteristicValues = PerChannelSampleInfo.unmodifiableCharacteristicValues(mergedCharacteristicValues);
+      this.characteristicValues = characteristicValues; // Immutable, as above
+    }
+    return characteristicValues;
+  }
+
   public List<String> getOrganisms()
   {
     List<String> organisms = new ArrayList<>();
 
-    for (PerChannelSampleInfo perChannelSampleInfo : this.perChannelInformation.values())
+    for (PerChannelSampleInfo perChannelSampleInfo : getPerChannelInformation().values())
       organisms.add(perChannelSampleInfo.getOrganism());
 
     return organisms;
@@ -129,7 +176,7 @@ public class Sample
   {
     List<String> sourceNames = new ArrayList<>();
 
-    for (PerChannelSampleInfo perChannelSampleInfo : this.perChannelInformation.values())
+    for (PerChannelSampleInfo perChannelSampleInfo : getPerChannelInformation().values())
       sourceNames.add(perChannelSampleInfo.getSourceName());
 
     return sourceNames;
@@ -139,7 +186,7 @@ public class Sample
   {
     List<String> molecules = new ArrayList<>();
 
-    for (PerChannelSampleInfo perChannelSampleInfo : this.perChannelInformation.values())
+    for (PerChannelSampleInfo perChannelSampleInfo : getPerChannelInformation().values())
       molecules.add(perChannelSampleInfo.getMolecule());
 
     return molecules;
@@ -149,7 +196,7 @@ public class Sample
   {
     List<String> labels = new ArrayList<>();
 
-    for (PerChannelSampleInfo perChannelSampleInfo : this.perChannelInformation.values())
+    for (PerChannelSampleInfo perChannelSampleInfo : getPerChannelInformation().values())
       labels.add(perChannelSampleInfo.getLabel());
 
     return labels;
@@ -3,6 +3,7 @@ package org.metadatacenter.readers.geo.metadata;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Metadata for a GEO series.
@@ -19,10 +20,20 @@ public class Series
   private final List<String> pubMedID;
   private final Map<String, Map<String, String>> variables; // sample ID -> (variable name -> value)
   private final Map<String, List<String>> repeats; // sample ID -> [repeats type]
+  private final Optional<String> submissionDate;
+  private final Optional<String> lastUpdateDate;
 
   public Series(String gse, String title, List<String> summary, List<String> overallDesign,
     List<Contributor> contributors, List<String> pubMedID, Map<String, Map<String, String>> variables,
     Map<String, List<String>> repeats)
+  {
+    this(gse, title, summary, overallDesign, contributors, pubMedID, variables, repeats, Optional.empty(),
+      Optional.empty());
+  }
+
+  public Series(String gse, String title, List<String> summary, List<String> overallDesign,
+    List<Contributor> contributors, List<String> pubMedID, Map<String, Map<String, String>> variables,
+    Map<String, List<String>> repeats, Optional<String> submissionDate, Optional<String> lastUpdateDate)
   {
     this.gse = gse;
     this.title = title;
@@ -32,6 +43,8 @@ public class Series
     this.pubMedID = Collections.unmodifiableList(pubMedID);
     this.variables = Collections.unmodifiableMap(variables);
     this.repeats = Collections.unmodifiableMap(repeats);
+    this.submissionDate = submissionDate;
+    this.lastUpdateDate = lastUpdateDate;
   }
 
   public String getGSE() { return this.gse; }
@@ -71,6 +84,16 @@ public class Series
     return repeats;
   }
 
+  public Optional<String> getSubmissionDate()
+  {
+    return submissionDate;
+  }
+
+  public Optional<String> getLastUpdateDate()
+  {
+    return lastUpdateDate;
+  }
+
   @Override public String toString()
   {
     return "Series{" +
@@ -82,6 +105,8 @@ public class Series
       "\n pubMedID=" + pubMedID +
       "\n variables=" + variables +
       "\n repeats=" + repeats +
+      "\n submissionDate=" + submissionDate +
+      "\n lastUpdateDate=" + lastUpdateDate +
       '}';
   }
 }